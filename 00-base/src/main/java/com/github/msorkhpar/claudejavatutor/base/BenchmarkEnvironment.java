@@ -0,0 +1,118 @@
+package com.github.msorkhpar.claudejavatutor.base;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The machine and JVM a benchmark ran on, stored with every {@link BenchmarkRecord} so results
+ * from different hardware or heap settings are not compared blindly.
+ *
+ * @param gitSha commit of the working tree, or {@code null} outside a git checkout
+ */
+public record BenchmarkEnvironment(String javaVersion, String vmName, int availableProcessors,
+                                   long maxHeapBytes, List<String> jvmArguments, String gitSha) {
+
+    public BenchmarkEnvironment {
+        jvmArguments = List.copyOf(jvmArguments);
+    }
+
+    /**
+     * Captures the current JVM. Only {@code -X} options are kept from the input arguments;
+     * agent paths and system properties add noise without affecting performance.
+     */
+    public static BenchmarkEnvironment capture() {
+        List<String> heapArgs = ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                .filter(arg -> arg.startsWith("-X"))
+                .toList();
+        return new BenchmarkEnvironment(
+                System.getProperty("java.version"),
+                System.getProperty("java.vm.name"),
+                Runtime.getRuntime().availableProcessors(),
+                Runtime.getRuntime().maxMemory(),
+                heapArgs,
+                resolveGitSha(Path.of("").toAbsolutePath()));
+    }
+
+    /**
+     * Returns true when results from the two environments are comparable: same JVM version,
+     * core count and heap limit. The git SHA is expected to differ.
+     */
+    public boolean isComparableTo(BenchmarkEnvironment other) {
+        return javaVersion.equals(other.javaVersion)
+                && availableProcessors == other.availableProcessors
+                && maxHeapBytes == other.maxHeapBytes;
+    }
+
+    /**
+     * Walks up from {@code start} to the nearest {@code .git} directory and resolves HEAD,
+     * following a symbolic ref through loose refs and {@code packed-refs}. Falls back to the
+     * {@code GITHUB_SHA} / {@code GIT_COMMIT} variables CI servers set.
+     */
+    static String resolveGitSha(Path start) {
+        for (Path dir = start; dir != null; dir = dir.getParent()) {
+            Path gitDir = dir.resolve(".git");
+            if (Files.isDirectory(gitDir)) {
+                try {
+                    return readHead(gitDir);
+                } catch (IOException e) {
+                    break;
+                }
+            }
+        }
+        String fromCi = System.getenv("GITHUB_SHA");
+        return fromCi != null ? fromCi : System.getenv("GIT_COMMIT");
+    }
+
+    private static String readHead(Path gitDir) throws IOException {
+        String head = Files.readString(gitDir.resolve("HEAD")).trim();
+        if (!head.startsWith("ref: ")) {
+            return head;
+        }
+        String ref = head.substring("ref: ".length());
+        Path loose = gitDir.resolve(ref);
+        if (Files.exists(loose)) {
+            return Files.readString(loose).trim();
+        }
+        Path packed = gitDir.resolve("packed-refs");
+        if (Files.exists(packed)) {
+            for (String line : Files.readAllLines(packed)) {
+                if (line.endsWith(" " + ref)) {
+                    return line.substring(0, line.indexOf(' '));
+                }
+            }
+        }
+        // Unborn branch: no commit yet.
+        return null;
+    }
+
+    String toJson() {
+        StringBuilder args = new StringBuilder("[");
+        for (int i = 0; i < jvmArguments.size(); i++) {
+            if (i > 0) args.append(',');
+            args.append(Json.quote(jvmArguments.get(i)));
+        }
+        args.append(']');
+        return "{\"javaVersion\":%s,\"vmName\":%s,\"availableProcessors\":%d,\"maxHeapBytes\":%d,\"jvmArguments\":%s,\"gitSha\":%s}"
+                .formatted(Json.quote(javaVersion), Json.quote(vmName), availableProcessors, maxHeapBytes,
+                        args, gitSha == null ? "null" : Json.quote(gitSha));
+    }
+
+    static BenchmarkEnvironment fromJson(Map<String, Object> json) {
+        List<String> args = new ArrayList<>();
+        for (Object arg : (List<?>) json.get("jvmArguments")) {
+            args.add((String) arg);
+        }
+        return new BenchmarkEnvironment(
+                (String) json.get("javaVersion"),
+                (String) json.get("vmName"),
+                ((Double) json.get("availableProcessors")).intValue(),
+                ((Double) json.get("maxHeapBytes")).longValue(),
+                args,
+                (String) json.get("gitSha"));
+    }
+}
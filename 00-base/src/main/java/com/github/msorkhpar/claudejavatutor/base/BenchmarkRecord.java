@@ -0,0 +1,76 @@
+package com.github.msorkhpar.claudejavatutor.base;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * One stored benchmark run: the raw samples (not just a summary, so later runs can be compared
+ * with a rank test) plus where and when they were taken.
+ *
+ * @param unit free-form label for the samples, e.g. {@code "ops/s"}
+ */
+public record BenchmarkRecord(String name, Instant timestamp, BenchmarkEnvironment environment,
+                              String unit, List<Double> samples) {
+
+    public BenchmarkRecord {
+        Objects.requireNonNull(name, "name must not be null");
+        Objects.requireNonNull(timestamp, "timestamp must not be null");
+        Objects.requireNonNull(environment, "environment must not be null");
+        Objects.requireNonNull(unit, "unit must not be null");
+        if (samples.isEmpty()) {
+            throw new IllegalArgumentException("samples must not be empty");
+        }
+        samples = List.copyOf(samples);
+    }
+
+    public static BenchmarkRecord of(String name, String unit, List<Double> samples) {
+        return new BenchmarkRecord(name, Instant.now(), BenchmarkEnvironment.capture(), unit, samples);
+    }
+
+    public double median() {
+        return RegressionDetector.median(samplesArray());
+    }
+
+    double[] samplesArray() {
+        return samples.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
+    /**
+     * Single-line JSON, suitable for a JSON-lines file.
+     */
+    String toJson() {
+        StringBuilder values = new StringBuilder("[");
+        for (int i = 0; i < samples.size(); i++) {
+            if (i > 0) values.append(',');
+            values.append(Json.number(samples.get(i)));
+        }
+        values.append(']');
+        return "{\"name\":%s,\"timestamp\":%s,\"unit\":%s,\"environment\":%s,\"samples\":%s}"
+                .formatted(Json.quote(name), Json.quote(timestamp.toString()), Json.quote(unit),
+                        environment.toJson(), values);
+    }
+
+    @SuppressWarnings("unchecked")
+    static BenchmarkRecord fromJson(String line) {
+        Map<String, Object> json = (Map<String, Object>) Json.parse(line);
+        List<Double> samples = new ArrayList<>();
+        for (Object sample : (List<?>) json.get("samples")) {
+            samples.add((Double) sample);
+        }
+        return new BenchmarkRecord(
+                (String) json.get("name"),
+                Instant.parse((String) json.get("timestamp")),
+                BenchmarkEnvironment.fromJson((Map<String, Object>) json.get("environment")),
+                (String) json.get("unit"),
+                samples);
+    }
+
+    @Override
+    public String toString() {
+        return "BenchmarkRecord{name=%s, timestamp=%s, samples=%d, median=%.1f %s, sha=%s}"
+                .formatted(name, timestamp, samples.size(), median(), unit, environment.gitSha());
+    }
+}
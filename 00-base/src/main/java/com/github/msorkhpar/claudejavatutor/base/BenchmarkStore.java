@@ -0,0 +1,101 @@
+package com.github.msorkhpar.claudejavatutor.base;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Append-only history of benchmark runs in a JSON-lines file, one {@link BenchmarkRecord} per
+ * line. The file is meant to be kept between builds and committed, so that each run can be
+ * compared with the baseline recorded by an earlier release. The default location is therefore
+ * outside {@code target/}, where {@code mvn clean} would delete it.
+ */
+public class BenchmarkStore {
+
+    /**
+     * System property overriding {@link #defaultStore()}'s location.
+     */
+    public static final String STORE_PROPERTY = "perf.store";
+    static final String DEFAULT_LOCATION = "perf/perf-history.jsonl";
+
+    private final Path file;
+
+    public BenchmarkStore(Path file) {
+        this.file = Objects.requireNonNull(file, "file must not be null");
+    }
+
+    /**
+     * The store at the {@value #STORE_PROPERTY} system property, or else at
+     * {@code perf/perf-history.jsonl} relative to the working directory, which is the module root
+     * under Maven.
+     */
+    public static BenchmarkStore defaultStore() {
+        return new BenchmarkStore(Path.of(System.getProperty(STORE_PROPERTY, DEFAULT_LOCATION)));
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    public synchronized void append(BenchmarkRecord record) {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.writeString(file, record.toJson() + System.lineSeparator(),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to " + file, e);
+        }
+    }
+
+    /**
+     * All records in file order. Blank and unparseable lines are skipped so a truncated write
+     * does not poison the history.
+     */
+    public synchronized List<BenchmarkRecord> readAll() {
+        if (!Files.exists(file)) {
+            return List.of();
+        }
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + file, e);
+        }
+        List<BenchmarkRecord> records = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                records.add(BenchmarkRecord.fromJson(line));
+            } catch (RuntimeException e) {
+                // skip corrupt line
+            }
+        }
+        return records;
+    }
+
+    public List<BenchmarkRecord> history(String name) {
+        return readAll().stream().filter(r -> r.name().equals(name)).toList();
+    }
+
+    /**
+     * The earliest run of {@code name} whose environment is comparable to {@code environment}.
+     * This is the pinned baseline: later runs never replace it, so a slow drift over many runs
+     * still adds up against it. Remove the older lines from the store to bless a new baseline.
+     */
+    public Optional<BenchmarkRecord> baseline(String name, BenchmarkEnvironment environment) {
+        return history(name).stream()
+                .filter(r -> r.environment().isComparableTo(environment))
+                .findFirst();
+    }
+}
@@ -0,0 +1,171 @@
+package com.github.msorkhpar.claudejavatutor.base;
+
+import java.util.Arrays;
+
+/**
+ * Log-bucketed histogram of non-negative long values (typically nanoseconds).
+ * <p>
+ * Each power of two is split into {@value #SUB_BUCKETS} linear sub-buckets, so any recorded
+ * value is reported within ~3% of its true magnitude while the whole {@code long} range fits
+ * in a fixed array of counters. All storage is allocated up front: {@link #record(long)} only
+ * increments a counter and updates a few primitive fields, so it never allocates.
+ * <p>
+ * Mean and variance are tracked exactly (Welford's algorithm) rather than derived from buckets.
+ * Instances are not thread-safe; record from one thread and {@link #add(LatencyHistogram) merge}
+ * per-thread histograms afterwards.
+ */
+public class LatencyHistogram {
+
+    static final int SUB_BUCKET_BITS = 5;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Values below SUB_BUCKETS are stored exactly; every further power of two gets SUB_BUCKETS slots.
+    static final int BUCKET_COUNT = SUB_BUCKETS + (63 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    /**
+     * Immutable point-in-time view of a histogram.
+     */
+    public record Summary(long count, long min, double mean, long p50, long p90, long p99, long p999,
+                          long max, double standardDeviation) {
+
+        @Override
+        public String toString() {
+            return "count=%d, min=%d, mean=%.1f, p50=%d, p90=%d, p99=%d, p99.9=%d, max=%d"
+                    .formatted(count, min, mean, p50, p90, p99, p999, max);
+        }
+    }
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+    private double mean;
+    private double sumOfSquaredDeviations;
+
+    /**
+     * Records one value. Negative values are clamped to zero.
+     */
+    public void record(long value) {
+        recordMany(value, 1);
+    }
+
+    /**
+     * Records {@code count} occurrences of the same value.
+     */
+    public void recordMany(long value, long count) {
+        if (count <= 0) {
+            return;
+        }
+        long v = Math.max(0, value);
+        counts[indexOf(v)] += count;
+        if (v < min) min = v;
+        if (v > max) max = v;
+
+        // Chan et al. parallel update, which reduces to Welford's step for count == 1
+        long newCount = totalCount + count;
+        double delta = v - mean;
+        mean += delta * count / newCount;
+        sumOfSquaredDeviations += delta * delta * totalCount * count / newCount;
+        totalCount = newCount;
+    }
+
+    /**
+     * Merges all values recorded by {@code other} into this histogram.
+     */
+    public void add(LatencyHistogram other) {
+        if (other.totalCount == 0) {
+            return;
+        }
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        long newCount = totalCount + other.totalCount;
+        double delta = other.mean - mean;
+        sumOfSquaredDeviations += other.sumOfSquaredDeviations
+                + delta * delta * totalCount * other.totalCount / newCount;
+        mean += delta * other.totalCount / newCount;
+        totalCount = newCount;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        min = Long.MAX_VALUE;
+        max = Long.MIN_VALUE;
+        mean = 0;
+        sumOfSquaredDeviations = 0;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public long getMin() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    public long getMax() {
+        return totalCount == 0 ? 0 : max;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Sample standard deviation (n - 1 denominator); zero for fewer than two values.
+     */
+    public double getStandardDeviation() {
+        return totalCount < 2 ? 0 : Math.sqrt(sumOfSquaredDeviations / (totalCount - 1));
+    }
+
+    /**
+     * Returns the value at the given percentile (0-100), as the highest value equivalent to the
+     * bucket that contains it, clamped to the recorded min/max.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        if (totalCount == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            cumulative += counts[i];
+            if (cumulative >= target) {
+                return Math.max(min, Math.min(max, highestEquivalentValue(i)));
+            }
+        }
+        return max;
+    }
+
+    public Summary summary() {
+        return new Summary(totalCount, getMin(), mean,
+                getValueAtPercentile(50), getValueAtPercentile(90),
+                getValueAtPercentile(99), getValueAtPercentile(99.9),
+                getMax(), getStandardDeviation());
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        int subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        long lowest = (long) (SUB_BUCKETS + subBucket) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
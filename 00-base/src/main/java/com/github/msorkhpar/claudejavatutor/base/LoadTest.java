@@ -0,0 +1,337 @@
+package com.github.msorkhpar.claudejavatutor.base;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Multi-threaded load generator that replaces the hand-rolled "start N threads, await a latch,
+ * time it" code in the concurrency modules, so contention numbers are comparable between them.
+ * <p>
+ * Two loop models are supported:
+ * <ul>
+ *   <li><b>Closed loop</b> (default): every worker calls the task back to back. Throughput is
+ *       whatever the task allows; latency is pure service time.</li>
+ *   <li><b>Open loop</b> ({@link Builder#fixedRate(double)}): operations are scheduled at a fixed
+ *       aggregate rate. Latency is measured from each operation's <em>intended</em> start, so a
+ *       stall that delays later operations is charged to them too (coordinated-omission
+ *       correction). Pure service time is reported separately.</li>
+ * </ul>
+ * Workers run on platform threads, virtual threads or a caller-supplied {@link ExecutorService}.
+ * Each worker records into its own {@link LatencyHistogram}, so recording adds no contention.
+ * Exceptions thrown by the task are counted as errors and do not stop the worker.
+ * <pre>{@code
+ * LoadTestResult result = LoadTest.builder(counter::increment)
+ *         .threads(64)
+ *         .duration(Duration.ofSeconds(2))
+ *         .virtualThreads()
+ *         .run();
+ * }</pre>
+ */
+public final class LoadTest {
+
+    public enum ThreadKind { PLATFORM, VIRTUAL }
+
+    /**
+     * Outcome for a single worker. Throughput is per second of the whole run's wall time.
+     */
+    public record ThreadResult(int worker, long operations, long errors, double throughputPerSecond,
+                               LatencyHistogram.Summary latency, LatencyHistogram.Summary serviceTime) {
+    }
+
+    /**
+     * Aggregate outcome of a run. Latencies are in nanoseconds; for closed-loop runs
+     * {@code latency} and {@code serviceTime} are identical.
+     */
+    public record LoadTestResult(List<ThreadResult> threads, long totalOperations, long errors,
+                                 Duration elapsed, double throughputPerSecond,
+                                 LatencyHistogram.Summary latency, LatencyHistogram.Summary serviceTime) {
+
+        @Override
+        public String toString() {
+            return "LoadTestResult{threads=%d, ops=%d, errors=%d, elapsed=%dms, throughput=%.0f ops/s, latency[%s]}"
+                    .formatted(threads.size(), totalOperations, errors, elapsed.toMillis(),
+                            throughputPerSecond, latency);
+        }
+    }
+
+    private final Runnable task;
+    private final int threads;
+    private final Duration duration;
+    private final long operations;
+    private final ThreadKind threadKind;
+    private final ExecutorService executor;
+    private final double targetRatePerSecond;
+
+    private LoadTest(Builder builder) {
+        this.task = builder.task;
+        this.threads = builder.threads;
+        this.duration = builder.duration;
+        this.operations = builder.operations;
+        this.threadKind = builder.threadKind;
+        this.executor = builder.executor;
+        this.targetRatePerSecond = builder.targetRatePerSecond;
+    }
+
+    public static Builder builder(Runnable task) {
+        return new Builder(task);
+    }
+
+    /**
+     * Closed-loop run on platform threads for a fixed wall-clock duration.
+     */
+    public static LoadTestResult run(Runnable task, int threads, Duration duration) throws InterruptedException {
+        return builder(task).threads(threads).duration(duration).run();
+    }
+
+    /**
+     * Closed-loop run on platform threads for a fixed total number of operations,
+     * split as evenly as possible across the workers.
+     */
+    public static LoadTestResult run(Runnable task, int threads, long operations) throws InterruptedException {
+        return builder(task).threads(threads).operations(operations).run();
+    }
+
+    public static final class Builder {
+        private final Runnable task;
+        private int threads = 1;
+        private Duration duration;
+        private long operations;
+        private ThreadKind threadKind = ThreadKind.PLATFORM;
+        private ExecutorService executor;
+        private double targetRatePerSecond;
+
+        private Builder(Runnable task) {
+            this.task = Objects.requireNonNull(task, "task must not be null");
+        }
+
+        public Builder threads(int threads) {
+            if (threads < 1) {
+                throw new IllegalArgumentException("threads must be >= 1");
+            }
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * Stops every worker once this much wall time has passed.
+         */
+        public Builder duration(Duration duration) {
+            if (duration == null || duration.isNegative() || duration.isZero()) {
+                throw new IllegalArgumentException("duration must be positive");
+            }
+            this.duration = duration;
+            return this;
+        }
+
+        /**
+         * Stops once this many operations have been issued in total. Combined with
+         * {@link #duration(Duration)}, whichever limit is reached first wins.
+         */
+        public Builder operations(long operations) {
+            if (operations < 1) {
+                throw new IllegalArgumentException("operations must be >= 1");
+            }
+            this.operations = operations;
+            return this;
+        }
+
+        public Builder platformThreads() {
+            this.threadKind = ThreadKind.PLATFORM;
+            this.executor = null;
+            return this;
+        }
+
+        public Builder virtualThreads() {
+            this.threadKind = ThreadKind.VIRTUAL;
+            this.executor = null;
+            return this;
+        }
+
+        /**
+         * Runs the workers on a caller-owned executor, which is not shut down afterwards.
+         * If it has fewer threads than workers, the surplus workers start late. If it rejects
+         * a worker, {@link #run()} rethrows the rejection once the workers already submitted
+         * have been released to exit without running the task.
+         */
+        public Builder executor(ExecutorService executor) {
+            this.executor = Objects.requireNonNull(executor, "executor must not be null");
+            return this;
+        }
+
+        /**
+         * Switches to open-loop mode with the given aggregate rate across all workers.
+         */
+        public Builder fixedRate(double operationsPerSecond) {
+            if (!(operationsPerSecond > 0)) {
+                throw new IllegalArgumentException("operationsPerSecond must be positive");
+            }
+            this.targetRatePerSecond = operationsPerSecond;
+            return this;
+        }
+
+        /**
+         * Reverts to closed-loop mode.
+         */
+        public Builder closedLoop() {
+            this.targetRatePerSecond = 0;
+            return this;
+        }
+
+        public LoadTestResult run() throws InterruptedException {
+            if (duration == null && operations == 0) {
+                throw new IllegalStateException("Either duration or operations must be set");
+            }
+            return new LoadTest(this).execute();
+        }
+    }
+
+    private LoadTestResult execute() throws InterruptedException {
+        Worker[] workers = new Worker[threads];
+        for (int i = 0; i < threads; i++) {
+            long quota = operations == 0 ? Long.MAX_VALUE : operations / threads + (i < operations % threads ? 1 : 0);
+            workers[i] = new Worker(i, quota);
+        }
+
+        CountDownLatch startGate = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        AtomicBoolean aborted = new AtomicBoolean();
+        List<Thread> started = new ArrayList<>(threads);
+        try {
+            for (Worker worker : workers) {
+                Runnable body = () -> {
+                    try {
+                        startGate.await();
+                        if (!aborted.get()) {
+                            worker.run();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                };
+                if (executor != null) {
+                    executor.execute(body);
+                } else if (threadKind == ThreadKind.VIRTUAL) {
+                    started.add(Thread.ofVirtual().name("load-" + worker.index).start(body));
+                } else {
+                    started.add(Thread.ofPlatform().name("load-" + worker.index).start(body));
+                }
+            }
+        } catch (RuntimeException | Error e) {
+            // A rejected submission or a failed thread start: the workers already submitted
+            // would otherwise wait on the gate forever.
+            aborted.set(true);
+            startGate.countDown();
+            throw e;
+        }
+
+        long startNanos = System.nanoTime();
+        long deadline = duration == null ? Long.MAX_VALUE : startNanos + duration.toNanos();
+        for (Worker worker : workers) {
+            worker.startNanos = startNanos;
+            worker.deadline = deadline;
+        }
+        // The latch publishes startNanos/deadline to the workers.
+        startGate.countDown();
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            started.forEach(Thread::interrupt);
+            throw e;
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        return summarize(workers, elapsedNanos);
+    }
+
+    private LoadTestResult summarize(Worker[] workers, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        LatencyHistogram latency = new LatencyHistogram();
+        LatencyHistogram serviceTime = new LatencyHistogram();
+        List<ThreadResult> perThread = new ArrayList<>(workers.length);
+        long totalOps = 0;
+        long totalErrors = 0;
+        for (Worker worker : workers) {
+            latency.add(worker.latency);
+            serviceTime.add(worker.serviceTime);
+            totalOps += worker.completed;
+            totalErrors += worker.errors;
+            perThread.add(new ThreadResult(worker.index, worker.completed, worker.errors,
+                    worker.completed / seconds, worker.latency.summary(), worker.serviceTime.summary()));
+        }
+        return new LoadTestResult(List.copyOf(perThread), totalOps, totalErrors, Duration.ofNanos(elapsedNanos),
+                totalOps / seconds, latency.summary(), serviceTime.summary());
+    }
+
+    private final class Worker {
+        final int index;
+        final long quota;
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LatencyHistogram serviceTime = new LatencyHistogram();
+        long startNanos;
+        long deadline;
+        long completed;
+        long errors;
+
+        Worker(int index, long quota) {
+            this.index = index;
+            this.quota = quota;
+        }
+
+        void run() {
+            if (targetRatePerSecond > 0) {
+                runOpenLoop();
+            } else {
+                runClosedLoop();
+            }
+        }
+
+        private void runClosedLoop() {
+            while (completed < quota) {
+                long begin = System.nanoTime();
+                if (begin - deadline >= 0) {
+                    return;
+                }
+                invoke();
+                long elapsed = System.nanoTime() - begin;
+                latency.record(elapsed);
+                serviceTime.record(elapsed);
+            }
+        }
+
+        private void runOpenLoop() {
+            // Each worker carries 1/threads of the rate; offsets stagger workers across one interval.
+            double interval = threads * 1e9 / targetRatePerSecond;
+            double offset = interval * index / threads;
+            while (completed < quota) {
+                long intended = startNanos + (long) (offset + completed * interval);
+                if (intended - deadline >= 0) {
+                    return;
+                }
+                long now;
+                while ((now = System.nanoTime()) - intended < 0) {
+                    LockSupport.parkNanos(intended - now);
+                }
+                invoke();
+                long end = System.nanoTime();
+                latency.record(end - intended);
+                serviceTime.record(end - now);
+            }
+        }
+
+        private void invoke() {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                errors++;
+            }
+            completed++;
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.github.msorkhpar.claudejavatutor.base;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Registry of named counters, gauges and timers with a Prometheus text exporter.
+ * <p>
+ * Metrics are created once (which allocates) and then kept in a field by the instrumented code;
+ * recording through {@link Counter#increment()} or {@link Timer#record(long)} never allocates
+ * and never takes a lock. Counters are striped {@link LongAdder}s, so contended increments do
+ * not serialize on one cache line. Timers use the same log buckets as {@link LatencyHistogram}
+ * in an {@link AtomicLongArray}.
+ * <p>
+ * Metrics are identified by name plus label pairs. Asking for an existing metric returns the
+ * same instance; asking for it with a different type is an error.
+ * <pre>{@code
+ * MetricsRegistry registry = new MetricsRegistry();
+ * Counter jobs = registry.counter("jobs_total", "Jobs scheduled", "pool", "fixed");
+ * jobs.increment();
+ * String text = registry.exportPrometheus();
+ * }</pre>
+ */
+public class MetricsRegistry {
+
+    private static final Pattern NAME = Pattern.compile("[a-zA-Z_:][a-zA-Z0-9_:]*");
+    private static final Pattern LABEL_NAME = Pattern.compile("[a-zA-Z_][a-zA-Z0-9_]*");
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    public enum Type { COUNTER, GAUGE, TIMER }
+
+    /**
+     * Point-in-time value of one metric. Timers report their distribution in {@code timer}
+     * (nanoseconds) and their count in {@code value}; counters and gauges leave {@code timer} null.
+     */
+    public record MetricSnapshot(String name, Map<String, String> labels, Type type, String help,
+                                 double value, LatencyHistogram.Summary timer) {
+    }
+
+    private record Key(String name, List<String> labels) {
+    }
+
+    private sealed interface Metric permits Counter, Gauge, Timer {
+    }
+
+    /**
+     * Monotonic counter backed by a {@link LongAdder}.
+     */
+    public static final class Counter implements Metric {
+        private final LongAdder adder = new LongAdder();
+
+        public void increment() {
+            adder.increment();
+        }
+
+        public void add(long amount) {
+            if (amount < 0) {
+                throw new IllegalArgumentException("Counters only increase: " + amount);
+            }
+            adder.add(amount);
+        }
+
+        public long sum() {
+            return adder.sum();
+        }
+    }
+
+    /**
+     * Value sampled from a supplier at snapshot time, so the hot path does no work at all.
+     */
+    public static final class Gauge implements Metric {
+        private final DoubleSupplier supplier;
+
+        private Gauge(DoubleSupplier supplier) {
+            this.supplier = supplier;
+        }
+
+        public double value() {
+            return supplier.getAsDouble();
+        }
+    }
+
+    /**
+     * Lock-free duration histogram in nanoseconds.
+     */
+    public static final class Timer implements Metric {
+        private final AtomicLongArray counts = new AtomicLongArray(LatencyHistogram.BUCKET_COUNT);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        public void record(long nanos) {
+            long value = Math.max(0, nanos);
+            counts.getAndIncrement(LatencyHistogram.indexOf(value));
+            count.increment();
+            totalNanos.add(value);
+            long current;
+            while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+                // retry until our value is stored or a larger one wins
+            }
+        }
+
+        public <T> T time(Supplier<T> operation) {
+            long start = System.nanoTime();
+            try {
+                return operation.get();
+            } finally {
+                record(System.nanoTime() - start);
+            }
+        }
+
+        public long count() {
+            return count.sum();
+        }
+
+        public long totalNanos() {
+            return totalNanos.sum();
+        }
+
+        /**
+         * Copies the buckets into a histogram. Concurrent recordings may or may not be included;
+         * values are reported at their bucket's upper bound (within ~3%).
+         */
+        public LatencyHistogram snapshot() {
+            LatencyHistogram histogram = new LatencyHistogram();
+            for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+                long c = counts.get(i);
+                if (c > 0) {
+                    histogram.recordMany(Math.min(LatencyHistogram.highestEquivalentValue(i), max.get()), c);
+                }
+            }
+            return histogram;
+        }
+    }
+
+    private final ConcurrentHashMap<Key, Metric> metrics = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Type> types = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, String> helps = new ConcurrentHashMap<>();
+
+    /**
+     * @param labels alternating label names and values, e.g. {@code "method", "add"}
+     */
+    public Counter counter(String name, String help, String... labels) {
+        return register(name, help, Type.COUNTER, labels, Counter::new, Counter.class);
+    }
+
+    public Gauge gauge(String name, String help, DoubleSupplier supplier, String... labels) {
+        Objects.requireNonNull(supplier, "supplier must not be null");
+        return register(name, help, Type.GAUGE, labels, () -> new Gauge(supplier), Gauge.class);
+    }
+
+    public Timer timer(String name, String help, String... labels) {
+        return register(name, help, Type.TIMER, labels, Timer::new, Timer.class);
+    }
+
+    private <M extends Metric> M register(String name, String help, Type type, String[] labels,
+                                          Supplier<M> factory, Class<M> metricClass) {
+        if (name == null || !NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid metric name: " + name);
+        }
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be name/value pairs");
+        }
+        for (int i = 0; i < labels.length; i += 2) {
+            if (labels[i] == null || !LABEL_NAME.matcher(labels[i]).matches() || "quantile".equals(labels[i])) {
+                throw new IllegalArgumentException("Invalid label name: " + labels[i]);
+            }
+            Objects.requireNonNull(labels[i + 1], "label value must not be null");
+        }
+        Type existing = types.putIfAbsent(name, type);
+        if (existing != null && existing != type) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as " + existing);
+        }
+        helps.putIfAbsent(name, help == null ? "" : help);
+        Metric metric = metrics.computeIfAbsent(new Key(name, List.of(labels)), key -> factory.get());
+        return metricClass.cast(metric);
+    }
+
+    /**
+     * All metrics, sorted by name and then labels.
+     */
+    public List<MetricSnapshot> snapshot() {
+        List<Map.Entry<Key, Metric>> entries = sortedEntries();
+        List<MetricSnapshot> snapshots = new ArrayList<>(entries.size());
+        for (Map.Entry<Key, Metric> entry : entries) {
+            Key key = entry.getKey();
+            Map<String, String> labels = new LinkedHashMap<>();
+            for (int i = 0; i < key.labels().size(); i += 2) {
+                labels.put(key.labels().get(i), key.labels().get(i + 1));
+            }
+            String help = helps.get(key.name());
+            snapshots.add(switch (entry.getValue()) {
+                case Counter c -> new MetricSnapshot(key.name(), labels, Type.COUNTER, help, c.sum(), null);
+                case Gauge g -> new MetricSnapshot(key.name(), labels, Type.GAUGE, help, g.value(), null);
+                case Timer t -> new MetricSnapshot(key.name(), labels, Type.TIMER, help, t.count(),
+                        t.snapshot().summary());
+            });
+        }
+        return snapshots;
+    }
+
+    /**
+     * Prometheus text exposition format (version 0.0.4). Timers are exported as summaries in
+     * seconds with 0.5/0.9/0.99/0.999 quantiles.
+     */
+    public String exportPrometheus() {
+        StringBuilder out = new StringBuilder();
+        String currentName = null;
+        for (Map.Entry<Key, Metric> entry : sortedEntries()) {
+            Key key = entry.getKey();
+            if (!key.name().equals(currentName)) {
+                currentName = key.name();
+                out.append("# HELP ").append(currentName).append(' ')
+                        .append(helps.get(currentName).replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+                out.append("# TYPE ").append(currentName).append(' ').append(switch (types.get(currentName)) {
+                    case COUNTER -> "counter";
+                    case GAUGE -> "gauge";
+                    case TIMER -> "summary";
+                }).append('\n');
+            }
+            switch (entry.getValue()) {
+                case Counter c -> line(out, key.name(), key.labels(), null, c.sum());
+                case Gauge g -> line(out, key.name(), key.labels(), null, g.value());
+                case Timer t -> {
+                    LatencyHistogram histogram = t.snapshot();
+                    for (double q : QUANTILES) {
+                        line(out, key.name(), key.labels(), Double.toString(q),
+                                histogram.getValueAtPercentile(q * 100) / 1e9);
+                    }
+                    line(out, key.name() + "_sum", key.labels(), null, t.totalNanos() / 1e9);
+                    line(out, key.name() + "_count", key.labels(), null, t.count());
+                }
+            }
+        }
+        return out.toString();
+    }
+
+    public void exportPrometheus(Path file) {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.writeString(file, exportPrometheus());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write metrics to " + file, e);
+        }
+    }
+
+    private List<Map.Entry<Key, Metric>> sortedEntries() {
+        List<Map.Entry<Key, Metric>> entries = new ArrayList<>(metrics.entrySet());
+        entries.sort(Comparator.comparing((Map.Entry<Key, Metric> e) -> e.getKey().name())
+                .thenComparing(e -> String.join("\u0000", e.getKey().labels())));
+        return entries;
+    }
+
+    private static void line(StringBuilder out, String name, List<String> labels, String quantile, double value) {
+        out.append(name);
+        if (!labels.isEmpty() || quantile != null) {
+            out.append('{');
+            for (int i = 0; i < labels.size(); i += 2) {
+                if (i > 0) out.append(',');
+                out.append(labels.get(i)).append("=\"").append(escape(labels.get(i + 1))).append('"');
+            }
+            if (quantile != null) {
+                if (!labels.isEmpty()) out.append(',');
+                out.append("quantile=\"").append(quantile).append('"');
+            }
+            out.append('}');
+        }
+        out.append(' ').append(formatValue(value)).append('\n');
+    }
+
+    private static String escape(String labelValue) {
+        return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String formatValue(double value) {
+        if (Double.isNaN(value)) return "NaN";
+        if (Double.isInfinite(value)) return value > 0 ? "+Inf" : "-Inf";
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) return Long.toString((long) value);
+        return Double.toString(value);
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.msorkhpar.claudejavatutor.base;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Turns a test into a throughput regression gate. The test receives a {@link PerfSamples}
+ * parameter and records throughput samples into it; after the test the samples are compared
+ * with the {@linkplain BenchmarkStore#baseline baseline} of the same test and appended to the
+ * {@link BenchmarkStore}.
+ * <pre>{@code
+ * @Test
+ * @PerfBaseline(threshold = 0.15)
+ * void sortThroughput(PerfSamples samples) {
+ *     samples.measureThroughput(() -> sort(data), 1, MeasurementPlan.defaults());
+ * }
+ * }</pre>
+ * The test fails when throughput dropped by more than {@link #threshold()} and the drop is
+ * significant at {@link #alpha()}. The first run, or the first run on a different JVM/machine,
+ * only records a baseline.
+ */
+@Target({ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(PerfBaselineExtension.class)
+public @interface PerfBaseline {
+
+    /**
+     * Benchmark name in the store; defaults to {@code ClassName.methodName}.
+     */
+    String name() default "";
+
+    /**
+     * Largest tolerated relative drop of the median throughput.
+     */
+    double threshold() default 0.10;
+
+    double alpha() default 0.05;
+
+    /**
+     * Path of the JSON-lines store; defaults to the {@value BenchmarkStore#STORE_PROPERTY}
+     * system property, then {@code perf/perf-history.jsonl} in the module.
+     */
+    String store() default "";
+}
@@ -0,0 +1,70 @@
+package com.github.msorkhpar.claudejavatutor.base;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * JUnit extension behind {@link PerfBaseline}. Registered through the annotation, so tests only
+ * need {@code @PerfBaseline}.
+ */
+public class PerfBaselineExtension implements ParameterResolver, AfterTestExecutionCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(PerfBaselineExtension.class);
+    private static final String SAMPLES_KEY = "samples";
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return parameterContext.getParameter().getType() == PerfSamples.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return extensionContext.getStore(NAMESPACE)
+                .getOrComputeIfAbsent(SAMPLES_KEY, key -> new PerfSamples(), PerfSamples.class);
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        if (context.getExecutionException().isPresent()) {
+            return;
+        }
+        PerfSamples samples = context.getStore(NAMESPACE).get(SAMPLES_KEY, PerfSamples.class);
+        Method method = context.getRequiredTestMethod();
+        // Also finds @PerfBaseline as a meta-annotation on a composed annotation
+        PerfBaseline config = AnnotationSupport.findAnnotation(method, PerfBaseline.class).orElse(null);
+        if (samples == null || samples.isEmpty() || config == null) {
+            return;
+        }
+
+        String name = config.name().isEmpty()
+                ? context.getRequiredTestClass().getName() + "." + method.getName()
+                : config.name();
+        BenchmarkStore store = config.store().isEmpty()
+                ? BenchmarkStore.defaultStore()
+                : new BenchmarkStore(Path.of(config.store()));
+        BenchmarkRecord current = BenchmarkRecord.of(name, "ops/s", samples.samples());
+        Optional<BenchmarkRecord> baseline = store.baseline(name, current.environment());
+        store.append(current);
+
+        if (baseline.isEmpty()) {
+            context.publishReportEntry("perf.baseline", "recorded first run of " + name);
+            return;
+        }
+        RegressionDetector detector = new RegressionDetector(config.threshold(), config.alpha(),
+                RegressionDetector.Direction.HIGHER_IS_BETTER);
+        RegressionDetector.Comparison comparison = detector.compare(baseline.get(), current);
+        context.publishReportEntry("perf.baseline", comparison.toString());
+        if (comparison.regression()) {
+            throw new AssertionError("Throughput regression in " + name + " against run of "
+                    + baseline.get().timestamp() + ": " + comparison);
+        }
+    }
+}
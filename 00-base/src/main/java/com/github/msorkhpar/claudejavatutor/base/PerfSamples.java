@@ -0,0 +1,47 @@
+package com.github.msorkhpar.claudejavatutor.base;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Throughput samples collected by a {@link PerfBaseline} test, in operations per second.
+ */
+public class PerfSamples {
+
+    private final List<Double> samples = new ArrayList<>();
+
+    public void add(double operationsPerSecond) {
+        if (!(operationsPerSecond >= 0)) {
+            throw new IllegalArgumentException("operationsPerSecond must be >= 0");
+        }
+        samples.add(operationsPerSecond);
+    }
+
+    /**
+     * Runs {@code operation} according to {@code plan} and adds one sample per measured
+     * iteration, assuming each call performs {@code operationsPerCall} operations.
+     */
+    public void measureThroughput(Runnable operation, int operationsPerCall,
+                                  PerformanceTestUtil.MeasurementPlan plan) {
+        if (operationsPerCall < 1) {
+            throw new IllegalArgumentException("operationsPerCall must be >= 1");
+        }
+        for (int i = 0; i < plan.warmupIterations(); i++) {
+            operation.run();
+        }
+        for (int i = 0; i < plan.measurementIterations(); i++) {
+            long start = System.nanoTime();
+            operation.run();
+            long elapsed = Math.max(1, System.nanoTime() - start);
+            samples.add(operationsPerCall * 1e9 / elapsed);
+        }
+    }
+
+    public List<Double> samples() {
+        return List.copyOf(samples);
+    }
+
+    public boolean isEmpty() {
+        return samples.isEmpty();
+    }
+}
@@ -1,10 +1,66 @@
 package com.github.msorkhpar.claudejavatutor.base;
 
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
 import java.util.Objects;
 import java.util.function.Supplier;
 
 public class PerformanceTestUtil {
 
+    // Written on every measured iteration so the JIT cannot treat the operation's result as dead.
+    private static volatile Object sink;
+
+    /**
+     * How many times {@link #measure(Supplier, MeasurementPlan)} runs an operation before
+     * and while recording.
+     */
+    public record MeasurementPlan(int warmupIterations, int measurementIterations) {
+
+        public MeasurementPlan {
+            if (warmupIterations < 0) {
+                throw new IllegalArgumentException("warmupIterations must be >= 0");
+            }
+            if (measurementIterations < 1) {
+                throw new IllegalArgumentException("measurementIterations must be >= 1");
+            }
+        }
+
+        public static MeasurementPlan defaults() {
+            return new MeasurementPlan(5, 20);
+        }
+
+        public static MeasurementPlan of(int warmupIterations, int measurementIterations) {
+            return new MeasurementPlan(warmupIterations, measurementIterations);
+        }
+    }
+
+    /**
+     * Two-sided confidence interval for the mean execution time, in nanoseconds.
+     */
+    public record ConfidenceInterval(double lower, double upper, double level) {
+
+        public boolean contains(double value) {
+            return value >= lower && value <= upper;
+        }
+    }
+
+    /**
+     * Distribution of per-iteration execution times (nanoseconds) plus the last result produced.
+     * Percentiles come from a {@link LatencyHistogram} and are accurate to about 3%.
+     */
+    public record StatisticalResult<T>(T result, int iterations, long min, long max, double mean,
+                                       long p50, long p90, long p99, long p999,
+                                       double standardDeviation, ConfidenceInterval confidenceInterval) {
+
+        @Override
+        public String toString() {
+            return "StatisticalResult{iterations=%d, min=%d, mean=%.1f, p50=%d, p90=%d, p99=%d, p99.9=%d, max=%d, stdDev=%.1f, ci95=[%.1f, %.1f], result=%s}"
+                    .formatted(iterations, min, mean, p50, p90, p99, p999, max, standardDeviation,
+                            confidenceInterval.lower(), confidenceInterval.upper(), result);
+        }
+    }
+
     public record MeasurementResult<T>(long executionTime, T result) {
 
         @Override
@@ -37,10 +93,163 @@ public class PerformanceTestUtil {
         }
     }
 
+    /**
+     * Heap allocation of the measuring thread over the measured iterations, plus the collector
+     * activity (all threads, all collectors) observed in the same window.
+     */
+    public record AllocationResult<T>(T result, int iterations, long allocatedBytes,
+                                      long gcCount, long gcTimeMillis) {
+
+        public double bytesPerOperation() {
+            return (double) allocatedBytes / iterations;
+        }
+
+        @Override
+        public String toString() {
+            return "AllocationResult{iterations=%d, allocatedBytes=%d, bytesPerOp=%.1f, gcCount=%d, gcTimeMillis=%d, result=%s}"
+                    .formatted(iterations, allocatedBytes, bytesPerOperation(), gcCount, gcTimeMillis, result);
+        }
+    }
+
     public static <T> MeasurementResult<T> measureExecution(Supplier<T> operation) {
         long startTime = System.nanoTime();
         T result = operation.get();
         long endTime = System.nanoTime();
         return new MeasurementResult<>(endTime - startTime, result);
     }
+
+    /**
+     * Runs {@code operation} for the plan's warmup iterations, then times each measurement
+     * iteration individually. Recording is allocation-free, so the only garbage produced
+     * during measurement is whatever the operation itself allocates.
+     */
+    public static <T> StatisticalResult<T> measure(Supplier<T> operation, MeasurementPlan plan) {
+        Objects.requireNonNull(operation, "operation must not be null");
+        Objects.requireNonNull(plan, "plan must not be null");
+        for (int i = 0; i < plan.warmupIterations(); i++) {
+            sink = operation.get();
+        }
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        T result = null;
+        for (int i = 0; i < plan.measurementIterations(); i++) {
+            long start = System.nanoTime();
+            result = operation.get();
+            long elapsed = System.nanoTime() - start;
+            sink = result;
+            histogram.record(elapsed);
+        }
+        return summarize(result, histogram);
+    }
+
+    /**
+     * Convenience overload using {@link MeasurementPlan#defaults()}.
+     */
+    public static <T> StatisticalResult<T> measure(Supplier<T> operation) {
+        return measure(operation, MeasurementPlan.defaults());
+    }
+
+    /**
+     * Runs {@code operation} for the plan's warmup iterations, then reports how many bytes the
+     * calling thread allocated across the measurement iterations, using
+     * {@link com.sun.management.ThreadMXBean#getCurrentThreadAllocatedBytes()}. Allocation on other
+     * threads (e.g. a parallel stream's workers) is not included. A primitive returned through the
+     * {@link Supplier} is boxed and therefore counted too.
+     *
+     * @throws UnsupportedOperationException if the JVM cannot report per-thread allocation
+     */
+    public static <T> AllocationResult<T> measureAllocations(Supplier<T> operation, MeasurementPlan plan) {
+        Objects.requireNonNull(operation, "operation must not be null");
+        Objects.requireNonNull(plan, "plan must not be null");
+        com.sun.management.ThreadMXBean threadBean = allocationThreadBean();
+        for (int i = 0; i < plan.warmupIterations(); i++) {
+            sink = operation.get();
+        }
+
+        List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        long gcCountBefore = totalGcCount(collectors);
+        long gcTimeBefore = totalGcTime(collectors);
+        // Two back-to-back reads give the cost of the probe itself, which is subtracted below.
+        long probeStart = threadBean.getCurrentThreadAllocatedBytes();
+        long start = threadBean.getCurrentThreadAllocatedBytes();
+        long probeOverhead = start - probeStart;
+
+        T result = null;
+        for (int i = 0; i < plan.measurementIterations(); i++) {
+            result = operation.get();
+            sink = result;
+        }
+
+        long allocated = threadBean.getCurrentThreadAllocatedBytes() - start - probeOverhead;
+        long gcCount = totalGcCount(collectors) - gcCountBefore;
+        long gcTime = totalGcTime(collectors) - gcTimeBefore;
+        return new AllocationResult<>(result, plan.measurementIterations(), Math.max(0, allocated), gcCount, gcTime);
+    }
+
+    /**
+     * Convenience overload using {@link MeasurementPlan#defaults()}.
+     */
+    public static <T> AllocationResult<T> measureAllocations(Supplier<T> operation) {
+        return measureAllocations(operation, MeasurementPlan.defaults());
+    }
+
+    private static com.sun.management.ThreadMXBean allocationThreadBean() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean)
+                || !bean.isThreadAllocatedMemorySupported()) {
+            throw new UnsupportedOperationException("This JVM does not support per-thread allocation measurement");
+        }
+        if (!bean.isThreadAllocatedMemoryEnabled()) {
+            bean.setThreadAllocatedMemoryEnabled(true);
+        }
+        return bean;
+    }
+
+    private static long totalGcCount(List<GarbageCollectorMXBean> collectors) {
+        long total = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            total += Math.max(0, collector.getCollectionCount());
+        }
+        return total;
+    }
+
+    private static long totalGcTime(List<GarbageCollectorMXBean> collectors) {
+        long total = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            total += Math.max(0, collector.getCollectionTime());
+        }
+        return total;
+    }
+
+    static <T> StatisticalResult<T> summarize(T result, LatencyHistogram histogram) {
+        int n = (int) histogram.getTotalCount();
+        double mean = histogram.getMean();
+        double stdDev = histogram.getStandardDeviation();
+        double halfWidth = n < 2 ? 0 : tCritical95(n - 1) * stdDev / Math.sqrt(n);
+        return new StatisticalResult<>(
+                result,
+                n,
+                histogram.getMin(),
+                histogram.getMax(),
+                mean,
+                histogram.getValueAtPercentile(50),
+                histogram.getValueAtPercentile(90),
+                histogram.getValueAtPercentile(99),
+                histogram.getValueAtPercentile(99.9),
+                stdDev,
+                new ConfidenceInterval(mean - halfWidth, mean + halfWidth, 0.95));
+    }
+
+    // Two-sided 95% Student's t critical values for 1..30 degrees of freedom.
+    private static final double[] T_CRITICAL_95 = {
+            12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+            2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+    };
+
+    static double tCritical95(int degreesOfFreedom) {
+        if (degreesOfFreedom <= T_CRITICAL_95.length) {
+            return T_CRITICAL_95[degreesOfFreedom - 1];
+        }
+        return 1.96;
+    }
 }
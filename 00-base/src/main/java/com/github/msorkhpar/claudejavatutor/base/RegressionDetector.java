@@ -0,0 +1,150 @@
+package com.github.msorkhpar.claudejavatutor.base;
+
+import java.util.Arrays;
+
+/**
+ * Decides whether a new set of samples is significantly worse than a baseline.
+ * <p>
+ * Uses a one-sided Mann-Whitney U test, which compares ranks rather than means: it needs no
+ * normality assumption and a single GC pause in either run cannot flip the verdict. A change is
+ * reported as a regression only when it is both statistically significant ({@code p < alpha})
+ * and practically relevant (the medians differ by more than {@code threshold}).
+ */
+public class RegressionDetector {
+
+    /**
+     * Below this many samples per side the normal approximation is too coarse to trust.
+     */
+    static final int MIN_SAMPLES = 5;
+
+    public enum Direction {
+        /** Larger values are better, e.g. throughput. */
+        HIGHER_IS_BETTER,
+        /** Smaller values are better, e.g. latency. */
+        LOWER_IS_BETTER
+    }
+
+    /**
+     * @param relativeChange {@code (current - baseline) / baseline} of the medians; negative means
+     *                       the value dropped, regardless of direction
+     * @param pValue         one-sided p-value that {@code current} is worse than {@code baseline}
+     */
+    public record Comparison(double baselineMedian, double currentMedian, double relativeChange,
+                             double pValue, boolean regression) {
+
+        @Override
+        public String toString() {
+            return "Comparison{baseline=%.2f, current=%.2f, change=%+.1f%%, p=%.4f, regression=%s}"
+                    .formatted(baselineMedian, currentMedian, relativeChange * 100, pValue, regression);
+        }
+    }
+
+    private final double threshold;
+    private final double alpha;
+    private final Direction direction;
+
+    /**
+     * @param threshold smallest relative worsening that counts, e.g. {@code 0.10} for 10%
+     * @param alpha     significance level, e.g. {@code 0.05}
+     */
+    public RegressionDetector(double threshold, double alpha, Direction direction) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("threshold must be >= 0");
+        }
+        if (!(alpha > 0 && alpha < 1)) {
+            throw new IllegalArgumentException("alpha must be in (0, 1)");
+        }
+        this.threshold = threshold;
+        this.alpha = alpha;
+        this.direction = direction;
+    }
+
+    public Comparison compare(double[] baseline, double[] current) {
+        if (baseline.length == 0 || current.length == 0) {
+            throw new IllegalArgumentException("Both sample sets must be non-empty");
+        }
+        double baselineMedian = median(baseline);
+        double currentMedian = median(current);
+        double change = baselineMedian == 0 ? 0 : (currentMedian - baselineMedian) / Math.abs(baselineMedian);
+
+        double pValue = direction == Direction.HIGHER_IS_BETTER
+                ? mannWhitneyLess(current, baseline)
+                : mannWhitneyLess(baseline, current);
+        double worsening = direction == Direction.HIGHER_IS_BETTER ? -change : change;
+        boolean regression = baseline.length >= MIN_SAMPLES && current.length >= MIN_SAMPLES
+                && pValue < alpha && worsening > threshold;
+        return new Comparison(baselineMedian, currentMedian, change, pValue, regression);
+    }
+
+    public Comparison compare(BenchmarkRecord baseline, BenchmarkRecord current) {
+        return compare(baseline.samplesArray(), current.samplesArray());
+    }
+
+    /**
+     * One-sided p-value for the hypothesis that values in {@code x} tend to be smaller than
+     * values in {@code y}. Normal approximation with tie and continuity correction.
+     */
+    static double mannWhitneyLess(double[] x, double[] y) {
+        int n1 = x.length;
+        int n2 = y.length;
+        int n = n1 + n2;
+        double[] all = new double[n];
+        System.arraycopy(x, 0, all, 0, n1);
+        System.arraycopy(y, 0, all, n1, n2);
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(all[a], all[b]));
+
+        // Average ranks over ties; accumulate t^3 - t for the variance correction.
+        double[] ranks = new double[n];
+        double tieTerm = 0;
+        for (int i = 0; i < n; ) {
+            int j = i;
+            while (j + 1 < n && all[order[j + 1]] == all[order[i]]) {
+                j++;
+            }
+            double rank = (i + j) / 2.0 + 1;
+            for (int k = i; k <= j; k++) {
+                ranks[order[k]] = rank;
+            }
+            int t = j - i + 1;
+            tieTerm += (double) t * t * t - t;
+            i = j + 1;
+        }
+
+        double rankSumX = 0;
+        for (int i = 0; i < n1; i++) {
+            rankSumX += ranks[i];
+        }
+        double u = rankSumX - n1 * (n1 + 1) / 2.0;
+        double meanU = n1 * (double) n2 / 2.0;
+        double variance = n1 * (double) n2 / 12.0 * ((n + 1) - tieTerm / ((double) n * (n - 1)));
+        if (variance <= 0) {
+            return 1.0;
+        }
+        double z = (u - meanU + 0.5) / Math.sqrt(variance);
+        return normalCdf(z);
+    }
+
+    static double normalCdf(double z) {
+        return 0.5 * (1 + erf(z / Math.sqrt(2)));
+    }
+
+    // Abramowitz & Stegun 7.1.26, absolute error below 1.5e-7.
+    private static double erf(double x) {
+        double sign = Math.signum(x);
+        double ax = Math.abs(x);
+        double t = 1 / (1 + 0.3275911 * ax);
+        double poly = t * (0.254829592 + t * (-0.284496736 + t * (1.421413741 + t * (-1.453152027 + t * 1.061405429))));
+        return sign * (1 - poly * Math.exp(-ax * ax));
+    }
+
+    static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int mid = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[mid] : (sorted[mid - 1] + sorted[mid]) / 2;
+    }
+}
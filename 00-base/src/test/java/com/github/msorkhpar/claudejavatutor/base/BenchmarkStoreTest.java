@@ -0,0 +1,133 @@
+package com.github.msorkhpar.claudejavatutor.base;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("BenchmarkStore Tests")
+class BenchmarkStoreTest {
+
+    private static final BenchmarkEnvironment ENV = new BenchmarkEnvironment(
+            "21.0.1", "OpenJDK 64-Bit Server VM", 8, 4L << 30, List.of("-Xmx4g"), "abc123");
+
+    private static BenchmarkRecord record(String name, Instant at, BenchmarkEnvironment env, Double... samples) {
+        return new BenchmarkRecord(name, at, env, "ops/s", List.of(samples));
+    }
+
+    @Nested
+    @DisplayName("Persistence")
+    class PersistenceTests {
+
+        @Test
+        @DisplayName("Appended records are read back unchanged, one JSON line each")
+        void testRoundTrip(@TempDir Path dir) throws IOException {
+            BenchmarkStore store = new BenchmarkStore(dir.resolve("nested/history.jsonl"));
+            BenchmarkRecord first = record("sort", Instant.parse("2024-01-01T10:00:00Z"), ENV, 1.0, 2.5, 1e7);
+            BenchmarkRecord second = record("say \"hi\"\n", Instant.parse("2024-01-02T10:00:00Z"),
+                    new BenchmarkEnvironment("21", "vm", 2, 1024, List.of(), null), 3.0);
+
+            store.append(first);
+            store.append(second);
+
+            assertThat(Files.readAllLines(store.file())).hasSize(2);
+            assertThat(store.readAll()).containsExactly(first, second);
+        }
+
+        @Test
+        @DisplayName("A missing file is an empty history and corrupt lines are skipped")
+        void testMissingAndCorrupt(@TempDir Path dir) throws IOException {
+            BenchmarkStore store = new BenchmarkStore(dir.resolve("history.jsonl"));
+            assertThat(store.readAll()).isEmpty();
+
+            store.append(record("a", Instant.now(), ENV, 1.0));
+            Files.writeString(store.file(), "{\"name\":\"trunc", StandardOpenOption.APPEND);
+
+            assertThat(store.readAll()).hasSize(1);
+        }
+
+        @Test
+        @DisplayName("The default store lives outside target/ so mvn clean keeps the history")
+        void testDefaultLocation() {
+            String previous = System.clearProperty(BenchmarkStore.STORE_PROPERTY);
+            try {
+                assertThat(BenchmarkStore.defaultStore().file()).isEqualTo(Path.of("perf", "perf-history.jsonl"));
+
+                System.setProperty(BenchmarkStore.STORE_PROPERTY, "elsewhere.jsonl");
+                assertThat(BenchmarkStore.defaultStore().file()).isEqualTo(Path.of("elsewhere.jsonl"));
+            } finally {
+                if (previous == null) {
+                    System.clearProperty(BenchmarkStore.STORE_PROPERTY);
+                } else {
+                    System.setProperty(BenchmarkStore.STORE_PROPERTY, previous);
+                }
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Baseline lookup")
+    class BaselineTests {
+
+        @Test
+        @DisplayName("baseline returns the oldest comparable run with the same name")
+        void testBaseline(@TempDir Path dir) {
+            BenchmarkStore store = new BenchmarkStore(dir.resolve("history.jsonl"));
+            BenchmarkEnvironment otherMachine = new BenchmarkEnvironment(
+                    "21.0.1", "OpenJDK 64-Bit Server VM", 64, 4L << 30, List.of("-Xmx4g"), "abc123");
+            store.append(record("sort", Instant.parse("2024-01-01T00:00:00Z"), ENV, 1.0));
+            store.append(record("sort", Instant.parse("2024-01-02T00:00:00Z"), ENV, 2.0));
+            store.append(record("map", Instant.parse("2024-01-03T00:00:00Z"), ENV, 3.0));
+            store.append(record("sort", Instant.parse("2024-01-04T00:00:00Z"), otherMachine, 4.0));
+
+            assertThat(store.history("sort")).hasSize(3);
+            assertThat(store.baseline("sort", ENV)).get()
+                    .extracting(BenchmarkRecord::samples).isEqualTo(List.of(1.0));
+            assertThat(store.baseline("sort", otherMachine)).get()
+                    .extracting(BenchmarkRecord::samples).isEqualTo(List.of(4.0));
+            assertThat(store.baseline("missing", ENV)).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Environment")
+    class EnvironmentTests {
+
+        @Test
+        @DisplayName("capture records the running JVM")
+        void testCapture() {
+            BenchmarkEnvironment env = BenchmarkEnvironment.capture();
+
+            assertThat(env.javaVersion()).isEqualTo(System.getProperty("java.version"));
+            assertThat(env.availableProcessors()).isEqualTo(Runtime.getRuntime().availableProcessors());
+            assertThat(env.maxHeapBytes()).isPositive();
+            assertThat(env.jvmArguments()).allSatisfy(arg -> assertThat(arg).startsWith("-X"));
+        }
+
+        @Test
+        @DisplayName("Git SHA is resolved through loose and packed refs")
+        void testGitSha(@TempDir Path dir) throws IOException {
+            Path git = Files.createDirectories(dir.resolve(".git"));
+            Path nested = Files.createDirectories(dir.resolve("module/src"));
+            Files.writeString(git.resolve("HEAD"), "ref: refs/heads/main\n");
+            Files.writeString(git.resolve("packed-refs"), "# pack-refs\n1111111 refs/heads/main\n");
+            assertThat(BenchmarkEnvironment.resolveGitSha(nested)).isEqualTo("1111111");
+
+            Files.createDirectories(git.resolve("refs/heads"));
+            Files.writeString(git.resolve("refs/heads/main"), "2222222\n");
+            assertThat(BenchmarkEnvironment.resolveGitSha(nested)).isEqualTo("2222222");
+
+            Files.writeString(git.resolve("HEAD"), "3333333\n");
+            assertThat(BenchmarkEnvironment.resolveGitSha(nested)).isEqualTo("3333333");
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.github.msorkhpar.claudejavatutor.base;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("LatencyHistogram Tests")
+class LatencyHistogramTest {
+
+    @Nested
+    @DisplayName("Bucketing")
+    class BucketingTests {
+
+        @Test
+        @DisplayName("Small values are stored exactly")
+        void testSmallValuesExact() {
+            for (long v = 0; v < LatencyHistogram.SUB_BUCKETS; v++) {
+                assertThat(LatencyHistogram.highestEquivalentValue(LatencyHistogram.indexOf(v))).isEqualTo(v);
+            }
+        }
+
+        @Test
+        @DisplayName("Bucket upper bound is within 1/32 of the value across the long range")
+        void testRelativeError() {
+            for (long v = 32; v > 0 && v < Long.MAX_VALUE / 3; v = v * 3 + 7) {
+                long upper = LatencyHistogram.highestEquivalentValue(LatencyHistogram.indexOf(v));
+                assertThat(upper).isGreaterThanOrEqualTo(v);
+                assertThat((double) (upper - v) / v).isLessThanOrEqualTo(1.0 / LatencyHistogram.SUB_BUCKETS);
+            }
+            assertThat(LatencyHistogram.highestEquivalentValue(LatencyHistogram.indexOf(Long.MAX_VALUE)))
+                    .isEqualTo(Long.MAX_VALUE);
+        }
+    }
+
+    @Nested
+    @DisplayName("Statistics")
+    class StatisticsTests {
+
+        @Test
+        @DisplayName("Empty histogram reports zeros")
+        void testEmpty() {
+            LatencyHistogram histogram = new LatencyHistogram();
+            assertThat(histogram.getTotalCount()).isZero();
+            assertThat(histogram.getMin()).isZero();
+            assertThat(histogram.getMax()).isZero();
+            assertThat(histogram.getValueAtPercentile(99)).isZero();
+        }
+
+        @Test
+        @DisplayName("Percentiles, mean and standard deviation of 1..1000")
+        void testUniformDistribution() {
+            LatencyHistogram histogram = new LatencyHistogram();
+            for (int i = 1; i <= 1000; i++) {
+                histogram.record(i);
+            }
+            assertThat(histogram.getTotalCount()).isEqualTo(1000);
+            assertThat(histogram.getMin()).isEqualTo(1);
+            assertThat(histogram.getMax()).isEqualTo(1000);
+            assertThat(histogram.getMean()).isCloseTo(500.5, within(1e-9));
+            assertThat(histogram.getStandardDeviation()).isCloseTo(288.82, within(0.01));
+            assertThat(histogram.getValueAtPercentile(50)).isCloseTo(500, withinPercentage(4));
+            assertThat(histogram.getValueAtPercentile(90)).isCloseTo(900, withinPercentage(4));
+            assertThat(histogram.getValueAtPercentile(99)).isCloseTo(990, withinPercentage(4));
+            assertThat(histogram.getValueAtPercentile(100)).isEqualTo(1000);
+        }
+
+        @Test
+        @DisplayName("Negative values are clamped to zero")
+        void testNegativeClamped() {
+            LatencyHistogram histogram = new LatencyHistogram();
+            histogram.record(-5);
+            assertThat(histogram.getMin()).isZero();
+            assertThat(histogram.getValueAtPercentile(50)).isZero();
+        }
+
+        @Test
+        @DisplayName("Percentile outside 0..100 is rejected")
+        void testInvalidPercentile() {
+            LatencyHistogram histogram = new LatencyHistogram();
+            assertThatThrownBy(() -> histogram.getValueAtPercentile(101))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("Merging equals recording everything in one histogram")
+        void testAdd() {
+            LatencyHistogram all = new LatencyHistogram();
+            LatencyHistogram left = new LatencyHistogram();
+            LatencyHistogram right = new LatencyHistogram();
+            for (int i = 0; i < 500; i++) {
+                all.record(i * 7L);
+                (i % 2 == 0 ? left : right).record(i * 7L);
+            }
+            left.add(right);
+            assertThat(left.getTotalCount()).isEqualTo(all.getTotalCount());
+            assertThat(left.getMin()).isEqualTo(all.getMin());
+            assertThat(left.getMax()).isEqualTo(all.getMax());
+            assertThat(left.getMean()).isCloseTo(all.getMean(), within(1e-9));
+            assertThat(left.getStandardDeviation()).isCloseTo(all.getStandardDeviation(), within(1e-6));
+            assertThat(left.getValueAtPercentile(99)).isEqualTo(all.getValueAtPercentile(99));
+        }
+
+        @Test
+        @DisplayName("reset clears all recorded values")
+        void testReset() {
+            LatencyHistogram histogram = new LatencyHistogram();
+            histogram.record(42);
+            histogram.reset();
+            assertThat(histogram.getTotalCount()).isZero();
+            assertThat(histogram.getMean()).isZero();
+        }
+    }
+}
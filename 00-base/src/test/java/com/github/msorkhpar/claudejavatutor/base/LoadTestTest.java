@@ -0,0 +1,183 @@
+package com.github.msorkhpar.claudejavatutor.base;
+
+import com.github.msorkhpar.claudejavatutor.base.LoadTest.LoadTestResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("LoadTest Tests")
+class LoadTestTest {
+
+    @Nested
+    @DisplayName("Closed loop")
+    class ClosedLoopTests {
+
+        @Test
+        @DisplayName("Fixed operation count is split across threads and executed exactly")
+        void testOperationCount() throws InterruptedException {
+            AtomicLong counter = new AtomicLong();
+            LoadTestResult result = LoadTest.run(counter::incrementAndGet, 8, 10_001L);
+
+            assertThat(counter.get()).isEqualTo(10_001);
+            assertThat(result.totalOperations()).isEqualTo(10_001);
+            assertThat(result.threads()).hasSize(8);
+            assertThat(result.threads()).allSatisfy(t ->
+                    assertThat(t.operations()).isBetween(1250L, 1251L));
+            assertThat(result.latency().count()).isEqualTo(10_001);
+            assertThat(result.throughputPerSecond()).isPositive();
+        }
+
+        @Test
+        @DisplayName("Duration-bound run stops after roughly the requested time")
+        void testDuration() throws InterruptedException {
+            AtomicLong counter = new AtomicLong();
+            LoadTestResult result = LoadTest.run(counter::incrementAndGet, 4, Duration.ofMillis(200));
+
+            assertThat(result.elapsed()).isBetween(Duration.ofMillis(200), Duration.ofSeconds(5));
+            assertThat(result.totalOperations()).isEqualTo(counter.get()).isPositive();
+        }
+
+        @Test
+        @DisplayName("Runs on virtual threads")
+        void testVirtualThreads() throws InterruptedException {
+            AtomicLong counter = new AtomicLong();
+            LoadTestResult result = LoadTest.builder(counter::incrementAndGet)
+                    .threads(64)
+                    .operations(6_400)
+                    .virtualThreads()
+                    .run();
+
+            assertThat(counter.get()).isEqualTo(6_400);
+            assertThat(result.threads()).hasSize(64);
+        }
+
+        @Test
+        @DisplayName("Runs on a supplied executor without shutting it down")
+        void testSuppliedExecutor() throws InterruptedException {
+            AtomicLong counter = new AtomicLong();
+            try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+                LoadTestResult result = LoadTest.builder(counter::incrementAndGet)
+                        .threads(4)
+                        .operations(4_000)
+                        .executor(executor)
+                        .run();
+
+                assertThat(result.totalOperations()).isEqualTo(4_000);
+                assertThat(executor.isShutdown()).isFalse();
+            }
+        }
+
+        @Test
+        @DisplayName("A rejected worker fails the run and releases the workers already submitted")
+        void testRejectedWorker() throws InterruptedException {
+            AtomicLong counter = new AtomicLong();
+            // One running worker and one queued; the third is rejected
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(1));
+            try {
+                assertThatThrownBy(() -> LoadTest.builder(counter::incrementAndGet)
+                        .threads(3)
+                        .operations(300)
+                        .executor(executor)
+                        .run())
+                        .isInstanceOf(RejectedExecutionException.class);
+            } finally {
+                executor.shutdown();
+            }
+
+            assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(executor.getCompletedTaskCount()).isEqualTo(2);
+            assertThat(counter.get()).isZero();
+        }
+
+        @Test
+        @DisplayName("Task exceptions are counted as errors")
+        void testErrors() throws InterruptedException {
+            AtomicLong counter = new AtomicLong();
+            LoadTestResult result = LoadTest.run(() -> {
+                if (counter.incrementAndGet() % 2 == 0) {
+                    throw new IllegalStateException("boom");
+                }
+            }, 2, 100L);
+
+            assertThat(result.totalOperations()).isEqualTo(100);
+            assertThat(result.errors()).isEqualTo(50);
+        }
+    }
+
+    @Nested
+    @DisplayName("Open loop")
+    class OpenLoopTests {
+
+        @Test
+        @DisplayName("Issues operations at the requested aggregate rate")
+        void testFixedRate() throws InterruptedException {
+            AtomicLong counter = new AtomicLong();
+            LoadTestResult result = LoadTest.builder(counter::incrementAndGet)
+                    .threads(2)
+                    .duration(Duration.ofMillis(500))
+                    .fixedRate(2_000)
+                    .run();
+
+            // 2000 ops/s for 0.5 s, never more than scheduled
+            assertThat(result.totalOperations()).isBetween(700L, 1_000L);
+        }
+
+        @Test
+        @DisplayName("A stall is charged to every operation it delays (coordinated omission)")
+        void testCoordinatedOmissionCorrection() throws InterruptedException {
+            AtomicLong counter = new AtomicLong();
+            LoadTestResult result = LoadTest.builder(() -> {
+                        if (counter.incrementAndGet() == 10) {
+                            sleep(100);
+                        }
+                    })
+                    .threads(1)
+                    .operations(500)
+                    .fixedRate(1_000)
+                    .run();
+
+            // ~100 of 500 operations were scheduled during the stall
+            assertThat(result.latency().p90()).isGreaterThan(Duration.ofMillis(10).toNanos());
+            assertThat(result.serviceTime().p90()).isLessThan(Duration.ofMillis(5).toNanos());
+            assertThat(result.latency().max()).isGreaterThanOrEqualTo(Duration.ofMillis(100).toNanos());
+        }
+
+        private static void sleep(long millis) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Validation")
+    class ValidationTests {
+
+        @Test
+        @DisplayName("Rejects invalid settings")
+        void testValidation() {
+            assertThatThrownBy(() -> LoadTest.builder(() -> { }).threads(0))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> LoadTest.builder(() -> { }).duration(Duration.ZERO))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> LoadTest.builder(() -> { }).fixedRate(0))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> LoadTest.builder(() -> { }).run())
+                    .isInstanceOf(IllegalStateException.class);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.github.msorkhpar.claudejavatutor.base;
+
+import com.github.msorkhpar.claudejavatutor.base.MetricsRegistry.Counter;
+import com.github.msorkhpar.claudejavatutor.base.MetricsRegistry.MetricSnapshot;
+import com.github.msorkhpar.claudejavatutor.base.MetricsRegistry.Timer;
+import com.github.msorkhpar.claudejavatutor.base.PerformanceTestUtil.AllocationResult;
+import com.github.msorkhpar.claudejavatutor.base.PerformanceTestUtil.MeasurementPlan;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("MetricsRegistry Tests")
+class MetricsRegistryTest {
+
+    @Nested
+    @DisplayName("Registration")
+    class RegistrationTests {
+
+        @Test
+        @DisplayName("Same name and labels return the same metric instance")
+        void testGetOrCreate() {
+            MetricsRegistry registry = new MetricsRegistry();
+
+            Counter a = registry.counter("requests_total", "Requests", "path", "/a");
+            Counter again = registry.counter("requests_total", "Requests", "path", "/a");
+            Counter b = registry.counter("requests_total", "Requests", "path", "/b");
+
+            assertThat(again).isSameAs(a);
+            assertThat(b).isNotSameAs(a);
+        }
+
+        @Test
+        @DisplayName("Invalid names, labels and type clashes are rejected")
+        void testValidation() {
+            MetricsRegistry registry = new MetricsRegistry();
+            registry.counter("jobs_total", "Jobs");
+
+            assertThatIllegalArgumentException().isThrownBy(() -> registry.timer("jobs_total", "Jobs"));
+            assertThatIllegalArgumentException().isThrownBy(() -> registry.counter("1bad", "x"));
+            assertThatIllegalArgumentException().isThrownBy(() -> registry.counter("ok", "x", "dangling"));
+            assertThatIllegalArgumentException().isThrownBy(() -> registry.counter("ok", "x", "bad-label", "v"));
+            assertThatIllegalArgumentException().isThrownBy(() -> registry.timer("ok_timer", "x", "quantile", "v"));
+            assertThatIllegalArgumentException().isThrownBy(() -> registry.counter("ok", "x").add(-1));
+        }
+    }
+
+    @Nested
+    @DisplayName("Recording")
+    class RecordingTests {
+
+        @Test
+        @DisplayName("Counters are exact under concurrent increments")
+        void testConcurrentCounter() throws InterruptedException {
+            Counter counter = new MetricsRegistry().counter("hits_total", "Hits");
+
+            LoadTest.run(counter::increment, 8, 80_000L);
+
+            assertThat(counter.sum()).isEqualTo(80_000);
+        }
+
+        @Test
+        @DisplayName("Timers keep count, sum and percentiles under concurrent recording")
+        void testConcurrentTimer() throws InterruptedException {
+            Timer timer = new MetricsRegistry().timer("op_seconds", "Op");
+            AtomicInteger next = new AtomicInteger();
+
+            LoadTest.run(() -> timer.record(1 + next.getAndIncrement() % 1000), 4, 40_000L);
+
+            assertThat(timer.count()).isEqualTo(40_000);
+            LatencyHistogram.Summary summary = timer.snapshot().summary();
+            assertThat(summary.count()).isEqualTo(40_000);
+            assertThat(summary.max()).isEqualTo(1000);
+            assertThat(summary.p50()).isBetween(485L, 515L);
+            assertThat(timer.totalNanos()).isEqualTo(40L * (1000 * 1001 / 2));
+        }
+
+        @Test
+        @DisplayName("time() records even when the operation throws")
+        void testTimeRecordsOnFailure() {
+            Timer timer = new MetricsRegistry().timer("op_seconds", "Op");
+
+            assertThat(timer.time(() -> 42)).isEqualTo(42);
+            assertThatIllegalStateException().isThrownBy(() -> timer.time(() -> {
+                throw new IllegalStateException();
+            }));
+
+            assertThat(timer.count()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Counter and timer recording do not allocate")
+        void testAllocationFree() {
+            MetricsRegistry registry = new MetricsRegistry();
+            Counter counter = registry.counter("hits_total", "Hits");
+            Timer timer = registry.timer("op_seconds", "Op");
+            int callsPerOperation = 10_000;
+
+            AllocationResult<Long> result = PerformanceTestUtil.measureAllocations(() -> {
+                for (int i = 0; i < callsPerOperation; i++) {
+                    counter.increment();
+                    timer.record(i);
+                }
+                return counter.sum();
+            }, MeasurementPlan.of(5, 10));
+
+            assertThat(result.bytesPerOperation() / callsPerOperation).isLessThan(1.0);
+        }
+    }
+
+    @Nested
+    @DisplayName("Export")
+    class ExportTests {
+
+        @Test
+        @DisplayName("Snapshot lists every metric sorted by name with its labels")
+        void testSnapshot() {
+            MetricsRegistry registry = new MetricsRegistry();
+            registry.gauge("queue_depth", "Depth", () -> 7);
+            registry.counter("jobs_total", "Jobs", "pool", "b").add(2);
+            registry.counter("jobs_total", "Jobs", "pool", "a").add(1);
+
+            List<MetricSnapshot> snapshot = registry.snapshot();
+
+            assertThat(snapshot).extracting(MetricSnapshot::name)
+                    .containsExactly("jobs_total", "jobs_total", "queue_depth");
+            assertThat(snapshot.get(0).labels()).isEqualTo(Map.of("pool", "a"));
+            assertThat(snapshot.get(1).value()).isEqualTo(2);
+            assertThat(snapshot.get(2).value()).isEqualTo(7);
+        }
+
+        @Test
+        @DisplayName("Prometheus text has one HELP/TYPE per family and escaped labels")
+        void testPrometheusText() {
+            MetricsRegistry registry = new MetricsRegistry();
+            registry.counter("jobs_total", "Jobs scheduled", "pool", "a\"b").add(3);
+            registry.counter("jobs_total", "Jobs scheduled", "pool", "c").increment();
+            registry.gauge("temperature", "Temp", () -> 21.5);
+            Timer timer = registry.timer("op_seconds", "Op time");
+            timer.record(Duration.ofMillis(2).toNanos());
+            timer.record(Duration.ofMillis(4).toNanos());
+
+            String text = registry.exportPrometheus();
+
+            assertThat(text).containsOnlyOnce("# TYPE jobs_total counter");
+            assertThat(text).contains("# HELP jobs_total Jobs scheduled\n");
+            assertThat(text).contains("jobs_total{pool=\"a\\\"b\"} 3\n");
+            assertThat(text).contains("jobs_total{pool=\"c\"} 1\n");
+            assertThat(text).contains("# TYPE temperature gauge\ntemperature 21.5\n");
+            assertThat(text).contains("# TYPE op_seconds summary");
+            assertThat(text).contains("op_seconds{quantile=\"0.5\"} 0.002");
+            assertThat(text).contains("op_seconds_count 2\n");
+            assertThat(text).contains("op_seconds_sum 0.006\n");
+        }
+
+        @Test
+        @DisplayName("Export to a file creates parent directories")
+        void testExportToFile(@TempDir Path dir) throws IOException {
+            MetricsRegistry registry = new MetricsRegistry();
+            registry.counter("jobs_total", "Jobs").increment();
+            Path file = dir.resolve("metrics/out.prom");
+
+            registry.exportPrometheus(file);
+
+            assertThat(Files.readString(file)).isEqualTo(registry.exportPrometheus());
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.github.msorkhpar.claudejavatutor.base;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+
+import java.io.IOException;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("PerfBaselineExtension Tests")
+class PerfBaselineExtensionTest {
+
+    private static final String STORE = "target/perf/extension-test.jsonl";
+
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    @PerfBaseline(name = "composed", store = STORE)
+    @interface ComposedGate {
+    }
+
+    // Fixture carrying the annotation the extension reads; never run as a test.
+    static class Fixture {
+        @PerfBaseline(name = "fixture", threshold = 0.10, store = STORE)
+        void annotated() {
+        }
+
+        @ComposedGate
+        void composed() {
+        }
+    }
+
+    private final PerfBaselineExtension extension = new PerfBaselineExtension();
+    private PerfSamples samples;
+    private ExtensionContext context;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.deleteIfExists(Path.of(STORE));
+        samples = new PerfSamples();
+        Method method = Fixture.class.getDeclaredMethod("annotated");
+        ExtensionContext.Store store = mock(ExtensionContext.Store.class);
+        when(store.get("samples", PerfSamples.class)).thenAnswer(inv -> samples);
+        context = mock(ExtensionContext.class);
+        when(context.getStore(any())).thenReturn(store);
+        when(context.getExecutionException()).thenReturn(Optional.empty());
+        when(context.getRequiredTestMethod()).thenReturn(method);
+        doReturn(Fixture.class).when(context).getRequiredTestClass();
+    }
+
+    private void runWith(double center) {
+        samples = new PerfSamples();
+        for (int i = 0; i < 10; i++) {
+            samples.add(center + i);
+        }
+        extension.afterTestExecution(context);
+    }
+
+    @Nested
+    @DisplayName("Gate")
+    class GateTests {
+
+        @Test
+        @DisplayName("First run records a baseline, a stable run passes and a drop fails")
+        void testGate() throws IOException {
+            runWith(1000);
+            assertThat(Files.readAllLines(Path.of(STORE))).hasSize(1);
+
+            assertThatCode(() -> runWith(1005)).doesNotThrowAnyException();
+
+            assertThatThrownBy(() -> runWith(500))
+                    .isInstanceOf(AssertionError.class)
+                    .hasMessageContaining("fixture");
+            // The regressed run is still stored, so the history shows it.
+            assertThat(new BenchmarkStore(Path.of(STORE)).history("fixture")).hasSize(3);
+        }
+
+        @Test
+        @DisplayName("Gradual drift fails against the pinned first run")
+        void testDrift() {
+            runWith(1000);
+            assertThatCode(() -> runWith(960)).doesNotThrowAnyException();
+            assertThatCode(() -> runWith(920)).doesNotThrowAnyException();
+
+            // Only about 4% below the previous run, but about 12% below the first one.
+            assertThatThrownBy(() -> runWith(880))
+                    .isInstanceOf(AssertionError.class)
+                    .hasMessageContaining("fixture");
+        }
+
+        @Test
+        @DisplayName("@PerfBaseline is also honoured as a meta-annotation")
+        void testComposedAnnotation() throws NoSuchMethodException {
+            when(context.getRequiredTestMethod()).thenReturn(Fixture.class.getDeclaredMethod("composed"));
+
+            runWith(1000);
+
+            assertThat(new BenchmarkStore(Path.of(STORE)).history("composed")).hasSize(1);
+        }
+
+        @Test
+        @DisplayName("Failed tests and tests without samples are not recorded")
+        void testSkipped() {
+            extension.afterTestExecution(context);
+
+            when(context.getExecutionException()).thenReturn(Optional.of(new RuntimeException()));
+            samples.add(1);
+            extension.afterTestExecution(context);
+
+            assertThat(Path.of(STORE)).doesNotExist();
+        }
+    }
+
+    @Nested
+    @DisplayName("Samples")
+    class SamplesTests {
+
+        @Test
+        @DisplayName("measureThroughput adds one positive sample per measured iteration")
+        void testMeasureThroughput() {
+            PerfSamples collected = new PerfSamples();
+            collected.measureThroughput(() -> Math.sqrt(42), 100, PerformanceTestUtil.MeasurementPlan.of(2, 7));
+
+            assertThat(collected.samples()).hasSize(7).allSatisfy(s -> assertThat(s).isPositive());
+        }
+
+        @Test
+        @DisplayName("Only PerfSamples parameters are resolved")
+        void testParameterSupport() throws NoSuchMethodException {
+            ParameterContext parameterContext = mock(ParameterContext.class);
+            Method method = SamplesTests.class.getDeclaredMethod("takesSamples", PerfSamples.class, String.class);
+            when(parameterContext.getParameter()).thenReturn(method.getParameters()[0], method.getParameters()[1]);
+
+            assertThat(extension.supportsParameter(parameterContext, context)).isTrue();
+            assertThat(extension.supportsParameter(parameterContext, context)).isFalse();
+        }
+
+        @SuppressWarnings("unused")
+        void takesSamples(PerfSamples samples, String other) {
+        }
+    }
+}
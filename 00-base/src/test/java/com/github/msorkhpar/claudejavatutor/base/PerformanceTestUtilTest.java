@@ -0,0 +1,117 @@
+package com.github.msorkhpar.claudejavatutor.base;
+
+import com.github.msorkhpar.claudejavatutor.base.PerformanceTestUtil.MeasurementPlan;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("PerformanceTestUtil Tests")
+class PerformanceTestUtilTest {
+
+    @Nested
+    @DisplayName("measureExecution")
+    class MeasureExecutionTests {
+
+        @Test
+        @DisplayName("Returns the operation result with a non-negative time")
+        void testMeasureExecution() {
+            var result = PerformanceTestUtil.measureExecution(() -> 21 * 2);
+            assertThat(result.result()).isEqualTo(42);
+            assertThat(result.executionTime()).isNotNegative();
+        }
+    }
+
+    @Nested
+    @DisplayName("measure with MeasurementPlan")
+    class MeasureTests {
+
+        @Test
+        @DisplayName("Runs warmup plus measurement iterations and records only the latter")
+        void testIterationCounts() {
+            AtomicInteger calls = new AtomicInteger();
+            var result = PerformanceTestUtil.measure(calls::incrementAndGet, MeasurementPlan.of(3, 10));
+
+            assertThat(calls.get()).isEqualTo(13);
+            assertThat(result.iterations()).isEqualTo(10);
+            assertThat(result.result()).isEqualTo(13);
+        }
+
+        @Test
+        @DisplayName("Statistics are ordered and the confidence interval contains the mean")
+        void testStatisticsConsistency() {
+            var result = PerformanceTestUtil.measure(() -> {
+                long sum = 0;
+                for (int i = 0; i < 10_000; i++) {
+                    sum += i;
+                }
+                return sum;
+            }, MeasurementPlan.of(5, 50));
+
+            assertThat(result.result()).isEqualTo(49_995_000L);
+            assertThat(result.min()).isLessThanOrEqualTo(result.p50());
+            assertThat(result.p50()).isLessThanOrEqualTo(result.p90());
+            assertThat(result.p90()).isLessThanOrEqualTo(result.p99());
+            assertThat(result.p99()).isLessThanOrEqualTo(result.p999());
+            assertThat(result.p999()).isLessThanOrEqualTo(result.max());
+            assertThat(result.standardDeviation()).isNotNegative();
+            assertThat(result.confidenceInterval().contains(result.mean())).isTrue();
+            assertThat(result.confidenceInterval().level()).isEqualTo(0.95);
+        }
+
+        @Test
+        @DisplayName("Single iteration yields a zero-width confidence interval")
+        void testSingleIteration() {
+            var result = PerformanceTestUtil.measure(() -> "x", MeasurementPlan.of(0, 1));
+            assertThat(result.iterations()).isEqualTo(1);
+            assertThat(result.standardDeviation()).isZero();
+            assertThat(result.confidenceInterval().lower()).isEqualTo(result.confidenceInterval().upper());
+        }
+
+        @Test
+        @DisplayName("Invalid plans are rejected")
+        void testInvalidPlan() {
+            assertThatThrownBy(() -> MeasurementPlan.of(-1, 10)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> MeasurementPlan.of(0, 0)).isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("Confidence interval uses Student's t for small samples")
+        void testTCritical() {
+            assertThat(PerformanceTestUtil.tCritical95(1)).isEqualTo(12.706);
+            assertThat(PerformanceTestUtil.tCritical95(30)).isEqualTo(2.042);
+            assertThat(PerformanceTestUtil.tCritical95(1000)).isEqualTo(1.96);
+        }
+    }
+
+    @Nested
+    @DisplayName("measureAllocations")
+    class MeasureAllocationsTests {
+
+        private static final Object CONSTANT = new Object();
+
+        @Test
+        @DisplayName("Reports at least the array size per operation for an allocating operation")
+        void testAllocatingOperation() {
+            var result = PerformanceTestUtil.measureAllocations(() -> new byte[1024], MeasurementPlan.of(100, 1000));
+
+            assertThat(result.iterations()).isEqualTo(1000);
+            assertThat(result.result()).hasSize(1024);
+            assertThat(result.bytesPerOperation()).isGreaterThanOrEqualTo(1024);
+            assertThat(result.gcCount()).isNotNegative();
+            assertThat(result.gcTimeMillis()).isNotNegative();
+        }
+
+        @Test
+        @DisplayName("Reports (almost) nothing for a non-allocating operation")
+        void testNonAllocatingOperation() {
+            var result = PerformanceTestUtil.measureAllocations(() -> CONSTANT, MeasurementPlan.of(1000, 10_000));
+
+            assertThat(result.result()).isSameAs(CONSTANT);
+            assertThat(result.bytesPerOperation()).isLessThan(1.0);
+        }
+    }
+}
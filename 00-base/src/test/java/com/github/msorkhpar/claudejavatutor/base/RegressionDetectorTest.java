@@ -0,0 +1,131 @@
+package com.github.msorkhpar.claudejavatutor.base;
+
+import com.github.msorkhpar.claudejavatutor.base.RegressionDetector.Comparison;
+import com.github.msorkhpar.claudejavatutor.base.RegressionDetector.Direction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("RegressionDetector Tests")
+class RegressionDetectorTest {
+
+    private static double[] noisy(double center, double spread, int n, long seed) {
+        Random random = new Random(seed);
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = center + (random.nextDouble() - 0.5) * 2 * spread;
+        }
+        return values;
+    }
+
+    @Nested
+    @DisplayName("Mann-Whitney U")
+    class MannWhitneyTests {
+
+        @Test
+        @DisplayName("Fully separated samples give a tiny p-value in one direction only")
+        void testSeparated() {
+            double[] low = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+            double[] high = {11, 12, 13, 14, 15, 16, 17, 18, 19, 20};
+
+            assertThat(RegressionDetector.mannWhitneyLess(low, high)).isLessThan(0.001);
+            assertThat(RegressionDetector.mannWhitneyLess(high, low)).isGreaterThan(0.999);
+        }
+
+        @Test
+        @DisplayName("Matches the exact-table value for a small example")
+        void testKnownValue() {
+            // U = 3 for n1 = n2 = 5; exact one-sided p = 0.0278, normal approximation ~0.037
+            double[] x = {1, 2, 3, 5, 8};
+            double[] y = {4, 6, 7, 9, 10};
+
+            assertThat(RegressionDetector.mannWhitneyLess(x, y)).isBetween(0.02, 0.05);
+        }
+
+        @Test
+        @DisplayName("Identical samples are never significant")
+        void testAllTied() {
+            double[] same = {5, 5, 5, 5, 5, 5};
+
+            assertThat(RegressionDetector.mannWhitneyLess(same, same)).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("Normal CDF is accurate at common quantiles")
+        void testNormalCdf() {
+            assertThat(RegressionDetector.normalCdf(0)).isCloseTo(0.5, within(1e-7));
+            assertThat(RegressionDetector.normalCdf(1.959964)).isCloseTo(0.975, within(1e-6));
+            assertThat(RegressionDetector.normalCdf(-1.644854)).isCloseTo(0.05, within(1e-6));
+        }
+    }
+
+    @Nested
+    @DisplayName("Regression decision")
+    class DecisionTests {
+
+        private final RegressionDetector detector = new RegressionDetector(0.10, 0.05, Direction.HIGHER_IS_BETTER);
+
+        @Test
+        @DisplayName("A significant 30% throughput drop is a regression")
+        void testRegression() {
+            Comparison comparison = detector.compare(noisy(1000, 50, 20, 1), noisy(700, 50, 20, 2));
+
+            assertThat(comparison.regression()).isTrue();
+            assertThat(comparison.relativeChange()).isCloseTo(-0.3, within(0.05));
+            assertThat(comparison.pValue()).isLessThan(0.001);
+        }
+
+        @Test
+        @DisplayName("Noise within the same distribution is not a regression")
+        void testNoise() {
+            Comparison comparison = detector.compare(noisy(1000, 100, 20, 3), noisy(1000, 100, 20, 4));
+
+            assertThat(comparison.regression()).isFalse();
+        }
+
+        @Test
+        @DisplayName("A significant but small drop stays under the threshold")
+        void testBelowThreshold() {
+            Comparison comparison = detector.compare(noisy(1000, 5, 20, 5), noisy(950, 5, 20, 6));
+
+            assertThat(comparison.pValue()).isLessThan(0.05);
+            assertThat(comparison.regression()).isFalse();
+        }
+
+        @Test
+        @DisplayName("An improvement is never a regression")
+        void testImprovement() {
+            Comparison comparison = detector.compare(noisy(1000, 50, 20, 7), noisy(2000, 50, 20, 8));
+
+            assertThat(comparison.relativeChange()).isPositive();
+            assertThat(comparison.regression()).isFalse();
+        }
+
+        @Test
+        @DisplayName("For latency, an increase is the regression")
+        void testLowerIsBetter() {
+            RegressionDetector latency = new RegressionDetector(0.10, 0.05, Direction.LOWER_IS_BETTER);
+
+            assertThat(latency.compare(noisy(100, 5, 20, 9), noisy(150, 5, 20, 10)).regression()).isTrue();
+            assertThat(latency.compare(noisy(150, 5, 20, 11), noisy(100, 5, 20, 12)).regression()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Too few samples are never flagged")
+        void testTooFewSamples() {
+            assertThat(detector.compare(new double[]{1000, 1000}, new double[]{1, 1}).regression()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Invalid parameters are rejected")
+        void testValidation() {
+            assertThatIllegalArgumentException().isThrownBy(() -> new RegressionDetector(-1, 0.05, Direction.HIGHER_IS_BETTER));
+            assertThatIllegalArgumentException().isThrownBy(() -> new RegressionDetector(0.1, 1, Direction.HIGHER_IS_BETTER));
+            assertThatIllegalArgumentException().isThrownBy(() -> detector.compare(new double[0], new double[]{1}));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.github.msorkhpar.claudejavatutor.javabasics;
+
+import com.github.msorkhpar.claudejavatutor.base.PerformanceTestUtil;
+import com.github.msorkhpar.claudejavatutor.base.PerformanceTestUtil.MeasurementPlan;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AutoboxingStatisticalTest {
+
+    private WrapperVsPrimitive testSubject;
+
+    @BeforeEach
+    void setUp() {
+        testSubject = new WrapperVsPrimitive();
+    }
+
+    @Test
+    void testAutoboxingVsPrimitiveMedians() {
+        int limit = 10_000_000;
+        long expectedSum = (long) limit * (limit - 1) / 2;
+
+        var plan = MeasurementPlan.of(2, 5);
+        var primitiveResult = PerformanceTestUtil.measure(() -> testSubject.sumPrimitives(limit), plan);
+        var wrapperResult = PerformanceTestUtil.measure(() -> testSubject.sumWrappers(limit), plan);
+
+        System.out.println("Primitive sum: " + primitiveResult);
+        System.out.println("Wrapper sum: " + wrapperResult);
+
+        assertThat(primitiveResult.result()).isEqualTo(expectedSum);
+        assertThat(wrapperResult.result()).isEqualTo(expectedSum);
+        assertThat(primitiveResult.iterations()).isEqualTo(5);
+        assertThat(wrapperResult.p50()).isGreaterThan(primitiveResult.p50());
+    }
+
+    @Test
+    void testPrimitiveVsWrapperStreamMedians() {
+        int limit = 10_000_000;
+
+        var plan = MeasurementPlan.of(2, 5);
+        var primitiveResult = PerformanceTestUtil.measure(() -> testSubject.sumPrimitiveStream(limit), plan);
+        var wrapperResult = PerformanceTestUtil.measure(() -> testSubject.sumWrapperStream(limit), plan);
+
+        System.out.println("Primitive stream sum: " + primitiveResult);
+        System.out.println("Wrapper stream sum: " + wrapperResult);
+
+        assertThat(primitiveResult.result()).isEqualTo(wrapperResult.result());
+        assertThat(primitiveResult.min()).isLessThanOrEqualTo(primitiveResult.p50());
+        assertThat(wrapperResult.p50()).isGreaterThan(primitiveResult.p50());
+    }
+}
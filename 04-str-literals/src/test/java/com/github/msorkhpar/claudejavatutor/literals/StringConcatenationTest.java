@@ -1,5 +1,7 @@
 package com.github.msorkhpar.claudejavatutor.literals;
 
+import com.github.msorkhpar.claudejavatutor.base.PerformanceTestUtil;
+import com.github.msorkhpar.claudejavatutor.base.PerformanceTestUtil.MeasurementPlan;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
@@ -42,6 +44,30 @@ class StringConcatenationTest {
         }
     }
 
+    @Test
+    void testConcatInLoopAllocation() {
+        List<String> strings = IntStream.range(0, 1000)
+                .mapToObj(i -> "word" + (i % 10))
+                .collect(Collectors.toList());
+        int outputBytes = strings.stream().mapToInt(String::length).sum();
+
+        var builder = PerformanceTestUtil.measureAllocations(
+                () -> StringConcatenation.concatInLoop(strings), MeasurementPlan.of(50, 200));
+        var naive = PerformanceTestUtil.measureAllocations(() -> {
+            String result = "";
+            for (String s : strings) {
+                result += s;
+            }
+            return result;
+        }, MeasurementPlan.of(5, 20));
+        System.out.println("concatInLoop bytes/op: " + builder.bytesPerOperation());
+        System.out.println("naive += bytes/op: " + naive.bytesPerOperation());
+
+        // StringBuilder growth doubles the buffer, so total garbage stays a small multiple of the output
+        assertThat(builder.bytesPerOperation()).isLessThan(outputBytes * 8.0);
+        assertThat(naive.bytesPerOperation()).isGreaterThan(builder.bytesPerOperation() * 10);
+    }
+
     @ParameterizedTest
     @CsvSource({
             "42, true, 3.14",
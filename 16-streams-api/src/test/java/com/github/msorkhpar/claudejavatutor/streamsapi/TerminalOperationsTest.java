@@ -1,5 +1,7 @@
 package com.github.msorkhpar.claudejavatutor.streamsapi;
 
+import com.github.msorkhpar.claudejavatutor.base.PerformanceTestUtil;
+import com.github.msorkhpar.claudejavatutor.base.PerformanceTestUtil.MeasurementPlan;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -222,6 +224,27 @@ class TerminalOperationsTest {
             assertThat(ops.sumWithIdentity(List.of())).isEqualTo(0);
         }
 
+        @Test
+        @DisplayName("sumWithIdentity boxes every partial sum while mapToInt().sum() does not")
+        void testBoxedReduceAllocation() {
+            List<Integer> list = new ArrayList<>();
+            for (int i = 0; i < 10_000; i++) {
+                list.add(1_000);
+            }
+
+            var boxed = PerformanceTestUtil.measureAllocations(
+                    () -> ops.sumWithIdentity(list), MeasurementPlan.of(20, 100));
+            var primitive = PerformanceTestUtil.measureAllocations(
+                    () -> list.stream().mapToInt(Integer::intValue).sum(), MeasurementPlan.of(20, 100));
+            System.out.println("reduce(0, Integer::sum): " + boxed);
+            System.out.println("mapToInt().sum(): " + primitive);
+
+            assertThat(boxed.result()).isEqualTo(primitive.result());
+            // One Integer (16 bytes) per element for the boxed path; a fixed pipeline cost for the primitive one
+            assertThat(boxed.bytesPerOperation()).isGreaterThan(list.size() * 8.0);
+            assertThat(primitive.bytesPerOperation()).isLessThan(list.size() * 1.0);
+        }
+
         @Test
         @DisplayName("productWithIdentity should multiply all integers")
         void testProductWithIdentity() {
@@ -1,7 +1,9 @@
 package com.github.msorkhpar.claudejavatutor.concurrencypitfalls;
 
+import com.github.msorkhpar.claudejavatutor.base.LoadTest;
 import org.junit.jupiter.api.*;
 
+import java.time.Duration;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -503,6 +505,23 @@ class AtomicityViolationTest {
             DataRace.runConcurrentIncrements(threads, perThread, counter::increment);
             assertThat(counter.sum()).isEqualTo((long) threads * perThread);
         }
+
+        @Test
+        @DisplayName("LoadTest compares LongAdder against a synchronized counter at 64 threads")
+        void comparedWithSynchronizedCounterUnderLoad() throws InterruptedException {
+            var adder = new AtomicityViolation.HighContentionCounter();
+            var synchronizedCounter = new DataRace.SynchronizedCounter();
+
+            var adderResult = LoadTest.run(adder::increment, 64, Duration.ofMillis(300));
+            var synchronizedResult = LoadTest.run(synchronizedCounter::increment, 64, Duration.ofMillis(300));
+            System.out.println("LongAdder:    " + adderResult);
+            System.out.println("synchronized: " + synchronizedResult);
+
+            assertThat(adder.sum()).isEqualTo(adderResult.totalOperations());
+            assertThat(synchronizedCounter.getCounter()).isEqualTo(synchronizedResult.totalOperations());
+            assertThat(adderResult.threads()).hasSize(64);
+            assertThat(adderResult.errors()).isZero();
+        }
     }
 
     // ── MaxAccumulator ───────────────────────────────────────────────────────
@@ -1,5 +1,7 @@
 package com.github.msorkhpar.claudejavatutor.solidprinciples;
 
+import com.github.msorkhpar.claudejavatutor.base.MetricsRegistry;
+
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -176,15 +178,29 @@ public class DependencyInversion {
      */
     public static class JobScheduler {
         private final ExecutionStrategy strategy;
+        // Per instance; the registry counter is shared by schedulers with the same strategy type
         private final AtomicInteger jobCount = new AtomicInteger(0);
+        private final MetricsRegistry.Counter jobs;
 
         public JobScheduler(ExecutionStrategy strategy) {
+            this(strategy, new MetricsRegistry());
+        }
+
+        /**
+         * The scheduler depends on the registry abstraction too; pass a shared one to export
+         * job counts alongside other components.
+         */
+        public JobScheduler(ExecutionStrategy strategy, MetricsRegistry metrics) {
             this.strategy = Objects.requireNonNull(strategy, "ExecutionStrategy cannot be null");
+            Objects.requireNonNull(metrics, "MetricsRegistry cannot be null");
+            this.jobs = metrics.counter("job_scheduler_jobs_total", "Jobs submitted to the scheduler",
+                    "strategy", strategy.getClass().getSimpleName());
         }
 
         public <T> Future<T> scheduleJob(Callable<T> job) {
             if (job == null) throw new NullPointerException("Job cannot be null");
             jobCount.incrementAndGet();
+            jobs.increment();
             return strategy.execute(job);
         }
 
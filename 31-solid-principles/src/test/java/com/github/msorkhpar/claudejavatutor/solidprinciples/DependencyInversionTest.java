@@ -1,5 +1,6 @@
 package com.github.msorkhpar.claudejavatutor.solidprinciples;
 
+import com.github.msorkhpar.claudejavatutor.base.MetricsRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -188,6 +189,23 @@ class DependencyInversionTest {
             assertThat(scheduler.getJobCount()).isEqualTo(3);
         }
 
+        @Test
+        @DisplayName("Should export job counts labelled by strategy")
+        void testJobCountMetrics() {
+            strategy = new DependencyInversion.VirtualThreadStrategy();
+            MetricsRegistry metrics = new MetricsRegistry();
+            var scheduler = new DependencyInversion.JobScheduler(strategy, metrics);
+            var other = new DependencyInversion.JobScheduler(strategy, metrics);
+            scheduler.scheduleJob(() -> 1);
+            scheduler.scheduleJob(() -> 2);
+            other.scheduleJob(() -> 3);
+
+            assertThat(scheduler.getJobCount()).isEqualTo(2);
+            assertThat(other.getJobCount()).isEqualTo(1);
+            assertThat(metrics.exportPrometheus())
+                    .contains("job_scheduler_jobs_total{strategy=\"VirtualThreadStrategy\"} 3\n");
+        }
+
         @Test
         @DisplayName("Should reject null strategy")
         void testNullStrategy() {
@@ -1,5 +1,7 @@
 package com.github.msorkhpar.claudejavatutor.compositioninheritance;
 
+import com.github.msorkhpar.claudejavatutor.base.MetricsRegistry;
+
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -97,11 +99,27 @@ public class CompositionInConcurrency {
      */
     public static class ResilientExecutor {
         private final RetryStrategy retryStrategy;
+        // Per instance, while the registry counters below add up every executor sharing it
         private final AtomicInteger totalAttempts = new AtomicInteger(0);
+        private final MetricsRegistry.Counter attempts;
+        private final MetricsRegistry.Counter failures;
 
         public ResilientExecutor(RetryStrategy retryStrategy) {
+            this(retryStrategy, new MetricsRegistry());
+        }
+
+        /**
+         * Registers attempt and failure counters in the given registry, so several executors
+         * can share one export.
+         */
+        public ResilientExecutor(RetryStrategy retryStrategy, MetricsRegistry metrics) {
             Objects.requireNonNull(retryStrategy, "RetryStrategy must not be null");
+            Objects.requireNonNull(metrics, "MetricsRegistry must not be null");
             this.retryStrategy = retryStrategy;
+            this.attempts = metrics.counter("resilient_executor_attempts_total",
+                    "Task attempts including retries");
+            this.failures = metrics.counter("resilient_executor_failures_total",
+                    "Tasks that failed after exhausting their retries");
         }
 
         /**
@@ -116,11 +134,13 @@ public class CompositionInConcurrency {
             while (true) {
                 attempt++;
                 totalAttempts.incrementAndGet();
+                attempts.increment();
                 try {
                     return task.get();
                 } catch (Exception e) {
                     lastException = e;
                     if (!retryStrategy.shouldRetry(attempt, e)) {
+                        failures.increment();
                         throw lastException;
                     }
                     long delay = retryStrategy.delayMillis(attempt);
@@ -1,5 +1,6 @@
 package com.github.msorkhpar.claudejavatutor.compositioninheritance;
 
+import com.github.msorkhpar.claudejavatutor.base.MetricsRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -207,6 +208,27 @@ class CompositionInConcurrencyTest {
             assertThat(result).isEqualTo("ok");
             assertThat(executor.getTotalAttempts()).isEqualTo(2);
         }
+
+        @Test
+        @DisplayName("Should export attempts and failures through a shared registry")
+        void testSharedMetrics() {
+            MetricsRegistry metrics = new MetricsRegistry();
+            var first = new CompositionInConcurrency.ResilientExecutor(
+                    new CompositionInConcurrency.FixedRetryStrategy(2, 0), metrics);
+            var second = new CompositionInConcurrency.ResilientExecutor(
+                    new CompositionInConcurrency.FixedRetryStrategy(1, 0), metrics);
+
+            assertThatThrownBy(() -> first.execute(() -> {
+                throw new IllegalStateException("always");
+            })).isInstanceOf(IllegalStateException.class);
+            assertThatCode(() -> second.execute(() -> "ok")).doesNotThrowAnyException();
+
+            assertThat(first.getTotalAttempts()).isEqualTo(3);
+            assertThat(second.getTotalAttempts()).isEqualTo(1);
+            assertThat(metrics.exportPrometheus())
+                    .contains("resilient_executor_attempts_total 4\n")
+                    .contains("resilient_executor_failures_total 1\n");
+        }
     }
 
     // ---- TaskRunner decorators ----
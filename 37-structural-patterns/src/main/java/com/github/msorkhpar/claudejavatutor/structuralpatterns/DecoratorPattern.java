@@ -1,7 +1,9 @@
 package com.github.msorkhpar.claudejavatutor.structuralpatterns;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import com.github.msorkhpar.claudejavatutor.base.MetricsRegistry;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 import java.util.Objects;
 
@@ -142,32 +144,64 @@ public class DecoratorPattern {
     }
 
     /**
-     * Decorator that adds logging around message sending.
+     * Decorator that adds logging around message sending. The log keeps only the most recent
+     * {@value #MAX_LOG_ENTRIES} entries; message counts and send times go to a
+     * {@link MetricsRegistry}, which stays the same size however many messages are sent.
      */
     public static class LoggingNotifierDecorator extends NotifierDecorator {
 
-        private final List<String> log = new ArrayList<>();
+        static final int MAX_LOG_ENTRIES = 1_000;
+
+        private final Deque<String> log = new ArrayDeque<>();
+        private final MetricsRegistry.Counter sent;
+        private final MetricsRegistry.Counter failed;
+        private final MetricsRegistry.Timer sendTime;
 
         public LoggingNotifierDecorator(Notifier wrappee) {
+            this(wrappee, new MetricsRegistry());
+        }
+
+        public LoggingNotifierDecorator(Notifier wrappee, MetricsRegistry metrics) {
             super(wrappee);
+            Objects.requireNonNull(metrics, "MetricsRegistry must not be null");
+            this.sent = metrics.counter("notifier_messages_sent_total", "Messages sent successfully");
+            this.failed = metrics.counter("notifier_messages_failed_total", "Messages whose send threw");
+            this.sendTime = metrics.timer("notifier_send_seconds", "Time spent in the wrapped notifier");
         }
 
         @Override
         public String send(String message) {
             Objects.requireNonNull(message, "Message must not be null");
-            log.add("Sending: " + message);
-            String result = super.send(message);
-            log.add("Sent: " + result);
+            append("Sending: " + message);
+            long start = System.nanoTime();
+            String result;
+            try {
+                result = super.send(message);
+            } catch (RuntimeException e) {
+                failed.increment();
+                throw e;
+            } finally {
+                sendTime.record(System.nanoTime() - start);
+            }
+            sent.increment();
+            append("Sent: " + result);
             return result;
         }
 
+        private void append(String entry) {
+            if (log.size() == MAX_LOG_ENTRIES) {
+                log.removeFirst();
+            }
+            log.addLast(entry);
+        }
+
         @Override
         public String getDescription() {
             return "Logging(" + super.getDescription() + ")";
         }
 
         public List<String> getLog() {
-            return Collections.unmodifiableList(log);
+            return List.copyOf(log);
         }
     }
 
@@ -1,5 +1,6 @@
 package com.github.msorkhpar.claudejavatutor.structuralpatterns;
 
+import com.github.msorkhpar.claudejavatutor.base.MetricsRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -213,6 +214,48 @@ class DecoratorPatternTest {
             assertThat(logging.getLog()).hasSize(4);
         }
 
+        @Test
+        @DisplayName("Should keep only the most recent log entries")
+        void testBoundedLog() {
+            var notifier = new DecoratorPattern.EmailNotifier("user@example.com");
+            var logging = new DecoratorPattern.LoggingNotifierDecorator(notifier);
+
+            for (int i = 0; i < DecoratorPattern.LoggingNotifierDecorator.MAX_LOG_ENTRIES; i++) {
+                logging.send("Message " + i);
+            }
+
+            assertThat(logging.getLog()).hasSize(DecoratorPattern.LoggingNotifierDecorator.MAX_LOG_ENTRIES);
+            assertThat(logging.getLog().get(0)).startsWith("Sending: Message 500");
+        }
+
+        @Test
+        @DisplayName("Should count sends and failures in the registry")
+        void testMetrics() {
+            MetricsRegistry metrics = new MetricsRegistry();
+            var logging = new DecoratorPattern.LoggingNotifierDecorator(
+                    new DecoratorPattern.EmailNotifier("user@example.com"), metrics);
+            var failing = new DecoratorPattern.LoggingNotifierDecorator(new DecoratorPattern.Notifier() {
+                @Override
+                public String send(String message) {
+                    throw new IllegalStateException("SMTP down");
+                }
+
+                @Override
+                public String getDescription() {
+                    return "Failing";
+                }
+            }, metrics);
+
+            logging.send("First");
+            logging.send("Second");
+            assertThatIllegalStateException().isThrownBy(() -> failing.send("Third"));
+
+            assertThat(metrics.exportPrometheus())
+                    .contains("notifier_messages_sent_total 2\n")
+                    .contains("notifier_messages_failed_total 1\n")
+                    .contains("notifier_send_seconds_count 3\n");
+        }
+
         @Test
         @DisplayName("Should return unmodifiable log")
         void testUnmodifiableLog() {
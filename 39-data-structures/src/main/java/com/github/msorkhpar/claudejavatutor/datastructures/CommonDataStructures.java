@@ -323,6 +323,10 @@ public class CommonDataStructures {
     /**
      * A simple Binary Search Tree (BST) implementation demonstrating
      * tree data structure fundamentals: insertion, search, traversal, and deletion.
+     * <p>
+     * The tree is not balanced and every operation recurses, so sorted input makes it a linked
+     * list and deep trees overflow the stack. {@link OrderStatisticTree} is the balanced,
+     * iterative counterpart with O(log n) rank and select.
      */
     public static class BinarySearchTree<T extends Comparable<T>> {
 
@@ -783,5 +787,21 @@ public class CommonDataStructures {
         public boolean isDirected() {
             return directed;
         }
+
+        /**
+         * Returns the vertices ordered so that every edge points forward (Kahn's algorithm).
+         *
+         * @throws IllegalStateException if the graph is undirected or has a cycle
+         */
+        public List<T> topologicalSort() {
+            return toCsr().topologicalSort();
+        }
+
+        /**
+         * Returns an immutable, array-backed copy of this graph for read-heavy traversal.
+         */
+        public CsrGraph<T> toCsr() {
+            return CsrGraph.of(this);
+        }
     }
 }
@@ -0,0 +1,618 @@
+package com.github.msorkhpar.claudejavatutor.datastructures;
+
+import com.github.msorkhpar.claudejavatutor.datastructures.CommonDataStructures.Graph;
+
+import java.util.*;
+import java.util.function.IntConsumer;
+import java.util.function.ToDoubleBiFunction;
+
+/**
+ * Immutable compressed sparse row (CSR) snapshot of a {@link Graph}.
+ * <p>
+ * Every vertex gets a dense int id in the graph's iteration order, and the whole adjacency
+ * structure is two arrays: the neighbors of vertex {@code v} are
+ * {@code targets[offsets[v]] .. targets[offsets[v + 1] - 1]}, in the order {@link Graph} returns
+ * them. An edge therefore costs one {@code int} instead of a {@code LinkedHashSet} entry, and a
+ * traversal reads a contiguous slice instead of chasing hash buckets. Traversals track visited
+ * vertices in a {@link BitSet} and queue ids in an {@code int[]}, so a BFS over {@code n} vertices
+ * allocates about {@code 4.1n} bytes of state however many edges it walks.
+ * <p>
+ * {@link #bfs}, {@link #dfs}, {@link #hasCycle()} and {@link #shortestPath} return exactly what
+ * the same methods of the source graph return. A graph may also carry a {@code double} weight per
+ * edge, stored in a third array parallel to the targets, for {@link ShortestPaths}. The
+ * {@code T}-to-id dictionary is only consulted at the boundaries; the {@code int} overloads skip
+ * it entirely.
+ * <pre>{@code
+ * CsrGraph<String> csr = CsrGraph.of(graph); // later changes to graph are not seen
+ * List<String> route = csr.shortestPath("A", "F");
+ * }</pre>
+ */
+public final class CsrGraph<T> {
+
+    private final int vertexCount;
+    // Both null when every vertex is the Integer equal to its id
+    private final Object[] vertices;
+    private final Map<T, Integer> ids;
+    private final int[] offsets;
+    private final int[] targets;
+    // Parallel to targets; null when every edge weighs 1
+    private final double[] weights;
+    private final boolean directed;
+    private volatile CsrGraph<T> transposed;
+
+    private CsrGraph(int vertexCount, Object[] vertices, Map<T, Integer> ids, int[] offsets, int[] targets,
+                     double[] weights, boolean directed) {
+        this.vertexCount = vertexCount;
+        this.vertices = vertices;
+        this.ids = ids;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.directed = directed;
+    }
+
+    /**
+     * Copies {@code graph} into CSR form. Undirected edges are stored in both directions, as
+     * {@link Graph} stores them.
+     */
+    public static <T> CsrGraph<T> of(Graph<T> graph) {
+        return of(graph, null);
+    }
+
+    /**
+     * Copies {@code graph} into CSR form with the weight of each edge given by {@code weight},
+     * e.g. the distance between its endpoints.
+     *
+     * @throws IllegalArgumentException if a weight is negative or not finite
+     */
+    public static <T> CsrGraph<T> of(Graph<T> graph, ToDoubleBiFunction<? super T, ? super T> weight) {
+        Set<T> vertexSet = graph.getVertices();
+        int n = vertexSet.size();
+        Object[] vertices = new Object[n];
+        Map<T, Integer> ids = HashMap.newHashMap(n);
+        int[] offsets = new int[n + 1];
+        long edges = 0;
+        int id = 0;
+        for (T vertex : vertexSet) {
+            vertices[id] = vertex;
+            ids.put(vertex, id);
+            edges += graph.getNeighbors(vertex).size();
+            if (edges > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Too many edges for int offsets: " + edges);
+            }
+            offsets[++id] = (int) edges;
+        }
+        int[] targets = new int[(int) edges];
+        double[] weights = weight == null ? null : new double[(int) edges];
+        int e = 0;
+        for (Object vertex : vertices) {
+            @SuppressWarnings("unchecked")
+            T source = (T) vertex;
+            for (T neighbor : graph.getNeighbors(source)) {
+                if (weights != null) {
+                    weights[e] = checkWeight(weight.applyAsDouble(source, neighbor));
+                }
+                targets[e++] = ids.get(neighbor);
+            }
+        }
+        return new CsrGraph<>(n, vertices, ids, offsets, targets, weights, graph.isDirected());
+    }
+
+    /**
+     * Builds a graph over the vertices {@code 0 .. vertexCount - 1} from parallel edge arrays,
+     * without a {@link Graph} or a dictionary in between. As in {@link Graph}, duplicate edges
+     * are stored once and undirected edges in both directions; neighbors are in ascending order.
+     */
+    public static CsrGraph<Integer> fromEdges(int vertexCount, int[] sources, int[] destinations, boolean directed) {
+        return fromEdges(vertexCount, sources, destinations, null, directed);
+    }
+
+    /**
+     * Like {@link #fromEdges(int, int[], int[], boolean)}, with {@code weights[i]} the weight of
+     * the i-th edge. Of duplicate edges the lightest is kept.
+     *
+     * @throws IllegalArgumentException if a weight is negative or not finite
+     */
+    public static CsrGraph<Integer> fromEdges(int vertexCount, int[] sources, int[] destinations, double[] weights,
+                                              boolean directed) {
+        if (vertexCount < 0) {
+            throw new IllegalArgumentException("vertexCount must be >= 0");
+        }
+        if (sources.length != destinations.length || weights != null && weights.length != sources.length) {
+            throw new IllegalArgumentException("Edge arrays differ in length");
+        }
+        long stored = directed ? sources.length : 2L * sources.length;
+        if (stored > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many edges for int offsets: " + stored);
+        }
+        int[] offsets = new int[vertexCount + 1];
+        for (int i = 0; i < sources.length; i++) {
+            offsets[Objects.checkIndex(sources[i], vertexCount) + 1]++;
+            if (!directed) {
+                offsets[Objects.checkIndex(destinations[i], vertexCount) + 1]++;
+            } else {
+                Objects.checkIndex(destinations[i], vertexCount);
+            }
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] fill = Arrays.copyOf(offsets, vertexCount);
+        int[] targets = new int[(int) stored];
+        double[] edgeWeights = weights == null ? null : new double[(int) stored];
+        for (int i = 0; i < sources.length; i++) {
+            if (edgeWeights != null) {
+                double w = checkWeight(weights[i]);
+                edgeWeights[fill[sources[i]]] = w;
+                if (!directed) {
+                    edgeWeights[fill[destinations[i]] + (sources[i] == destinations[i] ? 1 : 0)] = w;
+                }
+            }
+            targets[fill[sources[i]]++] = destinations[i];
+            if (!directed) {
+                targets[fill[destinations[i]]++] = sources[i];
+            }
+        }
+        int write = edgeWeights == null ? squeezeRows(offsets, targets) : squeezeRows(offsets, targets, edgeWeights);
+        return new CsrGraph<>(vertexCount, null, null, offsets, Arrays.copyOf(targets, write),
+                edgeWeights == null ? null : Arrays.copyOf(edgeWeights, write), directed);
+    }
+
+    /**
+     * Sorts each row and squeezes out duplicates in place, rewriting {@code offsets}. Returns the
+     * number of edges left.
+     */
+    private static int squeezeRows(int[] offsets, int[] targets) {
+        int write = 0;
+        for (int v = 0; v < offsets.length - 1; v++) {
+            int from = offsets[v];
+            int to = offsets[v + 1];
+            Arrays.sort(targets, from, to);
+            offsets[v] = write;
+            for (int e = from; e < to; e++) {
+                if (e == from || targets[e] != targets[e - 1]) {
+                    targets[write++] = targets[e];
+                }
+            }
+        }
+        offsets[offsets.length - 1] = write;
+        return write;
+    }
+
+    /**
+     * As {@link #squeezeRows(int[], int[])}, moving the weights along and keeping the lightest of
+     * duplicate edges.
+     */
+    private static int squeezeRows(int[] offsets, int[] targets, double[] weights) {
+        int write = 0;
+        long[] keys = new long[0];
+        for (int v = 0; v < offsets.length - 1; v++) {
+            int from = offsets[v];
+            int to = offsets[v + 1];
+            int length = to - from;
+            if (keys.length < length) {
+                keys = new long[Math.max(length, keys.length * 2)];
+            }
+            // Sort (target, position) pairs so the weights can follow their targets
+            for (int i = 0; i < length; i++) {
+                keys[i] = (long) targets[from + i] << 32 | i;
+            }
+            Arrays.sort(keys, 0, length);
+            int[] rowTargets = Arrays.copyOfRange(targets, from, to);
+            double[] rowWeights = Arrays.copyOfRange(weights, from, to);
+            offsets[v] = write;
+            for (int i = 0; i < length; i++) {
+                int position = (int) keys[i];
+                int target = rowTargets[position];
+                if (i > 0 && target == targets[write - 1]) {
+                    weights[write - 1] = Math.min(weights[write - 1], rowWeights[position]);
+                } else {
+                    targets[write] = target;
+                    weights[write++] = rowWeights[position];
+                }
+            }
+        }
+        offsets[offsets.length - 1] = write;
+        return write;
+    }
+
+    private static double checkWeight(double weight) {
+        if (!(weight >= 0) || weight == Double.POSITIVE_INFINITY) {
+            throw new IllegalArgumentException("Edge weight must be finite and non-negative: " + weight);
+        }
+        return weight;
+    }
+
+    /**
+     * A synthetic R-MAT graph with {@code 2^scale} vertices and {@code edgeFactor * 2^scale}
+     * generated edges, using the Graph500 quadrant probabilities (0.57, 0.19, 0.19, 0.05). The
+     * degree distribution is skewed like that of social and web graphs: a few hubs and a long
+     * tail of low-degree vertices. Duplicates are dropped, so slightly fewer edges remain.
+     */
+    public static CsrGraph<Integer> rmat(int scale, int edgeFactor, boolean directed, long seed) {
+        if (scale < 0 || scale > 30) {
+            throw new IllegalArgumentException("scale must be in [0, 30]");
+        }
+        int vertexCount = 1 << scale;
+        long edgeCount = (long) edgeFactor * vertexCount;
+        if (edgeFactor < 0 || edgeCount > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("edgeFactor out of range: " + edgeFactor);
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] sources = new int[(int) edgeCount];
+        int[] destinations = new int[(int) edgeCount];
+        for (int i = 0; i < sources.length; i++) {
+            int source = 0;
+            int destination = 0;
+            for (int bit = 0; bit < scale; bit++) {
+                double p = random.nextDouble();
+                if (p >= 0.57) {
+                    if (p < 0.76) {
+                        destination |= 1 << bit;
+                    } else if (p < 0.95) {
+                        source |= 1 << bit;
+                    } else {
+                        source |= 1 << bit;
+                        destination |= 1 << bit;
+                    }
+                }
+            }
+            sources[i] = source;
+            destinations[i] = destination;
+        }
+        return fromEdges(vertexCount, sources, destinations, directed);
+    }
+
+    /**
+     * The graph with every edge reversed, sharing this graph's vertex ids; an undirected graph is
+     * its own transpose. Built on first use and then cached.
+     */
+    public CsrGraph<T> transpose() {
+        if (!directed) {
+            return this;
+        }
+        CsrGraph<T> result = transposed;
+        if (result == null) {
+            int[] reverseOffsets = new int[vertexCount + 1];
+            for (int target : targets) {
+                reverseOffsets[target + 1]++;
+            }
+            for (int v = 0; v < vertexCount; v++) {
+                reverseOffsets[v + 1] += reverseOffsets[v];
+            }
+            int[] fill = Arrays.copyOf(reverseOffsets, vertexCount);
+            int[] reverseTargets = new int[targets.length];
+            double[] reverseWeights = weights == null ? null : new double[weights.length];
+            for (int v = 0; v < vertexCount; v++) {
+                for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                    if (reverseWeights != null) {
+                        reverseWeights[fill[targets[e]]] = weights[e];
+                    }
+                    reverseTargets[fill[targets[e]]++] = v;
+                }
+            }
+            result = new CsrGraph<>(vertexCount, vertices, ids, reverseOffsets, reverseTargets, reverseWeights, true);
+            result.transposed = this;
+            transposed = result;
+        }
+        return result;
+    }
+
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Number of edges, counting an undirected edge once, as {@link Graph#edgeCount()} does.
+     */
+    public int edgeCount() {
+        return directed ? targets.length : targets.length / 2;
+    }
+
+    public boolean isDirected() {
+        return directed;
+    }
+
+    public boolean isWeighted() {
+        return weights != null;
+    }
+
+    /**
+     * Returns the id of {@code vertex}, or -1 if it is not in the graph.
+     */
+    public int idOf(T vertex) {
+        if (ids == null) {
+            return vertex instanceof Integer id && id >= 0 && id < vertexCount ? id : -1;
+        }
+        Integer id = ids.get(vertex);
+        return id == null ? -1 : id;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T vertexOf(int id) {
+        Objects.checkIndex(id, vertexCount);
+        return (T) (vertices == null ? Integer.valueOf(id) : vertices[id]);
+    }
+
+    public int degree(int id) {
+        Objects.checkIndex(id, vertexCount);
+        return offsets[id + 1] - offsets[id];
+    }
+
+    public boolean hasEdge(int source, int destination) {
+        Objects.checkIndex(source, vertexCount);
+        for (int e = offsets[source]; e < offsets[source + 1]; e++) {
+            if (targets[e] == destination) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void forEachNeighbor(int id, IntConsumer action) {
+        Objects.checkIndex(id, vertexCount);
+        for (int e = offsets[id]; e < offsets[id + 1]; e++) {
+            action.accept(targets[e]);
+        }
+    }
+
+    /**
+     * The row offsets, {@code vertexCount() + 1} long. Shared, not copied: do not modify.
+     */
+    int[] offsets() {
+        return offsets;
+    }
+
+    /**
+     * The edge targets, indexed by {@link #offsets()}. Shared, not copied: do not modify.
+     */
+    int[] targets() {
+        return targets;
+    }
+
+    /**
+     * The edge weights, indexed like {@link #targets()}, or null if every edge weighs 1. Shared,
+     * not copied: do not modify.
+     */
+    double[] weights() {
+        return weights;
+    }
+
+    /**
+     * Vertices reachable from {@code start} in BFS order, or an empty list if it is not in the
+     * graph.
+     */
+    public List<T> bfs(T start) {
+        int id = idOf(start);
+        return id < 0 ? Collections.emptyList() : toVertices(bfs(id));
+    }
+
+    /**
+     * Ids reachable from {@code start} in BFS order.
+     */
+    public int[] bfs(int start) {
+        Objects.checkIndex(start, vertexCount);
+        int[] queue = new int[vertexCount];
+        BitSet seen = new BitSet(vertexCount);
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        seen.set(start);
+        while (head < tail) {
+            int current = queue[head++];
+            for (int e = offsets[current]; e < offsets[current + 1]; e++) {
+                int neighbor = targets[e];
+                if (!seen.get(neighbor)) {
+                    seen.set(neighbor);
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        return Arrays.copyOf(queue, tail);
+    }
+
+    /**
+     * Vertices reachable from {@code start} in DFS pre-order, or an empty list if it is not in
+     * the graph.
+     */
+    public List<T> dfs(T start) {
+        int id = idOf(start);
+        return id < 0 ? Collections.emptyList() : toVertices(dfs(id));
+    }
+
+    /**
+     * Ids reachable from {@code start} in DFS pre-order. Iterative, so path length is not bounded
+     * by the thread's stack.
+     */
+    public int[] dfs(int start) {
+        Objects.checkIndex(start, vertexCount);
+        int n = vertexCount;
+        int[] order = new int[n];
+        int count = 0;
+        // stack[i] is a vertex on the current path, cursor[i] the next edge of it to follow
+        int[] stack = new int[n];
+        int[] cursor = new int[n];
+        BitSet seen = new BitSet(n);
+        int depth = 0;
+        stack[0] = start;
+        cursor[0] = offsets[start];
+        seen.set(start);
+        order[count++] = start;
+        while (depth >= 0) {
+            int current = stack[depth];
+            if (cursor[depth] == offsets[current + 1]) {
+                depth--;
+                continue;
+            }
+            int neighbor = targets[cursor[depth]++];
+            if (!seen.get(neighbor)) {
+                seen.set(neighbor);
+                order[count++] = neighbor;
+                depth++;
+                stack[depth] = neighbor;
+                cursor[depth] = offsets[neighbor];
+            }
+        }
+        return Arrays.copyOf(order, count);
+    }
+
+    /**
+     * Whether a DFS finds a back edge. As in {@link Graph#hasCycle()}, every undirected edge
+     * counts as a cycle because it is stored in both directions.
+     */
+    public boolean hasCycle() {
+        int n = vertexCount;
+        BitSet visited = new BitSet(n);
+        BitSet onPath = new BitSet(n);
+        int[] stack = new int[n];
+        int[] cursor = new int[n];
+        for (int root = visited.nextClearBit(0); root < n; root = visited.nextClearBit(root + 1)) {
+            int depth = 0;
+            stack[0] = root;
+            cursor[0] = offsets[root];
+            visited.set(root);
+            onPath.set(root);
+            while (depth >= 0) {
+                int current = stack[depth];
+                if (cursor[depth] == offsets[current + 1]) {
+                    onPath.clear(current);
+                    depth--;
+                    continue;
+                }
+                int neighbor = targets[cursor[depth]++];
+                if (onPath.get(neighbor)) {
+                    return true;
+                }
+                if (!visited.get(neighbor)) {
+                    visited.set(neighbor);
+                    onPath.set(neighbor);
+                    depth++;
+                    stack[depth] = neighbor;
+                    cursor[depth] = offsets[neighbor];
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Vertices ordered so that every edge points forward, by Kahn's algorithm: vertices without
+     * incoming edges come first, in id order, and each vertex follows once all its predecessors
+     * have been emitted.
+     *
+     * @throws IllegalStateException if the graph is undirected or has a cycle
+     */
+    public List<T> topologicalSort() {
+        return toVertices(topologicalOrder());
+    }
+
+    /**
+     * Ids in the order of {@link #topologicalSort()}.
+     *
+     * @throws IllegalStateException if the graph is undirected or has a cycle
+     */
+    public int[] topologicalOrder() {
+        if (!directed) {
+            throw new IllegalStateException("Topological order needs a directed graph");
+        }
+        int n = vertexCount;
+        int[] inDegree = new int[n];
+        for (int target : targets) {
+            inDegree[target]++;
+        }
+        // The order doubles as the queue: [head, tail) are emitted but not yet expanded
+        int[] order = new int[n];
+        int tail = 0;
+        for (int v = 0; v < n; v++) {
+            if (inDegree[v] == 0) {
+                order[tail++] = v;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int current = order[head];
+            for (int e = offsets[current]; e < offsets[current + 1]; e++) {
+                if (--inDegree[targets[e]] == 0) {
+                    order[tail++] = targets[e];
+                }
+            }
+        }
+        if (tail < n) {
+            throw new IllegalStateException("Graph has a cycle; " + (n - tail) + " vertices could not be ordered");
+        }
+        return order;
+    }
+
+    /**
+     * A path with the fewest edges from {@code start} to {@code end}, or an empty list if either
+     * is missing or {@code end} is unreachable. Ties are broken as {@link Graph#shortestPath}
+     * breaks them.
+     */
+    public List<T> shortestPath(T start, T end) {
+        int from = idOf(start);
+        int to = idOf(end);
+        if (from < 0 || to < 0) {
+            return Collections.emptyList();
+        }
+        return toVertices(shortestPath(from, to));
+    }
+
+    /**
+     * Ids on a path with the fewest edges from {@code start} to {@code end}, or an empty array if
+     * {@code end} is unreachable.
+     */
+    public int[] shortestPath(int start, int end) {
+        int n = vertexCount;
+        Objects.checkIndex(start, n);
+        Objects.checkIndex(end, n);
+        if (start == end) {
+            return new int[]{start};
+        }
+        int[] parent = new int[n];
+        int[] queue = new int[n];
+        BitSet seen = new BitSet(n);
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        seen.set(start);
+        while (head < tail) {
+            int current = queue[head++];
+            for (int e = offsets[current]; e < offsets[current + 1]; e++) {
+                int neighbor = targets[e];
+                if (!seen.get(neighbor)) {
+                    seen.set(neighbor);
+                    parent[neighbor] = current;
+                    if (neighbor == end) {
+                        return buildPath(parent, start, end);
+                    }
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        return new int[0];
+    }
+
+    private static int[] buildPath(int[] parent, int start, int end) {
+        int length = 1;
+        for (int v = end; v != start; v = parent[v]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int v = end, i = length - 1; i >= 0; v = parent[v], i--) {
+            path[i] = v;
+        }
+        return path;
+    }
+
+    private List<T> toVertices(int[] ids) {
+        List<T> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            result.add(vertexOf(id));
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "CsrGraph{vertices=%d, edges=%d, directed=%s}".formatted(vertexCount(), edgeCount(), directed);
+    }
+}
@@ -0,0 +1,217 @@
+package com.github.msorkhpar.claudejavatutor.datastructures;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Min-priority queue over the int keys {@code 0 .. capacity - 1} with {@code double} priorities,
+ * stored in a d-ary heap.
+ * <p>
+ * A position index maps every key to its slot in the heap, so {@link #decreaseKey} finds the
+ * entry in O(1) and sifts it up in O(log_d n), instead of inserting a duplicate and skipping
+ * stale entries later as {@link java.util.PriorityQueue}-based Dijkstra does. Keys, priorities
+ * and positions live in three primitive arrays allocated once, so no operation boxes or
+ * allocates. A wider heap ({@code arity} 4 rather than 2) is shallower, which makes
+ * {@code decreaseKey} cheaper and keeps the children compared by {@link #poll()} on one cache
+ * line.
+ * <p>
+ * Not thread-safe.
+ */
+public class IndexedDaryHeap {
+
+    public static final int DEFAULT_ARITY = 4;
+
+    private final int arity;
+    // heap[i] is the key in slot i; position[key] is its slot, or -1 if absent
+    private final int[] heap;
+    private final int[] position;
+    private final double[] priority;
+    private int size;
+
+    public IndexedDaryHeap(int capacity) {
+        this(capacity, DEFAULT_ARITY);
+    }
+
+    public IndexedDaryHeap(int capacity, int arity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must be >= 0");
+        }
+        if (arity < 2) {
+            throw new IllegalArgumentException("arity must be >= 2");
+        }
+        this.arity = arity;
+        this.heap = new int[capacity];
+        this.position = new int[capacity];
+        this.priority = new double[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int capacity() {
+        return heap.length;
+    }
+
+    public boolean contains(int key) {
+        return position[Objects.checkIndex(key, heap.length)] >= 0;
+    }
+
+    /**
+     * The priority of {@code key}, which must be in the heap.
+     */
+    public double priorityOf(int key) {
+        requirePresent(key);
+        return priority[key];
+    }
+
+    /**
+     * Adds {@code key}, which must not be in the heap.
+     */
+    public void insert(int key, double keyPriority) {
+        if (contains(key)) {
+            throw new IllegalArgumentException("Key already in heap: " + key);
+        }
+        checkPriority(keyPriority);
+        priority[key] = keyPriority;
+        heap[size] = key;
+        position[key] = size;
+        siftUp(size++);
+    }
+
+    /**
+     * Lowers the priority of {@code key}, which must be in the heap.
+     *
+     * @throws IllegalArgumentException if {@code newPriority} is greater than the current one
+     */
+    public void decreaseKey(int key, double newPriority) {
+        requirePresent(key);
+        checkPriority(newPriority);
+        if (newPriority > priority[key]) {
+            throw new IllegalArgumentException("New priority " + newPriority + " is greater than " + priority[key]);
+        }
+        priority[key] = newPriority;
+        siftUp(position[key]);
+    }
+
+    /**
+     * Inserts {@code key}, or lowers its priority if it is present with a higher one. Returns
+     * whether the heap changed. This is the relaxation step of Dijkstra's algorithm.
+     */
+    public boolean insertOrDecrease(int key, double keyPriority) {
+        if (!contains(key)) {
+            insert(key, keyPriority);
+            return true;
+        }
+        if (keyPriority < priority[key]) {
+            decreaseKey(key, keyPriority);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * The key with the lowest priority, without removing it.
+     */
+    public int peek() {
+        if (size == 0) {
+            throw new NoSuchElementException("Heap is empty");
+        }
+        return heap[0];
+    }
+
+    /**
+     * Removes and returns the key with the lowest priority. Ties are broken arbitrarily.
+     */
+    public int poll() {
+        int min = peek();
+        position[min] = -1;
+        if (--size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            position[last] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    /**
+     * Removes every key, in O(size) rather than O(capacity).
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int slot) {
+        int key = heap[slot];
+        double keyPriority = priority[key];
+        while (slot > 0) {
+            int parentSlot = (slot - 1) / arity;
+            int parent = heap[parentSlot];
+            if (priority[parent] <= keyPriority) {
+                break;
+            }
+            heap[slot] = parent;
+            position[parent] = slot;
+            slot = parentSlot;
+        }
+        heap[slot] = key;
+        position[key] = slot;
+    }
+
+    private void siftDown(int slot) {
+        int key = heap[slot];
+        double keyPriority = priority[key];
+        while (true) {
+            int firstChild = slot * arity + 1;
+            if (firstChild >= size) {
+                break;
+            }
+            int lastChild = Math.min(firstChild + arity, size);
+            int minSlot = firstChild;
+            double minPriority = priority[heap[firstChild]];
+            for (int child = firstChild + 1; child < lastChild; child++) {
+                double childPriority = priority[heap[child]];
+                if (childPriority < minPriority) {
+                    minSlot = child;
+                    minPriority = childPriority;
+                }
+            }
+            if (minPriority >= keyPriority) {
+                break;
+            }
+            int moved = heap[minSlot];
+            heap[slot] = moved;
+            position[moved] = slot;
+            slot = minSlot;
+        }
+        heap[slot] = key;
+        position[key] = slot;
+    }
+
+    private void requirePresent(int key) {
+        if (!contains(key)) {
+            throw new NoSuchElementException("Key not in heap: " + key);
+        }
+    }
+
+    private static void checkPriority(double keyPriority) {
+        if (Double.isNaN(keyPriority)) {
+            throw new IllegalArgumentException("Priority must not be NaN");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "IndexedDaryHeap{arity=%d, size=%d, capacity=%d}".formatted(arity, size, heap.length);
+    }
+}
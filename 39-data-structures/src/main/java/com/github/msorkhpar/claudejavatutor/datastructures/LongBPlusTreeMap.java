@@ -0,0 +1,547 @@
+package com.github.msorkhpar.claudejavatutor.datastructures;
+
+import java.util.*;
+
+/**
+ * A sorted map from primitive {@code long} keys to objects, stored as a B+-tree; the
+ * specialisation of {@link BPlusTreeMap} for ordered indexes keyed by ids or timestamps.
+ * <p>
+ * Keys sit inline in a {@code long[]} per node, so the binary search within a node reads a few
+ * adjacent cache lines and never dereferences a key, and nothing is boxed on the way in or out.
+ * A {@link java.util.TreeMap TreeMap&lt;Long, V&gt;} instead pays for an entry object and a
+ * {@code Long} per key and a dependent load per comparison. Range scans follow the linked leaves
+ * through {@link #forEachInRange} or a {@link Cursor}.
+ * <p>
+ * Structure and trade-offs are those of {@link BPlusTreeMap}: {@link #fromSorted} packs leaves
+ * full, and removal unlinks a leaf only once it is empty. Absent keys are reported through
+ * {@link OptionalLong} or a null value, so null values cannot be told apart from missing keys by
+ * {@link #get}; use {@link #containsKey}. Not thread-safe.
+ */
+public class LongBPlusTreeMap<V> {
+
+    public static final int DEFAULT_FANOUT = BPlusTreeMap.DEFAULT_FANOUT;
+
+    private final int fanout;
+    private Node root;
+    private Leaf firstLeaf;
+    private Leaf lastLeaf;
+    private int height;
+    private int size;
+    private int modCount;
+    private Branch[] path = new Branch[4];
+    private int[] pathSlots = new int[4];
+
+    /**
+     * Receives one entry of a scan.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(long key, V value);
+    }
+
+    private abstract static class Node {
+        // As in BPlusTreeMap: keys[i] of a branch is the least key under children[i + 1]
+        final long[] keys;
+        int size;
+
+        Node(int capacity) {
+            this.keys = new long[capacity];
+        }
+    }
+
+    private static final class Leaf extends Node {
+        final Object[] values;
+        Leaf prev;
+        Leaf next;
+
+        Leaf(int fanout) {
+            super(fanout + 1);
+            this.values = new Object[fanout + 1];
+        }
+    }
+
+    private static final class Branch extends Node {
+        final Node[] children;
+
+        Branch(int fanout) {
+            super(fanout);
+            this.children = new Node[fanout + 1];
+        }
+    }
+
+    public LongBPlusTreeMap() {
+        this(DEFAULT_FANOUT);
+    }
+
+    public LongBPlusTreeMap(int fanout) {
+        if (fanout < 3) {
+            throw new IllegalArgumentException("fanout must be >= 3");
+        }
+        this.fanout = fanout;
+        clear();
+    }
+
+    /**
+     * Builds a map bottom-up from strictly ascending {@code keys} and their {@code values},
+     * packing every leaf full.
+     *
+     * @throws IllegalArgumentException if the lengths differ or a key is not greater than the one
+     *                                  before it
+     */
+    public static <V> LongBPlusTreeMap<V> fromSorted(long[] keys, List<? extends V> values, int fanout) {
+        if (keys.length != values.size()) {
+            throw new IllegalArgumentException("keys and values differ in length");
+        }
+        LongBPlusTreeMap<V> map = new LongBPlusTreeMap<>(fanout);
+        int n = keys.length;
+        if (n == 0) {
+            return map;
+        }
+        int leafCount = (n + fanout - 1) / fanout;
+        Node[] level = new Node[leafCount];
+        long[] lowKeys = new long[leafCount];
+        Leaf previous = null;
+        for (int l = 0; l < leafCount; l++) {
+            Leaf leaf = new Leaf(fanout);
+            int start = l * fanout;
+            leaf.size = Math.min(fanout, n - start);
+            System.arraycopy(keys, start, leaf.keys, 0, leaf.size);
+            for (int i = 0; i < leaf.size; i++) {
+                if (start + i > 0 && keys[start + i - 1] >= keys[start + i]) {
+                    throw new IllegalArgumentException("Keys are not strictly ascending at index " + (start + i));
+                }
+                leaf.values[i] = values.get(start + i);
+            }
+            if (previous != null) {
+                previous.next = leaf;
+                leaf.prev = previous;
+            }
+            previous = leaf;
+            level[l] = leaf;
+            lowKeys[l] = leaf.keys[0];
+        }
+        map.firstLeaf = (Leaf) level[0];
+        map.lastLeaf = previous;
+        while (level.length > 1) {
+            int parentCount = (level.length + fanout - 1) / fanout;
+            Node[] parents = new Node[parentCount];
+            long[] parentLowKeys = new long[parentCount];
+            for (int p = 0; p < parentCount; p++) {
+                Branch branch = new Branch(fanout);
+                int start = p * fanout;
+                branch.size = Math.min(fanout, level.length - start);
+                System.arraycopy(level, start, branch.children, 0, branch.size);
+                System.arraycopy(lowKeys, start + 1, branch.keys, 0, branch.size - 1);
+                parents[p] = branch;
+                parentLowKeys[p] = lowKeys[start];
+            }
+            level = parents;
+            lowKeys = parentLowKeys;
+            map.height++;
+        }
+        map.root = level[0];
+        map.size = n;
+        return map;
+    }
+
+    public int fanout() {
+        return fanout;
+    }
+
+    /**
+     * The number of branch levels above the leaves; 0 while the root is a leaf.
+     */
+    public int height() {
+        return height;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(long key) {
+        Leaf leaf = findLeaf(key);
+        return Arrays.binarySearch(leaf.keys, 0, leaf.size, key) >= 0;
+    }
+
+    /**
+     * The value for {@code key}, or null if it is absent.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        Leaf leaf = findLeaf(key);
+        int index = Arrays.binarySearch(leaf.keys, 0, leaf.size, key);
+        return index >= 0 ? (V) leaf.values[index] : null;
+    }
+
+    /**
+     * Associates {@code value} with {@code key}, returning the previous value or null.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        Leaf leaf = descend(key);
+        int index = Arrays.binarySearch(leaf.keys, 0, leaf.size, key);
+        if (index >= 0) {
+            V old = (V) leaf.values[index];
+            leaf.values[index] = value;
+            return old;
+        }
+        index = -index - 1;
+        System.arraycopy(leaf.keys, index, leaf.keys, index + 1, leaf.size - index);
+        System.arraycopy(leaf.values, index, leaf.values, index + 1, leaf.size - index);
+        leaf.keys[index] = key;
+        leaf.values[index] = value;
+        leaf.size++;
+        size++;
+        modCount++;
+        if (leaf.size > fanout) {
+            splitLeaf(leaf);
+        }
+        return null;
+    }
+
+    /**
+     * Removes {@code key}, returning its value, or null if it was absent.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        Leaf leaf = descend(key);
+        int index = Arrays.binarySearch(leaf.keys, 0, leaf.size, key);
+        if (index < 0) {
+            return null;
+        }
+        V old = (V) leaf.values[index];
+        System.arraycopy(leaf.keys, index + 1, leaf.keys, index, leaf.size - index - 1);
+        System.arraycopy(leaf.values, index + 1, leaf.values, index, leaf.size - index - 1);
+        leaf.size--;
+        leaf.values[leaf.size] = null;
+        size--;
+        modCount++;
+        if (size == 0) {
+            clear();
+        } else if (leaf.size == 0) {
+            unlinkEmptyLeaf(leaf);
+        }
+        return old;
+    }
+
+    public void clear() {
+        Leaf empty = new Leaf(fanout);
+        root = empty;
+        firstLeaf = empty;
+        lastLeaf = empty;
+        height = 0;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * @throws NoSuchElementException if the map is empty
+     */
+    public long firstKey() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return firstLeaf.keys[0];
+    }
+
+    /**
+     * @throws NoSuchElementException if the map is empty
+     */
+    public long lastKey() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return lastLeaf.keys[lastLeaf.size - 1];
+    }
+
+    /**
+     * The least key greater than or equal to {@code key}.
+     */
+    public OptionalLong ceilingKey(long key) {
+        Cursor cursor = cursorAt(key, true);
+        return cursor.next() ? OptionalLong.of(cursor.key()) : OptionalLong.empty();
+    }
+
+    /**
+     * The least key strictly greater than {@code key}.
+     */
+    public OptionalLong higherKey(long key) {
+        Cursor cursor = cursorAt(key, false);
+        return cursor.next() ? OptionalLong.of(cursor.key()) : OptionalLong.empty();
+    }
+
+    /**
+     * The greatest key less than or equal to {@code key}.
+     */
+    public OptionalLong floorKey(long key) {
+        return key == Long.MAX_VALUE ? lastKeyIfAny() : lowerKey(key + 1);
+    }
+
+    /**
+     * The greatest key strictly less than {@code key}.
+     */
+    public OptionalLong lowerKey(long key) {
+        Leaf leaf = findLeaf(key);
+        int found = Arrays.binarySearch(leaf.keys, 0, leaf.size, key);
+        int index = (found >= 0 ? found : -found - 1) - 1;
+        if (index < 0) {
+            // Every key in earlier leaves is below this leaf's lower separator, so below key
+            leaf = leaf.prev;
+            if (leaf == null) {
+                return OptionalLong.empty();
+            }
+            index = leaf.size - 1;
+        }
+        return OptionalLong.of(leaf.keys[index]);
+    }
+
+    private OptionalLong lastKeyIfAny() {
+        return size == 0 ? OptionalLong.empty() : OptionalLong.of(lastKey());
+    }
+
+    /**
+     * Calls {@code action} for each entry in {@code [fromInclusive, toExclusive)} in ascending
+     * key order.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachInRange(long fromInclusive, long toExclusive, EntryConsumer<? super V> action) {
+        if (fromInclusive > toExclusive) {
+            throw new IllegalArgumentException("fromInclusive > toExclusive");
+        }
+        Leaf leaf = findLeaf(fromInclusive);
+        int index = Arrays.binarySearch(leaf.keys, 0, leaf.size, fromInclusive);
+        index = index >= 0 ? index : -index - 1;
+        int expectedModCount = modCount;
+        for (; leaf != null; leaf = leaf.next, index = 0) {
+            long[] keys = leaf.keys;
+            for (; index < leaf.size; index++) {
+                if (keys[index] >= toExclusive) {
+                    return;
+                }
+                action.accept(keys[index], (V) leaf.values[index]);
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+            }
+        }
+    }
+
+    /**
+     * Calls {@code action} for every entry in ascending key order.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super V> action) {
+        int expectedModCount = modCount;
+        for (Leaf leaf = firstLeaf; leaf != null; leaf = leaf.next) {
+            for (int i = 0; i < leaf.size; i++) {
+                action.accept(leaf.keys[i], (V) leaf.values[i]);
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+            }
+        }
+    }
+
+    /**
+     * A cursor before the first entry with a key at or, if not {@code inclusive}, after
+     * {@code key}.
+     */
+    public Cursor cursorAt(long key, boolean inclusive) {
+        Leaf leaf = findLeaf(key);
+        int found = Arrays.binarySearch(leaf.keys, 0, leaf.size, key);
+        int index = found >= 0 ? (inclusive ? found : found + 1) : -found - 1;
+        return new Cursor(leaf, index);
+    }
+
+    /**
+     * A cursor before the first entry.
+     */
+    public Cursor cursor() {
+        return new Cursor(firstLeaf, 0);
+    }
+
+    /**
+     * Walks entries in ascending key order without boxing:
+     * <pre>{@code
+     * for (LongBPlusTreeMap<V>.Cursor c = map.cursorAt(from, true); c.next() && c.key() < to; ) {
+     *     use(c.key(), c.value());
+     * }
+     * }</pre>
+     * Fails fast if the map changes structurally while it is in use.
+     */
+    public final class Cursor {
+        private Leaf leaf;
+        // The slot next() will move to; the current entry is the one before it
+        private int nextIndex;
+        private Leaf currentLeaf;
+        private int currentIndex = -1;
+        private final int expectedModCount = modCount;
+
+        private Cursor(Leaf leaf, int index) {
+            this.leaf = leaf;
+            this.nextIndex = index;
+        }
+
+        /**
+         * Moves to the next entry, returning false once the map is exhausted.
+         */
+        public boolean next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            while (leaf != null && nextIndex >= leaf.size) {
+                leaf = leaf.next;
+                nextIndex = 0;
+            }
+            if (leaf == null) {
+                currentLeaf = null;
+                return false;
+            }
+            currentLeaf = leaf;
+            currentIndex = nextIndex++;
+            return true;
+        }
+
+        public long key() {
+            return current().keys[currentIndex];
+        }
+
+        @SuppressWarnings("unchecked")
+        public V value() {
+            return (V) current().values[currentIndex];
+        }
+
+        private Leaf current() {
+            if (currentLeaf == null) {
+                throw new NoSuchElementException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            return currentLeaf;
+        }
+    }
+
+    // ---- Tree internals, mirroring BPlusTreeMap ----
+
+    private static int childSlot(Branch branch, long key) {
+        int index = Arrays.binarySearch(branch.keys, 0, branch.size - 1, key);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    private Leaf findLeaf(long key) {
+        Node node = root;
+        while (node instanceof Branch branch) {
+            node = branch.children[childSlot(branch, key)];
+        }
+        return (Leaf) node;
+    }
+
+    private Leaf descend(long key) {
+        if (path.length < height) {
+            path = new Branch[height * 2];
+            pathSlots = new int[height * 2];
+        }
+        Node node = root;
+        for (int level = 0; node instanceof Branch branch; level++) {
+            int slot = childSlot(branch, key);
+            path[level] = branch;
+            pathSlots[level] = slot;
+            node = branch.children[slot];
+        }
+        return (Leaf) node;
+    }
+
+    private void splitLeaf(Leaf leaf) {
+        Leaf right = new Leaf(fanout);
+        int keep = (leaf.size + 1) / 2;
+        right.size = leaf.size - keep;
+        System.arraycopy(leaf.keys, keep, right.keys, 0, right.size);
+        System.arraycopy(leaf.values, keep, right.values, 0, right.size);
+        Arrays.fill(leaf.values, keep, leaf.size, null);
+        leaf.size = keep;
+
+        right.next = leaf.next;
+        if (right.next != null) {
+            right.next.prev = right;
+        } else {
+            lastLeaf = right;
+        }
+        right.prev = leaf;
+        leaf.next = right;
+        insertIntoParent(height - 1, leaf, right.keys[0], right);
+    }
+
+    private void insertIntoParent(int level, Node left, long separator, Node right) {
+        while (level >= 0) {
+            Branch parent = path[level];
+            int slot = pathSlots[level];
+            System.arraycopy(parent.keys, slot, parent.keys, slot + 1, parent.size - 1 - slot);
+            parent.keys[slot] = separator;
+            System.arraycopy(parent.children, slot + 1, parent.children, slot + 2, parent.size - 1 - slot);
+            parent.children[slot + 1] = right;
+            parent.size++;
+            if (parent.size <= fanout) {
+                return;
+            }
+            Branch sibling = new Branch(fanout);
+            int keep = (parent.size + 1) / 2;
+            sibling.size = parent.size - keep;
+            separator = parent.keys[keep - 1];
+            System.arraycopy(parent.keys, keep, sibling.keys, 0, sibling.size - 1);
+            System.arraycopy(parent.children, keep, sibling.children, 0, sibling.size);
+            Arrays.fill(parent.children, keep, parent.size, null);
+            parent.size = keep;
+            left = parent;
+            right = sibling;
+            level--;
+        }
+        Branch newRoot = new Branch(fanout);
+        newRoot.keys[0] = separator;
+        newRoot.children[0] = left;
+        newRoot.children[1] = right;
+        newRoot.size = 2;
+        root = newRoot;
+        height++;
+    }
+
+    private void unlinkEmptyLeaf(Leaf leaf) {
+        if (leaf.prev != null) {
+            leaf.prev.next = leaf.next;
+        } else {
+            firstLeaf = leaf.next;
+        }
+        if (leaf.next != null) {
+            leaf.next.prev = leaf.prev;
+        } else {
+            lastLeaf = leaf.prev;
+        }
+        for (int level = height - 1; level >= 0; level--) {
+            Branch parent = path[level];
+            int slot = pathSlots[level];
+            if (parent.size > 1) {
+                int keySlot = slot > 0 ? slot - 1 : 0;
+                System.arraycopy(parent.keys, keySlot + 1, parent.keys, keySlot, parent.size - 2 - keySlot);
+            }
+            System.arraycopy(parent.children, slot + 1, parent.children, slot, parent.size - 1 - slot);
+            parent.children[--parent.size] = null;
+            if (parent.size > 0) {
+                break;
+            }
+        }
+        while (root instanceof Branch branch && branch.size == 1) {
+            root = branch.children[0];
+            height--;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LongBPlusTreeMap{size=%d, fanout=%d, height=%d}".formatted(size, fanout, height);
+    }
+}
@@ -0,0 +1,437 @@
+package com.github.msorkhpar.claudejavatutor.datastructures;
+
+import com.github.msorkhpar.claudejavatutor.datastructures.CommonDataStructures.BinarySearchTree;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * A sorted set kept as an AVL tree, with the same operations as {@link BinarySearchTree} plus
+ * order statistics.
+ * <p>
+ * Rotations keep the height within about 1.44 log2 n, so sorted input costs O(log n) per
+ * operation instead of degrading the tree into a list. Every node records its height and the
+ * size of its subtree, which makes {@link #size()} and {@link #height()} O(1) and
+ * {@link #rank}, {@link #select} and {@link #countInRange} O(log n). All operations are
+ * iterative, using parent links to walk back up, so no depth of tree can overflow the stack.
+ * <p>
+ * Iterators walk successor links in place instead of copying the tree into a list as
+ * {@link #inOrderTraversal()} does, and {@link #range} visits only the elements it returns.
+ * They are fail-fast: modifying the tree during iteration makes the next call to
+ * {@code next()} throw {@link ConcurrentModificationException}.
+ * <pre>{@code
+ * OrderStatisticTree<Integer> scores = new OrderStatisticTree<>();
+ * scores.insert(42);
+ * int percentile = 100 * scores.rank(42) / scores.size();
+ * for (int score : scores.range(40, 50)) { ... }
+ * }</pre>
+ * Not thread-safe.
+ */
+public class OrderStatisticTree<T extends Comparable<T>> implements Iterable<T> {
+
+    private Node<T> root;
+    private int modCount;
+
+    static final class Node<T> {
+        T value;
+        Node<T> left;
+        Node<T> right;
+        Node<T> parent;
+        int height;
+        int size = 1;
+
+        Node(T value, Node<T> parent) {
+            this.value = value;
+            this.parent = parent;
+        }
+    }
+
+    /**
+     * Inserts a value. Returns false, leaving the tree unchanged, if it is already present.
+     */
+    public boolean insert(T value) {
+        if (value == null) {
+            throw new NullPointerException("Cannot insert null value");
+        }
+        if (root == null) {
+            root = new Node<>(value, null);
+            modCount++;
+            return true;
+        }
+        Node<T> parent = root;
+        while (true) {
+            int cmp = value.compareTo(parent.value);
+            if (cmp == 0) {
+                return false;
+            }
+            Node<T> child = cmp < 0 ? parent.left : parent.right;
+            if (child == null) {
+                Node<T> node = new Node<>(value, parent);
+                if (cmp < 0) {
+                    parent.left = node;
+                } else {
+                    parent.right = node;
+                }
+                break;
+            }
+            parent = child;
+        }
+        rebalanceUpFrom(parent);
+        modCount++;
+        return true;
+    }
+
+    public boolean contains(T value) {
+        return value != null && find(value) != null;
+    }
+
+    /**
+     * Removes a value. Returns whether it was present.
+     */
+    public boolean delete(T value) {
+        Node<T> node = value == null ? null : find(value);
+        if (node == null) {
+            return false;
+        }
+        if (node.left != null && node.right != null) {
+            // Take the in-order successor's value and unlink the successor instead, which has
+            // no left child
+            Node<T> successor = first(node.right);
+            node.value = successor.value;
+            node = successor;
+        }
+        Node<T> child = node.left != null ? node.left : node.right;
+        if (child != null) {
+            child.parent = node.parent;
+        }
+        replaceChild(node.parent, node, child);
+        rebalanceUpFrom(node.parent);
+        modCount++;
+        return true;
+    }
+
+    public void clear() {
+        root = null;
+        modCount++;
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * The height of the tree; -1 when empty, as for {@link BinarySearchTree#height()}.
+     */
+    public int height() {
+        return height(root);
+    }
+
+    /**
+     * The number of elements strictly less than {@code value}, whether or not it is present. For
+     * a present value this is its index in sorted order.
+     */
+    public int rank(T value) {
+        Objects.requireNonNull(value, "value");
+        int rank = 0;
+        Node<T> current = root;
+        while (current != null) {
+            if (value.compareTo(current.value) <= 0) {
+                current = current.left;
+            } else {
+                rank += size(current.left) + 1;
+                current = current.right;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * The element at {@code index} in sorted order, counting from 0.
+     *
+     * @throws IndexOutOfBoundsException unless {@code 0 <= index < size()}
+     */
+    public T select(int index) {
+        Objects.checkIndex(index, size());
+        Node<T> current = root;
+        while (true) {
+            int leftSize = size(current.left);
+            if (index < leftSize) {
+                current = current.left;
+            } else if (index == leftSize) {
+                return current.value;
+            } else {
+                index -= leftSize + 1;
+                current = current.right;
+            }
+        }
+    }
+
+    /**
+     * The number of elements in {@code [fromInclusive, toExclusive)}, without visiting them.
+     */
+    public int countInRange(T fromInclusive, T toExclusive) {
+        checkRange(fromInclusive, toExclusive);
+        return rank(toExclusive) - rank(fromInclusive);
+    }
+
+    public T findMinValue() {
+        if (root == null) {
+            throw new NoSuchElementException("Tree is empty");
+        }
+        return first(root).value;
+    }
+
+    public T findMaxValue() {
+        if (root == null) {
+            throw new NoSuchElementException("Tree is empty");
+        }
+        Node<T> current = root;
+        while (current.right != null) {
+            current = current.right;
+        }
+        return current.value;
+    }
+
+    /**
+     * The least element greater than or equal to {@code value}, or null if there is none.
+     */
+    public T ceiling(T value) {
+        Node<T> node = ceilingNode(Objects.requireNonNull(value, "value"));
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * The greatest element less than or equal to {@code value}, or null if there is none.
+     */
+    public T floor(T value) {
+        Objects.requireNonNull(value, "value");
+        Node<T> result = null;
+        Node<T> current = root;
+        while (current != null) {
+            int cmp = value.compareTo(current.value);
+            if (cmp == 0) {
+                return current.value;
+            }
+            if (cmp > 0) {
+                result = current;
+                current = current.right;
+            } else {
+                current = current.left;
+            }
+        }
+        return result == null ? null : result.value;
+    }
+
+    /**
+     * Iterates over every element in ascending order.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new RangeIterator(root == null ? null : first(root), null);
+    }
+
+    /**
+     * Iterates in ascending order over the elements in {@code [fromInclusive, toExclusive)},
+     * starting with an O(log n) descent and then following successor links.
+     */
+    public Iterator<T> iterator(T fromInclusive, T toExclusive) {
+        checkRange(fromInclusive, toExclusive);
+        return new RangeIterator(ceilingNode(fromInclusive), toExclusive);
+    }
+
+    /**
+     * The elements in {@code [fromInclusive, toExclusive)}, for use in a for-each loop. Each
+     * call to {@code iterator()} starts a fresh {@link #iterator(Comparable, Comparable)}.
+     */
+    public Iterable<T> range(T fromInclusive, T toExclusive) {
+        checkRange(fromInclusive, toExclusive);
+        return () -> iterator(fromInclusive, toExclusive);
+    }
+
+    /**
+     * Returns the elements in sorted order as a new list.
+     */
+    public List<T> inOrderTraversal() {
+        List<T> result = new ArrayList<>(size());
+        for (T value : this) {
+            result.add(value);
+        }
+        return result;
+    }
+
+    private final class RangeIterator implements Iterator<T> {
+        private final T toExclusive;
+        private Node<T> next;
+        private final int expectedModCount = modCount;
+
+        RangeIterator(Node<T> first, T toExclusive) {
+            this.toExclusive = toExclusive;
+            this.next = first;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null && (toExclusive == null || next.value.compareTo(toExclusive) < 0);
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T value = next.value;
+            next = successor(next);
+            return value;
+        }
+    }
+
+    private Node<T> find(T value) {
+        Node<T> current = root;
+        while (current != null) {
+            int cmp = value.compareTo(current.value);
+            if (cmp == 0) {
+                return current;
+            }
+            current = cmp < 0 ? current.left : current.right;
+        }
+        return null;
+    }
+
+    private Node<T> ceilingNode(T value) {
+        Node<T> result = null;
+        Node<T> current = root;
+        while (current != null) {
+            int cmp = value.compareTo(current.value);
+            if (cmp == 0) {
+                return current;
+            }
+            if (cmp < 0) {
+                result = current;
+                current = current.left;
+            } else {
+                current = current.right;
+            }
+        }
+        return result;
+    }
+
+    private static <T> Node<T> first(Node<T> node) {
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node;
+    }
+
+    private static <T> Node<T> successor(Node<T> node) {
+        if (node.right != null) {
+            return first(node.right);
+        }
+        Node<T> parent = node.parent;
+        while (parent != null && node == parent.right) {
+            node = parent;
+            parent = parent.parent;
+        }
+        return parent;
+    }
+
+    /**
+     * Refreshes heights and sizes from {@code node} up to the root, rotating wherever the two
+     * subtrees' heights differ by more than one. Sizes change all the way up after an insert or
+     * delete, so the walk always reaches the root; it is O(log n) because the tree is balanced.
+     */
+    private void rebalanceUpFrom(Node<T> node) {
+        while (node != null) {
+            update(node);
+            int balance = height(node.left) - height(node.right);
+            if (balance > 1) {
+                if (height(node.left.left) < height(node.left.right)) {
+                    rotateLeft(node.left);
+                }
+                node = rotateRight(node);
+            } else if (balance < -1) {
+                if (height(node.right.right) < height(node.right.left)) {
+                    rotateRight(node.right);
+                }
+                node = rotateLeft(node);
+            }
+            node = node.parent;
+        }
+    }
+
+    private Node<T> rotateLeft(Node<T> node) {
+        Node<T> pivot = node.right;
+        node.right = pivot.left;
+        if (pivot.left != null) {
+            pivot.left.parent = node;
+        }
+        pivot.parent = node.parent;
+        replaceChild(node.parent, node, pivot);
+        pivot.left = node;
+        node.parent = pivot;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node<T> rotateRight(Node<T> node) {
+        Node<T> pivot = node.left;
+        node.left = pivot.right;
+        if (pivot.right != null) {
+            pivot.right.parent = node;
+        }
+        pivot.parent = node.parent;
+        replaceChild(node.parent, node, pivot);
+        pivot.right = node;
+        node.parent = pivot;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private void replaceChild(Node<T> parent, Node<T> oldChild, Node<T> newChild) {
+        if (parent == null) {
+            root = newChild;
+        } else if (parent.left == oldChild) {
+            parent.left = newChild;
+        } else {
+            parent.right = newChild;
+        }
+    }
+
+    private static void update(Node<?> node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private static int height(Node<?> node) {
+        return node == null ? -1 : node.height;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static <T extends Comparable<T>> void checkRange(T fromInclusive, T toExclusive) {
+        Objects.requireNonNull(fromInclusive, "fromInclusive");
+        Objects.requireNonNull(toExclusive, "toExclusive");
+        if (fromInclusive.compareTo(toExclusive) > 0) {
+            throw new IllegalArgumentException("fromInclusive > toExclusive");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "OrderStatisticTree{size=%d, height=%d}".formatted(size(), height());
+    }
+}
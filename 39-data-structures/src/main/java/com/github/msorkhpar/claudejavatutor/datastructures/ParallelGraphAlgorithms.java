@@ -0,0 +1,443 @@
+package com.github.msorkhpar.claudejavatutor.datastructures;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Parallel algorithms over a {@link CsrGraph}, run as fork/join tasks on a caller-supplied
+ * {@link ForkJoinPool} so that their parallelism can be set independently of the common pool.
+ * <ul>
+ *   <li>{@link #bfsLevels} is a level-synchronous, direction-optimising BFS. Small frontiers are
+ *       expanded top-down (each frontier vertex claims its unvisited neighbors with a CAS); once
+ *       the frontier's edges outnumber those of the unvisited vertices by {@value #ALPHA} to 1,
+ *       levels switch to bottom-up (each unvisited vertex scans its in-neighbors and stops at the
+ *       first one on the frontier), and back again when the frontier shrinks below
+ *       {@code n / }{@value #BETA}. On low-diameter graphs the bottom-up levels skip most edges.</li>
+ *   <li>{@link #connectedComponents} hooks the endpoints of every edge in parallel into a
+ *       lock-free union-find forest, always linking the larger root under the smaller one, and
+ *       then flattens it by pointer jumping (the Shiloach-Vishkin scheme).</li>
+ *   <li>{@link #degreeStatistics} reduces the out-degrees in one parallel pass.</li>
+ * </ul>
+ * Work is split into chunks of about {@value #GRAIN} vertices or edges. The results do not depend
+ * on the pool's parallelism. Use {@link CsrGraph#rmat} for synthetic inputs.
+ */
+public class ParallelGraphAlgorithms {
+
+    static final int GRAIN = 2048;
+    static final int ALPHA = 14;
+    static final int BETA = 24;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Runs on the common pool.
+     */
+    public ParallelGraphAlgorithms() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParallelGraphAlgorithms(ForkJoinPool pool) {
+        this.pool = Objects.requireNonNull(pool, "pool must not be null");
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    // ========== Breadth-first search ==========
+
+    /**
+     * Returns the number of edges on a shortest path from {@code source} to every vertex, or -1
+     * for vertices it cannot reach. Following edges in their direction, as
+     * {@link CsrGraph#bfs(int)} does.
+     */
+    public int[] bfsLevels(CsrGraph<?> graph, int source) {
+        int n = graph.vertexCount();
+        Objects.checkIndex(source, n);
+        CsrGraph<?> incoming = graph.transpose();
+        int[] offsets = graph.offsets();
+        AtomicIntegerArray levels = new AtomicIntegerArray(n);
+        for (int v = 0; v < n; v++) {
+            levels.setPlain(v, -1);
+        }
+        levels.set(source, 0);
+
+        int[] frontier = {source};
+        long frontierEdges = offsets[source + 1] - offsets[source];
+        long unexploredEdges = offsets[n] - frontierEdges;
+        boolean bottomUp = false;
+        for (int depth = 0; frontier.length > 0; depth++) {
+            if (!bottomUp && frontierEdges > unexploredEdges / ALPHA) {
+                bottomUp = true;
+            } else if (bottomUp && frontier.length < n / BETA) {
+                bottomUp = false;
+            }
+            Frontier next = bottomUp
+                    ? pool.invoke(new BottomUpTask(incoming, offsets, levels, depth, 0, n))
+                    : pool.invoke(new TopDownTask(graph, levels, depth, frontier, 0, frontier.length));
+            frontier = next.vertices();
+            frontierEdges = next.edges();
+            unexploredEdges -= frontierEdges;
+        }
+        int[] result = new int[n];
+        for (int v = 0; v < n; v++) {
+            result[v] = levels.get(v);
+        }
+        return result;
+    }
+
+    /**
+     * Vertices discovered at one level and the sum of their out-degrees.
+     */
+    private record Frontier(int[] vertices, long edges) {
+
+        static final Frontier EMPTY = new Frontier(new int[0], 0);
+
+        Frontier concat(Frontier other) {
+            if (vertices.length == 0) {
+                return other;
+            }
+            if (other.vertices.length == 0) {
+                return this;
+            }
+            int[] merged = Arrays.copyOf(vertices, vertices.length + other.vertices.length);
+            System.arraycopy(other.vertices, 0, merged, vertices.length, other.vertices.length);
+            return new Frontier(merged, edges + other.edges);
+        }
+    }
+
+    /**
+     * Collects discovered vertices in a growable {@code int[]}, without boxing.
+     */
+    private static final class FrontierBuilder {
+        private int[] vertices;
+        private int size;
+        private long edges;
+
+        FrontierBuilder(int capacity) {
+            vertices = new int[Math.max(capacity, 16)];
+        }
+
+        void add(int vertex, int degree) {
+            if (size == vertices.length) {
+                vertices = Arrays.copyOf(vertices, size * 2);
+            }
+            vertices[size++] = vertex;
+            edges += degree;
+        }
+
+        Frontier build() {
+            return size == 0 ? Frontier.EMPTY : new Frontier(Arrays.copyOf(vertices, size), edges);
+        }
+    }
+
+    /**
+     * Expands {@code frontier[from..to)}: every unvisited out-neighbor is claimed by exactly one
+     * task through a CAS on its level.
+     */
+    private static final class TopDownTask extends RecursiveTask<Frontier> {
+        private final CsrGraph<?> graph;
+        private final AtomicIntegerArray levels;
+        private final int depth;
+        private final int[] frontier;
+        private final int from;
+        private final int to;
+
+        TopDownTask(CsrGraph<?> graph, AtomicIntegerArray levels, int depth, int[] frontier, int from, int to) {
+            this.graph = graph;
+            this.levels = levels;
+            this.depth = depth;
+            this.frontier = frontier;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Frontier compute() {
+            // Frontier vertices are few but may have many edges each, so split finely
+            if (to - from > GRAIN / 16) {
+                int mid = (from + to) >>> 1;
+                TopDownTask left = new TopDownTask(graph, levels, depth, frontier, from, mid);
+                left.fork();
+                Frontier right = new TopDownTask(graph, levels, depth, frontier, mid, to).compute();
+                return left.join().concat(right);
+            }
+            int[] offsets = graph.offsets();
+            int[] targets = graph.targets();
+            FrontierBuilder next = new FrontierBuilder(to - from);
+            for (int i = from; i < to; i++) {
+                int v = frontier[i];
+                for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                    int w = targets[e];
+                    if (levels.get(w) < 0 && levels.compareAndSet(w, -1, depth + 1)) {
+                        next.add(w, offsets[w + 1] - offsets[w]);
+                    }
+                }
+            }
+            return next.build();
+        }
+    }
+
+    /**
+     * Visits every unvisited vertex in {@code [from, to)} whose in-neighbors include a vertex at
+     * {@code depth}. Each vertex is written only by the task that owns its range.
+     */
+    private static final class BottomUpTask extends RecursiveTask<Frontier> {
+        private final CsrGraph<?> incoming;
+        private final int[] outOffsets;
+        private final AtomicIntegerArray levels;
+        private final int depth;
+        private final int from;
+        private final int to;
+
+        BottomUpTask(CsrGraph<?> incoming, int[] outOffsets, AtomicIntegerArray levels, int depth, int from, int to) {
+            this.incoming = incoming;
+            this.outOffsets = outOffsets;
+            this.levels = levels;
+            this.depth = depth;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Frontier compute() {
+            if (to - from > GRAIN) {
+                int mid = (from + to) >>> 1;
+                BottomUpTask left = new BottomUpTask(incoming, outOffsets, levels, depth, from, mid);
+                left.fork();
+                Frontier right = new BottomUpTask(incoming, outOffsets, levels, depth, mid, to).compute();
+                return left.join().concat(right);
+            }
+            int[] offsets = incoming.offsets();
+            int[] sources = incoming.targets();
+            FrontierBuilder next = new FrontierBuilder(16);
+            for (int v = from; v < to; v++) {
+                if (levels.get(v) >= 0) {
+                    continue;
+                }
+                for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                    if (levels.get(sources[e]) == depth) {
+                        levels.set(v, depth + 1);
+                        next.add(v, outOffsets[v + 1] - outOffsets[v]);
+                        break;
+                    }
+                }
+            }
+            return next.build();
+        }
+    }
+
+    // ========== Connected components ==========
+
+    /**
+     * Labels every vertex with the smallest id in its connected component, ignoring edge
+     * direction (weakly connected components for a directed graph).
+     */
+    public int[] connectedComponents(CsrGraph<?> graph) {
+        int n = graph.vertexCount();
+        AtomicIntegerArray parent = new AtomicIntegerArray(n);
+        for (int v = 0; v < n; v++) {
+            parent.setPlain(v, v);
+        }
+        pool.invoke(new HookTask(graph, parent, 0, n));
+        int[] labels = new int[n];
+        pool.invoke(new CompressTask(parent, labels, 0, n));
+        return labels;
+    }
+
+    /**
+     * The number of distinct labels returned by {@link #connectedComponents}.
+     */
+    public static int componentCount(int[] labels) {
+        int count = 0;
+        for (int v = 0; v < labels.length; v++) {
+            if (labels[v] == v) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int findRoot(AtomicIntegerArray parent, int v) {
+        int p = parent.get(v);
+        while (p != v) {
+            int grandparent = parent.get(p);
+            // Path halving; losing the race only leaves a longer path behind
+            if (grandparent != p) {
+                parent.compareAndSet(v, p, grandparent);
+            }
+            v = p;
+            p = grandparent;
+        }
+        return v;
+    }
+
+    /**
+     * Unites the endpoints of the edges leaving {@code [from, to)}.
+     */
+    private static final class HookTask extends RecursiveAction {
+        private final CsrGraph<?> graph;
+        private final AtomicIntegerArray parent;
+        private final int from;
+        private final int to;
+
+        HookTask(CsrGraph<?> graph, AtomicIntegerArray parent, int from, int to) {
+            this.graph = graph;
+            this.parent = parent;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            int[] offsets = graph.offsets();
+            if (to - from > 1 && offsets[to] - offsets[from] > GRAIN) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new HookTask(graph, parent, from, mid), new HookTask(graph, parent, mid, to));
+                return;
+            }
+            int[] targets = graph.targets();
+            // An undirected edge is stored at both ends; hooking one copy is enough
+            boolean both = !graph.isDirected();
+            for (int u = from; u < to; u++) {
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int v = targets[e];
+                    if (!both || v < u) {
+                        union(u, v);
+                    }
+                }
+            }
+        }
+
+        private void union(int u, int v) {
+            while (true) {
+                int ru = findRoot(parent, u);
+                int rv = findRoot(parent, v);
+                if (ru == rv) {
+                    return;
+                }
+                // Linking the larger root under the smaller keeps the forest acyclic
+                int high = Math.max(ru, rv);
+                int low = Math.min(ru, rv);
+                if (parent.compareAndSet(high, high, low)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static final class CompressTask extends RecursiveAction {
+        private final AtomicIntegerArray parent;
+        private final int[] labels;
+        private final int from;
+        private final int to;
+
+        CompressTask(AtomicIntegerArray parent, int[] labels, int from, int to) {
+            this.parent = parent;
+            this.labels = labels;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > GRAIN * 8) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new CompressTask(parent, labels, from, mid), new CompressTask(parent, labels, mid, to));
+                return;
+            }
+            for (int v = from; v < to; v++) {
+                labels[v] = findRoot(parent, v);
+            }
+        }
+    }
+
+    // ========== Degree statistics ==========
+
+    /**
+     * Summary of the out-degrees of a graph. {@code degreeSum} counts an undirected edge at both
+     * ends. {@code histogram[0]} counts vertices of degree 0 and {@code histogram[k]} those with
+     * degree in {@code [2^(k-1), 2^k)}.
+     */
+    public record DegreeStats(int vertices, long degreeSum, int min, int max, double mean, double stdDev,
+                              long[] histogram) {
+
+        @Override
+        public String toString() {
+            return "DegreeStats{vertices=%d, degreeSum=%d, min=%d, max=%d, mean=%.2f, stdDev=%.2f, histogram=%s}"
+                    .formatted(vertices, degreeSum, min, max, mean, stdDev, Arrays.toString(histogram));
+        }
+    }
+
+    public DegreeStats degreeStatistics(CsrGraph<?> graph) {
+        int n = graph.vertexCount();
+        if (n == 0) {
+            return new DegreeStats(0, 0, 0, 0, 0.0, 0.0, new long[1]);
+        }
+        DegreeSummary summary = pool.invoke(new DegreeTask(graph.offsets(), 0, n));
+        double mean = (double) summary.sum / n;
+        double variance = Math.max(0.0, (double) summary.sumOfSquares / n - mean * mean);
+        int buckets = 33 - Integer.numberOfLeadingZeros(summary.max);
+        return new DegreeStats(n, summary.sum, summary.min, summary.max, mean, Math.sqrt(variance),
+                Arrays.copyOf(summary.histogram, buckets));
+    }
+
+    private static final class DegreeSummary {
+        int min = Integer.MAX_VALUE;
+        int max;
+        long sum;
+        long sumOfSquares;
+        final long[] histogram = new long[33];
+
+        void add(int degree) {
+            min = Math.min(min, degree);
+            max = Math.max(max, degree);
+            sum += degree;
+            sumOfSquares += (long) degree * degree;
+            histogram[32 - Integer.numberOfLeadingZeros(degree)]++;
+        }
+
+        DegreeSummary merge(DegreeSummary other) {
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+            sum += other.sum;
+            sumOfSquares += other.sumOfSquares;
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] += other.histogram[i];
+            }
+            return this;
+        }
+    }
+
+    private static final class DegreeTask extends RecursiveTask<DegreeSummary> {
+        private final int[] offsets;
+        private final int from;
+        private final int to;
+
+        DegreeTask(int[] offsets, int from, int to) {
+            this.offsets = offsets;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected DegreeSummary compute() {
+            if (to - from > GRAIN * 8) {
+                int mid = (from + to) >>> 1;
+                DegreeTask left = new DegreeTask(offsets, from, mid);
+                left.fork();
+                DegreeSummary right = new DegreeTask(offsets, mid, to).compute();
+                return left.join().merge(right);
+            }
+            DegreeSummary summary = new DegreeSummary();
+            for (int v = from; v < to; v++) {
+                summary.add(offsets[v + 1] - offsets[v]);
+            }
+            return summary;
+        }
+    }
+}
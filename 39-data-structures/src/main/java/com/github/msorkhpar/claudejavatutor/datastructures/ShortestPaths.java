@@ -0,0 +1,197 @@
+package com.github.msorkhpar.claudejavatutor.datastructures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Weighted shortest paths over a {@link CsrGraph}: Dijkstra's algorithm and A*, both driven by
+ * an {@link IndexedDaryHeap} so that relaxing an edge is a decrease-key on a primitive heap
+ * rather than a boxed {@code PriorityQueue} insertion. Edges of an unweighted graph weigh 1.
+ * <p>
+ * {@link CsrGraph} rejects negative weights when it is built, which is what both algorithms
+ * require. A* expands fewer vertices than Dijkstra when given a heuristic that estimates the
+ * remaining distance without ever overestimating it, such as the straight-line distance on a road
+ * network.
+ * <pre>{@code
+ * ShortestPaths paths = new ShortestPaths();
+ * Optional<ShortestPaths.Path> route = paths.aStar(roads, from, to, v -> distance(v, to));
+ * }</pre>
+ * Instances hold no per-search state and may be shared.
+ */
+public class ShortestPaths {
+
+    private final int arity;
+
+    public ShortestPaths() {
+        this(IndexedDaryHeap.DEFAULT_ARITY);
+    }
+
+    /**
+     * @param arity children per node of the search heap
+     */
+    public ShortestPaths(int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("arity must be >= 2");
+        }
+        this.arity = arity;
+    }
+
+    /**
+     * A path and its total weight.
+     */
+    public record Path(int[] vertices, double distance) {
+
+        public int source() {
+            return vertices[0];
+        }
+
+        public int target() {
+            return vertices[vertices.length - 1];
+        }
+
+        public <T> List<T> toVertices(CsrGraph<T> graph) {
+            List<T> result = new ArrayList<>(vertices.length);
+            for (int v : vertices) {
+                result.add(graph.vertexOf(v));
+            }
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "Path{vertices=%s, distance=%s}".formatted(Arrays.toString(vertices), distance);
+        }
+    }
+
+    /**
+     * Distances from one source to every vertex, with the last hop of each shortest path.
+     */
+    public record ShortestPathTree(int source, double[] distances, int[] parents) {
+
+        public boolean isReachable(int target) {
+            return distances[target] != Double.POSITIVE_INFINITY;
+        }
+
+        /**
+         * The weight of a shortest path to {@code target}, or infinity if it is unreachable.
+         */
+        public double distanceTo(int target) {
+            return distances[target];
+        }
+
+        public Optional<Path> pathTo(int target) {
+            return isReachable(target)
+                    ? Optional.of(new Path(buildPath(parents, source, target), distances[target]))
+                    : Optional.empty();
+        }
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from {@code source} to every reachable vertex.
+     */
+    public ShortestPathTree dijkstra(CsrGraph<?> graph, int source) {
+        Objects.checkIndex(source, graph.vertexCount());
+        Search search = new Search(graph, source);
+        search.run(-1, null);
+        return new ShortestPathTree(source, search.distances, search.parents);
+    }
+
+    /**
+     * A shortest path from {@code source} to {@code target}, stopping as soon as
+     * {@code target} is settled.
+     */
+    public Optional<Path> dijkstra(CsrGraph<?> graph, int source, int target) {
+        return aStar(graph, source, target, null);
+    }
+
+    /**
+     * A shortest path from {@code source} to {@code target}, expanding vertices in order of
+     * distance so far plus {@code heuristic}, the estimated remaining distance. The path is
+     * shortest if the heuristic never overestimates; a vertex whose distance improves after it
+     * was expanded is expanded again, so the heuristic need not also be consistent.
+     */
+    public Optional<Path> aStar(CsrGraph<?> graph, int source, int target, IntToDoubleFunction heuristic) {
+        Objects.checkIndex(source, graph.vertexCount());
+        Objects.checkIndex(target, graph.vertexCount());
+        Search search = new Search(graph, source);
+        if (!search.run(target, heuristic)) {
+            return Optional.empty();
+        }
+        return Optional.of(new Path(buildPath(search.parents, source, target), search.distances[target]));
+    }
+
+    /**
+     * The number of vertices a search from {@code source} to {@code target} expands, so tests can
+     * check how much a heuristic prunes.
+     */
+    int expandedBy(CsrGraph<?> graph, int source, int target, IntToDoubleFunction heuristic) {
+        Search search = new Search(graph, source);
+        search.run(target, heuristic);
+        return search.expanded;
+    }
+
+    private final class Search {
+        final CsrGraph<?> graph;
+        final double[] distances;
+        final int[] parents;
+        final IndexedDaryHeap heap;
+        int expanded;
+
+        Search(CsrGraph<?> graph, int source) {
+            this.graph = graph;
+            int n = graph.vertexCount();
+            this.distances = new double[n];
+            this.parents = new int[n];
+            this.heap = new IndexedDaryHeap(n, arity);
+            Arrays.fill(distances, Double.POSITIVE_INFINITY);
+            Arrays.fill(parents, -1);
+            distances[source] = 0;
+            heap.insert(source, 0);
+        }
+
+        /**
+         * Searches until {@code target} is expanded (or everything, for -1). Returns whether the
+         * target was reached.
+         */
+        boolean run(int target, IntToDoubleFunction heuristic) {
+            int[] offsets = graph.offsets();
+            int[] targets = graph.targets();
+            double[] weights = graph.weights();
+            while (!heap.isEmpty()) {
+                int current = heap.poll();
+                expanded++;
+                if (current == target) {
+                    return true;
+                }
+                double base = distances[current];
+                for (int e = offsets[current]; e < offsets[current + 1]; e++) {
+                    int next = targets[e];
+                    double distance = base + (weights == null ? 1.0 : weights[e]);
+                    if (distance < distances[next]) {
+                        distances[next] = distance;
+                        parents[next] = current;
+                        double estimate = heuristic == null ? distance : distance + heuristic.applyAsDouble(next);
+                        heap.insertOrDecrease(next, estimate);
+                    }
+                }
+            }
+            return target < 0;
+        }
+    }
+
+    private static int[] buildPath(int[] parents, int source, int target) {
+        int length = 1;
+        for (int v = target; v != source; v = parents[v]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int v = target, i = length - 1; i >= 0; v = parents[v], i--) {
+            path[i] = v;
+        }
+        return path;
+    }
+}
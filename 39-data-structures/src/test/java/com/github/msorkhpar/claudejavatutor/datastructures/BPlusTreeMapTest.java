@@ -0,0 +1,261 @@
+package com.github.msorkhpar.claudejavatutor.datastructures;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("B+-Tree Map Tests")
+class BPlusTreeMapTest {
+
+    private static BPlusTreeMap<Integer, String> mapOf(int fanout, int... keys) {
+        var map = new BPlusTreeMap<Integer, String>(fanout);
+        for (int key : keys) {
+            map.put(key, "v" + key);
+        }
+        return map;
+    }
+
+    /**
+     * Checks size, order and navigation of {@code actual} against {@code expected}.
+     */
+    private static void assertSameAs(NavigableMap<Integer, Integer> actual, NavigableMap<Integer, Integer> expected,
+                                     Random random) {
+        assertThat(actual).hasSize(expected.size());
+        assertThat(new ArrayList<>(actual.entrySet())).isEqualTo(new ArrayList<>(expected.entrySet()));
+        assertThat(actual.firstEntry()).isEqualTo(expected.firstEntry());
+        assertThat(actual.lastEntry()).isEqualTo(expected.lastEntry());
+        for (int i = 0; i < 30; i++) {
+            int key = random.nextInt(1_200) - 100;
+            assertThat(actual.get(key)).isEqualTo(expected.get(key));
+            assertThat(actual.ceilingEntry(key)).isEqualTo(expected.ceilingEntry(key));
+            assertThat(actual.floorEntry(key)).isEqualTo(expected.floorEntry(key));
+            assertThat(actual.higherKey(key)).isEqualTo(expected.higherKey(key));
+            assertThat(actual.lowerKey(key)).isEqualTo(expected.lowerKey(key));
+        }
+    }
+
+    @Nested
+    @DisplayName("Basic Operations")
+    class BasicTests {
+
+        @Test
+        @DisplayName("Should put, get and remove entries")
+        void testPutGetRemove() {
+            var map = mapOf(4, 5, 1, 9, 3, 7);
+
+            assertThat(map.get(3)).isEqualTo("v3");
+            assertThat(map.put(3, "three")).isEqualTo("v3");
+            assertThat(map.remove(9)).isEqualTo("v9");
+            assertThat(map.remove(9)).isNull();
+            assertThat(map.keySet()).containsExactly(1, 3, 5, 7);
+            assertThat(map).containsEntry(3, "three").hasSize(4);
+        }
+
+        @Test
+        @DisplayName("Should reject null keys and a fanout below 3")
+        void testInvalidArguments() {
+            var map = new BPlusTreeMap<Integer, String>();
+
+            assertThatThrownBy(() -> map.put(null, "x")).isInstanceOf(NullPointerException.class);
+            assertThatThrownBy(() -> map.get(null)).isInstanceOf(NullPointerException.class);
+            assertThatThrownBy(() -> new BPlusTreeMap<Integer, String>(2)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(map::firstKey).isInstanceOf(NoSuchElementException.class);
+        }
+
+        @Test
+        @DisplayName("Should grow and shrink in height")
+        void testHeight() {
+            var map = new BPlusTreeMap<Integer, Integer>(4);
+            for (int i = 0; i < 1_000; i++) {
+                map.put(i, i);
+            }
+            assertThat(map.height()).isBetween(4, 9);
+
+            for (int i = 0; i < 1_000; i++) {
+                map.remove(i);
+            }
+            assertThat(map).isEmpty();
+            assertThat(map.height()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should order keys by a custom comparator")
+        void testComparator() {
+            var map = new BPlusTreeMap<String, Integer>(String.CASE_INSENSITIVE_ORDER, 4);
+            map.put("b", 1);
+            map.put("A", 2);
+            map.put("B", 3);
+
+            assertThat(map.keySet()).containsExactly("A", "b");
+            assertThat(map.get("a")).isEqualTo(2);
+            assertThat(map.get("b")).isEqualTo(3);
+        }
+
+        @ParameterizedTest(name = "fanout = {0}")
+        @ValueSource(ints = {3, 4, 7, 64})
+        @DisplayName("Should match a TreeMap under random puts and removes")
+        void testMatchesTreeMap(int fanout) {
+            Random random = new Random(fanout);
+            var map = new BPlusTreeMap<Integer, Integer>(fanout);
+            var expected = new TreeMap<Integer, Integer>();
+
+            for (int step = 0; step < 30_000; step++) {
+                int key = random.nextInt(1_000);
+                if (random.nextInt(10) < 5) {
+                    assertThat(map.put(key, step)).isEqualTo(expected.put(key, step));
+                } else {
+                    assertThat(map.remove(key)).isEqualTo(expected.remove(key));
+                }
+                if (step % 3_000 == 0) {
+                    assertSameAs(map, expected, random);
+                }
+            }
+            assertThat(map).isEqualTo(expected);
+        }
+    }
+
+    @Nested
+    @DisplayName("Bulk Loading")
+    class BulkLoadTests {
+
+        @Test
+        @DisplayName("Should build a full, shallow tree from sorted input")
+        void testFromSorted() {
+            var source = new TreeMap<Integer, Integer>();
+            for (int i = 0; i < 10_000; i++) {
+                source.put(i * 2, i);
+            }
+
+            var map = BPlusTreeMap.fromSorted(source, 16);
+
+            // 625 full leaves need three branch levels of fanout 16
+            assertThat(map.height()).isEqualTo(3);
+            assertThat(map).isEqualTo(source);
+            assertSameAs(map, source, new Random(1));
+        }
+
+        @Test
+        @DisplayName("Should stay correct when modified after loading")
+        void testModifyAfterLoad() {
+            Random random = new Random(2);
+            var expected = new TreeMap<Integer, Integer>();
+            random.ints(2_000, 0, 1_000).forEach(key -> expected.put(key, key));
+            var map = BPlusTreeMap.fromSorted(expected, 5);
+
+            for (int i = 0; i < 3_000; i++) {
+                int key = random.nextInt(1_000);
+                if (random.nextBoolean()) {
+                    assertThat(map.put(key, i)).isEqualTo(expected.put(key, i));
+                } else {
+                    assertThat(map.remove(key)).isEqualTo(expected.remove(key));
+                }
+            }
+            assertSameAs(map, expected, random);
+        }
+
+        @Test
+        @DisplayName("Should reject unsorted input")
+        void testUnsortedInput() {
+            List<Map.Entry<Integer, String>> entries = List.of(Map.entry(1, "a"), Map.entry(3, "b"), Map.entry(2, "c"));
+
+            assertThatThrownBy(() -> BPlusTreeMap.fromSorted(entries, null, 4))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("3, 2");
+        }
+    }
+
+    @Nested
+    @DisplayName("Views and Iteration")
+    class ViewTests {
+
+        @Test
+        @DisplayName("Range views should match TreeMap's")
+        void testRangeViews() {
+            Random random = new Random(3);
+            var map = new BPlusTreeMap<Integer, Integer>(4);
+            var expected = new TreeMap<Integer, Integer>();
+            random.ints(600, 0, 1_000).forEach(key -> {
+                map.put(key, key);
+                expected.put(key, key);
+            });
+
+            for (int i = 0; i < 20; i++) {
+                int from = random.nextInt(1_000);
+                int to = from + random.nextInt(1_000 - from + 1);
+                boolean fromInclusive = random.nextBoolean();
+                boolean toInclusive = random.nextBoolean();
+                assertSameAs(map.subMap(from, fromInclusive, to, toInclusive),
+                        expected.subMap(from, fromInclusive, to, toInclusive), random);
+                assertSameAs(map.subMap(from, fromInclusive, to, toInclusive).descendingMap(),
+                        expected.subMap(from, fromInclusive, to, toInclusive).descendingMap(), random);
+                assertSameAs(map.descendingMap().headMap(from, fromInclusive),
+                        expected.descendingMap().headMap(from, fromInclusive), random);
+                assertSameAs(map.tailMap(from, fromInclusive), expected.tailMap(from, fromInclusive), random);
+            }
+            assertThat(map.descendingKeySet()).containsExactlyElementsOf(expected.descendingKeySet());
+        }
+
+        @Test
+        @DisplayName("Views should write through and reject keys outside their range")
+        void testWriteThrough() {
+            var map = mapOf(4, 1, 2, 3, 4, 5, 6);
+            NavigableMap<Integer, String> middle = map.subMap(2, true, 5, false);
+
+            middle.remove(3);
+            middle.put(4, "four");
+            middle.pollFirstEntry();
+
+            assertThat(map.keySet()).containsExactly(1, 4, 5, 6);
+            assertThat(map.get(4)).isEqualTo("four");
+            assertThatThrownBy(() -> middle.put(5, "x")).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> middle.subMap(0, 3)).isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("Iterators should remove and set values in both directions")
+        void testIteratorUpdates() {
+            var map = mapOf(3, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+
+            for (Iterator<Map.Entry<Integer, String>> it = map.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<Integer, String> entry = it.next();
+                if (entry.getKey() % 2 == 0) {
+                    it.remove();
+                } else {
+                    entry.setValue("odd");
+                }
+            }
+            map.descendingKeySet().removeIf(key -> key > 5);
+
+            assertThat(map).containsExactly(Map.entry(1, "odd"), Map.entry(3, "odd"), Map.entry(5, "odd"));
+        }
+
+        @Test
+        @DisplayName("Iterators should fail fast on structural changes")
+        void testConcurrentModification() {
+            var map = mapOf(4, 1, 2, 3);
+            Iterator<Integer> keys = map.keySet().iterator();
+            keys.next();
+
+            map.put(4, "v4");
+
+            assertThatThrownBy(keys::next).isInstanceOf(ConcurrentModificationException.class);
+        }
+
+        @Test
+        @DisplayName("forEachInRange should visit a half-open range")
+        void testForEachInRange() {
+            var map = mapOf(4, 10, 20, 30, 40, 50, 60);
+            List<Integer> visited = new ArrayList<>();
+
+            map.forEachInRange(15, 50, (key, value) -> visited.add(key));
+
+            assertThat(visited).containsExactly(20, 30, 40);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.github.msorkhpar.claudejavatutor.datastructures;
+
+import com.github.msorkhpar.claudejavatutor.datastructures.CommonDataStructures.Graph;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("CSR Graph Tests")
+class CsrGraphTest {
+
+    private static Graph<String> sampleGraph(boolean directed) {
+        var graph = new Graph<String>(directed);
+        graph.addEdge("A", "B");
+        graph.addEdge("A", "C");
+        graph.addEdge("B", "D");
+        graph.addEdge("C", "D");
+        graph.addEdge("D", "E");
+        graph.addVertex("F");
+        return graph;
+    }
+
+    private static Graph<Integer> randomGraph(long seed, boolean directed, int vertices, int edges) {
+        Random random = new Random(seed);
+        var graph = new Graph<Integer>(directed);
+        for (int v = 0; v < vertices; v++) {
+            graph.addVertex(v);
+        }
+        for (int e = 0; e < edges; e++) {
+            graph.addEdge(random.nextInt(vertices), random.nextInt(vertices));
+        }
+        return graph;
+    }
+
+    @Nested
+    @DisplayName("Structure")
+    class StructureTests {
+
+        @Test
+        @DisplayName("Should assign ids in vertex order and keep neighbor order")
+        void testLayout() {
+            CsrGraph<String> csr = CsrGraph.of(sampleGraph(true));
+
+            assertThat(csr.vertexCount()).isEqualTo(6);
+            assertThat(csr.edgeCount()).isEqualTo(5);
+            assertThat(csr.idOf("A")).isZero();
+            assertThat(csr.vertexOf(csr.idOf("E"))).isEqualTo("E");
+            assertThat(csr.idOf("Z")).isEqualTo(-1);
+            assertThat(csr.degree(csr.idOf("A"))).isEqualTo(2);
+            assertThat(csr.degree(csr.idOf("F"))).isZero();
+            assertThat(csr.hasEdge(csr.idOf("A"), csr.idOf("B"))).isTrue();
+            assertThat(csr.hasEdge(csr.idOf("B"), csr.idOf("A"))).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should count undirected edges once")
+        void testUndirectedEdgeCount() {
+            Graph<String> graph = sampleGraph(false);
+
+            assertThat(graph.toCsr().edgeCount()).isEqualTo(graph.edgeCount());
+        }
+
+        @Test
+        @DisplayName("Should not see changes made to the source graph")
+        void testSnapshot() {
+            Graph<String> graph = sampleGraph(true);
+            CsrGraph<String> csr = graph.toCsr();
+
+            graph.addEdge("E", "F");
+
+            assertThat(csr.bfs("A")).doesNotContain("F");
+        }
+
+        @Test
+        @DisplayName("Should reject ids outside the graph")
+        void testInvalidId() {
+            CsrGraph<String> csr = CsrGraph.of(sampleGraph(true));
+
+            assertThatThrownBy(() -> csr.bfs(6)).isInstanceOf(IndexOutOfBoundsException.class);
+            assertThatThrownBy(() -> csr.vertexOf(-1)).isInstanceOf(IndexOutOfBoundsException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Traversal")
+    class TraversalTests {
+
+        @Test
+        @DisplayName("Should return empty results for unknown vertices")
+        void testUnknownVertices() {
+            CsrGraph<String> csr = CsrGraph.of(sampleGraph(false));
+
+            assertThat(csr.bfs("Z")).isEmpty();
+            assertThat(csr.dfs("Z")).isEmpty();
+            assertThat(csr.shortestPath("A", "Z")).isEmpty();
+            assertThat(csr.shortestPath("A", "F")).isEmpty();
+            assertThat(csr.shortestPath("C", "C")).containsExactly("C");
+        }
+
+        @Test
+        @DisplayName("Should detect cycles like Graph.hasCycle")
+        void testHasCycle() {
+            var dag = new Graph<String>(true);
+            dag.addEdge("A", "B");
+            dag.addEdge("B", "C");
+            dag.addEdge("A", "C");
+            assertThat(dag.toCsr().hasCycle()).isFalse();
+
+            dag.addEdge("C", "A");
+            assertThat(dag.toCsr().hasCycle()).isTrue();
+            assertThat(sampleGraph(false).toCsr().hasCycle()).isTrue();
+            assertThat(new Graph<String>(true).toCsr().hasCycle()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should not overflow the stack on a long path")
+        void testDeepDfs() {
+            var path = new Graph<Integer>(true);
+            for (int v = 0; v < 200_000; v++) {
+                path.addEdge(v, v + 1);
+            }
+            CsrGraph<Integer> csr = path.toCsr();
+
+            assertThat(csr.dfs(0)).hasSize(200_001);
+            assertThat(csr.hasCycle()).isFalse();
+        }
+
+        @ParameterizedTest(name = "directed = {0}")
+        @ValueSource(booleans = {true, false})
+        @DisplayName("Should match Graph on the sample graph")
+        void testMatchesSample(boolean directed) {
+            Graph<String> graph = sampleGraph(directed);
+            CsrGraph<String> csr = graph.toCsr();
+
+            for (String v : graph.getVertices()) {
+                assertThat(csr.bfs(v)).isEqualTo(graph.bfs(v));
+                assertThat(csr.dfs(v)).isEqualTo(graph.dfs(v));
+                for (String w : graph.getVertices()) {
+                    assertThat(csr.shortestPath(v, w)).isEqualTo(graph.shortestPath(v, w));
+                }
+            }
+            assertThat(csr.hasCycle()).isEqualTo(graph.hasCycle());
+        }
+
+        @ParameterizedTest(name = "seed = {0}")
+        @ValueSource(longs = {1, 2, 3, 4, 5})
+        @DisplayName("Should match Graph on random graphs")
+        void testMatchesRandom(long seed) {
+            for (boolean directed : List.of(true, false)) {
+                Graph<Integer> graph = randomGraph(seed, directed, 60, 90);
+                CsrGraph<Integer> csr = graph.toCsr();
+
+                // Boxed, so the List<T> overloads are called rather than the int id ones
+                for (Integer v : graph.getVertices()) {
+                    Integer w = 59 - v;
+                    assertThat(csr.bfs(v)).isEqualTo(graph.bfs(v));
+                    assertThat(csr.dfs(v)).isEqualTo(graph.dfs(v));
+                    assertThat(csr.shortestPath(v, w)).isEqualTo(graph.shortestPath(v, w));
+                }
+                assertThat(csr.hasCycle()).isEqualTo(graph.hasCycle());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Topological Sort")
+    class TopologicalSortTests {
+
+        @Test
+        @DisplayName("Should order sources first, in insertion order")
+        void testSampleGraph() {
+            Graph<String> graph = sampleGraph(true);
+
+            assertThat(graph.topologicalSort()).containsExactly("A", "F", "B", "C", "D", "E");
+        }
+
+        @ParameterizedTest(name = "seed = {0}")
+        @ValueSource(longs = {1, 2, 3})
+        @DisplayName("Should point every edge forward in a random DAG")
+        void testRandomDag(long seed) {
+            Random random = new Random(seed);
+            int n = 300;
+            int[] sources = new int[1200];
+            int[] destinations = new int[1200];
+            // Edges run from a lower to a higher random rank, so the graph is acyclic
+            int[] hidden = random.ints(0, n).distinct().limit(n).toArray();
+            for (int i = 0; i < sources.length; i++) {
+                int a = random.nextInt(n - 1);
+                int b = a + 1 + random.nextInt(n - 1 - a);
+                sources[i] = hidden[a];
+                destinations[i] = hidden[b];
+            }
+            CsrGraph<Integer> graph = CsrGraph.fromEdges(n, sources, destinations, true);
+
+            int[] order = graph.topologicalOrder();
+
+            int[] rank = new int[n];
+            for (int i = 0; i < n; i++) {
+                rank[order[i]] = i;
+            }
+            for (int i = 0; i < sources.length; i++) {
+                assertThat(rank[sources[i]]).isLessThan(rank[destinations[i]]);
+            }
+        }
+
+        @Test
+        @DisplayName("Should reject cycles and undirected graphs")
+        void testInvalidGraphs() {
+            Graph<String> cyclic = sampleGraph(true);
+            cyclic.addEdge("E", "B");
+
+            assertThatThrownBy(cyclic::topologicalSort)
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("3 vertices");
+            assertThatThrownBy(() -> sampleGraph(false).topologicalSort())
+                    .isInstanceOf(IllegalStateException.class);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.github.msorkhpar.claudejavatutor.datastructures;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Indexed D-ary Heap Tests")
+class IndexedDaryHeapTest {
+
+    private IndexedDaryHeap heap;
+
+    @BeforeEach
+    void setUp() {
+        heap = new IndexedDaryHeap(10);
+    }
+
+    @Test
+    @DisplayName("Should poll keys in priority order")
+    void testPollOrder() {
+        heap.insert(3, 3.0);
+        heap.insert(1, 1.0);
+        heap.insert(7, 2.0);
+
+        assertThat(heap.size()).isEqualTo(3);
+        assertThat(heap.peek()).isEqualTo(1);
+        assertThat(heap.poll()).isEqualTo(1);
+        assertThat(heap.poll()).isEqualTo(7);
+        assertThat(heap.poll()).isEqualTo(3);
+        assertThat(heap.isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should move a key forward on decreaseKey")
+    void testDecreaseKey() {
+        heap.insert(0, 5.0);
+        heap.insert(1, 4.0);
+        heap.insert(2, 3.0);
+
+        heap.decreaseKey(0, 1.0);
+
+        assertThat(heap.priorityOf(0)).isEqualTo(1.0);
+        assertThat(heap.poll()).isZero();
+        assertThat(heap.contains(0)).isFalse();
+    }
+
+    @Test
+    @DisplayName("insertOrDecrease should only ever lower a priority")
+    void testInsertOrDecrease() {
+        assertThat(heap.insertOrDecrease(4, 2.0)).isTrue();
+        assertThat(heap.insertOrDecrease(4, 3.0)).isFalse();
+        assertThat(heap.insertOrDecrease(4, 1.0)).isTrue();
+        assertThat(heap.priorityOf(4)).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should reject invalid operations")
+    void testInvalidOperations() {
+        heap.insert(2, 2.0);
+
+        assertThatThrownBy(() -> heap.insert(2, 1.0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> heap.decreaseKey(2, 3.0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> heap.decreaseKey(5, 1.0)).isInstanceOf(NoSuchElementException.class);
+        assertThatThrownBy(() -> heap.insert(10, 1.0)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> heap.insert(3, Double.NaN)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new IndexedDaryHeap(4, 1)).isInstanceOf(IllegalArgumentException.class);
+        heap.clear();
+        assertThatThrownBy(heap::poll).isInstanceOf(NoSuchElementException.class);
+        assertThat(heap.contains(2)).isFalse();
+    }
+
+    @ParameterizedTest(name = "arity = {0}")
+    @ValueSource(ints = {2, 3, 4, 8})
+    @DisplayName("Should match a sorted reference under random operations")
+    void testRandomOperations(int arity) {
+        int capacity = 500;
+        IndexedDaryHeap randomHeap = new IndexedDaryHeap(capacity, arity);
+        Map<Integer, Double> reference = new HashMap<>();
+        Random random = new Random(arity);
+
+        for (int step = 0; step < 20_000; step++) {
+            int key = random.nextInt(capacity);
+            int operation = random.nextInt(3);
+            if (operation == 0 && !reference.isEmpty()) {
+                double min = Collections.min(reference.values());
+                int polled = randomHeap.poll();
+                assertThat(reference.remove(polled)).isEqualTo(min);
+            } else if (reference.containsKey(key)) {
+                double lower = reference.get(key) - random.nextDouble();
+                randomHeap.decreaseKey(key, lower);
+                reference.put(key, lower);
+            } else {
+                double priority = random.nextDouble() * 100;
+                randomHeap.insert(key, priority);
+                reference.put(key, priority);
+            }
+            assertThat(randomHeap.size()).isEqualTo(reference.size());
+        }
+    }
+}
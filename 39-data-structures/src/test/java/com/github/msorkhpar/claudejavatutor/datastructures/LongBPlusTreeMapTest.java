@@ -0,0 +1,134 @@
+package com.github.msorkhpar.claudejavatutor.datastructures;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Long-Key B+-Tree Map Tests")
+class LongBPlusTreeMapTest {
+
+    private static Long orNull(OptionalLong key) {
+        return key.isPresent() ? key.getAsLong() : null;
+    }
+
+    @Test
+    @DisplayName("Should put, get and remove entries")
+    void testPutGetRemove() {
+        var map = new LongBPlusTreeMap<String>(4);
+        map.put(5, "five");
+        map.put(-1, "minus one");
+        map.put(9, "nine");
+
+        assertThat(map.get(5)).isEqualTo("five");
+        assertThat(map.put(5, "FIVE")).isEqualTo("five");
+        assertThat(map.remove(9)).isEqualTo("nine");
+        assertThat(map.remove(9)).isNull();
+        assertThat(map.containsKey(-1)).isTrue();
+        assertThat(map.size()).isEqualTo(2);
+        assertThat(map.firstKey()).isEqualTo(-1);
+        assertThat(map.lastKey()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Should navigate to the extremes of the key space")
+    void testExtremeKeys() {
+        var map = LongBPlusTreeMap.fromSorted(new long[]{Long.MIN_VALUE, 0, Long.MAX_VALUE}, List.of("a", "b", "c"), 4);
+
+        assertThat(map.floorKey(Long.MAX_VALUE)).hasValue(Long.MAX_VALUE);
+        assertThat(map.ceilingKey(1)).hasValue(Long.MAX_VALUE);
+        assertThat(map.higherKey(Long.MAX_VALUE)).isEmpty();
+        assertThat(map.lowerKey(Long.MIN_VALUE)).isEmpty();
+        assertThat(new LongBPlusTreeMap<String>().ceilingKey(0)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should bulk load sorted keys and reject unsorted ones")
+    void testFromSorted() {
+        long[] keys = IntStream.range(0, 100_000).mapToLong(i -> i * 3L).toArray();
+        List<Integer> values = IntStream.range(0, 100_000).boxed().toList();
+
+        var map = LongBPlusTreeMap.fromSorted(keys, values, 64);
+
+        assertThat(map.size()).isEqualTo(100_000);
+        assertThat(map.height()).isEqualTo(2);
+        assertThat(map.get(2_997)).isEqualTo(999);
+        assertThat(map.containsKey(2_998)).isFalse();
+        assertThatThrownBy(() -> LongBPlusTreeMap.fromSorted(new long[]{1, 1}, List.of("a", "b"), 4))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("index 1");
+    }
+
+    @Test
+    @DisplayName("Should scan ranges with a consumer and a cursor")
+    void testScans() {
+        var map = LongBPlusTreeMap.fromSorted(new long[]{10, 20, 30, 40, 50}, List.of("a", "b", "c", "d", "e"), 3);
+        List<Long> visited = new ArrayList<>();
+
+        map.forEachInRange(15, 40, (key, value) -> visited.add(key));
+        List<String> fromCursor = new ArrayList<>();
+        for (var cursor = map.cursorAt(30, false); cursor.next(); ) {
+            fromCursor.add(cursor.value());
+        }
+
+        assertThat(visited).containsExactly(20L, 30L);
+        assertThat(fromCursor).containsExactly("d", "e");
+        assertThatThrownBy(() -> map.forEachInRange(5, 1, (key, value) -> { }))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Cursors should fail fast on structural changes")
+    void testConcurrentModification() {
+        var map = new LongBPlusTreeMap<String>();
+        map.put(1, "a");
+        var cursor = map.cursor();
+        cursor.next();
+
+        map.put(2, "b");
+
+        assertThatThrownBy(cursor::next).isInstanceOf(ConcurrentModificationException.class);
+    }
+
+    @ParameterizedTest(name = "fanout = {0}")
+    @ValueSource(ints = {3, 5, 64})
+    @DisplayName("Should match a TreeMap under random puts, removes and scans")
+    void testMatchesTreeMap(int fanout) {
+        Random random = new Random(fanout);
+        var map = new LongBPlusTreeMap<Integer>(fanout);
+        var expected = new TreeMap<Long, Integer>();
+
+        for (int step = 0; step < 30_000; step++) {
+            long key = random.nextInt(2_000) - 1_000;
+            if (random.nextInt(3) < 2) {
+                assertThat(map.put(key, step)).isEqualTo(expected.put(key, step));
+            } else {
+                assertThat(map.remove(key)).isEqualTo(expected.remove(key));
+            }
+            if (step % 1_000 == 0) {
+                assertThat(map.size()).isEqualTo(expected.size());
+                for (int i = 0; i < 20; i++) {
+                    long probe = random.nextInt(2_400) - 1_200;
+                    assertThat(map.get(probe)).isEqualTo(expected.get(probe));
+                    assertThat(orNull(map.ceilingKey(probe))).isEqualTo(expected.ceilingKey(probe));
+                    assertThat(orNull(map.floorKey(probe))).isEqualTo(expected.floorKey(probe));
+                    assertThat(orNull(map.higherKey(probe))).isEqualTo(expected.higherKey(probe));
+                    assertThat(orNull(map.lowerKey(probe))).isEqualTo(expected.lowerKey(probe));
+
+                    long to = probe + random.nextInt(500);
+                    List<Long> scanned = new ArrayList<>();
+                    map.forEachInRange(probe, to, (k, v) -> scanned.add(k));
+                    assertThat(scanned).isEqualTo(new ArrayList<>(expected.subMap(probe, to).keySet()));
+                }
+            }
+        }
+        List<Long> all = new ArrayList<>();
+        map.forEach((key, value) -> all.add(key));
+        assertThat(all).isEqualTo(new ArrayList<>(expected.keySet()));
+    }
+}
@@ -0,0 +1,178 @@
+package com.github.msorkhpar.claudejavatutor.datastructures;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Order Statistic Tree Tests")
+class OrderStatisticTreeTest {
+
+    private static OrderStatisticTree<Integer> treeOf(int... values) {
+        var tree = new OrderStatisticTree<Integer>();
+        for (int value : values) {
+            tree.insert(value);
+        }
+        return tree;
+    }
+
+    private static List<Integer> toList(Iterator<Integer> iterator) {
+        List<Integer> result = new ArrayList<>();
+        iterator.forEachRemaining(result::add);
+        return result;
+    }
+
+    @Nested
+    @DisplayName("Basic Operations")
+    class BasicTests {
+
+        @Test
+        @DisplayName("Should insert, find and delete like BinarySearchTree")
+        void testMatchesBinarySearchTree() {
+            var tree = treeOf(5, 3, 7, 1, 4);
+
+            assertThat(tree.inOrderTraversal()).containsExactly(1, 3, 4, 5, 7);
+            assertThat(tree.insert(5)).isFalse();
+            assertThat(tree.size()).isEqualTo(5);
+            assertThat(tree.contains(4)).isTrue();
+            assertThat(tree.contains(null)).isFalse();
+            assertThat(tree.findMinValue()).isEqualTo(1);
+            assertThat(tree.findMaxValue()).isEqualTo(7);
+
+            assertThat(tree.delete(3)).isTrue();
+            assertThat(tree.delete(3)).isFalse();
+            assertThat(tree.inOrderTraversal()).containsExactly(1, 4, 5, 7);
+        }
+
+        @Test
+        @DisplayName("Should reject null and handle an empty tree")
+        void testEmptyTree() {
+            var tree = new OrderStatisticTree<Integer>();
+
+            assertThatThrownBy(() -> tree.insert(null)).isInstanceOf(NullPointerException.class);
+            assertThatThrownBy(tree::findMinValue).isInstanceOf(NoSuchElementException.class);
+            assertThatThrownBy(() -> tree.select(0)).isInstanceOf(IndexOutOfBoundsException.class);
+            assertThat(tree.height()).isEqualTo(-1);
+            assertThat(tree.isEmpty()).isTrue();
+            assertThat(tree.iterator().hasNext()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should stay balanced on sorted input")
+        void testSortedInput() {
+            var tree = new OrderStatisticTree<Integer>();
+            int n = 200_000;
+            for (int i = 0; i < n; i++) {
+                tree.insert(i);
+            }
+
+            assertThat(tree.size()).isEqualTo(n);
+            // AVL height is below 1.45 log2(n + 2)
+            assertThat(tree.height()).isLessThan((int) (1.45 * Math.log(n + 2) / Math.log(2)));
+            for (int i = 0; i < n; i += 2) {
+                tree.delete(i);
+            }
+            assertThat(tree.size()).isEqualTo(n / 2);
+            assertThat(tree.select(0)).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Order Statistics")
+    class OrderStatisticsTests {
+
+        @Test
+        @DisplayName("rank should count smaller elements and select should invert it")
+        void testRankAndSelect() {
+            var tree = treeOf(10, 20, 30, 40, 50);
+
+            assertThat(tree.rank(10)).isZero();
+            assertThat(tree.rank(35)).isEqualTo(3);
+            assertThat(tree.rank(99)).isEqualTo(5);
+            assertThat(tree.select(3)).isEqualTo(40);
+            assertThat(tree.countInRange(15, 45)).isEqualTo(3);
+            assertThat(tree.ceiling(31)).isEqualTo(40);
+            assertThat(tree.floor(31)).isEqualTo(30);
+            assertThat(tree.floor(5)).isNull();
+        }
+
+        @Test
+        @DisplayName("Should match a TreeSet under random inserts and deletes")
+        void testMatchesTreeSet() {
+            var tree = new OrderStatisticTree<Integer>();
+            TreeSet<Integer> reference = new TreeSet<>();
+            Random random = new Random(17);
+
+            for (int step = 0; step < 20_000; step++) {
+                int value = random.nextInt(2_000);
+                if (random.nextBoolean()) {
+                    assertThat(tree.insert(value)).isEqualTo(reference.add(value));
+                } else {
+                    assertThat(tree.delete(value)).isEqualTo(reference.remove(value));
+                }
+                assertThat(tree.size()).isEqualTo(reference.size());
+                if (step % 500 == 0 && !reference.isEmpty()) {
+                    List<Integer> sorted = new ArrayList<>(reference);
+                    assertThat(tree.inOrderTraversal()).isEqualTo(sorted);
+                    for (int i = 0; i < sorted.size(); i++) {
+                        assertThat(tree.select(i)).isEqualTo(sorted.get(i));
+                        assertThat(tree.rank(sorted.get(i))).isEqualTo(i);
+                    }
+                    assertThat(tree.height())
+                            .isLessThan((int) (1.45 * Math.log(reference.size() + 2) / Math.log(2)) + 1);
+                }
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Range Iteration")
+    class RangeTests {
+
+        @Test
+        @DisplayName("Should iterate over a half-open range")
+        void testRange() {
+            var tree = treeOf(1, 3, 5, 7, 9, 11);
+
+            assertThat(toList(tree.iterator(3, 9))).containsExactly(3, 5, 7);
+            assertThat(toList(tree.iterator(4, 4))).isEmpty();
+            assertThat(toList(tree.iterator(0, 100))).containsExactly(1, 3, 5, 7, 9, 11);
+            assertThat(tree.range(6, 12)).containsExactly(7, 9, 11);
+            assertThatThrownBy(() -> tree.iterator(5, 3)).isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("Should match TreeSet.subSet on random ranges")
+        void testMatchesSubSet() {
+            Random random = new Random(5);
+            var tree = new OrderStatisticTree<Integer>();
+            TreeSet<Integer> reference = new TreeSet<>();
+            random.ints(3_000, 0, 10_000).forEach(value -> {
+                tree.insert(value);
+                reference.add(value);
+            });
+
+            for (int i = 0; i < 200; i++) {
+                int from = random.nextInt(10_000);
+                int to = from + random.nextInt(10_000 - from + 1);
+                assertThat(toList(tree.iterator(from, to))).isEqualTo(new ArrayList<>(reference.subSet(from, to)));
+                assertThat(tree.countInRange(from, to)).isEqualTo(reference.subSet(from, to).size());
+            }
+        }
+
+        @Test
+        @DisplayName("Should fail fast when the tree changes during iteration")
+        void testConcurrentModification() {
+            var tree = treeOf(1, 2, 3);
+            Iterator<Integer> iterator = tree.iterator();
+            iterator.next();
+
+            tree.insert(4);
+
+            assertThatThrownBy(iterator::next).isInstanceOf(ConcurrentModificationException.class);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.github.msorkhpar.claudejavatutor.datastructures;
+
+import com.github.msorkhpar.claudejavatutor.datastructures.CommonDataStructures.Graph;
+import com.github.msorkhpar.claudejavatutor.datastructures.ParallelGraphAlgorithms.DegreeStats;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Parallel Graph Algorithms Tests")
+class ParallelGraphAlgorithmsTest {
+
+    private ForkJoinPool pool;
+    private ParallelGraphAlgorithms algorithms;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(4);
+        algorithms = new ParallelGraphAlgorithms(pool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    private static int[] sequentialLevels(CsrGraph<?> graph, int source) {
+        int[] levels = new int[graph.vertexCount()];
+        Arrays.fill(levels, -1);
+        levels[source] = 0;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(source);
+        while (!queue.isEmpty()) {
+            int v = queue.poll();
+            graph.forEachNeighbor(v, w -> {
+                if (levels[w] < 0) {
+                    levels[w] = levels[v] + 1;
+                    queue.add(w);
+                }
+            });
+        }
+        return levels;
+    }
+
+    @Nested
+    @DisplayName("Graph Construction")
+    class ConstructionTests {
+
+        @Test
+        @DisplayName("fromEdges should drop duplicates and store undirected edges both ways")
+        void testFromEdges() {
+            CsrGraph<Integer> graph = CsrGraph.fromEdges(4, new int[]{0, 0, 2, 1}, new int[]{2, 2, 1, 0}, false);
+
+            assertThat(graph.edgeCount()).isEqualTo(3);
+            assertThat(graph.bfs(0)).containsExactly(0, 1, 2);
+            assertThat(graph.idOf(3)).isEqualTo(3);
+            assertThat(graph.idOf(4)).isEqualTo(-1);
+            assertThat(graph.vertexOf(2)).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("transpose should reverse every edge")
+        void testTranspose() {
+            CsrGraph<Integer> graph = CsrGraph.fromEdges(3, new int[]{0, 0, 1}, new int[]{1, 2, 2}, true);
+            CsrGraph<Integer> reversed = graph.transpose();
+
+            assertThat(reversed.hasEdge(2, 0)).isTrue();
+            assertThat(reversed.hasEdge(0, 2)).isFalse();
+            assertThat(reversed.degree(2)).isEqualTo(2);
+            assertThat(reversed.transpose()).isSameAs(graph);
+            assertThat(graph.toString()).isEqualTo("CsrGraph{vertices=3, edges=3, directed=true}");
+        }
+
+        @Test
+        @DisplayName("rmat should be reproducible and skewed")
+        void testRmat() {
+            CsrGraph<Integer> graph = CsrGraph.rmat(12, 8, false, 7);
+
+            assertThat(graph.vertexCount()).isEqualTo(4096);
+            assertThat(graph.edgeCount()).isEqualTo(CsrGraph.rmat(12, 8, false, 7).edgeCount());
+            DegreeStats stats = algorithms.degreeStatistics(graph);
+            assertThat(stats.max()).isGreaterThan((int) (stats.mean() * 10));
+        }
+    }
+
+    @Nested
+    @DisplayName("Breadth-First Search")
+    class BfsTests {
+
+        @ParameterizedTest(name = "directed = {0}")
+        @ValueSource(booleans = {true, false})
+        @DisplayName("Should match a sequential BFS on R-MAT graphs")
+        void testMatchesSequential(boolean directed) {
+            CsrGraph<Integer> graph = CsrGraph.rmat(14, 8, directed, 42);
+
+            for (int source : new int[]{0, 1, 100, graph.vertexCount() - 1}) {
+                assertThat(algorithms.bfsLevels(graph, source)).isEqualTo(sequentialLevels(graph, source));
+            }
+        }
+
+        @Test
+        @DisplayName("Should agree with Graph.shortestPath on a small graph")
+        void testSmallGraph() {
+            var graph = new Graph<String>(true);
+            graph.addEdge("A", "B");
+            graph.addEdge("B", "C");
+            graph.addEdge("A", "D");
+            graph.addVertex("E");
+            CsrGraph<String> csr = graph.toCsr();
+
+            int[] levels = algorithms.bfsLevels(csr, csr.idOf("A"));
+
+            assertThat(levels[csr.idOf("C")]).isEqualTo(graph.shortestPath("A", "C").size() - 1);
+            assertThat(levels[csr.idOf("D")]).isEqualTo(1);
+            assertThat(levels[csr.idOf("E")]).isEqualTo(-1);
+        }
+
+        @Test
+        @DisplayName("Should give the same levels with one worker")
+        void testSingleWorker() {
+            CsrGraph<Integer> graph = CsrGraph.rmat(12, 16, false, 3);
+            ForkJoinPool single = new ForkJoinPool(1);
+            try {
+                assertThat(new ParallelGraphAlgorithms(single).bfsLevels(graph, 0))
+                        .isEqualTo(algorithms.bfsLevels(graph, 0));
+            } finally {
+                single.shutdownNow();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Connected Components")
+    class ComponentTests {
+
+        @Test
+        @DisplayName("Should label each component with its smallest vertex")
+        void testLabels() {
+            CsrGraph<Integer> graph = CsrGraph.fromEdges(7,
+                    new int[]{4, 1, 2, 6}, new int[]{1, 0, 2, 5}, true);
+
+            int[] labels = algorithms.connectedComponents(graph);
+
+            assertThat(labels).containsExactly(0, 0, 2, 3, 0, 5, 5);
+            assertThat(ParallelGraphAlgorithms.componentCount(labels)).isEqualTo(4);
+        }
+
+        @ParameterizedTest(name = "directed = {0}")
+        @ValueSource(booleans = {true, false})
+        @DisplayName("Should match BFS reachability on R-MAT graphs")
+        void testMatchesBfs(boolean directed) {
+            CsrGraph<Integer> graph = CsrGraph.rmat(14, 4, directed, 11);
+            CsrGraph<Integer> undirected = graph.isDirected()
+                    ? CsrGraph.fromEdges(graph.vertexCount(), sourcesOf(graph), graph.targets(), false)
+                    : graph;
+
+            int[] labels = algorithms.connectedComponents(graph);
+
+            int[] expected = new int[graph.vertexCount()];
+            Arrays.fill(expected, -1);
+            for (int v = 0; v < expected.length; v++) {
+                if (expected[v] < 0) {
+                    for (int w : undirected.bfs(v)) {
+                        expected[w] = v;
+                    }
+                }
+            }
+            assertThat(labels).isEqualTo(expected);
+        }
+
+        private static int[] sourcesOf(CsrGraph<?> graph) {
+            int[] sources = new int[graph.targets().length];
+            for (int v = 0; v < graph.vertexCount(); v++) {
+                Arrays.fill(sources, graph.offsets()[v], graph.offsets()[v + 1], v);
+            }
+            return sources;
+        }
+    }
+
+    @Nested
+    @DisplayName("Degree Statistics")
+    class DegreeTests {
+
+        @Test
+        @DisplayName("Should summarise out-degrees")
+        void testStatistics() {
+            CsrGraph<Integer> star = CsrGraph.fromEdges(5, new int[]{0, 0, 0, 0}, new int[]{1, 2, 3, 4}, true);
+
+            DegreeStats stats = algorithms.degreeStatistics(star);
+
+            assertThat(stats.vertices()).isEqualTo(5);
+            assertThat(stats.degreeSum()).isEqualTo(4);
+            assertThat(stats.min()).isZero();
+            assertThat(stats.max()).isEqualTo(4);
+            assertThat(stats.mean()).isEqualTo(0.8);
+            assertThat(stats.stdDev()).isCloseTo(1.6, within(1e-9));
+            assertThat(stats.histogram()).containsExactly(4, 0, 0, 1);
+        }
+
+        @Test
+        @DisplayName("Should handle an empty graph")
+        void testEmpty() {
+            DegreeStats stats = algorithms.degreeStatistics(CsrGraph.fromEdges(0, new int[0], new int[0], true));
+
+            assertThat(stats.vertices()).isZero();
+            assertThat(stats.histogram()).containsExactly(0);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.github.msorkhpar.claudejavatutor.datastructures;
+
+import com.github.msorkhpar.claudejavatutor.datastructures.CommonDataStructures.Graph;
+import com.github.msorkhpar.claudejavatutor.datastructures.ShortestPaths.Path;
+import com.github.msorkhpar.claudejavatutor.datastructures.ShortestPaths.ShortestPathTree;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.IntToDoubleFunction;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Shortest Paths Tests")
+class ShortestPathsTest {
+
+    private final ShortestPaths paths = new ShortestPaths();
+
+    /**
+     * A {@code side x side} grid whose edges weigh between 1 and 2 times their unit length.
+     */
+    private static CsrGraph<Integer> grid(int side, long seed) {
+        Random random = new Random(seed);
+        int edges = 2 * side * (side - 1);
+        int[] sources = new int[edges];
+        int[] destinations = new int[edges];
+        double[] weights = new double[edges];
+        int e = 0;
+        for (int row = 0; row < side; row++) {
+            for (int col = 0; col < side; col++) {
+                int v = row * side + col;
+                if (col + 1 < side) {
+                    sources[e] = v;
+                    destinations[e] = v + 1;
+                    weights[e++] = 1 + random.nextDouble();
+                }
+                if (row + 1 < side) {
+                    sources[e] = v;
+                    destinations[e] = v + side;
+                    weights[e++] = 1 + random.nextDouble();
+                }
+            }
+        }
+        return CsrGraph.fromEdges(side * side, sources, destinations, weights, false);
+    }
+
+    /**
+     * Bellman-Ford, as an independent reference.
+     */
+    private static double[] referenceDistances(int n, int[] sources, int[] destinations, double[] weights,
+                                               boolean directed, int source) {
+        double[] distances = new double[n];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        distances[source] = 0;
+        for (int round = 0; round < n; round++) {
+            for (int i = 0; i < sources.length; i++) {
+                distances[destinations[i]] = Math.min(distances[destinations[i]], distances[sources[i]] + weights[i]);
+                if (!directed) {
+                    distances[sources[i]] = Math.min(distances[sources[i]], distances[destinations[i]] + weights[i]);
+                }
+            }
+        }
+        return distances;
+    }
+
+    @Nested
+    @DisplayName("Dijkstra")
+    class DijkstraTests {
+
+        @Test
+        @DisplayName("Should prefer the lighter of two routes")
+        void testLighterRoute() {
+            var graph = new Graph<String>(true);
+            graph.addEdge("A", "B");
+            graph.addEdge("B", "D");
+            graph.addEdge("A", "C");
+            graph.addEdge("C", "D");
+            Map<String, Double> weights = Map.of("AB", 1.0, "BD", 5.0, "AC", 2.0, "CD", 2.0);
+            CsrGraph<String> csr = CsrGraph.of(graph, (from, to) -> weights.get(from + to));
+
+            Optional<Path> path = paths.dijkstra(csr, csr.idOf("A"), csr.idOf("D"));
+
+            assertThat(path).isPresent();
+            assertThat(path.get().toVertices(csr)).containsExactly("A", "C", "D");
+            assertThat(path.get().distance()).isEqualTo(4.0);
+            assertThat(graph.shortestPath("A", "D")).containsExactly("A", "B", "D");
+        }
+
+        @Test
+        @DisplayName("Should report unreachable vertices")
+        void testUnreachable() {
+            CsrGraph<Integer> graph = CsrGraph.fromEdges(3, new int[]{0}, new int[]{1}, new double[]{2.5}, true);
+
+            ShortestPathTree tree = paths.dijkstra(graph, 0);
+
+            assertThat(tree.distanceTo(1)).isEqualTo(2.5);
+            assertThat(tree.isReachable(2)).isFalse();
+            assertThat(tree.pathTo(2)).isEmpty();
+            assertThat(paths.dijkstra(graph, 1, 0)).isEmpty();
+            assertThat(paths.dijkstra(graph, 2, 2)).get().extracting(Path::distance).isEqualTo(0.0);
+        }
+
+        @Test
+        @DisplayName("Should keep the lightest of duplicate edges")
+        void testDuplicateEdges() {
+            CsrGraph<Integer> graph = CsrGraph.fromEdges(2, new int[]{0, 0, 1}, new int[]{1, 1, 0},
+                    new double[]{3.0, 1.5, 2.0}, false);
+
+            assertThat(graph.edgeCount()).isEqualTo(1);
+            assertThat(paths.dijkstra(graph, 0).distanceTo(1)).isEqualTo(1.5);
+        }
+
+        @Test
+        @DisplayName("Should reject negative weights")
+        void testNegativeWeights() {
+            assertThatThrownBy(() -> CsrGraph.fromEdges(2, new int[]{0}, new int[]{1}, new double[]{-1}, true))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("Should count hops on an unweighted graph")
+        void testUnweighted() {
+            CsrGraph<Integer> graph = CsrGraph.rmat(10, 4, true, 5);
+            ShortestPathTree tree = paths.dijkstra(graph, 0);
+
+            for (int v = 0; v < graph.vertexCount(); v++) {
+                int[] hops = graph.shortestPath(0, v);
+                assertThat(tree.distanceTo(v)).isEqualTo(hops.length == 0 ? Double.POSITIVE_INFINITY : hops.length - 1);
+            }
+        }
+
+        @ParameterizedTest(name = "arity = {0}")
+        @ValueSource(ints = {2, 4, 8})
+        @DisplayName("Should match Bellman-Ford on random graphs")
+        void testMatchesReference(int arity) {
+            Random random = new Random(arity);
+            int n = 200;
+            int m = 800;
+            int[] sources = random.ints(m, 0, n).toArray();
+            int[] destinations = random.ints(m, 0, n).toArray();
+            double[] weights = random.doubles(m, 0, 10).toArray();
+            CsrGraph<Integer> graph = CsrGraph.fromEdges(n, sources, destinations, weights, true);
+
+            ShortestPathTree tree = new ShortestPaths(arity).dijkstra(graph, 0);
+
+            double[] expected = referenceDistances(n, sources, destinations, weights, true, 0);
+            for (int v = 0; v < n; v++) {
+                assertThat(tree.distanceTo(v)).isCloseTo(expected[v], within(1e-9));
+                tree.pathTo(v).ifPresent(path -> assertThat(path.target()).isEqualTo(path.vertices()[path.vertices().length - 1]));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("A*")
+    class AStarTests {
+
+        @Test
+        @DisplayName("Should find Dijkstra's distance while expanding fewer vertices")
+        void testManhattanHeuristic() {
+            int side = 60;
+            CsrGraph<Integer> graph = grid(side, 1);
+            int source = 0;
+            int target = side * side - 1;
+            // Every edge weighs at least 1, so the Manhattan distance never overestimates
+            IntToDoubleFunction manhattan =
+                    v -> Math.abs(v / side - target / side) + Math.abs(v % side - target % side);
+
+            Path aStar = paths.aStar(graph, source, target, manhattan).orElseThrow();
+            Path dijkstra = paths.dijkstra(graph, source, target).orElseThrow();
+
+            assertThat(aStar.distance()).isCloseTo(dijkstra.distance(), within(1e-9));
+            assertThat(aStar.source()).isEqualTo(source);
+            assertThat(paths.expandedBy(graph, source, target, manhattan))
+                    .isLessThan(paths.expandedBy(graph, source, target, null));
+        }
+
+        @Test
+        @DisplayName("Should stay optimal with an admissible but inconsistent heuristic")
+        void testInconsistentHeuristic() {
+            CsrGraph<Integer> graph = grid(20, 2);
+            int target = 399;
+            double[] expected = paths.dijkstra(graph, 0).distances();
+            // A random fraction of the Manhattan distance is still admissible, but jumps between neighbours
+            Random random = new Random(3);
+            double[] estimates = new double[400];
+            for (int v = 0; v < 400; v++) {
+                estimates[v] = random.nextDouble() * (Math.abs(v / 20 - target / 20) + Math.abs(v % 20 - target % 20));
+            }
+
+            Path path = paths.aStar(graph, 0, target, v -> estimates[v]).orElseThrow();
+
+            assertThat(path.distance()).isCloseTo(expected[target], within(1e-9));
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.github.msorkhpar.claudejavatutor.annotations;
 
+import com.github.msorkhpar.claudejavatutor.base.MetricsRegistry;
+
 import java.lang.annotation.*;
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -148,7 +151,9 @@ public class AnnotationProcessing {
     }
 
     /**
-     * Creates a dynamic proxy that intercepts @Timed methods.
+     * Creates a dynamic proxy that intercepts @Timed methods and keeps every invocation in
+     * {@code logs}. Handy for inspecting individual calls; use the {@link MetricsRegistry}
+     * overload for long-running code, since the list grows without bound.
      */
     @SuppressWarnings("unchecked")
     public static <T> T createTimedProxy(T target, Class<T> iface, List<InvocationLog> logs) {
@@ -178,6 +183,52 @@ public class AnnotationProcessing {
         );
     }
 
+    /**
+     * Creates a dynamic proxy that records the duration of @Timed methods into a
+     * {@code timed_method_seconds} timer labelled with the method (or @Timed label).
+     * Memory stays constant however many calls are made, and each method is resolved
+     * once: later calls, @Timed or not, skip the reflective lookup.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T createTimedProxy(T target, Class<T> iface, MetricsRegistry metrics) {
+        Objects.requireNonNull(metrics, "MetricsRegistry must not be null");
+        // Optional.empty() caches "not @Timed", so plain methods are not looked up again either
+        Map<Method, Optional<MetricsRegistry.Timer>> timers = new ConcurrentHashMap<>();
+        return (T) Proxy.newProxyInstance(
+                iface.getClassLoader(),
+                new Class<?>[]{iface},
+                (proxy, method, args) -> {
+                    Optional<MetricsRegistry.Timer> timer =
+                            timers.computeIfAbsent(method, m -> timerFor(target, m, metrics));
+                    if (timer.isEmpty()) {
+                        return method.invoke(target, args);
+                    }
+                    long start = System.nanoTime();
+                    try {
+                        return method.invoke(target, args);
+                    } finally {
+                        timer.get().record(System.nanoTime() - start);
+                    }
+                }
+        );
+    }
+
+    private static Optional<MetricsRegistry.Timer> timerFor(Object target, Method method, MetricsRegistry metrics) {
+        Method targetMethod;
+        try {
+            targetMethod = target.getClass().getMethod(method.getName(), method.getParameterTypes());
+        } catch (NoSuchMethodException e) {
+            return Optional.empty();
+        }
+        Timed timed = targetMethod.getAnnotation(Timed.class);
+        if (timed == null) {
+            return Optional.empty();
+        }
+        String metricLabel = timed.label().isEmpty() ? method.getName() : timed.label();
+        return Optional.of(metrics.timer("timed_method_seconds",
+                "Duration of @Timed method invocations", "method", metricLabel));
+    }
+
     /**
      * Creates a dynamic proxy that checks @RequiresPermission before invoking.
      */
@@ -1,5 +1,6 @@
 package com.github.msorkhpar.claudejavatutor.annotations;
 
+import com.github.msorkhpar.claudejavatutor.base.MetricsRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -180,6 +181,29 @@ class AnnotationProcessingTest {
 
             assertThat(logs).isEmpty();
         }
+
+        @Test
+        @DisplayName("Registry-backed proxy should aggregate timings per label")
+        void testTimedProxyMetrics() {
+            AnnotationProcessing.CalculatorImpl impl = new AnnotationProcessing.CalculatorImpl();
+            MetricsRegistry metrics = new MetricsRegistry();
+
+            AnnotationProcessing.Calculator proxy = AnnotationProcessing.createTimedProxy(
+                    impl, AnnotationProcessing.Calculator.class, metrics);
+
+            for (int i = 0; i < 100; i++) {
+                assertThat(proxy.add(i, 1)).isEqualTo(i + 1);
+            }
+            proxy.multiply(3, 4);
+            proxy.adminReset(); // Not @Timed
+            proxy.adminReset(); // served from the cached negative lookup
+
+            assertThat(metrics.timer("timed_method_seconds", "", "method", "addition").count()).isEqualTo(100);
+            assertThat(metrics.exportPrometheus())
+                    .contains("timed_method_seconds_count{method=\"addition\"} 100\n")
+                    .contains("timed_method_seconds_count{method=\"multiply\"} 1\n")
+                    .doesNotContain("adminReset");
+        }
     }
 
     @Nested
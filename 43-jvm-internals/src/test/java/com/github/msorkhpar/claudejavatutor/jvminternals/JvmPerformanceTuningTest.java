@@ -1,5 +1,7 @@
 package com.github.msorkhpar.claudejavatutor.jvminternals;
 
+import com.github.msorkhpar.claudejavatutor.base.PerformanceTestUtil;
+import com.github.msorkhpar.claudejavatutor.base.PerformanceTestUtil.MeasurementPlan;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -321,6 +323,18 @@ class JvmPerformanceTuningTest {
             long gcDelta = patterns.measureAllocationImpact(100, 64);
             assertThat(gcDelta).isGreaterThanOrEqualTo(0);
         }
+
+        @Test
+        @DisplayName("Short-lived allocations stay within the expected bytes per created string")
+        void testShortLivedAllocationBudget() {
+            int count = 1_000;
+            var result = PerformanceTestUtil.measureAllocations(
+                    () -> patterns.shortLivedAllocations(count), MeasurementPlan.of(50, 200));
+            System.out.println("shortLivedAllocations(" + count + "): " + result);
+
+            // Each "item-" + i builds one String and its byte[]: roughly 48-64 bytes with compressed oops
+            assertThat(result.bytesPerOperation()).isBetween(count * 32.0, count * 128.0);
+        }
     }
 
     @Nested
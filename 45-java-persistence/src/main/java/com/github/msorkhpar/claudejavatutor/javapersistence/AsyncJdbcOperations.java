@@ -0,0 +1,175 @@
+package com.github.msorkhpar.claudejavatutor.javapersistence;
+
+import com.github.msorkhpar.claudejavatutor.base.MetricsRegistry;
+import com.github.msorkhpar.claudejavatutor.javapersistence.JdbcOperations.Employee;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Non-blocking facade over {@link JdbcOperations}: every call returns a
+ * {@link CompletableFuture} and runs on its own virtual thread, so request handlers can compose
+ * database calls without tying up platform threads.
+ * <p>
+ * Virtual threads are cheap enough that ten thousand concurrent requests become ten thousand
+ * concurrent JDBC calls. A fair {@link Semaphore} therefore caps the calls in flight, normally
+ * at the connection pool size: the excess waits on the semaphore as parked virtual threads
+ * instead of piling up in the pool's borrow queue or on the database. It also bounds how many
+ * carrier threads can be pinned by drivers that block inside {@code synchronized} code.
+ * <p>
+ * Time spent waiting for a permit and time spent executing are exported separately, as
+ * {@code async_jdbc_queue_wait_seconds} and {@code async_jdbc_execution_seconds{operation}}; a
+ * growing wait with a flat execution time means the limit, not the database, is the
+ * bottleneck.
+ * <pre>{@code
+ * try (AsyncJdbcOperations async = new AsyncJdbcOperations(new JdbcOperations(pool), pool)) {
+ *     async.findById(42).thenAccept(employee -> ...);
+ * }
+ * }</pre>
+ */
+public class AsyncJdbcOperations implements AutoCloseable {
+
+    /**
+     * A unit of work against {@link JdbcOperations}.
+     */
+    @FunctionalInterface
+    public interface JdbcCall<T> {
+        T call(JdbcOperations jdbc) throws SQLException;
+    }
+
+    private final JdbcOperations jdbc;
+    private final Semaphore permits;
+    private final ExecutorService executor;
+    private final MetricsRegistry metrics;
+    private final MetricsRegistry.Timer queueWait;
+    private final MetricsRegistry.Counter failures;
+    private final Map<String, MetricsRegistry.Timer> executionTimes = new ConcurrentHashMap<>();
+
+    /**
+     * Limits concurrency to the pool size and reports into the pool's metrics registry.
+     */
+    public AsyncJdbcOperations(JdbcOperations jdbc, ConnectionPool pool) {
+        this(jdbc, pool.getMaxSize(), pool.getMetrics());
+    }
+
+    /**
+     * @param maxConcurrency JDBC calls allowed in flight at once
+     */
+    public AsyncJdbcOperations(JdbcOperations jdbc, int maxConcurrency, MetricsRegistry metrics) {
+        this.jdbc = Objects.requireNonNull(jdbc, "jdbc must not be null");
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be >= 1");
+        }
+        this.metrics = Objects.requireNonNull(metrics, "metrics must not be null");
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("async-jdbc-", 0).factory());
+        this.queueWait = metrics.timer("async_jdbc_queue_wait_seconds", "Time spent waiting for a concurrency permit");
+        this.failures = metrics.counter("async_jdbc_failures_total", "Calls completed exceptionally");
+        metrics.gauge("async_jdbc_in_flight", "JDBC calls currently executing",
+                () -> maxConcurrency - permits.availablePermits());
+        metrics.gauge("async_jdbc_queued", "Calls waiting for a concurrency permit", permits::getQueueLength);
+    }
+
+    public CompletableFuture<Optional<Employee>> findById(int id) {
+        return submit("findById", ops -> ops.findById(id));
+    }
+
+    public CompletableFuture<List<Employee>> findByDepartment(String department) {
+        return submit("findByDepartment", ops -> ops.findByDepartment(department));
+    }
+
+    public CompletableFuture<List<Employee>> findAll() {
+        return submit("findAll", JdbcOperations::findAll);
+    }
+
+    public CompletableFuture<Page<Employee>> findPage(int pageSize, String pageToken) {
+        return submit("findPage", ops -> ops.findPage(pageSize, pageToken));
+    }
+
+    public CompletableFuture<Integer> insert(String name, String email, double salary, String department) {
+        return submit("insert", ops -> ops.insertWithPreparedStatement(name, email, salary, department));
+    }
+
+    public CompletableFuture<Boolean> updateSalary(int id, double newSalary) {
+        return submit("updateSalary", ops -> ops.updateSalary(id, newSalary));
+    }
+
+    public CompletableFuture<Boolean> deleteById(int id) {
+        return submit("deleteById", ops -> ops.deleteById(id));
+    }
+
+    public CompletableFuture<int[]> batchInsert(List<Employee> employees) {
+        return submit("batchInsert", ops -> ops.batchInsert(employees));
+    }
+
+    public CompletableFuture<Optional<Double>> getAverageSalaryByDepartment(String department) {
+        return submit("getAverageSalaryByDepartment", ops -> ops.getAverageSalaryByDepartment(department));
+    }
+
+    /**
+     * Runs {@code call} on a virtual thread once a permit is free.
+     *
+     * @param operation label for the execution-time metric
+     * @return a future completed with the result, or exceptionally with whatever the call
+     * threw; it completes after the permit is released, so dependent stages never run while
+     * holding one. Cancelling it before a permit is granted skips the call
+     * @throws RejectedExecutionException if the facade is closed
+     */
+    public <T> CompletableFuture<T> submit(String operation, JdbcCall<T> call) {
+        Objects.requireNonNull(operation, "operation must not be null");
+        Objects.requireNonNull(call, "call must not be null");
+        MetricsRegistry.Timer executionTime = executionTimes.computeIfAbsent(operation,
+                op -> metrics.timer("async_jdbc_execution_seconds", "Time spent executing a JDBC call",
+                        "operation", op));
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long submitted = System.nanoTime();
+        executor.execute(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                future.completeExceptionally(e);
+                return;
+            }
+            long started = System.nanoTime();
+            queueWait.record(started - submitted);
+            boolean skipped = future.isDone();
+            T result = null;
+            Throwable failure = null;
+            try {
+                if (!skipped) {
+                    result = call.call(jdbc);
+                }
+            } catch (Throwable e) {
+                failure = e;
+            } finally {
+                permits.release();
+                executionTime.record(System.nanoTime() - started);
+            }
+            // Complete only once the permit is back: synchronous dependents run on this thread
+            if (failure != null) {
+                failures.increment();
+                future.completeExceptionally(failure);
+            } else if (!skipped) {
+                future.complete(result);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Stops accepting calls and waits for those already submitted to finish.
+     */
+    @Override
+    public void close() {
+        executor.close();
+    }
+}
@@ -0,0 +1,155 @@
+package com.github.msorkhpar.claudejavatutor.javapersistence;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DataLoader-style batching of lookups by key, the usual cure for N+1 queries.
+ * <p>
+ * {@link #load(Object)} does not query anything; it records the key and returns a future.
+ * {@link #dispatch()} then sends every recorded key to the batch function in one call per
+ * {@code maxBatchSize} keys (typically one {@code WHERE id IN (...)} query) and completes the
+ * futures from the returned map. Keys are deduplicated, and a key loaded once keeps its future for
+ * the life of the loader, so create one loader per request or unit of work and drop it afterwards.
+ * <pre>{@code
+ * BatchLoader<Integer, Category> categories = repo.categoryLoader();
+ * List<CompletableFuture<Optional<Category>>> futures = ids.stream().map(categories::load).toList();
+ * categories.dispatch(); // one round trip per 1,000 ids instead of two per id
+ * }</pre>
+ * Thread-safe; the batch function runs on the thread that calls {@link #dispatch()}.
+ */
+public final class BatchLoader<K, V> {
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 1_000;
+
+    /**
+     * Loads the values for {@code keys}. Keys without a value are simply left out of the map.
+     */
+    @FunctionalInterface
+    public interface BatchFunction<K, V> {
+        Map<K, V> loadAll(Set<K> keys) throws SQLException;
+    }
+
+    private final BatchFunction<K, V> batchFunction;
+    private final int maxBatchSize;
+    private final Map<K, CompletableFuture<Optional<V>>> cache = new HashMap<>();
+    private Map<K, CompletableFuture<Optional<V>>> pending = new LinkedHashMap<>();
+    private final AtomicLong batches = new AtomicLong();
+
+    public BatchLoader(BatchFunction<K, V> batchFunction) {
+        this(batchFunction, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    public BatchLoader(BatchFunction<K, V> batchFunction, int maxBatchSize) {
+        this.batchFunction = Objects.requireNonNull(batchFunction, "batchFunction must not be null");
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be >= 1");
+        }
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Queues {@code key} for the next {@link #dispatch()}, or returns the future of an earlier
+     * load of the same key.
+     */
+    public synchronized CompletableFuture<Optional<V>> load(K key) {
+        Objects.requireNonNull(key, "key must not be null");
+        return cache.computeIfAbsent(key, k -> {
+            CompletableFuture<Optional<V>> future = new CompletableFuture<>();
+            pending.put(k, future);
+            return future;
+        });
+    }
+
+    /**
+     * Loads {@code keys} and dispatches immediately.
+     *
+     * @return the values found, in the iteration order of {@code keys}
+     * @throws SQLException if the batch function failed for any of the keys
+     */
+    public Map<K, V> loadMany(Collection<? extends K> keys) throws SQLException {
+        Map<K, CompletableFuture<Optional<V>>> futures = new LinkedHashMap<>();
+        for (K key : keys) {
+            futures.put(key, load(key));
+        }
+        dispatch();
+        Map<K, V> values = new LinkedHashMap<>();
+        for (Map.Entry<K, CompletableFuture<Optional<V>>> entry : futures.entrySet()) {
+            try {
+                entry.getValue().join().ifPresent(value -> values.put(entry.getKey(), value));
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof SQLException sql) {
+                    throw sql;
+                }
+                throw e;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Runs the batch function for every key queued since the last dispatch. Failures complete the
+     * affected futures exceptionally and evict them, so a later load retries.
+     */
+    public void dispatch() {
+        Map<K, CompletableFuture<Optional<V>>> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new LinkedHashMap<>();
+        }
+        List<K> keys = new ArrayList<>(batch.keySet());
+        for (int from = 0; from < keys.size(); from += maxBatchSize) {
+            Set<K> chunk = new LinkedHashSet<>(keys.subList(from, Math.min(from + maxBatchSize, keys.size())));
+            batches.incrementAndGet();
+            try {
+                Map<K, V> values = batchFunction.loadAll(chunk);
+                for (K key : chunk) {
+                    batch.get(key).complete(Optional.ofNullable(values.get(key)));
+                }
+            } catch (SQLException | RuntimeException e) {
+                synchronized (this) {
+                    chunk.forEach(cache::remove);
+                }
+                for (K key : chunk) {
+                    batch.get(key).completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Forgets a cached value so the next {@link #load(Object)} queries it again, e.g. after an
+     * update.
+     */
+    public synchronized void clear(K key) {
+        if (!pending.containsKey(key)) {
+            cache.remove(key);
+        }
+    }
+
+    public synchronized void clearAll() {
+        cache.keySet().retainAll(pending.keySet());
+    }
+
+    /**
+     * Number of batch function calls so far, i.e. round trips for a single-query function.
+     */
+    public long getBatchCount() {
+        return batches.get();
+    }
+}
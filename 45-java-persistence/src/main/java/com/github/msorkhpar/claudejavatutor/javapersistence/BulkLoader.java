@@ -0,0 +1,407 @@
+package com.github.msorkhpar.claudejavatutor.javapersistence;
+
+import com.github.msorkhpar.claudejavatutor.base.LatencyHistogram;
+import com.github.msorkhpar.claudejavatutor.base.MetricsRegistry;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Loads an unbounded sequence of rows into one table in chunks, optionally over several
+ * connections in parallel.
+ * <p>
+ * The calling thread pulls rows from an {@link Iterator} (or {@link Stream}) and groups them into
+ * chunks of {@code batchSize}. Chunks go through a small bounded queue to {@code writers} writer
+ * threads, each holding one connection for the whole load, so at most
+ * {@code (2 * writers + 1) * batchSize} rows are in memory no matter how many are loaded.
+ * <p>
+ * Each chunk is sent either as a JDBC batch of single-row inserts or, with
+ * {@link Builder#multiRowValues(boolean)}, as one {@code INSERT ... VALUES (...), (...)}
+ * statement, which saves a round trip per row on drivers that do not rewrite batches themselves.
+ * By default every chunk is committed on its own, so a failure keeps the chunks that were already
+ * committed; with {@code commitPerChunk(false)} each writer commits once at the end instead.
+ * <pre>{@code
+ * BulkLoader.Result result = jdbc.bulkLoader()
+ *         .batchSize(1_000).writers(4).multiRowValues(true)
+ *         .build()
+ *         .load(employees);
+ * }</pre>
+ */
+public final class BulkLoader<T> {
+
+    /**
+     * Bind-parameter limit of the most restrictive common driver (PostgreSQL).
+     */
+    public static final int MAX_BIND_PARAMETERS = 32_767;
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)?");
+
+    /**
+     * Binds one row's values starting at parameter {@code firstIndex}; a multi-row statement calls
+     * it once per row with increasing offsets.
+     */
+    @FunctionalInterface
+    public interface RowBinder<T> {
+        void bind(PreparedStatement ps, int firstIndex, T row) throws SQLException;
+    }
+
+    /**
+     * Outcome of a load. {@code chunkLatency} is in nanoseconds and includes the commit when
+     * committing per chunk.
+     */
+    public record Result(long rows, long chunks, Duration elapsed, double rowsPerSecond,
+                         LatencyHistogram.Summary chunkLatency) {
+
+        @Override
+        public String toString() {
+            return "Result{rows=%d, chunks=%d, elapsed=%dms, throughput=%.0f rows/s, chunkLatency[%s]}"
+                    .formatted(rows, chunks, elapsed.toMillis(), rowsPerSecond, chunkLatency);
+        }
+    }
+
+    private record WriterResult(long rows, long chunks, LatencyHistogram latency) {
+    }
+
+    private final DataSource dataSource;
+    private final String table;
+    private final List<String> columns;
+    private final RowBinder<? super T> binder;
+    private final int batchSize;
+    private final int writers;
+    private final boolean multiRowValues;
+    private final boolean commitPerChunk;
+    private final String singleRowSql;
+    private final MetricsRegistry.Counter rowsLoaded;
+    private final MetricsRegistry.Timer chunkTime;
+    private final Runnable onComplete;
+
+    private BulkLoader(Builder<T> builder) {
+        this.dataSource = builder.dataSource;
+        this.table = builder.table;
+        this.columns = builder.columns;
+        this.binder = builder.binder;
+        this.batchSize = builder.batchSize;
+        this.writers = builder.writers;
+        this.multiRowValues = builder.multiRowValues;
+        this.commitPerChunk = builder.commitPerChunk;
+        this.singleRowSql = insertSql(1);
+        this.rowsLoaded = builder.metrics.counter("bulk_loader_rows_total", "Rows inserted by bulk loads",
+                "table", table);
+        this.chunkTime = builder.metrics.timer("bulk_loader_chunk_seconds", "Time to write one chunk",
+                "table", table);
+        this.onComplete = builder.onComplete;
+    }
+
+    /**
+     * @param table   target table, optionally schema-qualified
+     * @param columns columns in the order {@code binder} binds them
+     */
+    public static <T> Builder<T> builder(DataSource dataSource, String table, List<String> columns,
+                                         RowBinder<? super T> binder) {
+        return new Builder<>(dataSource, table, columns, binder);
+    }
+
+    public static final class Builder<T> {
+        private final DataSource dataSource;
+        private final String table;
+        private final List<String> columns;
+        private final RowBinder<? super T> binder;
+        private int batchSize = 1_000;
+        private int writers = 1;
+        private boolean multiRowValues;
+        private boolean commitPerChunk = true;
+        private MetricsRegistry metrics = new MetricsRegistry();
+        private Runnable onComplete = () -> {
+        };
+
+        private Builder(DataSource dataSource, String table, List<String> columns, RowBinder<? super T> binder) {
+            this.dataSource = Objects.requireNonNull(dataSource, "dataSource must not be null");
+            this.table = identifier(table, "table");
+            this.columns = List.copyOf(Objects.requireNonNull(columns, "columns must not be null"));
+            if (this.columns.isEmpty()) {
+                throw new IllegalArgumentException("columns must not be empty");
+            }
+            this.columns.forEach(column -> identifier(column, "column"));
+            this.binder = Objects.requireNonNull(binder, "binder must not be null");
+        }
+
+        /**
+         * Rows per chunk, and therefore per round trip and (by default) per transaction.
+         */
+        public Builder<T> batchSize(int batchSize) {
+            if (batchSize < 1) {
+                throw new IllegalArgumentException("batchSize must be >= 1");
+            }
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Writer threads, each with its own connection. Rows from different chunks may be
+         * committed out of order when this is greater than one.
+         */
+        public Builder<T> writers(int writers) {
+            if (writers < 1) {
+                throw new IllegalArgumentException("writers must be >= 1");
+            }
+            this.writers = writers;
+            return this;
+        }
+
+        /**
+         * Sends each chunk as one multi-row {@code INSERT} instead of a JDBC batch.
+         */
+        public Builder<T> multiRowValues(boolean multiRowValues) {
+            this.multiRowValues = multiRowValues;
+            return this;
+        }
+
+        public Builder<T> commitPerChunk(boolean commitPerChunk) {
+            this.commitPerChunk = commitPerChunk;
+            return this;
+        }
+
+        public Builder<T> metrics(MetricsRegistry metrics) {
+            this.metrics = Objects.requireNonNull(metrics, "metrics must not be null");
+            return this;
+        }
+
+        /**
+         * Runs after every {@code load}, whether it succeeded or not, since a failed load may
+         * still have committed chunks. Used to invalidate caches over the target table.
+         */
+        public Builder<T> onComplete(Runnable onComplete) {
+            this.onComplete = Objects.requireNonNull(onComplete, "onComplete must not be null");
+            return this;
+        }
+
+        public BulkLoader<T> build() {
+            if (multiRowValues && (long) batchSize * columns.size() > MAX_BIND_PARAMETERS) {
+                throw new IllegalArgumentException("batchSize * columns must not exceed " + MAX_BIND_PARAMETERS
+                        + " with multiRowValues");
+            }
+            return new BulkLoader<>(this);
+        }
+
+        private static String identifier(String name, String what) {
+            Objects.requireNonNull(name, what + " must not be null");
+            if (!IDENTIFIER.matcher(name).matches()) {
+                throw new IllegalArgumentException("Invalid " + what + " name: " + name);
+            }
+            return name;
+        }
+    }
+
+    /**
+     * Loads every row of {@code rows}. The stream is consumed but not closed.
+     */
+    public Result load(Stream<? extends T> rows) throws SQLException {
+        return load(rows.iterator());
+    }
+
+    /**
+     * Loads every row of {@code rows} and blocks until all of them are written.
+     *
+     * @throws SQLException if a chunk fails, including when the binder throws; no further chunks
+     *                      are started, and with {@code commitPerChunk} the chunks committed
+     *                      before the failure remain
+     */
+    public Result load(Iterator<? extends T> rows) throws SQLException {
+        Objects.requireNonNull(rows, "rows must not be null");
+        long start = System.nanoTime();
+        BlockingQueue<List<T>> queue = new ArrayBlockingQueue<>(writers * 2);
+        List<T> end = new ArrayList<>(0);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        ExecutorService executor = Executors.newFixedThreadPool(writers,
+                Thread.ofPlatform().name("bulk-loader-" + table + "-", 0).daemon(true).factory());
+        List<Future<WriterResult>> results = new ArrayList<>(writers);
+        try {
+            for (int i = 0; i < writers; i++) {
+                results.add(executor.submit(() -> write(queue, end, failure)));
+            }
+            try {
+                List<T> chunk = new ArrayList<>(batchSize);
+                while (failure.get() == null && rows.hasNext()) {
+                    chunk.add(rows.next());
+                    if (chunk.size() == batchSize) {
+                        queue.put(chunk);
+                        chunk = new ArrayList<>(batchSize);
+                    }
+                }
+                if (!chunk.isEmpty() && failure.get() == null) {
+                    queue.put(chunk);
+                }
+            } finally {
+                for (int i = 0; i < writers; i++) {
+                    queue.put(end);
+                }
+            }
+
+            long totalRows = 0;
+            long totalChunks = 0;
+            LatencyHistogram latency = new LatencyHistogram();
+            for (Future<WriterResult> future : results) {
+                WriterResult result = future.get();
+                totalRows += result.rows();
+                totalChunks += result.chunks();
+                latency.add(result.latency());
+            }
+            if (failure.get() != null) {
+                throw new SQLException("Bulk load into " + table + " failed; " + totalRows
+                        + " rows were committed", failure.get());
+            }
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            double seconds = Math.max(elapsed.toNanos(), 1) / 1e9;
+            return new Result(totalRows, totalChunks, elapsed, totalRows / seconds, latency.summary());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while loading " + table, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Bulk loader writer failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            onComplete.run();
+        }
+    }
+
+    /**
+     * Writer loop. Keeps draining the queue after any failure, including a binder throwing an
+     * unchecked exception, so the producer never blocks on a queue nobody takes from.
+     */
+    private WriterResult write(BlockingQueue<List<T>> queue, List<T> end,
+                               AtomicReference<Exception> failure) throws InterruptedException {
+        LatencyHistogram latency = new LatencyHistogram();
+        long committedRows = 0;
+        long uncommittedRows = 0;
+        long chunks = 0;
+        Connection conn = null;
+        PreparedStatement fullChunk = null;
+        try {
+            conn = dataSource.getConnection();
+            conn.setAutoCommit(false);
+            fullChunk = conn.prepareStatement(multiRowValues ? insertSql(batchSize) : singleRowSql);
+        } catch (SQLException | RuntimeException e) {
+            failure.compareAndSet(null, e);
+        }
+        try {
+            for (List<T> chunk = queue.take(); chunk != end; chunk = queue.take()) {
+                if (failure.get() != null) {
+                    continue;
+                }
+                long chunkStart = System.nanoTime();
+                try {
+                    writeChunk(conn, fullChunk, chunk);
+                    if (commitPerChunk) {
+                        conn.commit();
+                        committedRows += chunk.size();
+                        rowsLoaded.add(chunk.size());
+                    } else {
+                        uncommittedRows += chunk.size();
+                    }
+                    long nanos = System.nanoTime() - chunkStart;
+                    latency.record(nanos);
+                    chunkTime.record(nanos);
+                    chunks++;
+                } catch (SQLException | RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                    rollbackQuietly(conn, e);
+                }
+            }
+            if (conn != null && uncommittedRows > 0) {
+                try {
+                    if (failure.get() == null) {
+                        conn.commit();
+                        committedRows += uncommittedRows;
+                        rowsLoaded.add(uncommittedRows);
+                    } else {
+                        conn.rollback();
+                    }
+                } catch (SQLException e) {
+                    failure.compareAndSet(null, e);
+                }
+            }
+        } finally {
+            closeQuietly(fullChunk, conn);
+        }
+        return new WriterResult(committedRows, chunks, latency);
+    }
+
+    private void writeChunk(Connection conn, PreparedStatement fullChunk, List<T> chunk) throws SQLException {
+        if (!multiRowValues) {
+            for (T row : chunk) {
+                binder.bind(fullChunk, 1, row);
+                fullChunk.addBatch();
+            }
+            fullChunk.executeBatch();
+        } else if (chunk.size() == batchSize) {
+            bindAll(fullChunk, chunk);
+            fullChunk.executeUpdate();
+        } else {
+            // only the last chunk of a load can be short
+            try (PreparedStatement tail = conn.prepareStatement(insertSql(chunk.size()))) {
+                bindAll(tail, chunk);
+                tail.executeUpdate();
+            }
+        }
+    }
+
+    private void bindAll(PreparedStatement ps, List<T> chunk) throws SQLException {
+        int index = 1;
+        for (T row : chunk) {
+            binder.bind(ps, index, row);
+            index += columns.size();
+        }
+    }
+
+    private String insertSql(int rows) {
+        String tuple = columns.stream().map(c -> "?").collect(Collectors.joining(", ", "(", ")"));
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(table)
+                .append(" (").append(String.join(", ", columns)).append(") VALUES ");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(tuple);
+        }
+        return sql.toString();
+    }
+
+    private static void rollbackQuietly(Connection conn, Exception cause) {
+        try {
+            conn.rollback();
+        } catch (SQLException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement statement, Connection conn) {
+        if (conn == null) {
+            return;
+        }
+        try (conn) {
+            if (statement != null) {
+                statement.close();
+            }
+            conn.setAutoCommit(true);
+        } catch (SQLException e) {
+            // the connection is gone; nothing else to release
+        }
+    }
+}
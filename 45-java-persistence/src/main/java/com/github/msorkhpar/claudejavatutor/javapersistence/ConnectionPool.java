@@ -0,0 +1,650 @@
+package com.github.msorkhpar.claudejavatutor.javapersistence;
+
+import com.github.msorkhpar.claudejavatutor.base.MetricsRegistry;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Bounded JDBC connection pool usable anywhere a {@link DataSource} is expected.
+ * <p>
+ * Opening a physical connection costs far more than a simple indexed lookup, so the pool keeps
+ * closed connections around and hands them out again:
+ * <ul>
+ *   <li><b>Bounded, fair borrow</b>: a fair {@link Semaphore} caps the number of connections
+ *       and serves waiting threads in arrival order. Idle connections sit in a lock-free
+ *       {@link ConcurrentLinkedDeque}; the most recently returned one is reused first, so its
+ *       caches stay warm.</li>
+ *   <li><b>Validation on borrow</b>: connections idle for longer than the validation interval
+ *       are checked with {@link Connection#isValid(int)} and replaced if broken.</li>
+ *   <li><b>Idle eviction</b>: a housekeeping thread closes connections idle for longer than the
+ *       idle timeout, keeping at least {@code minIdle} open.</li>
+ *   <li><b>Leak detection</b>: connections held longer than the leak threshold are reported
+ *       once with the stack trace of the borrower.</li>
+ *   <li><b>Statement cache</b> (opt-in, {@link Builder#statementCacheSize(int)}): each
+ *       connection keeps an LRU cache of prepared statements keyed by SQL, so repeated
+ *       {@code prepareStatement} calls skip parsing and planning.</li>
+ * </ul>
+ * Callers get a proxy whose {@code close()} returns the connection to the pool. Transaction
+ * settings changed by the borrower (auto-commit, read-only, isolation) are reset on return, and
+ * an uncommitted transaction is rolled back.
+ * <pre>{@code
+ * try (ConnectionPool pool = ConnectionPool.builder(url, "sa", "").maxSize(8).build()) {
+ *     JdbcOperations jdbc = new JdbcOperations(pool);
+ *     jdbc.findById(42);
+ * }
+ * }</pre>
+ */
+public class ConnectionPool implements DataSource, AutoCloseable {
+
+    private static final System.Logger LOG = System.getLogger(ConnectionPool.class.getName());
+
+    private final DataSource source;
+    private final int maxSize;
+    private final int minIdle;
+    private final long borrowTimeoutNanos;
+    private final long idleTimeoutNanos;
+    private final long validationIntervalNanos;
+    private final int validationTimeoutSeconds;
+    private final long leakThresholdNanos;
+    private final int statementCacheSize;
+
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+    private final Set<Lease> active = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger total = new AtomicInteger();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    private final MetricsRegistry metrics;
+    private final MetricsRegistry.Timer waitTime;
+    private final MetricsRegistry.Timer usageTime;
+    private final MetricsRegistry.Counter created;
+    private final MetricsRegistry.Counter destroyed;
+    private final MetricsRegistry.Counter timeouts;
+    private final MetricsRegistry.Counter validationFailures;
+    private final MetricsRegistry.Counter leaks;
+    private final MetricsRegistry.Counter statementHits;
+    private final MetricsRegistry.Counter statementMisses;
+    private final MetricsRegistry.Counter statementEvictions;
+
+    private PrintWriter logWriter;
+
+    private ConnectionPool(Builder builder) {
+        this.source = builder.source;
+        this.maxSize = builder.maxSize;
+        this.minIdle = builder.minIdle;
+        this.borrowTimeoutNanos = builder.borrowTimeout.toNanos();
+        this.idleTimeoutNanos = builder.idleTimeout.toNanos();
+        this.validationIntervalNanos = builder.validationInterval.toNanos();
+        this.validationTimeoutSeconds = builder.validationTimeoutSeconds;
+        this.leakThresholdNanos = builder.leakDetectionThreshold.toNanos();
+        this.statementCacheSize = builder.statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.metrics = builder.metrics;
+        String[] label = {"pool", builder.name};
+        this.waitTime = metrics.timer("connection_pool_wait_seconds", "Time spent waiting to borrow a connection", label);
+        this.usageTime = metrics.timer("connection_pool_usage_seconds", "Time a borrowed connection was held", label);
+        this.created = metrics.counter("connection_pool_connections_created_total", "Physical connections opened", label);
+        this.destroyed = metrics.counter("connection_pool_connections_closed_total", "Physical connections closed", label);
+        this.timeouts = metrics.counter("connection_pool_timeouts_total", "Borrow attempts that timed out", label);
+        this.validationFailures = metrics.counter("connection_pool_validation_failures_total",
+                "Idle connections that failed validation on borrow", label);
+        this.leaks = metrics.counter("connection_pool_leaks_total", "Connections held past the leak threshold", label);
+        this.statementHits = metrics.counter("connection_pool_statement_cache_hits_total",
+                "prepareStatement calls served from the statement cache", label);
+        this.statementMisses = metrics.counter("connection_pool_statement_cache_misses_total",
+                "prepareStatement calls that had to prepare a new statement", label);
+        this.statementEvictions = metrics.counter("connection_pool_statement_cache_evictions_total",
+                "Cached statements closed to make room for others", label);
+        metrics.gauge("connection_pool_active", "Connections currently borrowed", active::size, label);
+        metrics.gauge("connection_pool_idle", "Connections waiting in the pool", idle::size, label);
+        metrics.gauge("connection_pool_utilisation", "Borrowed connections as a fraction of maxSize",
+                () -> (double) active.size() / maxSize, label);
+        metrics.gauge("connection_pool_pending_threads", "Threads waiting to borrow",
+                permits::getQueueLength, label);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pool-housekeeper-" + builder.name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = builder.housekeepingInterval.toNanos();
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    public static Builder builder(String url, String user, String password) {
+        return new Builder(new DriverManagerDataSource(url, user, password));
+    }
+
+    /**
+     * Pools connections obtained from another, usually non-pooling, data source.
+     */
+    public static Builder builder(DataSource source) {
+        return new Builder(source);
+    }
+
+    public static final class Builder {
+        private final DataSource source;
+        private String name = "default";
+        private int maxSize = 10;
+        private int minIdle;
+        private Duration borrowTimeout = Duration.ofSeconds(30);
+        private Duration idleTimeout = Duration.ofMinutes(10);
+        private Duration validationInterval = Duration.ofMillis(500);
+        private int validationTimeoutSeconds = 1;
+        private Duration leakDetectionThreshold = Duration.ZERO;
+        private Duration housekeepingInterval = Duration.ofSeconds(30);
+        private int statementCacheSize;
+        private MetricsRegistry metrics = new MetricsRegistry();
+
+        private Builder(DataSource source) {
+            this.source = Objects.requireNonNull(source, "source must not be null");
+        }
+
+        /**
+         * Used as the {@code pool} label on every metric.
+         */
+        public Builder name(String name) {
+            this.name = Objects.requireNonNull(name, "name must not be null");
+            return this;
+        }
+
+        public Builder maxSize(int maxSize) {
+            if (maxSize < 1) {
+                throw new IllegalArgumentException("maxSize must be >= 1");
+            }
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        /**
+         * Connections kept open by the housekeeper even when nobody uses them.
+         */
+        public Builder minIdle(int minIdle) {
+            if (minIdle < 0) {
+                throw new IllegalArgumentException("minIdle must be >= 0");
+            }
+            this.minIdle = minIdle;
+            return this;
+        }
+
+        /**
+         * How long {@link #getConnection()} waits for a free connection before failing with
+         * {@link SQLTransientConnectionException}.
+         */
+        public Builder borrowTimeout(Duration borrowTimeout) {
+            this.borrowTimeout = positive(borrowTimeout, "borrowTimeout");
+            return this;
+        }
+
+        public Builder idleTimeout(Duration idleTimeout) {
+            this.idleTimeout = positive(idleTimeout, "idleTimeout");
+            return this;
+        }
+
+        /**
+         * Connections returned more recently than this are handed out without a validity check.
+         * {@link Duration#ZERO} validates on every borrow.
+         */
+        public Builder validationInterval(Duration validationInterval) {
+            if (validationInterval == null || validationInterval.isNegative()) {
+                throw new IllegalArgumentException("validationInterval must not be negative");
+            }
+            this.validationInterval = validationInterval;
+            return this;
+        }
+
+        public Builder validationTimeoutSeconds(int seconds) {
+            if (seconds < 0) {
+                throw new IllegalArgumentException("validationTimeoutSeconds must be >= 0");
+            }
+            this.validationTimeoutSeconds = seconds;
+            return this;
+        }
+
+        /**
+         * Reports connections held longer than this. {@link Duration#ZERO} (the default) disables
+         * detection, which also avoids capturing a stack trace on every borrow.
+         */
+        public Builder leakDetectionThreshold(Duration threshold) {
+            if (threshold == null || threshold.isNegative()) {
+                throw new IllegalArgumentException("leakDetectionThreshold must not be negative");
+            }
+            this.leakDetectionThreshold = threshold;
+            return this;
+        }
+
+        /**
+         * How often idle eviction, the {@code minIdle} top-up and leak detection run.
+         */
+        public Builder housekeepingInterval(Duration interval) {
+            this.housekeepingInterval = positive(interval, "housekeepingInterval");
+            return this;
+        }
+
+        /**
+         * Prepared statements cached per connection; 0 (the default) disables caching.
+         * Only {@code prepareStatement(sql)} and {@code prepareStatement(sql, autoGeneratedKeys)}
+         * are cached, other variants go straight to the driver.
+         */
+        public Builder statementCacheSize(int size) {
+            if (size < 0) {
+                throw new IllegalArgumentException("statementCacheSize must be >= 0");
+            }
+            this.statementCacheSize = size;
+            return this;
+        }
+
+        public Builder metrics(MetricsRegistry metrics) {
+            this.metrics = Objects.requireNonNull(metrics, "metrics must not be null");
+            return this;
+        }
+
+        public ConnectionPool build() {
+            if (minIdle > maxSize) {
+                throw new IllegalArgumentException("minIdle must not exceed maxSize");
+            }
+            return new ConnectionPool(this);
+        }
+
+        private static Duration positive(Duration duration, String name) {
+            if (duration == null || duration.isNegative() || duration.isZero()) {
+                throw new IllegalArgumentException(name + " must be positive");
+            }
+            return duration;
+        }
+    }
+
+    // --- DataSource ---
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                timeouts.increment();
+                throw new SQLTransientConnectionException("Timed out after %d ms waiting for a connection (%d in use)"
+                        .formatted(TimeUnit.NANOSECONDS.toMillis(borrowTimeoutNanos), active.size()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        }
+        waitTime.record(System.nanoTime() - start);
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = idle.pollLast()) != null && !isUsable(pooled)) {
+                destroy(pooled);
+            }
+            if (pooled == null) {
+                pooled = open();
+            }
+            Lease lease = new Lease(pooled, leakThresholdNanos > 0 ? new Throwable("Connection borrowed here") : null);
+            active.add(lease);
+            return lease.proxy;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Not supported: every pooled connection uses the credentials the pool was built with.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Pooled connections share the pool's credentials");
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return logWriter;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        this.logWriter = out;
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        source.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return source.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException("java.util.logging is not used");
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    // --- Pool state ---
+
+    public int getActiveCount() {
+        return active.size();
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * Physical connections currently open, borrowed or idle.
+     */
+    public int getTotalCount() {
+        return total.get();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getLeakCount() {
+        return leaks.sum();
+    }
+
+    public long getStatementCacheHits() {
+        return statementHits.sum();
+    }
+
+    public long getStatementCacheMisses() {
+        return statementMisses.sum();
+    }
+
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Closes idle connections and stops housekeeping. Borrowed connections are closed when
+     * their borrowers return them.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+    }
+
+    // --- Internals ---
+
+    private PooledConnection open() throws SQLException {
+        Connection physical = source.getConnection();
+        total.incrementAndGet();
+        created.increment();
+        StatementCache statements = statementCacheSize == 0 ? null
+                : new StatementCache(physical, statementCacheSize, statementHits, statementMisses, statementEvictions);
+        return new PooledConnection(physical, statements);
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        if (System.nanoTime() - pooled.lastReturned < validationIntervalNanos) {
+            return true;
+        }
+        try {
+            if (pooled.physical.isValid(validationTimeoutSeconds)) {
+                return true;
+            }
+        } catch (SQLException e) {
+            // fall through: treat as broken
+        }
+        validationFailures.increment();
+        return false;
+    }
+
+    private void release(Lease lease) {
+        active.remove(lease);
+        usageTime.record(System.nanoTime() - lease.borrowedAt);
+        lease.closeStatements();
+        PooledConnection pooled = lease.pooled;
+        boolean reusable = !closed && reset(pooled);
+        if (reusable) {
+            pooled.lastReturned = System.nanoTime();
+            idle.offerLast(pooled);
+            // close() may have drained the deque between the check above and the offer
+            if (closed && idle.removeFirstOccurrence(pooled)) {
+                destroy(pooled);
+            }
+        } else {
+            destroy(pooled);
+        }
+        permits.release();
+    }
+
+    private boolean reset(PooledConnection pooled) {
+        Connection physical = pooled.physical;
+        try {
+            if (physical.isClosed()) {
+                return false;
+            }
+            if (pooled.dirty) {
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                if (physical.isReadOnly()) {
+                    physical.setReadOnly(false);
+                }
+                if (physical.getTransactionIsolation() != pooled.defaultIsolation) {
+                    physical.setTransactionIsolation(pooled.defaultIsolation);
+                }
+                pooled.dirty = false;
+            }
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void destroy(PooledConnection pooled) {
+        total.decrementAndGet();
+        destroyed.increment();
+        if (pooled.statements != null) {
+            pooled.statements.clear();
+        }
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            // already broken; nothing else to release
+        }
+    }
+
+    void housekeep() {
+        long now = System.nanoTime();
+        // Oldest returned connections are at the head of the deque.
+        for (PooledConnection pooled : idle) {
+            if (total.get() <= minIdle) {
+                break;
+            }
+            if (now - pooled.lastReturned > idleTimeoutNanos && idle.removeFirstOccurrence(pooled)) {
+                destroy(pooled);
+            }
+        }
+        while (!closed && total.get() < minIdle && permits.tryAcquire()) {
+            try {
+                PooledConnection pooled = open();
+                pooled.lastReturned = System.nanoTime();
+                idle.offerFirst(pooled);
+            } catch (SQLException e) {
+                LOG.log(System.Logger.Level.WARNING, "Could not open idle connection", e);
+                break;
+            } finally {
+                permits.release();
+            }
+        }
+        if (leakThresholdNanos > 0) {
+            for (Lease lease : active) {
+                if (!lease.leakReported && now - lease.borrowedAt > leakThresholdNanos) {
+                    lease.leakReported = true;
+                    leaks.increment();
+                    LOG.log(System.Logger.Level.WARNING, "Connection held for more than %d ms; possible leak"
+                            .formatted(TimeUnit.NANOSECONDS.toMillis(leakThresholdNanos)), lease.borrowSite);
+                }
+            }
+        }
+    }
+
+    /**
+     * A physical connection plus the state the pool tracks for it.
+     */
+    private static final class PooledConnection {
+        final Connection physical;
+        final StatementCache statements;
+        final int defaultIsolation;
+        volatile long lastReturned = System.nanoTime();
+        // Set when a borrower touched transaction settings, so release knows to reset them.
+        volatile boolean dirty;
+
+        PooledConnection(Connection physical, StatementCache statements) throws SQLException {
+            this.physical = physical;
+            this.statements = statements;
+            this.defaultIsolation = physical.getTransactionIsolation();
+        }
+    }
+
+    /**
+     * One borrow of a pooled connection. The proxy stays closed after {@code close()}, even
+     * though the physical connection lives on in the pool.
+     */
+    private final class Lease implements InvocationHandler {
+        final PooledConnection pooled;
+        final Throwable borrowSite;
+        final long borrowedAt = System.nanoTime();
+        final Connection proxy;
+        volatile boolean leakReported;
+        // Set once by the first close(); concurrent closes must not release the connection twice.
+        private final AtomicBoolean returned = new AtomicBoolean();
+        // Cached statements handed out under this lease; closed on return so they go back to the cache.
+        private final List<PreparedStatement> statements = new ArrayList<>();
+
+        Lease(PooledConnection pooled, Throwable borrowSite) {
+            this.pooled = pooled;
+            this.borrowSite = borrowSite;
+            this.proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (returned.compareAndSet(false, true)) {
+                        release(this);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return returned.get() || pooled.physical.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Pooled[" + pooled.physical + "]";
+                }
+                case "setAutoCommit", "setReadOnly", "setTransactionIsolation" -> pooled.dirty = true;
+                default -> {
+                }
+            }
+            if (returned.get()) {
+                throw new SQLException("Connection has been returned to the pool");
+            }
+            if (pooled.statements != null && method.getName().equals("prepareStatement")) {
+                Class<?>[] types = method.getParameterTypes();
+                if (types.length == 1) {
+                    return track(pooled.statements.prepare((Connection) proxy, (String) args[0], -1));
+                }
+                if (types.length == 2 && types[1] == int.class) {
+                    return track(pooled.statements.prepare((Connection) proxy, (String) args[0], (Integer) args[1]));
+                }
+            }
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private PreparedStatement track(PreparedStatement statement) throws SQLException {
+            if (statements.size() >= 16) {
+                statements.removeIf(this::isClosedQuietly);
+            }
+            statements.add(statement);
+            return statement;
+        }
+
+        void closeStatements() {
+            for (PreparedStatement statement : statements) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    // the cache closes broken statements itself
+                }
+            }
+            statements.clear();
+        }
+
+        private boolean isClosedQuietly(PreparedStatement statement) {
+            try {
+                return statement.isClosed();
+            } catch (SQLException e) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.github.msorkhpar.claudejavatutor.javapersistence;
+
+import com.github.msorkhpar.claudejavatutor.base.MetricsRegistry;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Shared, size-bounded LRU cache of entities by id, the "second-level cache" of an ORM.
+ * <p>
+ * Entities are mutable, so the cache stores a private copy on {@link #putFromLoad} and hands out a
+ * fresh copy on every {@link #get}; a caller modifying its instance cannot corrupt what other
+ * callers see. Writers call {@link #invalidate} after changing the database, and readers guard
+ * against re-caching a value they read before that invalidation:
+ * <pre>{@code
+ * long stamp = cache.loadStamp();
+ * Product loaded = loadFromDatabase(id);
+ * cache.putFromLoad(id, loaded, stamp); // dropped if anything was invalidated meanwhile
+ * }</pre>
+ * Thread-safe. Hit, miss and eviction counts and the hit ratio are exported per {@code region}.
+ */
+public class EntityCache<K, V> {
+
+    private final String region;
+    private final int maxSize;
+    private final UnaryOperator<V> copier;
+    private final LinkedHashMap<K, V> entries;
+    private final MetricsRegistry.Counter hits;
+    private final MetricsRegistry.Counter misses;
+    private final MetricsRegistry.Counter evictions;
+    private long invalidations;
+
+    /**
+     * @param region  name used as the {@code region} metric label
+     * @param copier  returns an independent copy of an entity
+     */
+    public EntityCache(String region, int maxSize, UnaryOperator<V> copier, MetricsRegistry metrics) {
+        this.region = Objects.requireNonNull(region, "region must not be null");
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be >= 1");
+        }
+        this.maxSize = maxSize;
+        this.copier = Objects.requireNonNull(copier, "copier must not be null");
+        Objects.requireNonNull(metrics, "metrics must not be null");
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.hits = metrics.counter("entity_cache_hits_total", "Second-level cache hits", "region", region);
+        this.misses = metrics.counter("entity_cache_misses_total", "Second-level cache misses", "region", region);
+        this.evictions = metrics.counter("entity_cache_evictions_total",
+                "Entries evicted to stay within maxSize", "region", region);
+        metrics.gauge("entity_cache_size", "Entries currently cached", this::size, "region", region);
+        metrics.gauge("entity_cache_hit_ratio", "Hits as a fraction of lookups", this::getHitRatio,
+                "region", region);
+    }
+
+    /**
+     * Returns a copy of the cached entity, or empty on a miss.
+     */
+    public Optional<V> get(K key) {
+        V value;
+        synchronized (this) {
+            value = entries.get(key);
+        }
+        if (value == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(copier.apply(value));
+    }
+
+    /**
+     * Returns a token to pass to {@link #putFromLoad} after reading from the database.
+     */
+    public synchronized long loadStamp() {
+        return invalidations;
+    }
+
+    /**
+     * Caches a copy of {@code value} unless an invalidation happened since {@code stamp} was taken,
+     * in which case the value may already be stale.
+     *
+     * @return whether the value was cached
+     */
+    public boolean putFromLoad(K key, V value, long stamp) {
+        Objects.requireNonNull(key, "key must not be null");
+        V copy = copier.apply(Objects.requireNonNull(value, "value must not be null"));
+        synchronized (this) {
+            if (invalidations != stamp) {
+                return false;
+            }
+            entries.put(key, copy);
+            if (entries.size() > maxSize) {
+                Iterator<V> eldest = entries.values().iterator();
+                eldest.next();
+                eldest.remove();
+                evictions.increment();
+            }
+            return true;
+        }
+    }
+
+    public synchronized void invalidate(K key) {
+        invalidations++;
+        entries.remove(key);
+    }
+
+    /**
+     * Removes every entry matching {@code predicate}; used when the key of the affected entry is
+     * not known, e.g. the former parent of a moved child.
+     */
+    public synchronized void invalidateIf(Predicate<? super V> predicate) {
+        invalidations++;
+        entries.values().removeIf(predicate);
+    }
+
+    public synchronized void clear() {
+        invalidations++;
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Hits divided by lookups, or 0 before the first lookup.
+     */
+    public double getHitRatio() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    @Override
+    public String toString() {
+        return "EntityCache{region=%s, size=%d, hitRatio=%.2f}".formatted(region, size(), getHitRatio());
+    }
+}
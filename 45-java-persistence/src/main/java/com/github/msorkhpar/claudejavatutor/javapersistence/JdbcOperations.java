@@ -1,9 +1,13 @@
 package com.github.msorkhpar.claudejavatutor.javapersistence;
 
+import javax.sql.DataSource;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Demonstrates JDBC (Java Database Connectivity) operations including
@@ -11,21 +15,53 @@ import java.util.Optional;
  */
 public class JdbcOperations {
 
-    private final String url;
-    private final String user;
-    private final String password;
+    private static final RecordRowMapper<Employee> EMPLOYEES = RowMapper.forRecord(Employee.class);
+    private static final Set<String> EMPLOYEE_TABLES = Set.of("employees");
 
+    private final DataSource dataSource;
+    // Read-only queries; the replicas when dataSource is a RoutingDataSource
+    private final DataSource readDataSource;
+    private final QueryCache queryCache;
+
+    /**
+     * Opens a new physical connection for every operation.
+     */
     public JdbcOperations(String url, String user, String password) {
-        this.url = url;
-        this.user = user;
-        this.password = password;
+        this(new DriverManagerDataSource(url, user, password));
+    }
+
+    /**
+     * Obtains connections from {@code dataSource}, typically a {@link ConnectionPool}. With a
+     * {@link RoutingDataSource}, the find, stream, page and aggregate queries go to its replicas
+     * and everything else to the primary.
+     */
+    public JdbcOperations(DataSource dataSource) {
+        this.dataSource = Objects.requireNonNull(dataSource, "dataSource must not be null");
+        this.readDataSource = RoutingDataSource.readsOf(dataSource);
+        this.queryCache = null;
+    }
+
+    /**
+     * Caches aggregate queries such as {@link #getAverageSalaryByDepartment(String)} in
+     * {@code queryCache}; every write through this instance invalidates the employees table.
+     * Share the cache between every instance on the same database, since each only invalidates
+     * on its own writes.
+     */
+    public JdbcOperations(DataSource dataSource, QueryCache queryCache) {
+        this.dataSource = Objects.requireNonNull(dataSource, "dataSource must not be null");
+        this.readDataSource = RoutingDataSource.readsOf(dataSource);
+        this.queryCache = Objects.requireNonNull(queryCache, "queryCache must not be null");
     }
 
     /**
      * Obtains a JDBC connection to the configured database.
      */
     public Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(url, user, password);
+        return dataSource.getConnection();
+    }
+
+    private Connection getReadConnection() throws SQLException {
+        return readDataSource.getConnection();
     }
 
     /**
@@ -45,7 +81,9 @@ public class JdbcOperations {
         try (Connection conn = getConnection();
              Statement stmt = conn.createStatement()) {
             stmt.execute(sql);
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_employees_department_id ON employees (department, id)");
         }
+        employeesChanged();
     }
 
     /**
@@ -69,6 +107,7 @@ public class JdbcOperations {
         try (Connection conn = getConnection();
              Statement stmt = conn.createStatement()) {
             stmt.executeUpdate(sql, Statement.RETURN_GENERATED_KEYS);
+            employeesChanged();
             try (ResultSet keys = stmt.getGeneratedKeys()) {
                 if (keys.next()) {
                     return keys.getInt(1);
@@ -93,6 +132,7 @@ public class JdbcOperations {
             pstmt.setDouble(3, salary);
             pstmt.setString(4, department);
             pstmt.executeUpdate();
+            employeesChanged();
             try (ResultSet keys = pstmt.getGeneratedKeys()) {
                 if (keys.next()) {
                     return keys.getInt(1);
@@ -107,12 +147,12 @@ public class JdbcOperations {
      */
     public Optional<Employee> findById(int id) throws SQLException {
         String sql = "SELECT id, name, email, salary, department, active FROM employees WHERE id = ?";
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, id);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return Optional.of(mapRow(rs));
+                    return Optional.of(EMPLOYEES.mapRow(rs));
                 }
             }
         }
@@ -125,12 +165,13 @@ public class JdbcOperations {
     public List<Employee> findByDepartment(String department) throws SQLException {
         String sql = "SELECT id, name, email, salary, department, active FROM employees WHERE department = ?";
         List<Employee> employees = new ArrayList<>();
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, department);
             try (ResultSet rs = pstmt.executeQuery()) {
+                RowMapper<Employee> mapper = EMPLOYEES.forResultSet(rs);
                 while (rs.next()) {
-                    employees.add(mapRow(rs));
+                    employees.add(mapper.mapRow(rs));
                 }
             }
         }
@@ -143,16 +184,107 @@ public class JdbcOperations {
     public List<Employee> findAll() throws SQLException {
         String sql = "SELECT id, name, email, salary, department, active FROM employees";
         List<Employee> employees = new ArrayList<>();
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
+            RowMapper<Employee> mapper = EMPLOYEES.forResultSet(rs);
             while (rs.next()) {
-                employees.add(mapRow(rs));
+                employees.add(mapper.mapRow(rs));
             }
         }
         return employees;
     }
 
+    /**
+     * Streams all employees lazily, fetching {@link ResultSetSpliterator#DEFAULT_FETCH_SIZE} rows
+     * per round trip. Unlike {@link #findAll()} memory use does not grow with the table size.
+     * The stream holds a connection until it is closed or fully consumed.
+     */
+    public Stream<Employee> streamAll() throws SQLException {
+        return streamAll(ResultSetSpliterator.DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * Streams all employees lazily, fetching {@code fetchSize} rows per round trip.
+     */
+    public Stream<Employee> streamAll(int fetchSize) throws SQLException {
+        String sql = "SELECT id, name, email, salary, department, active FROM employees";
+        return ResultSetSpliterator.stream(readDataSource, sql, fetchSize, EMPLOYEES);
+    }
+
+    /**
+     * Streaming counterpart of {@link #findByDepartment(String)}.
+     */
+    public Stream<Employee> streamByDepartment(String department) throws SQLException {
+        return streamByDepartment(department, ResultSetSpliterator.DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * Streams the employees of {@code department} lazily, fetching {@code fetchSize} rows per
+     * round trip.
+     */
+    public Stream<Employee> streamByDepartment(String department, int fetchSize) throws SQLException {
+        String sql = "SELECT id, name, email, salary, department, active FROM employees WHERE department = ?";
+        return ResultSetSpliterator.stream(readDataSource, sql, fetchSize, EMPLOYEES, department);
+    }
+
+    // --- Keyset pagination ---
+
+    /**
+     * Returns up to {@code pageSize} employees ordered by id, starting after the position in
+     * {@code pageToken}, or with the first employee if it is {@code null}. Unlike
+     * {@code LIMIT ? OFFSET ?} the cost of a page does not grow with its depth; see {@link Page}.
+     *
+     * @throws IllegalArgumentException if {@code pageToken} was not issued by this class
+     */
+    public Page<Employee> findPage(int pageSize, String pageToken) throws SQLException {
+        return findPage(null, pageSize, pageToken);
+    }
+
+    /**
+     * Paginated {@link #findByDepartment(String)}, ordered by id.
+     */
+    public Page<Employee> findPageByDepartment(String department, int pageSize, String pageToken)
+            throws SQLException {
+        return findPage(Objects.requireNonNull(department, "department must not be null"), pageSize, pageToken);
+    }
+
+    private Page<Employee> findPage(String department, int pageSize, String pageToken) throws SQLException {
+        Page.checkPageSize(pageSize);
+        List<String> conditions = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        if (department != null) {
+            conditions.add("department = ?");
+            params.add(department);
+        }
+        if (pageToken != null) {
+            conditions.add("id > ?");
+            try {
+                params.add(Integer.parseInt(Page.decodeToken(pageToken, "id", 1)[0]));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid page token", e);
+            }
+        }
+        params.add(pageSize + 1);
+        String where = conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+        String sql = "SELECT id, name, email, salary, department, active FROM employees" + where
+                + " ORDER BY id LIMIT ?";
+        List<Employee> employees = new ArrayList<>();
+        try (Connection conn = getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.size(); i++) {
+                pstmt.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                RowMapper<Employee> mapper = EMPLOYEES.forResultSet(rs);
+                while (rs.next()) {
+                    employees.add(mapper.mapRow(rs));
+                }
+            }
+        }
+        return Page.of(employees, pageSize, "id", employee -> List.of(employee.id()));
+    }
+
     /**
      * Updates an employee's salary using PreparedStatement.
      */
@@ -162,10 +294,21 @@ public class JdbcOperations {
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setDouble(1, newSalary);
             pstmt.setInt(2, id);
-            return pstmt.executeUpdate() > 0;
+            boolean updated = pstmt.executeUpdate() > 0;
+            employeesChanged();
+            return updated;
         }
     }
 
+    /**
+     * Returns a {@link SalaryWriteBehind} builder over this instance. The buffer keeps the latest
+     * salary per employee and writes many of them per batch and commit instead of one
+     * {@link #updateSalary(int, double)} round trip each.
+     */
+    public SalaryWriteBehind.Builder salaryWriteBehind() {
+        return SalaryWriteBehind.builder(this);
+    }
+
     /**
      * Deletes an employee by ID.
      */
@@ -174,7 +317,9 @@ public class JdbcOperations {
         try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, id);
-            return pstmt.executeUpdate() > 0;
+            boolean deleted = pstmt.executeUpdate() > 0;
+            employeesChanged();
+            return deleted;
         }
     }
 
@@ -193,16 +338,46 @@ public class JdbcOperations {
                 pstmt.setBoolean(5, emp.active());
                 pstmt.addBatch();
             }
-            return pstmt.executeBatch();
+            int[] counts = pstmt.executeBatch();
+            employeesChanged();
+            return counts;
         }
     }
 
     /**
-     * Demonstrates handling NULL values in ResultSet.
+     * Returns a {@link BulkLoader} builder for the employees table. Unlike
+     * {@link #batchInsert(List)} the loader accepts an iterator or stream of any length, sends it
+     * in chunks and commits per chunk. Each load invalidates the cached employee queries when it
+     * finishes.
+     */
+    public BulkLoader.Builder<Employee> bulkLoader() {
+        return BulkLoader.<Employee>builder(dataSource, "employees",
+                List.of("name", "email", "salary", "department", "active"),
+                (ps, i, emp) -> {
+                    ps.setString(i, emp.name());
+                    ps.setString(i + 1, emp.email());
+                    ps.setDouble(i + 2, emp.salary());
+                    ps.setString(i + 3, emp.department());
+                    ps.setBoolean(i + 4, emp.active());
+                })
+                .onComplete(this::employeesChanged);
+    }
+
+    /**
+     * Demonstrates handling NULL values in ResultSet. Served from the {@link QueryCache}, if this
+     * instance has one; cache misses then read the primary, never a replica that may not have
+     * applied the write that invalidated the entry.
      */
     public Optional<Double> getAverageSalaryByDepartment(String department) throws SQLException {
         String sql = "SELECT AVG(salary) AS avg_salary FROM employees WHERE department = ?";
-        try (Connection conn = getConnection();
+        if (queryCache == null) {
+            return averageSalary(readDataSource, sql, department);
+        }
+        return queryCache.get(sql, EMPLOYEE_TABLES, () -> averageSalary(dataSource, sql, department), department);
+    }
+
+    private Optional<Double> averageSalary(DataSource source, String sql, String department) throws SQLException {
+        try (Connection conn = source.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, department);
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -224,7 +399,7 @@ public class JdbcOperations {
     public List<String> getColumnNames() throws SQLException {
         String sql = "SELECT * FROM employees WHERE 1=0";
         List<String> columns = new ArrayList<>();
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             ResultSetMetaData meta = rs.getMetaData();
@@ -236,17 +411,13 @@ public class JdbcOperations {
     }
 
     /**
-     * Maps a ResultSet row to an Employee record.
+     * Invalidates cached queries over the employees table after a committed write, including
+     * writes that bypass the methods above such as {@link SalaryWriteBehind} flushes.
      */
-    private Employee mapRow(ResultSet rs) throws SQLException {
-        return new Employee(
-                rs.getInt("id"),
-                rs.getString("name"),
-                rs.getString("email"),
-                rs.getDouble("salary"),
-                rs.getString("department"),
-                rs.getBoolean("active")
-        );
+    void employeesChanged() {
+        if (queryCache != null) {
+            queryCache.invalidate("employees");
+        }
     }
 
     /**
@@ -257,5 +428,6 @@ public class JdbcOperations {
              Statement stmt = conn.createStatement()) {
             stmt.execute("DROP TABLE IF EXISTS employees");
         }
+        employeesChanged();
     }
 }
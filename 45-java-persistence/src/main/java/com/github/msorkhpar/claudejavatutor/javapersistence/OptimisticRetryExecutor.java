@@ -0,0 +1,322 @@
+package com.github.msorkhpar.claudejavatutor.javapersistence;
+
+import com.github.msorkhpar.claudejavatutor.base.MetricsRegistry;
+import com.github.msorkhpar.claudejavatutor.javapersistence.TransactionControl.Account;
+import com.github.msorkhpar.claudejavatutor.javapersistence.TransactionControl.OptimisticLockException;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleUnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Runs read-modify-write balance updates with optimistic locking and retries version clashes.
+ * <p>
+ * Retrying an {@link OptimisticLockException} immediately makes every loser of a race re-read
+ * and collide again, so hot accounts livelock. This executor instead:
+ * <ul>
+ *   <li><b>Backs off with full jitter</b>: before retry {@code n} it sleeps a random time in
+ *       {@code [0, min(maxBackoff, baseBackoff * 2^(n-1)))}, which spreads the contenders
+ *       out.</li>
+ *   <li><b>Tracks a conflict rate per account</b>: an exponentially weighted moving average of
+ *       the fraction of optimistic attempts that clashed, which also decays with a half-life of
+ *       {@code conflictHalfLife} while nothing is recorded. Only accounts that clashed are
+ *       tracked, and one is forgotten once its rate decays below {@link #RATE_EPSILON}, so the
+ *       table holds the recently contended accounts rather than every account ever updated.</li>
+ *   <li><b>Falls back to pessimistic locking</b>: once an account's conflict rate reaches
+ *       {@code pessimisticThreshold}, or {@code maxAttempts} optimistic attempts have clashed,
+ *       the update runs under {@link TransactionControl#findAccountForUpdate}, where waiting
+ *       writers queue on the row lock instead of wasting work. Pessimistic updates record
+ *       nothing, so a hot account's rate decays over time and it is probed optimistically
+ *       again; if it is still contended, the first clashes push it straight back.</li>
+ * </ul>
+ * <pre>{@code
+ * OptimisticRetryExecutor retry = txControl.optimisticRetry().maxAttempts(5).build();
+ * retry.updateBalance(accountId, balance -> balance + 10.00);
+ * }</pre>
+ * Thread-safe.
+ */
+public final class OptimisticRetryExecutor {
+
+    /**
+     * Weight of the latest attempt in the per-account conflict rate.
+     */
+    static final double RATE_ALPHA = 0.1;
+
+    /**
+     * Conflict rate below which an account is forgotten, as if it had never clashed.
+     */
+    static final double RATE_EPSILON = 0.001;
+
+    /**
+     * Tracked accounts at which a new entry first triggers a sweep of the forgotten ones.
+     */
+    private static final int MIN_SWEEP_SIZE = 64;
+
+    private final TransactionControl txControl;
+    private final int maxAttempts;
+    private final long baseBackoffNanos;
+    private final long maxBackoffNanos;
+    private final double pessimisticThreshold;
+    private final long halfLifeNanos;
+    private final double forgetBelow;
+    private final ConcurrentHashMap<Integer, ConflictRate> rates = new ConcurrentHashMap<>();
+    // Racy: a missed update only causes an extra or a later sweep
+    private volatile int sweepSize = MIN_SWEEP_SIZE;
+
+    private final MetricsRegistry.Counter attempts;
+    private final MetricsRegistry.Counter conflicts;
+    private final MetricsRegistry.Counter exhaustedFallbacks;
+    private final MetricsRegistry.Counter contentionFallbacks;
+    private final MetricsRegistry.Timer backoffTime;
+
+    private OptimisticRetryExecutor(Builder builder) {
+        this.txControl = builder.txControl;
+        this.maxAttempts = builder.maxAttempts;
+        this.baseBackoffNanos = builder.baseBackoff.toNanos();
+        this.maxBackoffNanos = builder.maxBackoff.toNanos();
+        this.pessimisticThreshold = builder.pessimisticThreshold;
+        this.halfLifeNanos = builder.conflictHalfLife.toNanos();
+        this.forgetBelow = Math.min(RATE_EPSILON, pessimisticThreshold);
+        MetricsRegistry metrics = builder.metrics;
+        this.attempts = metrics.counter("optimistic_retry_attempts_total", "Optimistic update attempts");
+        this.conflicts = metrics.counter("optimistic_retry_conflicts_total",
+                "Optimistic attempts that hit a version clash");
+        this.exhaustedFallbacks = metrics.counter("optimistic_retry_fallbacks_total",
+                "Updates completed under a pessimistic lock", "reason", "exhausted");
+        this.contentionFallbacks = metrics.counter("optimistic_retry_fallbacks_total",
+                "Updates completed under a pessimistic lock", "reason", "contention");
+        this.backoffTime = metrics.timer("optimistic_retry_backoff_seconds", "Time slept between attempts");
+        metrics.gauge("optimistic_retry_hot_accounts", "Accounts currently updated pessimistically",
+                () -> sweep(System.nanoTime()));
+    }
+
+    public static Builder builder(TransactionControl txControl) {
+        return new Builder(txControl);
+    }
+
+    public static final class Builder {
+        private final TransactionControl txControl;
+        private int maxAttempts = 5;
+        private Duration baseBackoff = Duration.ofMillis(1);
+        private Duration maxBackoff = Duration.ofMillis(50);
+        private double pessimisticThreshold = 0.5;
+        private Duration conflictHalfLife = Duration.ofSeconds(1);
+        private MetricsRegistry metrics = new MetricsRegistry();
+
+        private Builder(TransactionControl txControl) {
+            this.txControl = Objects.requireNonNull(txControl, "txControl must not be null");
+        }
+
+        /**
+         * Optimistic attempts per update before falling back to a pessimistic lock.
+         */
+        public Builder maxAttempts(int maxAttempts) {
+            if (maxAttempts < 1) {
+                throw new IllegalArgumentException("maxAttempts must be >= 1");
+            }
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * Upper bound of the first backoff; doubled for every further retry up to
+         * {@code maxBackoff}.
+         */
+        public Builder baseBackoff(Duration baseBackoff) {
+            Objects.requireNonNull(baseBackoff, "baseBackoff must not be null");
+            if (baseBackoff.isNegative()) {
+                throw new IllegalArgumentException("baseBackoff must not be negative");
+            }
+            this.baseBackoff = baseBackoff;
+            return this;
+        }
+
+        public Builder maxBackoff(Duration maxBackoff) {
+            Objects.requireNonNull(maxBackoff, "maxBackoff must not be null");
+            if (maxBackoff.isNegative()) {
+                throw new IllegalArgumentException("maxBackoff must not be negative");
+            }
+            this.maxBackoff = maxBackoff;
+            return this;
+        }
+
+        /**
+         * Conflict rate at which an account is updated pessimistically straight away. A value
+         * above one disables the contention fallback.
+         */
+        public Builder pessimisticThreshold(double pessimisticThreshold) {
+            if (!(pessimisticThreshold > 0)) {
+                throw new IllegalArgumentException("pessimisticThreshold must be > 0");
+            }
+            this.pessimisticThreshold = pessimisticThreshold;
+            return this;
+        }
+
+        /**
+         * Time for an account's conflict rate to halve while no optimistic attempt is made on
+         * it, i.e. how long a hot account stays pessimistic after contention stops.
+         */
+        public Builder conflictHalfLife(Duration conflictHalfLife) {
+            Objects.requireNonNull(conflictHalfLife, "conflictHalfLife must not be null");
+            if (conflictHalfLife.isNegative() || conflictHalfLife.isZero()) {
+                throw new IllegalArgumentException("conflictHalfLife must be positive");
+            }
+            this.conflictHalfLife = conflictHalfLife;
+            return this;
+        }
+
+        public Builder metrics(MetricsRegistry metrics) {
+            this.metrics = Objects.requireNonNull(metrics, "metrics must not be null");
+            return this;
+        }
+
+        public OptimisticRetryExecutor build() {
+            if (maxBackoff.compareTo(baseBackoff) < 0) {
+                throw new IllegalArgumentException("maxBackoff must be >= baseBackoff");
+            }
+            return new OptimisticRetryExecutor(this);
+        }
+    }
+
+    /**
+     * Sets the balance of account {@code id} to {@code update} applied to its current balance.
+     * {@code update} may run more than once and must not have side effects.
+     *
+     * @return the updated account, or empty if it does not exist
+     * @throws SQLException if the database fails, or if interrupted while backing off
+     */
+    public Optional<Account> updateBalance(int id, DoubleUnaryOperator update) throws SQLException {
+        Objects.requireNonNull(update, "update must not be null");
+        ConflictRate rate = rates.get(id);
+        if (rate != null && rate.get(System.nanoTime()) >= pessimisticThreshold) {
+            contentionFallbacks.increment();
+            return txControl.updateBalanceWithPessimisticLock(id, update);
+        }
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            Optional<Account> current = txControl.findAccount(id);
+            if (current.isEmpty()) {
+                return Optional.empty();
+            }
+            Account account = current.get();
+            attempts.increment();
+            try {
+                Account updated = txControl.updateBalanceOptimistic(account, update.applyAsDouble(account.balance()));
+                if (rate != null && rate.record(false, System.nanoTime()) < forgetBelow) {
+                    rates.remove(id, rate);
+                }
+                return Optional.of(updated);
+            } catch (OptimisticLockException e) {
+                conflicts.increment();
+                rate = recordConflict(id, rate);
+            }
+            if (attempt < maxAttempts) {
+                backOff(attempt);
+            }
+        }
+        exhaustedFallbacks.increment();
+        return txControl.updateBalanceWithPessimisticLock(id, update);
+    }
+
+    /**
+     * Current conflict rate of account {@code id}, between 0 and 1; 0 if it has not clashed
+     * recently.
+     */
+    public double getConflictRate(int id) {
+        ConflictRate rate = rates.get(id);
+        return rate == null ? 0.0 : rate.get(System.nanoTime());
+    }
+
+    /**
+     * Conflict rates of the accounts that clashed recently; every other account's rate is 0.
+     */
+    public Map<Integer, Double> getConflictRates() {
+        return rates.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().get(System.nanoTime())));
+    }
+
+    private ConflictRate recordConflict(int id, ConflictRate rate) {
+        long now = System.nanoTime();
+        if (rate == null) {
+            rate = rates.computeIfAbsent(id, key -> new ConflictRate(halfLifeNanos));
+        }
+        rate.record(true, now);
+        if (rates.size() >= sweepSize) {
+            sweep(now);
+            sweepSize = Math.max(MIN_SWEEP_SIZE, 2 * rates.size());
+        }
+        return rate;
+    }
+
+    /**
+     * Forgets every account whose rate has decayed below {@code forgetBelow}. An update that
+     * already holds a forgotten rate may still record into it; that one sample is lost.
+     *
+     * @return the number of accounts at or above {@code pessimisticThreshold}
+     */
+    private long sweep(long now) {
+        long hot = 0;
+        for (Map.Entry<Integer, ConflictRate> entry : rates.entrySet()) {
+            double rate = entry.getValue().get(now);
+            if (rate < forgetBelow) {
+                rates.remove(entry.getKey(), entry.getValue());
+            } else if (rate >= pessimisticThreshold) {
+                hot++;
+            }
+        }
+        return hot;
+    }
+
+    private void backOff(int attempt) throws SQLException {
+        long ceiling = baseBackoffNanos;
+        for (int i = 1; i < attempt && ceiling < maxBackoffNanos; i++) {
+            ceiling *= 2;
+        }
+        ceiling = Math.min(ceiling, maxBackoffNanos);
+        if (ceiling <= 0) {
+            return;
+        }
+        long nanos = ThreadLocalRandom.current().nextLong(ceiling);
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while backing off", e);
+        }
+        backoffTime.record(nanos);
+    }
+
+    /**
+     * Exponentially weighted moving average of conflicts per optimistic attempt that also
+     * decays with time, so it reflects recent contention only.
+     */
+    private static final class ConflictRate {
+        private final long halfLifeNanos;
+        private double value;
+        private long updatedAt = System.nanoTime();
+
+        ConflictRate(long halfLifeNanos) {
+            this.halfLifeNanos = halfLifeNanos;
+        }
+
+        synchronized double get(long now) {
+            return value * Math.pow(0.5, (double) (now - updatedAt) / halfLifeNanos);
+        }
+
+        /**
+         * @return the new rate
+         */
+        synchronized double record(boolean conflict, long now) {
+            double current = get(now);
+            value = current + RATE_ALPHA * ((conflict ? 1.0 : 0.0) - current);
+            updatedAt = now;
+            return value;
+        }
+    }
+}
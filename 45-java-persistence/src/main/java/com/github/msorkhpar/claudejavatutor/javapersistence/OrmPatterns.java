@@ -1,9 +1,23 @@
 package com.github.msorkhpar.claudejavatutor.javapersistence;
 
+import com.github.msorkhpar.claudejavatutor.base.MetricsRegistry;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
 import java.sql.*;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Demonstrates Object-Relational Mapping (ORM) patterns using plain JDBC.
@@ -42,6 +56,13 @@ public class OrmPatterns {
         public int getCategoryId() { return categoryId; }
         public void setCategoryId(int categoryId) { this.categoryId = categoryId; }
 
+        /**
+         * Returns a detached copy, as a second-level cache hands out.
+         */
+        public Product copy() {
+            return new Product(id, name, price, categoryId);
+        }
+
         @Override
         public String toString() {
             return "Product{id=%d, name='%s', price=%.2f, categoryId=%d}"
@@ -71,6 +92,19 @@ public class OrmPatterns {
         public void setName(String name) { this.name = name; }
         public List<Product> getProducts() { return products; }
         public void setProducts(List<Product> products) { this.products = products; }
+
+        /**
+         * Returns a detached copy including copies of its products.
+         */
+        public Category copy() {
+            Category copy = new Category(id, name);
+            copy.setProducts(new ArrayList<>(products.stream().map(Product::copy).toList()));
+            return copy;
+        }
+
+        boolean contains(int productId) {
+            return products.stream().anyMatch(p -> p.getId() == productId);
+        }
     }
 
     // --- Generic Repository interface (mirrors Spring Data JPA pattern) ---
@@ -91,21 +125,123 @@ public class OrmPatterns {
     /**
      * Concrete repository for Product entities, demonstrating how an ORM
      * maps between objects and relational tables.
+     * <p>
+     * Optionally backed by a shared second-level cache ({@link EntityCache}) for products and
+     * categories: {@link #findById}, {@link #findCategoryWithProducts} and
+     * {@link #findCategoriesWithProducts} read through it, and {@link #save} and
+     * {@link #deleteById} invalidate the affected entries. {@link #openSession()} adds a
+     * per-transaction identity map on top. A {@link QueryCache}, if given, holds the results of
+     * {@link #count()} and {@link #findProductNamesByCategoryName(String)} until a write to a table
+     * they read.
+     * <p>
+     * Given a {@link RoutingDataSource}, the repository's finders, pages, counts and streams read
+     * from its replicas, while writes and {@link Session}s use the primary. So do loads that fill
+     * a cache: a write invalidates the entry, and reloading it from a replica that has not yet
+     * applied the write would cache the old row again, with no TTL to ever drop it.
      */
     public static class ProductRepository implements Repository<Product, Integer> {
 
-        private final String url;
-        private final String user;
-        private final String password;
+        /**
+         * {@link Product} is a mutable entity rather than a record, so it cannot use
+         * {@link RecordRowMapper}; the column indexes are still resolved once per result set.
+         */
+        private static final RowMapper<Product> PRODUCTS = new RowMapper<>() {
+            @Override
+            public Product mapRow(ResultSet rs) throws SQLException {
+                return forResultSet(rs).mapRow(rs);
+            }
+
+            @Override
+            public RowMapper<Product> forResultSet(ResultSet rs) throws SQLException {
+                int id = rs.findColumn("id");
+                int name = rs.findColumn("name");
+                int price = rs.findColumn("price");
+                int categoryId = rs.findColumn("category_id");
+                return row -> new Product(row.getInt(id), row.getString(name), row.getDouble(price),
+                        row.getInt(categoryId));
+            }
+        };
+
+        private static final Set<String> PRODUCT_TABLES = Set.of("products");
+        private static final Set<String> PRODUCT_AND_CATEGORY_TABLES = Set.of("products", "categories");
+
+        private final DataSource dataSource;
+        // Read-only queries; the replicas when dataSource is a RoutingDataSource
+        private final DataSource readDataSource;
+        private final EntityCache<Integer, Product> productCache;
+        private final EntityCache<Integer, Category> categoryCache;
+        private final QueryCache queryCache;
 
         public ProductRepository(String url, String user, String password) {
-            this.url = url;
-            this.user = user;
-            this.password = password;
+            this(new DriverManagerDataSource(url, user, password));
+        }
+
+        public ProductRepository(DataSource dataSource) {
+            this(dataSource, (QueryCache) null, null, null);
+        }
+
+        /**
+         * Repository that serves {@link #count()} and
+         * {@link #findProductNamesByCategoryName(String)} from a query cache. Like the entity
+         * caches, share it between every repository on the same database.
+         */
+        public ProductRepository(DataSource dataSource, QueryCache queryCache) {
+            this(dataSource, Objects.requireNonNull(queryCache, "queryCache must not be null"), null, null);
+        }
+
+        /**
+         * Repository with a second-level cache. Share the caches between every repository on the
+         * same database, since each only invalidates the caches it was given.
+         */
+        public ProductRepository(DataSource dataSource, EntityCache<Integer, Product> productCache,
+                                 EntityCache<Integer, Category> categoryCache) {
+            this(dataSource, null,
+                    Objects.requireNonNull(productCache, "productCache must not be null"),
+                    Objects.requireNonNull(categoryCache, "categoryCache must not be null"));
+        }
+
+        /**
+         * Repository with both a second-level cache and a query cache.
+         */
+        public ProductRepository(DataSource dataSource, EntityCache<Integer, Product> productCache,
+                                 EntityCache<Integer, Category> categoryCache, QueryCache queryCache) {
+            this(dataSource, Objects.requireNonNull(queryCache, "queryCache must not be null"),
+                    Objects.requireNonNull(productCache, "productCache must not be null"),
+                    Objects.requireNonNull(categoryCache, "categoryCache must not be null"));
+        }
+
+        /**
+         * Every public constructor ends here; a {@code null} cache is disabled. The query cache
+         * comes second to keep this signature apart from the public four-argument one.
+         */
+        private ProductRepository(DataSource dataSource, QueryCache queryCache,
+                                  EntityCache<Integer, Product> productCache,
+                                  EntityCache<Integer, Category> categoryCache) {
+            this.dataSource = Objects.requireNonNull(dataSource, "dataSource must not be null");
+            this.readDataSource = RoutingDataSource.readsOf(dataSource);
+            this.productCache = productCache;
+            this.categoryCache = categoryCache;
+            this.queryCache = queryCache;
+        }
+
+        public static EntityCache<Integer, Product> productCache(int maxSize, MetricsRegistry metrics) {
+            return new EntityCache<>("product", maxSize, Product::copy, metrics);
+        }
+
+        public static EntityCache<Integer, Category> categoryCache(int maxSize, MetricsRegistry metrics) {
+            return new EntityCache<>("category", maxSize, Category::copy, metrics);
+        }
+
+        public static QueryCache queryCache(int maxSize, Duration ttl, MetricsRegistry metrics) {
+            return new QueryCache("product", maxSize, ttl, metrics);
         }
 
         public Connection getConnection() throws SQLException {
-            return DriverManager.getConnection(url, user, password);
+            return dataSource.getConnection();
+        }
+
+        private Connection getReadConnection() throws SQLException {
+            return readDataSource.getConnection();
         }
 
         public void createTables() throws SQLException {
@@ -125,7 +261,9 @@ public class OrmPatterns {
                         FOREIGN KEY (category_id) REFERENCES categories(id)
                     )
                 """);
+                stmt.execute("CREATE INDEX IF NOT EXISTS idx_products_price_id ON products (price, id)");
             }
+            tablesChanged("products", "categories");
         }
 
         public void dropTables() throws SQLException {
@@ -133,6 +271,14 @@ public class OrmPatterns {
                 stmt.execute("DROP TABLE IF EXISTS products");
                 stmt.execute("DROP TABLE IF EXISTS categories");
             }
+            // Nothing cached can outlive the rows it was read from
+            if (queryCache != null) {
+                queryCache.clear();
+            }
+            if (productCache != null) {
+                productCache.clear();
+                categoryCache.clear();
+            }
         }
 
         /**
@@ -140,18 +286,24 @@ public class OrmPatterns {
          */
         @Override
         public Product save(Product entity) throws SQLException {
+            try (Connection conn = getConnection()) {
+                save(conn, entity);
+            }
+            invalidate(entity.getId(), entity.getCategoryId());
+            return entity;
+        }
+
+        private void save(Connection conn, Product entity) throws SQLException {
             if (entity.getId() == 0) {
-                return insert(entity);
+                insert(conn, entity);
             } else {
-                update(entity);
-                return entity;
+                update(conn, entity);
             }
         }
 
-        private Product insert(Product entity) throws SQLException {
+        private void insert(Connection conn, Product entity) throws SQLException {
             String sql = "INSERT INTO products (name, price, category_id) VALUES (?, ?, ?)";
-            try (Connection conn = getConnection();
-                 PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
                 pstmt.setString(1, entity.getName());
                 pstmt.setDouble(2, entity.getPrice());
                 pstmt.setInt(3, entity.getCategoryId());
@@ -162,13 +314,11 @@ public class OrmPatterns {
                     }
                 }
             }
-            return entity;
         }
 
-        private void update(Product entity) throws SQLException {
+        private void update(Connection conn, Product entity) throws SQLException {
             String sql = "UPDATE products SET name = ?, price = ?, category_id = ? WHERE id = ?";
-            try (Connection conn = getConnection();
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
                 pstmt.setString(1, entity.getName());
                 pstmt.setDouble(2, entity.getPrice());
                 pstmt.setInt(3, entity.getCategoryId());
@@ -179,13 +329,31 @@ public class OrmPatterns {
 
         @Override
         public Optional<Product> findById(Integer id) throws SQLException {
+            if (productCache == null) {
+                try (Connection conn = getReadConnection()) {
+                    return findById(conn, id);
+                }
+            }
+            Optional<Product> cached = productCache.get(id);
+            if (cached.isPresent()) {
+                return cached;
+            }
+            long stamp = productCache.loadStamp();
+            Optional<Product> loaded;
+            try (Connection conn = getConnection()) {
+                loaded = findById(conn, id);
+            }
+            loaded.ifPresent(product -> productCache.putFromLoad(id, product, stamp));
+            return loaded;
+        }
+
+        private Optional<Product> findById(Connection conn, int id) throws SQLException {
             String sql = "SELECT id, name, price, category_id FROM products WHERE id = ?";
-            try (Connection conn = getConnection();
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
                 pstmt.setInt(1, id);
                 try (ResultSet rs = pstmt.executeQuery()) {
                     if (rs.next()) {
-                        return Optional.of(mapProduct(rs));
+                        return Optional.of(PRODUCTS.mapRow(rs));
                     }
                 }
             }
@@ -196,30 +364,82 @@ public class OrmPatterns {
         public List<Product> findAll() throws SQLException {
             String sql = "SELECT id, name, price, category_id FROM products";
             List<Product> products = new ArrayList<>();
-            try (Connection conn = getConnection();
+            try (Connection conn = getReadConnection();
                  Statement stmt = conn.createStatement();
                  ResultSet rs = stmt.executeQuery(sql)) {
+                RowMapper<Product> mapper = PRODUCTS.forResultSet(rs);
                 while (rs.next()) {
-                    products.add(mapProduct(rs));
+                    products.add(mapper.mapRow(rs));
                 }
             }
             return products;
         }
 
+        /**
+         * Streams all products lazily in constant memory; see {@link ResultSetSpliterator}.
+         * The stream holds a connection until it is closed or fully consumed.
+         */
+        public Stream<Product> streamAll() throws SQLException {
+            return streamAll(ResultSetSpliterator.DEFAULT_FETCH_SIZE);
+        }
+
+        /**
+         * Streams all products lazily, fetching {@code fetchSize} rows per round trip.
+         */
+        public Stream<Product> streamAll(int fetchSize) throws SQLException {
+            String sql = "SELECT id, name, price, category_id FROM products";
+            return ResultSetSpliterator.stream(readDataSource, sql, fetchSize, PRODUCTS);
+        }
+
         @Override
         public boolean deleteById(Integer id) throws SQLException {
+            boolean deleted;
+            try (Connection conn = getConnection()) {
+                deleted = deleteById(conn, id);
+            }
+            invalidate(id, 0);
+            return deleted;
+        }
+
+        private boolean deleteById(Connection conn, int id) throws SQLException {
             String sql = "DELETE FROM products WHERE id = ?";
-            try (Connection conn = getConnection();
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
                 pstmt.setInt(1, id);
                 return pstmt.executeUpdate() > 0;
             }
         }
 
+        /**
+         * Drops a changed product from the second-level cache, together with its new category and
+         * any cached category still listing it, and the cached queries over products.
+         */
+        private void invalidate(int productId, int categoryId) {
+            tablesChanged("products");
+            if (productCache == null) {
+                return;
+            }
+            productCache.invalidate(productId);
+            categoryCache.invalidate(categoryId);
+            categoryCache.invalidateIf(category -> category.contains(productId));
+        }
+
+        private void tablesChanged(String... tables) {
+            if (queryCache != null) {
+                queryCache.invalidate(tables);
+            }
+        }
+
         @Override
         public long count() throws SQLException {
             String sql = "SELECT COUNT(*) FROM products";
-            try (Connection conn = getConnection();
+            if (queryCache == null) {
+                return count(readDataSource, sql);
+            }
+            return queryCache.get(sql, PRODUCT_TABLES, () -> count(dataSource, sql));
+        }
+
+        private long count(DataSource source, String sql) throws SQLException {
+            try (Connection conn = source.getConnection();
                  Statement stmt = conn.createStatement();
                  ResultSet rs = stmt.executeQuery(sql)) {
                 rs.next();
@@ -233,13 +453,106 @@ public class OrmPatterns {
         public List<Product> findByPriceRange(double minPrice, double maxPrice) throws SQLException {
             String sql = "SELECT id, name, price, category_id FROM products WHERE price BETWEEN ? AND ?";
             List<Product> products = new ArrayList<>();
-            try (Connection conn = getConnection();
+            try (Connection conn = getReadConnection();
                  PreparedStatement pstmt = conn.prepareStatement(sql)) {
                 pstmt.setDouble(1, minPrice);
                 pstmt.setDouble(2, maxPrice);
                 try (ResultSet rs = pstmt.executeQuery()) {
+                    RowMapper<Product> mapper = PRODUCTS.forResultSet(rs);
                     while (rs.next()) {
-                        products.add(mapProduct(rs));
+                        products.add(mapper.mapRow(rs));
+                    }
+                }
+            }
+            return products;
+        }
+
+        // --- Keyset pagination ---
+
+        /**
+         * Returns up to {@code pageSize} products ordered by id, starting after the position in
+         * {@code pageToken}, or with the first product if it is {@code null}. See {@link Page}.
+         *
+         * @throws IllegalArgumentException if {@code pageToken} was not issued by this method
+         */
+        public Page<Product> findPageOrderById(int pageSize, String pageToken) throws SQLException {
+            Page.checkPageSize(pageSize);
+            List<Object> params = new ArrayList<>();
+            String seek = "";
+            if (pageToken != null) {
+                seek = " WHERE id > ?";
+                params.add(parseKey(pageToken, "id", 1)[0].intValueExact());
+            }
+            params.add(pageSize + 1);
+            String sql = "SELECT id, name, price, category_id FROM products" + seek + " ORDER BY id LIMIT ?";
+            return Page.of(queryProducts(sql, params), pageSize, "id", product -> List.of(product.getId()));
+        }
+
+        /**
+         * Returns up to {@code pageSize} products ordered by price, then id, starting after the
+         * position in {@code pageToken}, or with the cheapest product if it is {@code null}.
+         *
+         * @throws IllegalArgumentException if {@code pageToken} was not issued for a price ordering
+         */
+        public Page<Product> findPageOrderByPrice(int pageSize, String pageToken) throws SQLException {
+            return findPageOrderByPrice("", List.of(), pageSize, pageToken);
+        }
+
+        /**
+         * Paginated {@link #findByPriceRange(double, double)}, ordered by price, then id.
+         */
+        public Page<Product> findByPriceRange(double minPrice, double maxPrice, int pageSize, String pageToken)
+                throws SQLException {
+            return findPageOrderByPrice("price BETWEEN ? AND ?", List.of(minPrice, maxPrice), pageSize, pageToken);
+        }
+
+        private Page<Product> findPageOrderByPrice(String filter, List<Object> filterParams, int pageSize,
+                                                   String pageToken) throws SQLException {
+            Page.checkPageSize(pageSize);
+            List<String> conditions = new ArrayList<>();
+            List<Object> params = new ArrayList<>();
+            if (!filter.isEmpty()) {
+                conditions.add(filter);
+                params.addAll(filterParams);
+            }
+            if (pageToken != null) {
+                BigDecimal[] key = parseKey(pageToken, "price", 2);
+                // price >= ? lets the (price, id) index bound the scan; the OR picks up ties
+                conditions.add("price >= ? AND (price > ? OR id > ?)");
+                params.addAll(List.of(key[0], key[0], key[1].intValueExact()));
+            }
+            params.add(pageSize + 1);
+            String where = conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+            String sql = "SELECT id, name, price, category_id FROM products" + where + " ORDER BY price, id LIMIT ?";
+            return Page.of(queryProducts(sql, params), pageSize, "price",
+                    product -> List.of(BigDecimal.valueOf(product.getPrice()).toPlainString(), product.getId()));
+        }
+
+        private static BigDecimal[] parseKey(String pageToken, String ordering, int keyCount) {
+            String[] values = Page.decodeToken(pageToken, ordering, keyCount);
+            BigDecimal[] key = new BigDecimal[keyCount];
+            try {
+                for (int i = 0; i < keyCount; i++) {
+                    key[i] = new BigDecimal(values[i]);
+                }
+                key[keyCount - 1].intValueExact(); // every ordering ends with the id
+            } catch (NumberFormatException | ArithmeticException e) {
+                throw new IllegalArgumentException("Invalid page token", e);
+            }
+            return key;
+        }
+
+        private List<Product> queryProducts(String sql, List<Object> params) throws SQLException {
+            List<Product> products = new ArrayList<>();
+            try (Connection conn = getReadConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < params.size(); i++) {
+                    pstmt.setObject(i + 1, params.get(i));
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    RowMapper<Product> mapper = PRODUCTS.forResultSet(rs);
+                    while (rs.next()) {
+                        products.add(mapper.mapRow(rs));
                     }
                 }
             }
@@ -250,17 +563,23 @@ public class OrmPatterns {
          * Simulates JPQL join fetch: SELECT p FROM Product p JOIN FETCH p.category
          */
         public List<Product> findAllWithCategory() throws SQLException {
+            try (Connection conn = getReadConnection()) {
+                return findAllWithCategory(conn);
+            }
+        }
+
+        private List<Product> findAllWithCategory(Connection conn) throws SQLException {
             String sql = """
                 SELECT p.id, p.name, p.price, p.category_id
                 FROM products p
                 JOIN categories c ON p.category_id = c.id
                 """;
             List<Product> products = new ArrayList<>();
-            try (Connection conn = getConnection();
-                 Statement stmt = conn.createStatement();
+            try (Statement stmt = conn.createStatement();
                  ResultSet rs = stmt.executeQuery(sql)) {
+                RowMapper<Product> mapper = PRODUCTS.forResultSet(rs);
                 while (rs.next()) {
-                    products.add(mapProduct(rs));
+                    products.add(mapper.mapRow(rs));
                 }
             }
             return products;
@@ -276,8 +595,17 @@ public class OrmPatterns {
                 JOIN categories c ON p.category_id = c.id
                 WHERE c.name = ?
                 """;
+            if (queryCache == null) {
+                return findProductNames(readDataSource, sql, categoryName);
+            }
+            return queryCache.get(sql, PRODUCT_AND_CATEGORY_TABLES,
+                    () -> List.copyOf(findProductNames(dataSource, sql, categoryName)), categoryName);
+        }
+
+        private List<String> findProductNames(DataSource source, String sql, String categoryName)
+                throws SQLException {
             List<String> names = new ArrayList<>();
-            try (Connection conn = getConnection();
+            try (Connection conn = source.getConnection();
                  PreparedStatement pstmt = conn.prepareStatement(sql)) {
                 pstmt.setString(1, categoryName);
                 try (ResultSet rs = pstmt.executeQuery()) {
@@ -298,6 +626,7 @@ public class OrmPatterns {
                  PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
                 pstmt.setString(1, name);
                 pstmt.executeUpdate();
+                tablesChanged("categories");
                 try (ResultSet keys = pstmt.getGeneratedKeys()) {
                     if (keys.next()) {
                         return keys.getInt(1);
@@ -311,42 +640,319 @@ public class OrmPatterns {
          * Eager loading: fetches a Category with all its Products (simulates JOIN FETCH).
          */
         public Optional<Category> findCategoryWithProducts(int categoryId) throws SQLException {
+            if (categoryCache == null) {
+                try (Connection conn = getReadConnection()) {
+                    return findCategoryWithProducts(conn, categoryId);
+                }
+            }
+            Optional<Category> cached = categoryCache.get(categoryId);
+            if (cached.isPresent()) {
+                return cached;
+            }
+            long stamp = categoryCache.loadStamp();
+            Optional<Category> loaded;
+            try (Connection conn = getConnection()) {
+                loaded = findCategoryWithProducts(conn, categoryId);
+            }
+            loaded.ifPresent(category -> categoryCache.putFromLoad(categoryId, category, stamp));
+            return loaded;
+        }
+
+        private Optional<Category> findCategoryWithProducts(Connection conn, int categoryId) throws SQLException {
             String categorySql = "SELECT id, name FROM categories WHERE id = ?";
             String productsSql = "SELECT id, name, price, category_id FROM products WHERE category_id = ?";
-            try (Connection conn = getConnection()) {
-                Category category = null;
-                try (PreparedStatement pstmt = conn.prepareStatement(categorySql)) {
-                    pstmt.setInt(1, categoryId);
-                    try (ResultSet rs = pstmt.executeQuery()) {
-                        if (rs.next()) {
-                            category = new Category(rs.getInt("id"), rs.getString("name"));
-                        }
+            Category category = null;
+            try (PreparedStatement pstmt = conn.prepareStatement(categorySql)) {
+                pstmt.setInt(1, categoryId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        category = new Category(rs.getInt("id"), rs.getString("name"));
                     }
                 }
-                if (category == null) {
-                    return Optional.empty();
+            }
+            if (category == null) {
+                return Optional.empty();
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(productsSql)) {
+                pstmt.setInt(1, categoryId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    List<Product> products = new ArrayList<>();
+                    RowMapper<Product> mapper = PRODUCTS.forResultSet(rs);
+                    while (rs.next()) {
+                        products.add(mapper.mapRow(rs));
+                    }
+                    category.setProducts(products);
                 }
-                try (PreparedStatement pstmt = conn.prepareStatement(productsSql)) {
-                    pstmt.setInt(1, categoryId);
-                    try (ResultSet rs = pstmt.executeQuery()) {
-                        List<Product> products = new ArrayList<>();
-                        while (rs.next()) {
-                            products.add(mapProduct(rs));
+            }
+            return Optional.of(category);
+        }
+
+        /**
+         * Batched eager loading: fetches many categories with their products in two queries per
+         * {@link BatchLoader#DEFAULT_MAX_BATCH_SIZE} ids, instead of two queries per category as
+         * with {@link #findCategoryWithProducts(int)}. Duplicate ids are loaded once; ids without
+         * a category are left out of the result.
+         */
+        public Map<Integer, Category> findCategoriesWithProducts(Collection<Integer> categoryIds)
+                throws SQLException {
+            if (categoryCache == null) {
+                return loadCategoriesWithProducts(readDataSource, categoryIds);
+            }
+            Map<Integer, Category> categories = new LinkedHashMap<>();
+            List<Integer> missing = new ArrayList<>();
+            for (int id : new LinkedHashSet<>(categoryIds)) {
+                Optional<Category> cached = categoryCache.get(id);
+                if (cached.isPresent()) {
+                    categories.put(id, cached.get());
+                } else {
+                    missing.add(id);
+                }
+            }
+            long stamp = categoryCache.loadStamp();
+            Map<Integer, Category> loaded = loadCategoriesWithProducts(dataSource, missing);
+            loaded.forEach((id, category) -> categoryCache.putFromLoad(id, category, stamp));
+            categories.putAll(loaded);
+            return categories;
+        }
+
+        private Map<Integer, Category> loadCategoriesWithProducts(DataSource source,
+                                                                  Collection<Integer> categoryIds)
+                throws SQLException {
+            List<Integer> ids = List.copyOf(new LinkedHashSet<>(categoryIds));
+            Map<Integer, Category> categories = new LinkedHashMap<>();
+            if (ids.isEmpty()) {
+                return categories;
+            }
+            int batchSize = BatchLoader.DEFAULT_MAX_BATCH_SIZE;
+            try (Connection conn = source.getConnection()) {
+                for (int from = 0; from < ids.size(); from += batchSize) {
+                    List<Integer> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+                    String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+                    String categorySql = "SELECT id, name FROM categories WHERE id IN (" + placeholders + ")";
+                    String productsSql = "SELECT id, name, price, category_id FROM products WHERE category_id IN ("
+                            + placeholders + ")";
+                    try (PreparedStatement pstmt = conn.prepareStatement(categorySql)) {
+                        bindIds(pstmt, chunk);
+                        try (ResultSet rs = pstmt.executeQuery()) {
+                            while (rs.next()) {
+                                categories.put(rs.getInt("id"), new Category(rs.getInt("id"), rs.getString("name")));
+                            }
+                        }
+                    }
+                    try (PreparedStatement pstmt = conn.prepareStatement(productsSql)) {
+                        bindIds(pstmt, chunk);
+                        try (ResultSet rs = pstmt.executeQuery()) {
+                            RowMapper<Product> mapper = PRODUCTS.forResultSet(rs);
+                            while (rs.next()) {
+                                Product product = mapper.mapRow(rs);
+                                Category category = categories.get(product.getCategoryId());
+                                if (category != null) {
+                                    category.getProducts().add(product);
+                                }
+                            }
                         }
-                        category.setProducts(products);
                     }
                 }
-                return Optional.of(category);
+            }
+            return categories;
+        }
+
+        /**
+         * Returns a request-scoped {@link BatchLoader} over {@link #findCategoriesWithProducts}.
+         * Callers queue category ids with {@code load} and resolve them all with one
+         * {@code dispatch}.
+         */
+        public BatchLoader<Integer, Category> categoryLoader() {
+            return new BatchLoader<>(this::findCategoriesWithProducts);
+        }
+
+        /**
+         * Opens a unit of work on one connection and transaction. Close it when done; uncommitted
+         * writes are rolled back.
+         */
+        public Session openSession() throws SQLException {
+            return new Session(getConnection());
+        }
+
+        /**
+         * Unit of work with an identity map, similar to a JPA {@code EntityManager}.
+         * <p>
+         * Within a session each product or category id maps to one managed instance: loading it
+         * again returns that instance without a query, and queries returning it reuse it. Writes go
+         * to the session's transaction and are visible to the session's own reads immediately
+         * (read-your-writes); other sessions see them after {@link #commit()}. Lookups the identity
+         * map cannot answer fall back to the second-level cache, but only while the session has no
+         * uncommitted writes, so it never mixes its own changes with shared, committed state, and
+         * never publishes uncommitted rows to the shared cache.
+         * <p>
+         * Not thread-safe.
+         */
+        public final class Session implements AutoCloseable {
+            private final Connection conn;
+            private final Map<Integer, Optional<Product>> products = new HashMap<>();
+            private final Map<Integer, Optional<Category>> categories = new HashMap<>();
+            // product id -> category id of every product written since the last commit
+            private final Map<Integer, Integer> written = new HashMap<>();
+            private long identityHits;
+            private boolean closed;
+
+            private Session(Connection conn) throws SQLException {
+                this.conn = conn;
+                try {
+                    conn.setAutoCommit(false);
+                } catch (SQLException e) {
+                    conn.close();
+                    throw e;
+                }
+            }
+
+            public Optional<Product> findById(int id) throws SQLException {
+                ensureOpen();
+                Optional<Product> managed = products.get(id);
+                if (managed != null) {
+                    identityHits++;
+                    return managed;
+                }
+                Optional<Product> product;
+                if (productCache != null && written.isEmpty()) {
+                    product = productCache.get(id);
+                    if (product.isEmpty()) {
+                        long stamp = productCache.loadStamp();
+                        product = ProductRepository.this.findById(conn, id);
+                        product.ifPresent(p -> productCache.putFromLoad(id, p, stamp));
+                    }
+                } else {
+                    product = ProductRepository.this.findById(conn, id);
+                }
+                products.put(id, product);
+                return product;
+            }
+
+            /**
+             * Always queries, but returns the managed instance for products already in the session.
+             */
+            public List<Product> findAllWithCategory() throws SQLException {
+                ensureOpen();
+                List<Product> result = new ArrayList<>();
+                for (Product loaded : ProductRepository.this.findAllWithCategory(conn)) {
+                    result.add(manage(loaded));
+                }
+                return result;
+            }
+
+            public Optional<Category> findCategoryWithProducts(int categoryId) throws SQLException {
+                ensureOpen();
+                Optional<Category> managed = categories.get(categoryId);
+                if (managed != null) {
+                    identityHits++;
+                    return managed;
+                }
+                Optional<Category> category;
+                if (categoryCache != null && written.isEmpty()) {
+                    category = categoryCache.get(categoryId);
+                    if (category.isEmpty()) {
+                        long stamp = categoryCache.loadStamp();
+                        category = ProductRepository.this.findCategoryWithProducts(conn, categoryId);
+                        category.ifPresent(c -> categoryCache.putFromLoad(categoryId, c, stamp));
+                    }
+                } else {
+                    category = ProductRepository.this.findCategoryWithProducts(conn, categoryId);
+                }
+                category.ifPresent(c -> c.getProducts().replaceAll(this::manage));
+                categories.put(categoryId, category);
+                return category;
+            }
+
+            /**
+             * Inserts or updates {@code entity} in the session's transaction; it becomes the managed
+             * instance for its id.
+             */
+            public Product save(Product entity) throws SQLException {
+                ensureOpen();
+                ProductRepository.this.save(conn, entity);
+                products.put(entity.getId(), Optional.of(entity));
+                written(entity.getId(), entity.getCategoryId());
+                return entity;
+            }
+
+            public boolean deleteById(int id) throws SQLException {
+                ensureOpen();
+                boolean deleted = ProductRepository.this.deleteById(conn, id);
+                products.put(id, Optional.empty());
+                written(id, 0);
+                return deleted;
+            }
+
+            /**
+             * Commits the transaction. The identity map is kept, so managed instances stay valid.
+             */
+            public void commit() throws SQLException {
+                ensureOpen();
+                conn.commit();
+                // invalidate again: a concurrent reader may have cached the pre-commit row meanwhile
+                written.forEach(ProductRepository.this::invalidate);
+                written.clear();
+            }
+
+            /**
+             * Rolls the transaction back and clears the identity map, whose instances may hold
+             * changes that no longer exist in the database.
+             */
+            public void rollback() throws SQLException {
+                ensureOpen();
+                conn.rollback();
+                written.clear();
+                products.clear();
+                categories.clear();
+            }
+
+            /**
+             * Lookups answered from the identity map without touching the database or the
+             * second-level cache.
+             */
+            public long getIdentityHits() {
+                return identityHits;
+            }
+
+            @Override
+            public void close() throws SQLException {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                try (conn) {
+                    conn.rollback();
+                    conn.setAutoCommit(true);
+                }
+            }
+
+            private Product manage(Product loaded) {
+                Optional<Product> managed = products.get(loaded.getId());
+                if (managed != null && managed.isPresent()) {
+                    return managed.get();
+                }
+                products.put(loaded.getId(), Optional.of(loaded));
+                return loaded;
+            }
+
+            private void written(int productId, int categoryId) {
+                written.put(productId, categoryId);
+                categories.remove(categoryId);
+                categories.values().removeIf(c -> c.isPresent() && c.get().contains(productId));
+                invalidate(productId, categoryId);
+            }
+
+            private void ensureOpen() throws SQLException {
+                if (closed) {
+                    throw new SQLException("Session is closed");
+                }
             }
         }
 
-        private Product mapProduct(ResultSet rs) throws SQLException {
-            return new Product(
-                    rs.getInt("id"),
-                    rs.getString("name"),
-                    rs.getDouble("price"),
-                    rs.getInt("category_id")
-            );
+        private static void bindIds(PreparedStatement pstmt, List<Integer> ids) throws SQLException {
+            for (int i = 0; i < ids.size(); i++) {
+                pstmt.setInt(i + 1, ids.get(i));
+            }
         }
     }
 }
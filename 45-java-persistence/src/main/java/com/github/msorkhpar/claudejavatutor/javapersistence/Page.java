@@ -0,0 +1,84 @@
+package com.github.msorkhpar.claudejavatutor.javapersistence;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated query.
+ * <p>
+ * Keyset (seek) pagination remembers the sort key of the last row returned and asks only for
+ * the rows that sort after it, e.g.
+ * {@code WHERE price >= ? AND (price > ? OR id > ?) ORDER BY price, id LIMIT ?}, so the
+ * database seeks straight to the next page through an index on the sort key.
+ * {@code OFFSET n} instead reads and discards {@code n} rows, which makes page 10,000 cost ten
+ * thousand pages of work.
+ * <p>
+ * {@code nextPageToken} is an opaque string carrying that key; pass it back unchanged to fetch
+ * the following page. It is {@code null} on the last page. Rows inserted or deleted between
+ * requests do not shift later pages, since a token names a position in the ordering rather than
+ * a row count.
+ */
+public record Page<T>(List<T> items, String nextPageToken) {
+
+    public Page {
+        items = List.copyOf(items);
+    }
+
+    public boolean hasNext() {
+        return nextPageToken != null;
+    }
+
+    static void checkPageSize(int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("pageSize must be >= 1");
+        }
+    }
+
+    /**
+     * Builds a page from {@code rows} fetched with {@code LIMIT pageSize + 1}: the extra row only
+     * signals that another page exists.
+     *
+     * @param ordering name of the sort order, checked again by {@link #decodeToken}
+     * @param sortKey  sort key values of a row, in {@code ORDER BY} order
+     */
+    static <T> Page<T> of(List<T> rows, int pageSize, String ordering, Function<T, List<?>> sortKey) {
+        if (rows.size() <= pageSize) {
+            return new Page<>(rows, null);
+        }
+        List<T> items = rows.subList(0, pageSize);
+        return new Page<>(items, encodeToken(ordering, sortKey.apply(items.get(pageSize - 1))));
+    }
+
+    static String encodeToken(String ordering, List<?> sortKey) {
+        StringBuilder token = new StringBuilder(ordering);
+        for (Object value : sortKey) {
+            token.append('|').append(value);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the sort key values carried by {@code token}.
+     *
+     * @throws IllegalArgumentException if the token is malformed or was issued for another
+     *                                  ordering
+     */
+    static String[] decodeToken(String token, String ordering, int keyCount) {
+        Objects.requireNonNull(token, "token must not be null");
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", -1);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page token", e);
+        }
+        if (parts.length != keyCount + 1 || !parts[0].equals(ordering)) {
+            throw new IllegalArgumentException("Invalid page token for ordering " + ordering);
+        }
+        String[] keys = new String[keyCount];
+        System.arraycopy(parts, 1, keys, 0, keyCount);
+        return keys;
+    }
+}
@@ -0,0 +1,241 @@
+package com.github.msorkhpar.claudejavatutor.javapersistence;
+
+import com.github.msorkhpar.claudejavatutor.base.MetricsRegistry;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Shared cache of query results keyed by SQL plus parameters, for aggregate and report queries
+ * that are read far more often than their tables change.
+ * <p>
+ * Each entry is tagged with the tables its query reads. Writers call {@link #invalidate} with the
+ * tables they changed after committing, which drops exactly the entries tagged with one of them;
+ * entries over other tables stay. A result that was being loaded while one of its tables was
+ * invalidated is returned to its caller but not cached, since it may already be stale. Entries
+ * also expire {@code ttl} after they were loaded, which bounds staleness for writes that bypass
+ * the cache (other processes, bulk loads), and the least recently used entry is evicted beyond
+ * {@code maxSize}.
+ * <pre>{@code
+ * return queryCache.get(sql, Set.of("employees"), () -> runQuery(sql, department), department);
+ * ...
+ * queryCache.invalidate("employees"); // after every committed write to employees
+ * }</pre>
+ * Cached values are shared between callers and must be immutable. Table names are compared
+ * ignoring case. Thread-safe. Hit, miss, eviction and invalidation counts are exported per
+ * {@code region}.
+ */
+public class QueryCache {
+
+    /**
+     * Runs the query on a miss.
+     */
+    @FunctionalInterface
+    public interface Query<T> {
+        T run() throws SQLException;
+    }
+
+    private record Key(String sql, List<Object> params) {
+    }
+
+    private record Entry(Object value, Set<String> tables, long expiresAt) {
+    }
+
+    private final String region;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Set<Key>> keysByTable = new HashMap<>();
+    // Bumped on every invalidation of the table; a load only caches if its tables' sum is unchanged
+    private final Map<String, Long> tableVersions = new HashMap<>();
+    private long clears;
+
+    private final MetricsRegistry.Counter hits;
+    private final MetricsRegistry.Counter misses;
+    private final MetricsRegistry.Counter sizeEvictions;
+    private final MetricsRegistry.Counter expirations;
+    private final MetricsRegistry.Counter invalidations;
+
+    /**
+     * @param region name used as the {@code region} metric label
+     * @param ttl    how long an entry is served after it was loaded
+     */
+    public QueryCache(String region, int maxSize, Duration ttl, MetricsRegistry metrics) {
+        this.region = Objects.requireNonNull(region, "region must not be null");
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be >= 1");
+        }
+        Objects.requireNonNull(ttl, "ttl must not be null");
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        Objects.requireNonNull(metrics, "metrics must not be null");
+        this.hits = metrics.counter("query_cache_hits_total", "Query cache hits", "region", region);
+        this.misses = metrics.counter("query_cache_misses_total", "Query cache misses", "region", region);
+        this.sizeEvictions = metrics.counter("query_cache_evictions_total", "Entries removed before invalidation",
+                "region", region, "reason", "size");
+        this.expirations = metrics.counter("query_cache_evictions_total", "Entries removed before invalidation",
+                "region", region, "reason", "ttl");
+        this.invalidations = metrics.counter("query_cache_invalidated_entries_total",
+                "Entries dropped because a table they read was written", "region", region);
+        metrics.gauge("query_cache_size", "Entries currently cached", this::size, "region", region);
+        metrics.gauge("query_cache_hit_ratio", "Hits as a fraction of lookups", this::getHitRatio,
+                "region", region);
+    }
+
+    /**
+     * Returns the cached result of {@code sql} with {@code params}, running {@code query} and
+     * caching its result on a miss. Concurrent misses for the same key each run the query.
+     *
+     * @param tables every table the query reads
+     * @param params the bound parameters; compared with {@code equals}, so arrays do not match
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String sql, Set<String> tables, Query<T> query, Object... params) throws SQLException {
+        Objects.requireNonNull(sql, "sql must not be null");
+        Objects.requireNonNull(query, "query must not be null");
+        if (tables.isEmpty()) {
+            throw new IllegalArgumentException("tables must not be empty");
+        }
+        Key key = new Key(sql, Collections.unmodifiableList(Arrays.asList(params.clone())));
+        Set<String> tags = normalize(tables);
+        long stamp;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt() - System.nanoTime() > 0) {
+                    hits.increment();
+                    return (T) entry.value();
+                }
+                remove(key, entry);
+                expirations.increment();
+            }
+            stamp = versionOf(tags);
+        }
+        misses.increment();
+        T value = query.run();
+        synchronized (this) {
+            if (versionOf(tags) == stamp) {
+                put(key, new Entry(value, tags, System.nanoTime() + ttlNanos));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Drops every entry that read one of {@code tables}. Call after the write has committed.
+     */
+    public synchronized void invalidate(String... tables) {
+        for (String table : tables) {
+            String tag = table.toLowerCase(Locale.ROOT);
+            tableVersions.merge(tag, 1L, Long::sum);
+            Set<Key> keys = keysByTable.remove(tag);
+            if (keys == null) {
+                continue;
+            }
+            for (Key key : keys) {
+                Entry entry = entries.remove(key);
+                if (entry != null) {
+                    untag(key, entry);
+                    invalidations.increment();
+                }
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        clears++;
+        entries.clear();
+        keysByTable.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Hits divided by lookups, or 0 before the first lookup.
+     */
+    public double getHitRatio() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    private void put(Key key, Entry entry) {
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            untag(key, previous);
+        }
+        for (String tag : entry.tables()) {
+            keysByTable.computeIfAbsent(tag, t -> new HashSet<>()).add(key);
+        }
+        if (entries.size() > maxSize) {
+            Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+            Map.Entry<Key, Entry> evicted = eldest.next();
+            eldest.remove();
+            untag(evicted.getKey(), evicted.getValue());
+            sizeEvictions.increment();
+        }
+    }
+
+    private void remove(Key key, Entry entry) {
+        entries.remove(key);
+        untag(key, entry);
+    }
+
+    private void untag(Key key, Entry entry) {
+        for (String tag : entry.tables()) {
+            Set<Key> keys = keysByTable.get(tag);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                keysByTable.remove(tag);
+            }
+        }
+    }
+
+    private long versionOf(Set<String> tags) {
+        long version = clears;
+        for (String tag : tags) {
+            version += tableVersions.getOrDefault(tag, 0L);
+        }
+        return version;
+    }
+
+    private static Set<String> normalize(Set<String> tables) {
+        Set<String> tags = new HashSet<>(tables.size() * 2);
+        for (String table : tables) {
+            tags.add(table.toLowerCase(Locale.ROOT));
+        }
+        return Set.copyOf(tags);
+    }
+
+    @Override
+    public String toString() {
+        return "QueryCache{region=%s, size=%d, hitRatio=%.2f}".formatted(region, size(), getHitRatio());
+    }
+}
@@ -0,0 +1,230 @@
+package com.github.msorkhpar.claudejavatutor.javapersistence;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * {@link RowMapper} for a record type that is compiled once instead of resolving columns by name
+ * for every cell.
+ * <p>
+ * Mapping by hand with {@code rs.getInt("id")} makes the driver search the column labels for
+ * every cell of every row, and reflective mappers add {@code Constructor.newInstance} and boxing
+ * on top. This mapper does the expensive parts once:
+ * <ul>
+ *   <li>per record type, the components are inspected and a single {@link MethodHandle} is built
+ *       that reads each component with its typed getter ({@code getInt}, {@code getString},
+ *       ...) by column index and passes the values straight to the canonical constructor, with
+ *       no boxing of primitive components;</li>
+ *   <li>per query, {@link #forResultSet(ResultSet)} resolves each component's column index from
+ *       {@link ResultSetMetaData} once and returns a mapper bound to those indexes.</li>
+ * </ul>
+ * A component matches the column whose label equals its name or its snake_case form, ignoring
+ * case, so {@code categoryId} reads {@code category_id}. Components of type {@code int},
+ * {@code long}, {@code double}, {@code float}, {@code boolean}, {@code short}, {@code byte},
+ * {@link String}, {@link BigDecimal} and {@code byte[]} use the matching getter; anything else,
+ * including boxed primitives that should read {@code NULL} as {@code null}, uses
+ * {@link ResultSet#getObject(int, Class)}.
+ * <pre>{@code
+ * private static final RecordRowMapper<Employee> EMPLOYEES = RowMapper.forRecord(Employee.class);
+ *
+ * RowMapper<Employee> mapper = EMPLOYEES.forResultSet(rs);
+ * while (rs.next()) {
+ *     employees.add(mapper.mapRow(rs));
+ * }
+ * }</pre>
+ * Instances are immutable and thread-safe.
+ */
+public final class RecordRowMapper<R extends Record> implements RowMapper<R> {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final Map<Class<?>, String> GETTERS = Map.ofEntries(
+            Map.entry(int.class, "getInt"),
+            Map.entry(long.class, "getLong"),
+            Map.entry(double.class, "getDouble"),
+            Map.entry(float.class, "getFloat"),
+            Map.entry(boolean.class, "getBoolean"),
+            Map.entry(short.class, "getShort"),
+            Map.entry(byte.class, "getByte"),
+            Map.entry(String.class, "getString"),
+            Map.entry(BigDecimal.class, "getBigDecimal"),
+            Map.entry(byte[].class, "getBytes")
+    );
+
+    private static final ClassValue<RecordRowMapper<?>> MAPPERS = new ClassValue<>() {
+        @Override
+        protected RecordRowMapper<?> computeValue(Class<?> type) {
+            return new RecordRowMapper<>(type.asSubclass(Record.class), LOOKUP);
+        }
+    };
+
+    private final Class<R> type;
+    private final String[] names;
+    private final String[] columnNames;
+    /**
+     * {@code (ResultSet, int[] columnIndexes) -> R}.
+     */
+    private final MethodHandle constructor;
+
+    private RecordRowMapper(Class<R> type, MethodHandles.Lookup lookup) {
+        if (!type.isRecord()) {
+            throw new IllegalArgumentException(type.getName() + " is not a record");
+        }
+        this.type = type;
+        RecordComponent[] components = type.getRecordComponents();
+        this.names = new String[components.length];
+        this.columnNames = new String[components.length];
+        Class<?>[] componentTypes = new Class<?>[components.length];
+        for (int i = 0; i < components.length; i++) {
+            names[i] = components[i].getName();
+            columnNames[i] = toSnakeCase(names[i]);
+            componentTypes[i] = components[i].getType();
+        }
+        try {
+            this.constructor = compile(type, componentTypes, lookup);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Cannot access the canonical constructor of " + type.getName(), e);
+        }
+    }
+
+    /**
+     * Returns the shared mapper for {@code type}, compiling it on first use.
+     *
+     * @throws IllegalArgumentException if {@code type} is not a record, is not accessible from
+     *                                  this package, or has a {@code char} component
+     */
+    @SuppressWarnings("unchecked")
+    public static <R extends Record> RecordRowMapper<R> of(Class<R> type) {
+        return (RecordRowMapper<R>) MAPPERS.get(Objects.requireNonNull(type, "type must not be null"));
+    }
+
+    /**
+     * Compiles a new mapper for a record that is not public, using {@code lookup} from a class
+     * that can access its canonical constructor. The result is not cached.
+     */
+    public static <R extends Record> RecordRowMapper<R> of(Class<R> type, MethodHandles.Lookup lookup) {
+        return new RecordRowMapper<>(Objects.requireNonNull(type, "type must not be null"),
+                Objects.requireNonNull(lookup, "lookup must not be null"));
+    }
+
+    public Class<R> getType() {
+        return type;
+    }
+
+    /**
+     * Maps one row, resolving the columns from {@code rs}'s metadata first. Use
+     * {@link #forResultSet(ResultSet)} when mapping more than one row of the same result set.
+     */
+    @Override
+    public R mapRow(ResultSet rs) throws SQLException {
+        return map(rs, resolve(rs.getMetaData()));
+    }
+
+    /**
+     * Resolves the column of every component in {@code rs} and returns a mapper bound to them.
+     *
+     * @throws SQLException if a component has no matching column
+     */
+    @Override
+    public RowMapper<R> forResultSet(ResultSet rs) throws SQLException {
+        int[] columns = resolve(rs.getMetaData());
+        return row -> map(row, columns);
+    }
+
+    @SuppressWarnings("unchecked")
+    private R map(ResultSet rs, int[] columns) throws SQLException {
+        try {
+            Object row = constructor.invokeExact(rs, columns);
+            return (R) row;
+        } catch (SQLException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Failed to construct " + type.getName(), t);
+        }
+    }
+
+    private int[] resolve(ResultSetMetaData meta) throws SQLException {
+        Map<String, Integer> byLabel = new HashMap<>();
+        // Backwards so that the first of several columns with the same label wins
+        for (int i = meta.getColumnCount(); i >= 1; i--) {
+            byLabel.put(meta.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+        }
+        int[] columns = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            Integer column = byLabel.get(names[i].toLowerCase(Locale.ROOT));
+            if (column == null) {
+                column = byLabel.get(columnNames[i]);
+            }
+            if (column == null) {
+                throw new SQLException("No column " + columnNames[i] + " for " + type.getSimpleName() + "." + names[i]);
+            }
+            columns[i] = column;
+        }
+        return columns;
+    }
+
+    /**
+     * Builds {@code (rs, columns) -> new R(get_0(rs, columns[0]), ..., get_n(rs, columns[n]))}.
+     */
+    private static MethodHandle compile(Class<?> type, Class<?>[] componentTypes, MethodHandles.Lookup lookup)
+            throws ReflectiveOperationException {
+        MethodHandle target = lookup.findConstructor(type, MethodType.methodType(void.class, componentTypes));
+        MethodHandle element = MethodHandles.arrayElementGetter(int[].class);
+        // Last to first, so the positions of the components not yet replaced stay put
+        for (int i = componentTypes.length - 1; i >= 0; i--) {
+            MethodHandle column = MethodHandles.insertArguments(element, 1, i);
+            MethodHandle read = MethodHandles.filterArguments(getter(componentTypes[i]), 1, column);
+            target = MethodHandles.collectArguments(target, i, read);
+        }
+        int[] reorder = new int[componentTypes.length * 2];
+        for (int i = 0; i < reorder.length; i += 2) {
+            reorder[i + 1] = 1;
+        }
+        MethodType mapperType = MethodType.methodType(type, ResultSet.class, int[].class);
+        return MethodHandles.permuteArguments(target, mapperType, reorder)
+                .asType(MethodType.methodType(Object.class, ResultSet.class, int[].class));
+    }
+
+    /**
+     * {@code (ResultSet, int) -> componentType}.
+     */
+    private static MethodHandle getter(Class<?> componentType) throws ReflectiveOperationException {
+        String getter = GETTERS.get(componentType);
+        if (getter != null) {
+            return LOOKUP.findVirtual(ResultSet.class, getter, MethodType.methodType(componentType, int.class));
+        }
+        if (componentType.isPrimitive()) {
+            throw new IllegalArgumentException("Unsupported component type " + componentType);
+        }
+        MethodHandle getObject = LOOKUP.findVirtual(ResultSet.class, "getObject",
+                MethodType.methodType(Object.class, int.class, Class.class));
+        return MethodHandles.insertArguments(getObject, 2, componentType)
+                .asType(MethodType.methodType(componentType, ResultSet.class, int.class));
+    }
+
+    private static String toSnakeCase(String name) {
+        StringBuilder snake = new StringBuilder(name.length() + 4);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isUpperCase(c)) {
+                if (i > 0) {
+                    snake.append('_');
+                }
+                snake.append(Character.toLowerCase(c));
+            } else {
+                snake.append(c);
+            }
+        }
+        return snake.toString();
+    }
+}
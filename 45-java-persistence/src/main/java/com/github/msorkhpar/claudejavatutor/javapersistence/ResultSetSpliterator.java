@@ -0,0 +1,203 @@
+package com.github.msorkhpar.claudejavatutor.javapersistence;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link Spliterator} over a forward-only, read-only {@link ResultSet} that maps one row per
+ * {@link #tryAdvance} call, so a query of any size is consumed in constant memory: only the
+ * driver's fetch buffer of {@code fetchSize} rows is held at a time.
+ * <p>
+ * The spliterator owns its connection, statement and result set. They are released when the
+ * stream is closed, when the last row has been read, or when reading fails, whichever happens
+ * first. Streams returned by {@link #stream} should still be used in try-with-resources, since a
+ * short-circuiting operation such as {@code findFirst} stops before the end:
+ * <pre>{@code
+ * try (Stream<Employee> employees = jdbc.streamAll()) {
+ *     employees.filter(Employee::active).forEach(...);
+ * }
+ * }</pre>
+ * Auto-commit is switched off while the stream is open because some drivers (PostgreSQL among
+ * them) ignore the fetch size and buffer the whole result otherwise. It is restored on close.
+ * <p>
+ * The spliterator never splits; a parallel stream over it still reads the cursor from one
+ * thread and only parallelises the downstream stages.
+ */
+public final class ResultSetSpliterator<T> implements Spliterator<T>, AutoCloseable {
+
+    public static final int DEFAULT_FETCH_SIZE = 1_000;
+
+    private final Connection connection;
+    private final PreparedStatement statement;
+    private final ResultSet resultSet;
+    private final RowMapper<T> mapper;
+    private final boolean restoreAutoCommit;
+    private boolean closed;
+
+    private ResultSetSpliterator(Connection connection, PreparedStatement statement, ResultSet resultSet,
+                                 RowMapper<T> mapper, boolean restoreAutoCommit) {
+        this.connection = connection;
+        this.statement = statement;
+        this.resultSet = resultSet;
+        this.mapper = mapper;
+        this.restoreAutoCommit = restoreAutoCommit;
+    }
+
+    /**
+     * Runs {@code sql} on a connection from {@code dataSource} and returns a lazy stream of its
+     * rows. The query is executed before this method returns, so connection and SQL errors
+     * surface here as {@link SQLException}; errors while reading rows surface as
+     * {@link UncheckedSQLException}.
+     *
+     * @param fetchSize rows the driver fetches per round trip
+     * @param params    values bound in order with {@link PreparedStatement#setObject(int, Object)}
+     */
+    public static <T> Stream<T> stream(DataSource dataSource, String sql, int fetchSize,
+                                       RowMapper<T> mapper, Object... params) throws SQLException {
+        Objects.requireNonNull(dataSource, "dataSource must not be null");
+        Objects.requireNonNull(sql, "sql must not be null");
+        Objects.requireNonNull(mapper, "mapper must not be null");
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("fetchSize must be positive");
+        }
+        Connection conn = dataSource.getConnection();
+        PreparedStatement pstmt = null;
+        boolean restoreAutoCommit = false;
+        try {
+            if (conn.getAutoCommit()) {
+                conn.setAutoCommit(false);
+                restoreAutoCommit = true;
+            }
+            pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            pstmt.setFetchSize(fetchSize);
+            for (int i = 0; i < params.length; i++) {
+                pstmt.setObject(i + 1, params[i]);
+            }
+            ResultSet rs = pstmt.executeQuery();
+            ResultSetSpliterator<T> spliterator =
+                    new ResultSetSpliterator<>(conn, pstmt, rs, mapper.forResultSet(rs), restoreAutoCommit);
+            return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+        } catch (SQLException | RuntimeException e) {
+            try {
+                if (pstmt != null) {
+                    pstmt.close();
+                }
+                if (restoreAutoCommit) {
+                    conn.setAutoCommit(true);
+                }
+                conn.close();
+            } catch (SQLException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        Objects.requireNonNull(action, "action must not be null");
+        if (closed) {
+            return false;
+        }
+        T row;
+        try {
+            if (!resultSet.next()) {
+                close();
+                return false;
+            }
+            row = mapper.mapRow(resultSet);
+        } catch (SQLException e) {
+            UncheckedSQLException failure = new UncheckedSQLException("Failed to read row", e);
+            closeSuppressing(failure);
+            throw failure;
+        }
+        action.accept(row);
+        return true;
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+
+    /**
+     * Returns {@code true} once the underlying connection has been released.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Closes the result set and statement and releases the connection. Idempotent.
+     *
+     * @throws UncheckedSQLException if the driver fails to close any of them; the connection is
+     *                               released regardless
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        SQLException failure = null;
+        try {
+            resultSet.close();
+        } catch (SQLException e) {
+            failure = e;
+        }
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            failure = chain(failure, e);
+        }
+        if (restoreAutoCommit) {
+            try {
+                connection.setAutoCommit(true);
+            } catch (SQLException e) {
+                failure = chain(failure, e);
+            }
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            failure = chain(failure, e);
+        }
+        if (failure != null) {
+            throw new UncheckedSQLException("Failed to release result set resources", failure);
+        }
+    }
+
+    private void closeSuppressing(RuntimeException primary) {
+        try {
+            close();
+        } catch (UncheckedSQLException e) {
+            primary.addSuppressed(e.getCause());
+        }
+    }
+
+    private static SQLException chain(SQLException first, SQLException next) {
+        if (first == null) {
+            return next;
+        }
+        first.addSuppressed(next);
+        return first;
+    }
+}
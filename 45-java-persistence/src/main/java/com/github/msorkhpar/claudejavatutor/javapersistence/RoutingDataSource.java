@@ -0,0 +1,450 @@
+package com.github.msorkhpar.claudejavatutor.javapersistence;
+
+import com.github.msorkhpar.claudejavatutor.base.MetricsRegistry;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * {@link DataSource} over one primary and any number of read replicas.
+ * <p>
+ * {@link #getConnection()} always returns a primary connection, so anything that only knows the
+ * plain {@code DataSource} contract, including every {@link TransactionControl} transaction and
+ * every write, runs on the primary. Read-only work asks for a replica explicitly through
+ * {@link #getReadConnection()}, or through the {@link #readDataSource()} view that
+ * {@link #readsOf(DataSource)} returns; {@link JdbcOperations} and
+ * {@link OrmPatterns.ProductRepository} use that view for their read-only queries. Replicas
+ * apply the primary's writes asynchronously, so a read may not yet see a write that has just
+ * committed. For that reason both classes fill their {@link QueryCache} and {@link EntityCache}
+ * from the primary, so a lagging replica cannot put a pre-write row back into a cache.
+ * <p>
+ * Replicas are chosen by {@link Selection}:
+ * <ul>
+ *   <li>{@link Selection#ROUND_ROBIN} cycles through them;</li>
+ *   <li>{@link Selection#LEAST_LATENCY} picks the one with the lowest moving average of
+ *       statement execution time: the {@code execute*} calls of the statements a routed
+ *       connection creates, so time the caller spends between statements or consuming a result
+ *       set does not count. Every {@value #PROBE_INTERVAL}th pick is round robin, so a replica that was slow once is
+ *       measured again rather than avoided forever. A replica that fails to hand out a
+ *       connection counts as infinitely slow until one of those probes succeeds again, so a
+ *       replica that is down is not picked first on every read.</li>
+ * </ul>
+ * If the chosen replica cannot hand out a connection, the others are tried in turn and then the
+ * primary. Connection hold time and statement execution time are exported per target as
+ * {@code routing_datasource_connection_seconds{target}} and
+ * {@code routing_datasource_statement_seconds{target}}, along with acquisition failures.
+ * <pre>{@code
+ * RoutingDataSource routing = RoutingDataSource.builder("primary", primaryPool)
+ *         .replica("replica-1", replicaPool1)
+ *         .replica("replica-2", replicaPool2)
+ *         .selection(RoutingDataSource.Selection.LEAST_LATENCY)
+ *         .build();
+ * JdbcOperations jdbc = new JdbcOperations(routing); // findById on replicas, updateSalary on primary
+ * }</pre>
+ */
+public class RoutingDataSource implements DataSource {
+
+    static final int PROBE_INTERVAL = 16;
+
+    /**
+     * Weight of the newest sample in the moving average of connection hold time.
+     */
+    private static final double ALPHA = 0.2;
+
+    public enum Selection { ROUND_ROBIN, LEAST_LATENCY }
+
+    private final class Target {
+        final String name;
+        final DataSource dataSource;
+        final MetricsRegistry.Timer holdTime;
+        final MetricsRegistry.Timer statementTime;
+        final MetricsRegistry.Counter failures;
+        // Moving average of statement execution time in nanoseconds; 0 until the first sample,
+        // infinite after a failed getConnection until a statement on this target completes
+        volatile double averageNanos;
+
+        Target(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.holdTime = metrics.timer("routing_datasource_connection_seconds",
+                    "Time from borrowing a routed connection to closing it", "target", name);
+            this.statementTime = metrics.timer("routing_datasource_statement_seconds",
+                    "Time spent in execute calls of statements on routed connections", "target", name);
+            this.failures = metrics.counter("routing_datasource_failures_total",
+                    "Failed attempts to obtain a connection", "target", name);
+        }
+
+        Connection open() throws SQLException {
+            Connection conn;
+            try {
+                conn = dataSource.getConnection();
+            } catch (SQLException | RuntimeException e) {
+                failures.increment();
+                averageNanos = Double.POSITIVE_INFINITY;
+                throw e;
+            }
+            return timed(this, conn);
+        }
+
+        void recordStatement(long nanos) {
+            statementTime.record(nanos);
+            double average = averageNanos;
+            // Racy read-modify-write: a lost sample only delays the average slightly
+            averageNanos = average == 0 || Double.isInfinite(average)
+                    ? nanos
+                    : average + ALPHA * (nanos - average);
+        }
+    }
+
+    private final MetricsRegistry metrics;
+    private final Target primary;
+    private final List<Target> replicas;
+    private final Selection selection;
+    private final AtomicLong picks = new AtomicLong();
+    private final DataSource readView = new ReadDataSource();
+    private PrintWriter logWriter;
+
+    private RoutingDataSource(Builder builder) {
+        this.metrics = builder.metrics;
+        this.selection = builder.selection;
+        this.primary = new Target(builder.primaryName, builder.primary);
+        List<Target> targets = new ArrayList<>();
+        builder.replicas.forEach((name, dataSource) -> targets.add(new Target(name, dataSource)));
+        this.replicas = List.copyOf(targets);
+    }
+
+    public static Builder builder(String primaryName, DataSource primary) {
+        return new Builder(primaryName, primary);
+    }
+
+    public static final class Builder {
+        private final String primaryName;
+        private final DataSource primary;
+        private final Map<String, DataSource> replicas = new LinkedHashMap<>();
+        private Selection selection = Selection.ROUND_ROBIN;
+        private MetricsRegistry metrics = new MetricsRegistry();
+
+        private Builder(String primaryName, DataSource primary) {
+            this.primaryName = Objects.requireNonNull(primaryName, "primaryName must not be null");
+            this.primary = Objects.requireNonNull(primary, "primary must not be null");
+        }
+
+        /**
+         * Adds a read replica. Without any, reads go to the primary.
+         */
+        public Builder replica(String name, DataSource replica) {
+            Objects.requireNonNull(name, "name must not be null");
+            Objects.requireNonNull(replica, "replica must not be null");
+            if (name.equals(primaryName) || replicas.putIfAbsent(name, replica) != null) {
+                throw new IllegalArgumentException("Duplicate target name: " + name);
+            }
+            return this;
+        }
+
+        public Builder selection(Selection selection) {
+            this.selection = Objects.requireNonNull(selection, "selection must not be null");
+            return this;
+        }
+
+        public Builder metrics(MetricsRegistry metrics) {
+            this.metrics = Objects.requireNonNull(metrics, "metrics must not be null");
+            return this;
+        }
+
+        public RoutingDataSource build() {
+            return new RoutingDataSource(this);
+        }
+    }
+
+    /**
+     * Returns the view of {@code dataSource} that read-only queries should use: the replicas of a
+     * {@link RoutingDataSource}, or {@code dataSource} itself for any other data source.
+     */
+    public static DataSource readsOf(DataSource dataSource) {
+        return dataSource instanceof RoutingDataSource routing ? routing.readDataSource() : dataSource;
+    }
+
+    /**
+     * Returns a connection to the primary.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        return primary.open();
+    }
+
+    /**
+     * Returns a connection to a replica chosen by the configured {@link Selection}, falling back
+     * to the other replicas and finally to the primary if it cannot connect.
+     */
+    public Connection getReadConnection() throws SQLException {
+        if (replicas.isEmpty()) {
+            return primary.open();
+        }
+        int first = select();
+        SQLException failure = null;
+        for (int i = 0; i < replicas.size(); i++) {
+            try {
+                return replicas.get((first + i) % replicas.size()).open();
+            } catch (SQLException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        try {
+            return primary.open();
+        } catch (SQLException e) {
+            e.addSuppressed(failure);
+            throw e;
+        }
+    }
+
+    /**
+     * A {@link DataSource} whose {@link DataSource#getConnection()} is {@link #getReadConnection()}.
+     */
+    public DataSource readDataSource() {
+        return readView;
+    }
+
+    /**
+     * Moving average of statement execution time on {@code target}, in milliseconds, 0 before the
+     * first statement completed, or infinite while the target is failing.
+     *
+     * @throws IllegalArgumentException if there is no target with that name
+     */
+    public double getAverageLatencyMillis(String target) {
+        return target(target).averageNanos / 1_000_000.0;
+    }
+
+    /**
+     * Connections handed out by {@code target} and closed so far.
+     */
+    public long getConnectionCount(String target) {
+        return target(target).holdTime.count();
+    }
+
+    public Selection getSelection() {
+        return selection;
+    }
+
+    private Target target(String name) {
+        if (primary.name.equals(name)) {
+            return primary;
+        }
+        for (Target replica : replicas) {
+            if (replica.name.equals(name)) {
+                return replica;
+            }
+        }
+        throw new IllegalArgumentException("No target named " + name);
+    }
+
+    private int select() {
+        long pick = picks.getAndIncrement();
+        int roundRobin = (int) (pick % replicas.size());
+        if (selection == Selection.ROUND_ROBIN || pick % PROBE_INTERVAL == 0) {
+            return roundRobin;
+        }
+        int best = 0;
+        double bestNanos = Double.MAX_VALUE;
+        for (int i = 0; i < replicas.size(); i++) {
+            double nanos = replicas.get(i).averageNanos;
+            if (nanos < bestNanos) {
+                best = i;
+                bestNanos = nanos;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Wraps {@code conn} so that closing it records how long it was held, and so that the
+     * statements it creates record how long they execute.
+     */
+    private static Connection timed(Target target, Connection conn) {
+        long openedAt = System.nanoTime();
+        boolean[] closed = {false};
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close" -> {
+                            if (!closed[0]) {
+                                closed[0] = true;
+                                target.holdTime.record(System.nanoTime() - openedAt);
+                            }
+                        }
+                        case "createStatement", "prepareStatement", "prepareCall" -> {
+                            Object statement = invoke(conn, method, args);
+                            return timed(target, (Connection) proxy, method.getReturnType(), statement);
+                        }
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        case "toString" -> {
+                            return "Routed[" + target.name + ", " + conn + "]";
+                        }
+                        default -> {
+                        }
+                    }
+                    return invoke(conn, method, args);
+                });
+    }
+
+    /**
+     * Wraps {@code statement}, a {@code Statement} or one of its subinterfaces, so that its
+     * {@code execute*} calls feed {@code target}'s moving average.
+     */
+    private static Object timed(Target target, Connection owner, Class<?> type, Object statement) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getConnection" -> {
+                    return owner;
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                }
+            }
+            if (!method.getName().startsWith("execute")) {
+                return invoke(statement, method, args);
+            }
+            long start = System.nanoTime();
+            try {
+                return invoke(statement, method, args);
+            } finally {
+                target.recordStatement(System.nanoTime() - start);
+            }
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Not supported: targets use the credentials they were configured with.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Routed connections use each target's credentials");
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return logWriter;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        this.logWriter = out;
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        primary.dataSource.setLoginTimeout(seconds);
+        for (Target replica : replicas) {
+            replica.dataSource.setLoginTimeout(seconds);
+        }
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return primary.dataSource.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException("java.util.logging is not used");
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    /**
+     * Read-only view handed to {@link ResultSetSpliterator} and other code that takes a
+     * {@link DataSource}.
+     */
+    private final class ReadDataSource implements DataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return getReadConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return RoutingDataSource.this.getConnection(username, password);
+        }
+
+        @Override
+        public PrintWriter getLogWriter() {
+            return RoutingDataSource.this.getLogWriter();
+        }
+
+        @Override
+        public void setLogWriter(PrintWriter out) {
+            RoutingDataSource.this.setLogWriter(out);
+        }
+
+        @Override
+        public void setLoginTimeout(int seconds) throws SQLException {
+            RoutingDataSource.this.setLoginTimeout(seconds);
+        }
+
+        @Override
+        public int getLoginTimeout() throws SQLException {
+            return RoutingDataSource.this.getLoginTimeout();
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            return RoutingDataSource.this.getParentLogger();
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> iface) throws SQLException {
+            return RoutingDataSource.this.unwrap(iface);
+        }
+
+        @Override
+        public boolean isWrapperFor(Class<?> iface) {
+            return RoutingDataSource.this.isWrapperFor(iface);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.github.msorkhpar.claudejavatutor.javapersistence;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps the current row of a {@link ResultSet} to an object. Implementations must not move the
+ * cursor.
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    T mapRow(ResultSet rs) throws SQLException;
+
+    /**
+     * Returns a mapper specialised for the rows of {@code rs}, to be used for every row of that
+     * result set. Mappers that resolve columns by name do it here once per query instead of once
+     * per cell. The default returns {@code this}.
+     */
+    default RowMapper<T> forResultSet(ResultSet rs) throws SQLException {
+        return this;
+    }
+
+    /**
+     * Returns the shared {@link RecordRowMapper} for {@code type}.
+     */
+    static <R extends Record> RecordRowMapper<R> forRecord(Class<R> type) {
+        return RecordRowMapper.of(type);
+    }
+}
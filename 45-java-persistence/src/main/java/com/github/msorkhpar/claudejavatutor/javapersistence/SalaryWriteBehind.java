@@ -0,0 +1,434 @@
+package com.github.msorkhpar.claudejavatutor.javapersistence;
+
+import com.github.msorkhpar.claudejavatutor.base.MetricsRegistry;
+import com.github.msorkhpar.claudejavatutor.javapersistence.JdbcOperations.Employee;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Write-behind buffer for {@link JdbcOperations#updateSalary(int, double)}.
+ * <p>
+ * A payroll recalculation that calls {@code updateSalary} per change pays one round trip and
+ * one commit per call, and writes the same row many times when an employee is touched
+ * repeatedly. This buffer keeps only the latest salary per employee id in memory and a single
+ * flusher thread writes the buffered ids as one JDBC batch in one transaction when either
+ * <ul>
+ *   <li>{@code maxPending} distinct ids are buffered (size trigger), or</li>
+ *   <li>the oldest buffered write has waited {@code flushInterval} (time trigger).</li>
+ * </ul>
+ * When {@code maxPending} ids are buffered while the previous batch is still being written,
+ * {@code updateSalary} for a new id blocks until the flusher takes the buffer, so at most two
+ * batches are held in memory however far the callers outrun the database.
+ * {@link #flush()} and {@link #close()} force a flush, so nothing buffered is lost on an orderly
+ * shutdown. Every {@link #updateSalary(int, double)} returns a future that completes once its
+ * value has been committed (or superseded by a later value for the same id that was), which is
+ * the durability callback: {@code true} if the employee exists, {@code false} if not, or
+ * exceptionally with the {@link SQLException} that failed the batch. Writes whose future has not
+ * completed are lost if the JVM dies.
+ * <p>
+ * {@link #findById(int)} and {@link #findByDepartment(String)} read through the buffer: rows
+ * come from the database and the salaries of buffered or in-flight writes are laid over them,
+ * so a caller always reads back what it wrote. Aggregates such as
+ * {@link JdbcOperations#getAverageSalaryByDepartment(String)} see only committed values.
+ * <pre>{@code
+ * try (SalaryWriteBehind salaries = jdbc.salaryWriteBehind().maxPending(1000).build()) {
+ *     for (Raise raise : raises) {
+ *         salaries.updateSalary(raise.employeeId(), raise.newSalary());
+ *     }
+ * } // flushes whatever is still buffered
+ * }</pre>
+ */
+public final class SalaryWriteBehind implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_PENDING = 1_000;
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofMillis(100);
+
+    private static final String UPDATE_SQL = "UPDATE employees SET salary = ? WHERE id = ?";
+
+    /**
+     * Latest buffered salary for one id; the future is shared by every write it absorbed.
+     */
+    private static final class PendingWrite {
+        private double salary;
+        private final long bufferedAt = System.nanoTime();
+        private final CompletableFuture<Boolean> written = new CompletableFuture<>();
+
+        private PendingWrite(double salary) {
+            this.salary = salary;
+        }
+    }
+
+    private final JdbcOperations jdbc;
+    private final int maxPending;
+    private final long flushIntervalNanos;
+    private final Thread flusher;
+
+    private final Object lock = new Object();
+    private LinkedHashMap<Integer, PendingWrite> pending = new LinkedHashMap<>();
+    private Map<Integer, PendingWrite> inFlight = Map.of();
+    private boolean flushRequested;
+    private boolean closed;
+
+    private final MetricsRegistry.Counter updates;
+    private final MetricsRegistry.Counter coalesced;
+    private final MetricsRegistry.Counter rowsWritten;
+    private final MetricsRegistry.Counter failedWrites;
+    private final MetricsRegistry.Counter blockedUpdates;
+    private final MetricsRegistry.Counter sizeFlushes;
+    private final MetricsRegistry.Counter timeFlushes;
+    private final MetricsRegistry.Counter explicitFlushes;
+    private final MetricsRegistry.Timer flushTime;
+
+    private SalaryWriteBehind(Builder builder) {
+        this.jdbc = builder.jdbc;
+        this.maxPending = builder.maxPending;
+        this.flushIntervalNanos = builder.flushInterval.toNanos();
+        MetricsRegistry metrics = builder.metrics;
+        this.updates = metrics.counter("salary_write_behind_updates_total", "Salary updates accepted");
+        this.coalesced = metrics.counter("salary_write_behind_coalesced_total",
+                "Updates absorbed by a buffered write for the same id");
+        this.rowsWritten = metrics.counter("salary_write_behind_rows_written_total", "Rows sent to the database");
+        this.failedWrites = metrics.counter("salary_write_behind_failed_writes_total",
+                "Buffered writes lost to a failed flush");
+        this.blockedUpdates = metrics.counter("salary_write_behind_blocked_total",
+                "Updates that waited for the flusher to take a full buffer");
+        this.sizeFlushes = metrics.counter("salary_write_behind_flushes_total", "Flushes by trigger",
+                "trigger", "size");
+        this.timeFlushes = metrics.counter("salary_write_behind_flushes_total", "Flushes by trigger",
+                "trigger", "time");
+        this.explicitFlushes = metrics.counter("salary_write_behind_flushes_total", "Flushes by trigger",
+                "trigger", "explicit");
+        this.flushTime = metrics.timer("salary_write_behind_flush_seconds", "Time to write and commit a flush");
+        metrics.gauge("salary_write_behind_pending", "Distinct ids waiting for the next flush", this::pendingCount);
+        this.flusher = Thread.ofPlatform().name("salary-write-behind").daemon(true).start(this::run);
+    }
+
+    public static Builder builder(JdbcOperations jdbc) {
+        return new Builder(jdbc);
+    }
+
+    public static final class Builder {
+        private final JdbcOperations jdbc;
+        private int maxPending = DEFAULT_MAX_PENDING;
+        private Duration flushInterval = DEFAULT_FLUSH_INTERVAL;
+        private MetricsRegistry metrics = new MetricsRegistry();
+
+        private Builder(JdbcOperations jdbc) {
+            this.jdbc = Objects.requireNonNull(jdbc, "jdbc must not be null");
+        }
+
+        /**
+         * Distinct ids buffered before a flush starts, and before {@code updateSalary} blocks on
+         * a flush still running; also the usual JDBC batch size.
+         */
+        public Builder maxPending(int maxPending) {
+            if (maxPending < 1) {
+                throw new IllegalArgumentException("maxPending must be >= 1");
+            }
+            this.maxPending = maxPending;
+            return this;
+        }
+
+        /**
+         * Longest a buffered write waits before it is flushed regardless of size.
+         */
+        public Builder flushInterval(Duration flushInterval) {
+            Objects.requireNonNull(flushInterval, "flushInterval must not be null");
+            if (flushInterval.isNegative() || flushInterval.isZero()) {
+                throw new IllegalArgumentException("flushInterval must be positive");
+            }
+            this.flushInterval = flushInterval;
+            return this;
+        }
+
+        public Builder metrics(MetricsRegistry metrics) {
+            this.metrics = Objects.requireNonNull(metrics, "metrics must not be null");
+            return this;
+        }
+
+        public SalaryWriteBehind build() {
+            return new SalaryWriteBehind(this);
+        }
+    }
+
+    /**
+     * Buffers a new salary for {@code id}, replacing any value still waiting to be flushed.
+     * Blocks while the buffer is full and the flusher is still writing the previous batch.
+     *
+     * @return a future completing once the value is committed, with whether the employee exists
+     * @throws IllegalStateException if the buffer is closed
+     */
+    public CompletableFuture<Boolean> updateSalary(int id, double newSalary) {
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("SalaryWriteBehind is closed");
+            }
+            PendingWrite write = pending.get(id);
+            if (write == null && pending.size() >= maxPending) {
+                awaitCapacity();
+                write = pending.get(id);
+            }
+            updates.increment();
+            if (write != null) {
+                write.salary = newSalary;
+                coalesced.increment();
+            } else {
+                write = new PendingWrite(newSalary);
+                pending.put(id, write);
+                if (pending.size() >= maxPending || pending.size() == 1) {
+                    lock.notifyAll();
+                }
+            }
+            return write.written.copy();
+        }
+    }
+
+    /**
+     * Waits under {@link #lock} until the flusher takes the full buffer. The flusher itself, when
+     * running a dependent of a future it just completed, is let through because only it could
+     * make room; so is an interrupted caller, with its interrupt status kept.
+     *
+     * @throws IllegalStateException if the buffer is closed while waiting
+     */
+    private void awaitCapacity() {
+        if (Thread.currentThread() == flusher) {
+            return;
+        }
+        blockedUpdates.increment();
+        while (pending.size() >= maxPending && !closed) {
+            try {
+                lock.wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        if (closed) {
+            throw new IllegalStateException("SalaryWriteBehind is closed");
+        }
+    }
+
+    /**
+     * Salary buffered or being written for {@code id}, if any.
+     */
+    public OptionalDouble pendingSalary(int id) {
+        synchronized (lock) {
+            PendingWrite write = pending.get(id);
+            if (write == null) {
+                write = inFlight.get(id);
+            }
+            return write == null ? OptionalDouble.empty() : OptionalDouble.of(write.salary);
+        }
+    }
+
+    /**
+     * {@link JdbcOperations#findById(int)} with the buffered salary, if any, applied.
+     */
+    public Optional<Employee> findById(int id) throws SQLException {
+        // Taken before the query as well: a flush committing while the query runs clears the
+        // buffer, and the query may still have returned the old salary.
+        OptionalDouble before = pendingSalary(id);
+        Optional<Employee> employee = jdbc.findById(id);
+        OptionalDouble after = pendingSalary(id);
+        OptionalDouble salary = after.isPresent() ? after : before;
+        return salary.isPresent() ? employee.map(e -> withSalary(e, salary.getAsDouble())) : employee;
+    }
+
+    /**
+     * {@link JdbcOperations#findByDepartment(String)} with buffered salaries applied.
+     */
+    public List<Employee> findByDepartment(String department) throws SQLException {
+        Map<Integer, Double> overlay = pendingSalaries();
+        List<Employee> employees = jdbc.findByDepartment(department);
+        overlay.putAll(pendingSalaries());
+        if (overlay.isEmpty()) {
+            return employees;
+        }
+        List<Employee> result = new ArrayList<>(employees.size());
+        for (Employee employee : employees) {
+            Double salary = overlay.get(employee.id());
+            result.add(salary == null ? employee : withSalary(employee, salary));
+        }
+        return result;
+    }
+
+    /**
+     * Number of distinct ids waiting for the next flush.
+     */
+    public int pendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Flushes everything buffered and waits until it and any flush already running have
+     * completed. Failures are reported through the futures returned by
+     * {@link #updateSalary(int, double)}, not thrown here.
+     */
+    public void flush() {
+        List<CompletableFuture<Boolean>> outstanding = new ArrayList<>();
+        synchronized (lock) {
+            inFlight.values().forEach(write -> outstanding.add(write.written));
+            pending.values().forEach(write -> outstanding.add(write.written));
+            if (!pending.isEmpty()) {
+                flushRequested = true;
+                lock.notifyAll();
+            }
+        }
+        CompletableFuture.allOf(outstanding.toArray(CompletableFuture[]::new))
+                .handle((ignored, e) -> null)
+                .join();
+    }
+
+    /**
+     * Stops accepting updates, flushes everything buffered and stops the flusher thread.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // --- Flusher ---
+
+    private void run() {
+        while (true) {
+            Map<Integer, PendingWrite> batch;
+            MetricsRegistry.Counter trigger;
+            synchronized (lock) {
+                trigger = awaitTrigger();
+                if (trigger == null) {
+                    return;
+                }
+                batch = pending;
+                pending = new LinkedHashMap<>();
+                inFlight = batch;
+                flushRequested = false;
+                lock.notifyAll(); // callers blocked on a full buffer
+            }
+            trigger.increment();
+            write(batch);
+            synchronized (lock) {
+                inFlight = Map.of();
+            }
+        }
+    }
+
+    /**
+     * Waits under {@link #lock} until a flush is due.
+     *
+     * @return the counter for the trigger that fired, or {@code null} once closed and empty
+     */
+    private MetricsRegistry.Counter awaitTrigger() {
+        while (true) {
+            if (pending.isEmpty()) {
+                if (closed) {
+                    return null;
+                }
+            } else if (closed || flushRequested) {
+                return explicitFlushes;
+            } else if (pending.size() >= maxPending) {
+                return sizeFlushes;
+            }
+            long waitNanos = Long.MAX_VALUE;
+            if (!pending.isEmpty()) {
+                long oldest = pending.firstEntry().getValue().bufferedAt;
+                waitNanos = oldest + flushIntervalNanos - System.nanoTime();
+                if (waitNanos <= 0) {
+                    return timeFlushes;
+                }
+            }
+            try {
+                if (waitNanos == Long.MAX_VALUE) {
+                    lock.wait();
+                } else {
+                    lock.wait(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+                }
+            } catch (InterruptedException e) {
+                closed = true;
+            }
+        }
+    }
+
+    private void write(Map<Integer, PendingWrite> batch) {
+        long start = System.nanoTime();
+        List<Integer> ids = new ArrayList<>(batch.keySet());
+        try {
+            int[] counts = executeBatch(ids, batch);
+            jdbc.employeesChanged();
+            rowsWritten.add(ids.size());
+            for (int i = 0; i < ids.size(); i++) {
+                boolean found = counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO;
+                batch.get(ids.get(i)).written.complete(found);
+            }
+        } catch (SQLException | RuntimeException e) {
+            failedWrites.add(ids.size());
+            batch.values().forEach(write -> write.written.completeExceptionally(e));
+        } finally {
+            flushTime.record(System.nanoTime() - start);
+        }
+    }
+
+    private int[] executeBatch(List<Integer> ids, Map<Integer, PendingWrite> batch) throws SQLException {
+        try (Connection conn = jdbc.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(UPDATE_SQL)) {
+                for (int id : ids) {
+                    pstmt.setDouble(1, batch.get(id).salary);
+                    pstmt.setInt(2, id);
+                    pstmt.addBatch();
+                }
+                int[] counts = pstmt.executeBatch();
+                conn.commit();
+                return counts;
+            } catch (SQLException | RuntimeException e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private Map<Integer, Double> pendingSalaries() {
+        synchronized (lock) {
+            Map<Integer, Double> salaries = new HashMap<>(inFlight.size() + pending.size());
+            inFlight.forEach((id, write) -> salaries.put(id, write.salary));
+            pending.forEach((id, write) -> salaries.put(id, write.salary));
+            return salaries;
+        }
+    }
+
+    private static Employee withSalary(Employee e, double salary) {
+        return new Employee(e.id(), e.name(), e.email(), salary, e.department(), e.active());
+    }
+}
@@ -0,0 +1,188 @@
+package com.github.msorkhpar.claudejavatutor.javapersistence;
+
+import com.github.msorkhpar.claudejavatutor.base.MetricsRegistry;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * LRU cache of prepared statements belonging to one physical connection.
+ * <p>
+ * A statement is checked out of the cache while a caller uses it and checked back in when the
+ * caller closes it, so the same SQL can be open twice on one connection without the two uses
+ * sharing state. Statements whose limits were changed by the caller (fetch size, max rows,
+ * timeout and the like) are closed rather than cached, so the next caller starts from defaults.
+ * <p>
+ * Not thread-safe: the pool hands a connection, and therefore its cache, to one borrower at a time.
+ */
+class StatementCache {
+
+    /**
+     * Setters whose effect would leak into the next caller of a cached statement.
+     */
+    private static final Set<String> STATEFUL_SETTERS = Set.of("setFetchSize", "setFetchDirection",
+            "setMaxRows", "setLargeMaxRows", "setMaxFieldSize", "setQueryTimeout", "setEscapeProcessing",
+            "setPoolable", "setCursorName");
+
+    /**
+     * @param autoGeneratedKeys the {@code prepareStatement(String, int)} flag, or -1 for the
+     *                          single-argument variant
+     */
+    private record Key(String sql, int autoGeneratedKeys) {
+    }
+
+    private final Connection physical;
+    private final int capacity;
+    private final MetricsRegistry.Counter hits;
+    private final MetricsRegistry.Counter misses;
+    private final MetricsRegistry.Counter evictions;
+    private final LinkedHashMap<Key, PreparedStatement> idle;
+
+    StatementCache(Connection physical, int capacity, MetricsRegistry.Counter hits,
+                   MetricsRegistry.Counter misses, MetricsRegistry.Counter evictions) {
+        this.physical = physical;
+        this.capacity = capacity;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.idle = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns a statement for {@code sql} whose {@code close()} hands it back to this cache.
+     *
+     * @param owner the logical connection the statement reports from {@code getConnection()}
+     */
+    PreparedStatement prepare(Connection owner, String sql, int autoGeneratedKeys) throws SQLException {
+        Key key = new Key(sql, autoGeneratedKeys);
+        PreparedStatement statement = idle.remove(key);
+        if (statement != null && !statement.isClosed()) {
+            hits.increment();
+        } else {
+            misses.increment();
+            statement = autoGeneratedKeys < 0
+                    ? physical.prepareStatement(sql)
+                    : physical.prepareStatement(sql, autoGeneratedKeys);
+        }
+        return new Handle(key, statement, owner).proxy;
+    }
+
+    int size() {
+        return idle.size();
+    }
+
+    /**
+     * Closes every cached statement, e.g. before the physical connection is closed.
+     */
+    void clear() {
+        for (PreparedStatement statement : idle.values()) {
+            closeQuietly(statement);
+        }
+        idle.clear();
+    }
+
+    private void checkIn(Key key, PreparedStatement statement, boolean reusable) {
+        if (!reusable) {
+            closeQuietly(statement);
+            return;
+        }
+        try {
+            statement.clearParameters();
+            statement.clearBatch();
+        } catch (SQLException e) {
+            closeQuietly(statement);
+            return;
+        }
+        PreparedStatement previous = idle.put(key, statement);
+        if (previous != null) {
+            // The same SQL was open twice; keep one copy.
+            closeQuietly(previous);
+        }
+        if (idle.size() > capacity) {
+            Iterator<Map.Entry<Key, PreparedStatement>> eldest = idle.entrySet().iterator();
+            closeQuietly(eldest.next().getValue());
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private static void closeQuietly(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            // the connection is probably gone; nothing else to release
+        }
+    }
+
+    /**
+     * Logical statement handed to the caller.
+     */
+    final class Handle implements InvocationHandler {
+        private final Key key;
+        private final PreparedStatement statement;
+        private final Connection owner;
+        final PreparedStatement proxy;
+        private boolean closed;
+        private boolean reusable = true;
+
+        Handle(Key key, PreparedStatement statement, Connection owner) {
+            this.key = key;
+            this.statement = statement;
+            this.owner = owner;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close" -> {
+                    if (!closed) {
+                        closed = true;
+                        checkIn(key, statement, reusable);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return closed || statement.isClosed();
+                }
+                case "getConnection" -> {
+                    return owner;
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Cached[" + statement + "]";
+                }
+                default -> {
+                    if (STATEFUL_SETTERS.contains(name)) {
+                        reusable = false;
+                    }
+                }
+            }
+            if (closed) {
+                throw new SQLException("Statement is closed");
+            }
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.github.msorkhpar.claudejavatutor.javapersistence;
 
+import javax.sql.DataSource;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.DoubleUnaryOperator;
 
 /**
  * Demonstrates transaction management and database concurrency control.
@@ -11,18 +14,20 @@ import java.util.Optional;
  */
 public class TransactionControl {
 
-    private final String url;
-    private final String user;
-    private final String password;
+    private static final RecordRowMapper<Account> ACCOUNTS = RowMapper.forRecord(Account.class);
+
+    private final DataSource dataSource;
 
     public TransactionControl(String url, String user, String password) {
-        this.url = url;
-        this.user = user;
-        this.password = password;
+        this(new DriverManagerDataSource(url, user, password));
+    }
+
+    public TransactionControl(DataSource dataSource) {
+        this.dataSource = Objects.requireNonNull(dataSource, "dataSource must not be null");
     }
 
     public Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(url, user, password);
+        return dataSource.getConnection();
     }
 
     /**
@@ -88,7 +93,7 @@ public class TransactionControl {
             pstmt.setInt(1, id);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return Optional.of(mapAccount(rs));
+                    return Optional.of(ACCOUNTS.mapRow(rs));
                 }
             }
         }
@@ -212,7 +217,7 @@ public class TransactionControl {
                 pstmt.setInt(1, id);
                 try (ResultSet rs = pstmt.executeQuery()) {
                     if (rs.next()) {
-                        return Optional.of(mapAccount(rs));
+                        return Optional.of(ACCOUNTS.mapRow(rs));
                     }
                 }
             }
@@ -291,7 +296,7 @@ public class TransactionControl {
             pstmt.setInt(1, id);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return Optional.of(mapAccount(rs));
+                    return Optional.of(ACCOUNTS.mapRow(rs));
                 }
             }
         }
@@ -356,12 +361,67 @@ public class TransactionControl {
         }
     }
 
-    private Account mapAccount(ResultSet rs) throws SQLException {
-        return new Account(
-                rs.getInt("id"),
-                rs.getString("owner"),
-                rs.getDouble("balance"),
-                rs.getInt("version")
-        );
+    /**
+     * Replaces an account balance with {@code update} applied to the current balance, holding a
+     * FOR UPDATE lock between the read and the write. Bumps the version like
+     * {@link #updateBalanceOptimistic} so optimistic writers notice.
+     *
+     * @return the updated account, or empty if it does not exist
+     */
+    public Optional<Account> updateBalanceWithPessimisticLock(int id, DoubleUnaryOperator update)
+            throws SQLException {
+        Connection conn = null;
+        try {
+            conn = getConnection();
+            conn.setAutoCommit(false);
+
+            Optional<Account> current = findAccountForUpdate(conn, id);
+            if (current.isEmpty()) {
+                conn.rollback();
+                return Optional.empty();
+            }
+            Account account = current.get();
+            double newBalance = update.applyAsDouble(account.balance());
+
+            String sql = "UPDATE accounts SET balance = ?, version = version + 1 WHERE id = ?";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setDouble(1, newBalance);
+                pstmt.setInt(2, id);
+                pstmt.executeUpdate();
+            }
+
+            conn.commit();
+            return Optional.of(new Account(id, account.owner(), newBalance, account.version() + 1));
+        } catch (SQLException | RuntimeException e) {
+            if (conn != null) {
+                conn.rollback();
+            }
+            throw e;
+        } finally {
+            if (conn != null) {
+                conn.setAutoCommit(true);
+                conn.close();
+            }
+        }
+    }
+
+    /**
+     * Returns an {@link OptimisticRetryExecutor} builder for this instance, which retries
+     * {@link #updateBalanceOptimistic} with backoff and falls back to
+     * {@link #updateBalanceWithPessimisticLock} on hot accounts.
+     */
+    public OptimisticRetryExecutor.Builder optimisticRetry() {
+        return OptimisticRetryExecutor.builder(this);
+    }
+
+    // --- Group commit ---
+
+    /**
+     * Returns a {@link TransferEngine} builder for this data source. The engine commits many
+     * queued transfers per transaction instead of one, with the same outcome per transfer as
+     * {@link #transfer(int, int, double)}.
+     */
+    public TransferEngine.Builder transferEngine() {
+        return TransferEngine.builder(dataSource);
     }
 }
@@ -0,0 +1,360 @@
+package com.github.msorkhpar.claudejavatutor.javapersistence;
+
+import com.github.msorkhpar.claudejavatutor.base.MetricsRegistry;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group-commit engine for account transfers.
+ * <p>
+ * {@link TransactionControl#transfer} pays for one commit per transfer, so a burst of payments is
+ * capped by commit (and, on a real database, fsync) latency. This engine queues transfers and a
+ * single committer thread applies everything that queued up while the previous batch was being
+ * written in one transaction:
+ * <ol>
+ *   <li>every account touched by the batch is locked with one {@code SELECT ... FOR UPDATE} in
+ *       ascending id order, the same order {@link TransactionControl#transferWithPessimisticLock}
+ *       uses, so the engine cannot deadlock with it or with itself;</li>
+ *   <li>transfers are applied in submission order against the locked balances in memory, so
+ *       each outcome is exactly what running them one by one would have produced, including
+ *       several transfers drawing on the same account;</li>
+ *   <li>each changed account is written once, its {@code version} is bumped so optimistic
+ *       writers notice, and the batch commits.</li>
+ * </ol>
+ * Under light load batches hold a single transfer and latency matches a direct call; under load
+ * they grow up to {@code maxBatchSize} and throughput scales with batch size rather than with
+ * commits per second. If a batch fails as a whole, its transfers are retried one transaction
+ * each so a single bad transfer only fails its own future.
+ * <pre>{@code
+ * try (TransferEngine engine = txControl.transferEngine().maxBatchSize(256).build()) {
+ *     CompletableFuture<Boolean> done = engine.submit(fromId, toId, 25.00);
+ *     done.join(); // false on insufficient funds or a missing account, like transfer()
+ * }
+ * }</pre>
+ */
+public final class TransferEngine implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+
+    private static final String UPDATE_SQL = "UPDATE accounts SET balance = ?, version = version + 1 WHERE id = ?";
+
+    private record Transfer(int fromId, int toId, BigDecimal amount, CompletableFuture<Boolean> result) {
+    }
+
+    private static final Transfer SHUTDOWN = new Transfer(0, 0, BigDecimal.ZERO, null);
+
+    private final DataSource dataSource;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final BlockingQueue<Transfer> queue = new LinkedBlockingQueue<>();
+    private final Thread committer;
+    private volatile boolean closed;
+
+    private final MetricsRegistry.Counter batches;
+    private final MetricsRegistry.Counter applied;
+    private final MetricsRegistry.Counter rejected;
+    private final MetricsRegistry.Counter failed;
+    private final MetricsRegistry.Counter fallbacks;
+    private final MetricsRegistry.Timer batchTime;
+
+    private TransferEngine(Builder builder) {
+        this.dataSource = builder.dataSource;
+        this.maxBatchSize = builder.maxBatchSize;
+        this.maxDelayNanos = builder.maxDelay.toNanos();
+        MetricsRegistry metrics = builder.metrics;
+        this.batches = metrics.counter("transfer_engine_batches_total", "Batches committed or attempted");
+        this.applied = metrics.counter("transfer_engine_transfers_total", "Transfers by outcome",
+                "outcome", "applied");
+        this.rejected = metrics.counter("transfer_engine_transfers_total", "Transfers by outcome",
+                "outcome", "rejected");
+        this.failed = metrics.counter("transfer_engine_transfers_total", "Transfers by outcome",
+                "outcome", "failed");
+        this.fallbacks = metrics.counter("transfer_engine_fallbacks_total",
+                "Failed batches retried one transfer per transaction");
+        this.batchTime = metrics.timer("transfer_engine_batch_seconds", "Time to lock, apply and commit a batch");
+        metrics.gauge("transfer_engine_queue_depth", "Transfers waiting for the next batch", queue::size);
+        this.committer = Thread.ofPlatform().name("transfer-engine-committer").daemon(true).start(this::run);
+    }
+
+    public static Builder builder(DataSource dataSource) {
+        return new Builder(dataSource);
+    }
+
+    public static final class Builder {
+        private final DataSource dataSource;
+        private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+        private Duration maxDelay = Duration.ZERO;
+        private MetricsRegistry metrics = new MetricsRegistry();
+
+        private Builder(DataSource dataSource) {
+            this.dataSource = Objects.requireNonNull(dataSource, "dataSource must not be null");
+        }
+
+        /**
+         * Most transfers committed together. Each one adds up to two ids to the lock query.
+         */
+        public Builder maxBatchSize(int maxBatchSize) {
+            if (maxBatchSize < 1) {
+                throw new IllegalArgumentException("maxBatchSize must be >= 1");
+            }
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * How long the committer waits for more transfers once it has one. Zero (the default)
+         * batches only what is already queued, which adds no latency when the engine is idle.
+         */
+        public Builder maxDelay(Duration maxDelay) {
+            Objects.requireNonNull(maxDelay, "maxDelay must not be null");
+            if (maxDelay.isNegative()) {
+                throw new IllegalArgumentException("maxDelay must not be negative");
+            }
+            this.maxDelay = maxDelay;
+            return this;
+        }
+
+        public Builder metrics(MetricsRegistry metrics) {
+            this.metrics = Objects.requireNonNull(metrics, "metrics must not be null");
+            return this;
+        }
+
+        public TransferEngine build() {
+            return new TransferEngine(this);
+        }
+    }
+
+    /**
+     * Queues a transfer of {@code amount} from {@code fromId} to {@code toId}.
+     *
+     * @return a future completing with {@code true} once the transfer is committed, {@code false}
+     * if the source lacks funds or either account does not exist, or exceptionally with the
+     * {@link SQLException} that prevented it from being applied
+     * @throws IllegalStateException if the engine is closed
+     */
+    public CompletableFuture<Boolean> submit(int fromId, int toId, double amount) {
+        if (!(amount >= 0)) {
+            throw new IllegalArgumentException("amount must be >= 0");
+        }
+        if (closed) {
+            throw new IllegalStateException("TransferEngine is closed");
+        }
+        Transfer transfer = new Transfer(fromId, toId, BigDecimal.valueOf(amount), new CompletableFuture<>());
+        queue.add(transfer);
+        // close() may have drained the queue for the last time between the check and the add
+        if (closed && queue.remove(transfer)) {
+            throw new IllegalStateException("TransferEngine is closed");
+        }
+        return transfer.result();
+    }
+
+    /**
+     * Number of batches attempted so far; transfers divided by this is the average batch size.
+     */
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    /**
+     * Stops accepting transfers, waits for every queued transfer to be committed and stops the
+     * committer thread.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        queue.add(SHUTDOWN);
+        try {
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // --- Committer ---
+
+    private void run() {
+        List<Transfer> batch = new ArrayList<>(maxBatchSize);
+        boolean shutdown = false;
+        while (!shutdown) {
+            try {
+                shutdown = collect(batch);
+            } catch (InterruptedException e) {
+                shutdown = true;
+            }
+            if (shutdown) {
+                batch.remove(SHUTDOWN);
+                queue.drainTo(batch);
+            }
+            for (int from = 0; from < batch.size(); from += maxBatchSize) {
+                process(batch.subList(from, Math.min(from + maxBatchSize, batch.size())));
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Blocks for the first transfer, then adds whatever else arrives within {@code maxDelay}.
+     *
+     * @return whether the shutdown marker was taken
+     */
+    private boolean collect(List<Transfer> batch) throws InterruptedException {
+        Transfer first = queue.take();
+        if (first == SHUTDOWN) {
+            return true;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            if (batch.contains(SHUTDOWN)) {
+                return true;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() == maxBatchSize || remaining <= 0) {
+                break;
+            }
+            Transfer next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            if (next == SHUTDOWN) {
+                return true;
+            }
+            batch.add(next);
+        }
+        return false;
+    }
+
+    private void process(List<Transfer> batch) {
+        batches.increment();
+        long start = System.nanoTime();
+        try {
+            complete(batch, commit(batch));
+        } catch (SQLException | RuntimeException e) {
+            if (batch.size() == 1) {
+                fail(batch.get(0), e);
+            } else {
+                fallbacks.increment();
+                for (Transfer transfer : batch) {
+                    try {
+                        complete(List.of(transfer), commit(List.of(transfer)));
+                    } catch (SQLException | RuntimeException single) {
+                        fail(transfer, single);
+                    }
+                }
+            }
+        } finally {
+            batchTime.record(System.nanoTime() - start);
+        }
+    }
+
+    private void complete(List<Transfer> batch, boolean[] outcomes) {
+        for (int i = 0; i < batch.size(); i++) {
+            (outcomes[i] ? applied : rejected).increment();
+            batch.get(i).result().complete(outcomes[i]);
+        }
+    }
+
+    private void fail(Transfer transfer, Exception e) {
+        failed.increment();
+        transfer.result().completeExceptionally(e);
+    }
+
+    /**
+     * Applies {@code batch} in one transaction.
+     *
+     * @return per transfer, whether it was applied
+     */
+    private boolean[] commit(List<Transfer> batch) throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                Map<Integer, BigDecimal> balances = lockAccounts(conn, batch);
+                TreeSet<Integer> changed = new TreeSet<>();
+                boolean[] outcomes = new boolean[batch.size()];
+                for (int i = 0; i < batch.size(); i++) {
+                    Transfer t = batch.get(i);
+                    BigDecimal source = balances.get(t.fromId());
+                    if (source == null || !balances.containsKey(t.toId()) || source.compareTo(t.amount()) < 0) {
+                        continue;
+                    }
+                    balances.put(t.fromId(), source.subtract(t.amount()));
+                    balances.merge(t.toId(), t.amount(), BigDecimal::add);
+                    changed.add(t.fromId());
+                    changed.add(t.toId());
+                    outcomes[i] = true;
+                }
+                if (!changed.isEmpty()) {
+                    try (PreparedStatement pstmt = conn.prepareStatement(UPDATE_SQL)) {
+                        for (int id : changed) {
+                            pstmt.setBigDecimal(1, balances.get(id));
+                            pstmt.setInt(2, id);
+                            pstmt.addBatch();
+                        }
+                        pstmt.executeBatch();
+                    }
+                }
+                conn.commit();
+                return outcomes;
+            } catch (SQLException | RuntimeException e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * Locks every account referenced by {@code batch}, lowest id first.
+     *
+     * @return current balances of the accounts that exist
+     */
+    private static Map<Integer, BigDecimal> lockAccounts(Connection conn, List<Transfer> batch) throws SQLException {
+        TreeSet<Integer> ids = new TreeSet<>();
+        for (Transfer t : batch) {
+            ids.add(t.fromId());
+            ids.add(t.toId());
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        String sql = "SELECT id, balance FROM accounts WHERE id IN (" + placeholders + ") ORDER BY id FOR UPDATE";
+        Map<Integer, BigDecimal> balances = new TreeMap<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            for (int id : ids) {
+                pstmt.setInt(index++, id);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    balances.put(rs.getInt("id"), rs.getBigDecimal("balance"));
+                }
+            }
+        }
+        return balances;
+    }
+}
@@ -0,0 +1,24 @@
+package com.github.msorkhpar.claudejavatutor.javapersistence;
+
+import java.sql.SQLException;
+import java.util.Objects;
+
+/**
+ * Wraps an {@link SQLException} thrown where a checked exception cannot propagate, such as
+ * inside a {@link java.util.stream.Stream} pipeline. Mirrors {@link java.io.UncheckedIOException}.
+ */
+public class UncheckedSQLException extends RuntimeException {
+
+    public UncheckedSQLException(String message, SQLException cause) {
+        super(message, Objects.requireNonNull(cause, "cause must not be null"));
+    }
+
+    public UncheckedSQLException(SQLException cause) {
+        super(Objects.requireNonNull(cause, "cause must not be null"));
+    }
+
+    @Override
+    public synchronized SQLException getCause() {
+        return (SQLException) super.getCause();
+    }
+}
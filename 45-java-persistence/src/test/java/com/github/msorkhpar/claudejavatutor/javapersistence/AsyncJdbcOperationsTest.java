@@ -0,0 +1,222 @@
+package com.github.msorkhpar.claudejavatutor.javapersistence;
+
+import com.github.msorkhpar.claudejavatutor.base.MetricsRegistry;
+import com.github.msorkhpar.claudejavatutor.javapersistence.JdbcOperations.Employee;
+import org.junit.jupiter.api.*;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.awaitility.Awaitility.await;
+
+@DisplayName("Async JDBC Operations Tests")
+class AsyncJdbcOperationsTest {
+
+    private static final String URL = "jdbc:h2:mem:asyncjdbc;DB_CLOSE_DELAY=-1";
+
+    private ConnectionPool pool;
+    private JdbcOperations jdbc;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        pool = ConnectionPool.builder(URL, "sa", "").maxSize(4).build();
+        jdbc = new JdbcOperations(pool);
+        jdbc.dropEmployeeTable();
+        jdbc.createEmployeeTable();
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        jdbc.dropEmployeeTable();
+        pool.close();
+    }
+
+    private static boolean awaitRelease(CountDownLatch release) {
+        try {
+            return release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Nested
+    @DisplayName("Operations")
+    class OperationTests {
+
+        @Test
+        @DisplayName("Should insert, query, update and delete through futures")
+        void testCrudRoundTrip() {
+            try (AsyncJdbcOperations async = new AsyncJdbcOperations(jdbc, pool)) {
+                int id = async.insert("Alice", "alice@example.com", 75000, "Engineering").join();
+
+                Optional<Employee> found = async.findById(id).join();
+                assertThat(found).isPresent();
+                assertThat(found.get().name()).isEqualTo("Alice");
+
+                assertThat(async.updateSalary(id, 80000).join()).isTrue();
+                assertThat(async.getAverageSalaryByDepartment("Engineering").join()).contains(80000.0);
+                assertThat(async.deleteById(id).join()).isTrue();
+                assertThat(async.findById(id).join()).isEmpty();
+            }
+        }
+
+        @Test
+        @DisplayName("Independent calls should compose without blocking the caller")
+        void testComposition() {
+            try (AsyncJdbcOperations async = new AsyncJdbcOperations(jdbc, pool)) {
+                async.batchInsert(List.of(
+                        new Employee(0, "Alice", "alice@example.com", 75000, "Engineering", true),
+                        new Employee(0, "Bob", "bob@example.com", 65000, "Engineering", true),
+                        new Employee(0, "Carol", "carol@example.com", 55000, "Sales", true))).join();
+
+                CompletableFuture<Integer> headcount = async.findByDepartment("Engineering")
+                        .thenCombine(async.findByDepartment("Sales"), (eng, sales) -> eng.size() + sales.size());
+
+                assertThat(headcount.join()).isEqualTo(3);
+                assertThat(async.findAll().join()).hasSize(3);
+                assertThat(async.findPage(2, null).join().hasNext()).isTrue();
+            }
+        }
+
+        @Test
+        @DisplayName("Should complete exceptionally with the SQLException")
+        void testFailurePropagates() {
+            MetricsRegistry metrics = new MetricsRegistry();
+            try (AsyncJdbcOperations async = new AsyncJdbcOperations(jdbc, 2, metrics)) {
+                CompletableFuture<Integer> future = async.submit("broken",
+                        ops -> ops.insertWithPreparedStatement(null, null, 1, "X"));
+
+                assertThatThrownBy(future::join)
+                        .isInstanceOf(CompletionException.class)
+                        .hasCauseInstanceOf(SQLException.class);
+            }
+            assertThat(metrics.counter("async_jdbc_failures_total", "").sum()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should complete exceptionally when the call throws an Error")
+        void testErrorPropagates() {
+            try (AsyncJdbcOperations async = new AsyncJdbcOperations(jdbc, 1, new MetricsRegistry())) {
+                CompletableFuture<Integer> future = async.submit("error", ops -> {
+                    throw new AssertionError("boom");
+                });
+
+                assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+                        .hasCauseInstanceOf(AssertionError.class);
+                assertThat(async.findAll().join()).isEmpty();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Concurrency Limit")
+    class LimitTests {
+
+        @Test
+        @DisplayName("Should never run more calls than permits at once")
+        void testBoundsInFlightWork() {
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger peak = new AtomicInteger();
+            try (AsyncJdbcOperations async = new AsyncJdbcOperations(jdbc, 3, new MetricsRegistry())) {
+                List<CompletableFuture<Integer>> futures = new ArrayList<>();
+                for (int i = 0; i < 200; i++) {
+                    futures.add(async.submit("probe", ops -> {
+                        peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        try {
+                            Thread.sleep(1);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        running.decrementAndGet();
+                        return ops.findAll().size();
+                    }));
+                }
+                CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+            }
+            assertThat(peak.get()).isBetween(1, 3);
+        }
+
+        @Test
+        @DisplayName("Should default the limit to the pool size and report queued work")
+        void testQueueMetrics() {
+            CountDownLatch release = new CountDownLatch(1);
+            MetricsRegistry metrics = pool.getMetrics();
+            try (AsyncJdbcOperations async = new AsyncJdbcOperations(jdbc, pool)) {
+                List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+                for (int i = 0; i < 6; i++) {
+                    futures.add(async.submit("blocked", ops -> awaitRelease(release)));
+                }
+
+                await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+                    String exported = metrics.exportPrometheus();
+                    assertThat(exported).contains("async_jdbc_in_flight 4\n");
+                    assertThat(exported).contains("async_jdbc_queued 2\n");
+                });
+
+                release.countDown();
+                CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+            }
+            String exported = metrics.exportPrometheus();
+            assertThat(exported).contains("async_jdbc_queue_wait_seconds");
+            assertThat(exported).contains("async_jdbc_execution_seconds_count{operation=\"blocked\"} 6");
+        }
+
+        @Test
+        @DisplayName("A call cancelled while queued should not run")
+        void testCancelledWhileQueued() throws InterruptedException {
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicInteger ran = new AtomicInteger();
+            try (AsyncJdbcOperations async = new AsyncJdbcOperations(jdbc, 1, new MetricsRegistry())) {
+                CompletableFuture<Boolean> blocker = async.submit("blocker", ops -> {
+                    started.countDown();
+                    return awaitRelease(release);
+                });
+                started.await();
+                CompletableFuture<Integer> queued = async.submit("queued", ops -> ran.incrementAndGet());
+
+                queued.cancel(false);
+                release.countDown();
+                assertThat(blocker.join()).isTrue();
+            }
+            assertThat(ran).hasValue(0);
+        }
+
+        @Test
+        @DisplayName("A dependent stage should run after the permit is released")
+        void testDependentStageHoldsNoPermit() throws Exception {
+            MetricsRegistry metrics = new MetricsRegistry();
+            try (AsyncJdbcOperations async = new AsyncJdbcOperations(jdbc, 1, metrics)) {
+                CountDownLatch release = new CountDownLatch(1);
+                CompletableFuture<Boolean> first = async.submit("first", ops -> awaitRelease(release));
+                // Registered before completion, so it runs on the worker thread that completes first
+                CompletableFuture<Integer> nested = first.thenApply(ignored -> {
+                    assertThat(metrics.exportPrometheus()).contains("async_jdbc_in_flight 0\n");
+                    return async.findAll().join().size();
+                });
+
+                release.countDown();
+                assertThat(nested.get(5, TimeUnit.SECONDS)).isZero();
+            }
+        }
+
+        @Test
+        @DisplayName("Should reject calls after close")
+        void testRejectAfterClose() {
+            AsyncJdbcOperations async = new AsyncJdbcOperations(jdbc, pool);
+            async.close();
+            assertThatThrownBy(() -> async.findAll()).isInstanceOf(RejectedExecutionException.class);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.github.msorkhpar.claudejavatutor.javapersistence;
+
+import org.junit.jupiter.api.*;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Batch Loader Tests")
+class BatchLoaderTest {
+
+    private final List<Set<Integer>> calls = new ArrayList<>();
+
+    /**
+     * Maps even keys to "v{key}" and leaves odd keys out.
+     */
+    private Map<Integer, String> evens(Set<Integer> keys) {
+        calls.add(keys);
+        return keys.stream().filter(k -> k % 2 == 0).collect(Collectors.toMap(k -> k, k -> "v" + k));
+    }
+
+    @Nested
+    @DisplayName("Batching")
+    class BatchingTests {
+
+        @Test
+        @DisplayName("Should not query before dispatch and dedupe keys")
+        void testDeferredAndDeduplicated() {
+            BatchLoader<Integer, String> loader = new BatchLoader<>(BatchLoaderTest.this::evens);
+            CompletableFuture<Optional<String>> a = loader.load(2);
+            CompletableFuture<Optional<String>> b = loader.load(3);
+            CompletableFuture<Optional<String>> again = loader.load(2);
+
+            assertThat(calls).isEmpty();
+            assertThat(again).isSameAs(a);
+
+            loader.dispatch();
+            assertThat(calls).containsExactly(Set.of(2, 3));
+            assertThat(a.join()).contains("v2");
+            assertThat(b.join()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should split large dispatches by max batch size")
+        void testMaxBatchSize() throws SQLException {
+            BatchLoader<Integer, String> loader = new BatchLoader<>(BatchLoaderTest.this::evens, 10);
+            List<Integer> keys = new ArrayList<>();
+            for (int i = 0; i < 25; i++) {
+                keys.add(i);
+            }
+
+            Map<Integer, String> values = loader.loadMany(keys);
+
+            assertThat(loader.getBatchCount()).isEqualTo(3);
+            assertThat(calls).extracting(Set::size).containsExactly(10, 10, 5);
+            assertThat(values).hasSize(13).containsEntry(24, "v24");
+        }
+
+        @Test
+        @DisplayName("Should serve cached keys without another batch until cleared")
+        void testCaching() throws SQLException {
+            BatchLoader<Integer, String> loader = new BatchLoader<>(BatchLoaderTest.this::evens);
+            loader.loadMany(List.of(2, 4));
+            loader.loadMany(List.of(2, 4));
+            assertThat(calls).hasSize(1);
+
+            loader.clear(2);
+            loader.loadMany(List.of(2, 4));
+            assertThat(calls).hasSize(2);
+            assertThat(calls.get(1)).containsExactly(2);
+
+            loader.clearAll();
+            loader.dispatch(); // nothing pending
+            assertThat(calls).hasSize(2);
+        }
+    }
+
+    @Nested
+    @DisplayName("Failures")
+    class FailureTests {
+
+        @Test
+        @DisplayName("Should fail every future of a failed batch and retry on the next load")
+        void testFailure() throws SQLException {
+            SQLException boom = new SQLException("boom");
+            boolean[] fail = {true};
+            BatchLoader<Integer, String> loader = new BatchLoader<>(keys -> {
+                if (fail[0]) {
+                    throw boom;
+                }
+                return evens(keys);
+            });
+
+            CompletableFuture<Optional<String>> future = loader.load(2);
+            loader.dispatch();
+            assertThat(future).isCompletedExceptionally();
+            assertThatThrownBy(() -> loader.loadMany(List.of(4))).isSameAs(boom);
+
+            fail[0] = false;
+            assertThat(loader.loadMany(List.of(2, 4))).containsOnlyKeys(2, 4);
+        }
+
+        @Test
+        @DisplayName("Should reject invalid arguments")
+        void testValidation() {
+            assertThatIllegalArgumentException().isThrownBy(() -> new BatchLoader<>(keys -> Map.of(), 0));
+            assertThatNullPointerException().isThrownBy(() -> new BatchLoader<Integer, String>(null));
+            assertThatNullPointerException()
+                    .isThrownBy(() -> new BatchLoader<Integer, String>(BatchLoaderTest.this::evens).load(null));
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.github.msorkhpar.claudejavatutor.javapersistence;
+
+import com.github.msorkhpar.claudejavatutor.base.MetricsRegistry;
+import com.github.msorkhpar.claudejavatutor.javapersistence.JdbcOperations.Employee;
+import org.junit.jupiter.api.*;
+
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Bulk Loader Tests")
+class BulkLoaderTest {
+
+    private static final String URL = "jdbc:h2:mem:bulkload;DB_CLOSE_DELAY=-1";
+
+    private ConnectionPool pool;
+    private JdbcOperations jdbc;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        pool = ConnectionPool.builder(URL, "sa", "").maxSize(4).build();
+        jdbc = new JdbcOperations(pool);
+        jdbc.dropEmployeeTable();
+        jdbc.createEmployeeTable();
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        jdbc.dropEmployeeTable();
+        pool.close();
+    }
+
+    private static Stream<Employee> employees(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new Employee(0, "Employee " + i, "e" + i + "@test.com", 1000 + i, "Eng", true));
+    }
+
+    private long count() throws SQLException {
+        try (Stream<Employee> all = jdbc.streamAll()) {
+            return all.count();
+        }
+    }
+
+    @Nested
+    @DisplayName("Loading")
+    class LoadingTests {
+
+        @Test
+        @DisplayName("Should load every row with a JDBC batch per chunk")
+        void testBatchedLoad() throws SQLException {
+            BulkLoader.Result result = jdbc.bulkLoader().batchSize(100).build().load(employees(1_050));
+
+            assertThat(result.rows()).isEqualTo(1_050);
+            assertThat(result.chunks()).isEqualTo(11);
+            assertThat(result.chunkLatency().count()).isEqualTo(11);
+            assertThat(result.rowsPerSecond()).isPositive();
+            assertThat(count()).isEqualTo(1_050);
+        }
+
+        @Test
+        @DisplayName("Should load every row with multi-row VALUES and a short last chunk")
+        void testMultiRowValues() throws SQLException {
+            BulkLoader.Result result = jdbc.bulkLoader().batchSize(64).multiRowValues(true).build()
+                    .load(employees(1_000));
+
+            assertThat(result.rows()).isEqualTo(1_000);
+            assertThat(result.chunks()).isEqualTo(16);
+            try (Stream<Employee> all = jdbc.streamAll()) {
+                assertThat(all.mapToDouble(Employee::salary).sum())
+                        .isEqualTo(IntStream.range(0, 1_000).mapToDouble(i -> 1000 + i).sum());
+            }
+        }
+
+        @Test
+        @DisplayName("Should split chunks across parallel writers")
+        void testParallelWriters() throws SQLException {
+            BulkLoader.Result result = jdbc.bulkLoader().batchSize(200).writers(4).multiRowValues(true).build()
+                    .load(employees(10_000));
+
+            assertThat(result.rows()).isEqualTo(10_000);
+            assertThat(count()).isEqualTo(10_000);
+            assertThat(pool.getActiveCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should consume an iterator and export row and chunk metrics")
+        void testIteratorAndMetrics() throws SQLException {
+            AtomicInteger pulled = new AtomicInteger();
+            Iterator<Employee> source = employees(5_000).peek(e -> pulled.incrementAndGet()).iterator();
+            MetricsRegistry metrics = new MetricsRegistry();
+
+            jdbc.bulkLoader().batchSize(50).metrics(metrics).build().load(source);
+
+            assertThat(pulled.get()).isEqualTo(5_000);
+            assertThat(metrics.exportPrometheus())
+                    .contains("bulk_loader_rows_total{table=\"employees\"} 5000\n")
+                    .contains("bulk_loader_chunk_seconds_count{table=\"employees\"} 100\n");
+        }
+
+        @Test
+        @DisplayName("Should load nothing from an empty source")
+        void testEmpty() throws SQLException {
+            BulkLoader.Result result = jdbc.bulkLoader().writers(2).build().load(Stream.empty());
+            assertThat(result.rows()).isZero();
+            assertThat(result.chunks()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Failures and Configuration")
+    class FailureTests {
+
+        @Test
+        @DisplayName("Should stop at a failing chunk and keep the chunks committed before it")
+        void testFailureKeepsCommittedChunks() {
+            Stream<Employee> rows = Stream.concat(employees(250),
+                    Stream.of(new Employee(0, "Dup", "e0@test.com", 1, "Eng", true)));
+
+            assertThatThrownBy(() -> jdbc.bulkLoader().batchSize(100).build().load(rows))
+                    .isInstanceOf(SQLException.class)
+                    .hasMessageContaining("200 rows were committed")
+                    .hasCauseInstanceOf(SQLException.class);
+            assertThatCode(() -> assertThat(count()).isEqualTo(200)).doesNotThrowAnyException();
+        }
+
+        @Test
+        @DisplayName("Should roll back everything when committing once at the end")
+        void testSingleTransaction() {
+            Stream<Employee> rows = Stream.concat(employees(250),
+                    Stream.of(new Employee(0, "Dup", "e0@test.com", 1, "Eng", true)));
+
+            assertThatThrownBy(() -> jdbc.bulkLoader().batchSize(100).commitPerChunk(false).build().load(rows))
+                    .isInstanceOf(SQLException.class)
+                    .hasMessageContaining("0 rows were committed");
+            assertThatCode(() -> assertThat(count()).isZero()).doesNotThrowAnyException();
+        }
+
+        @Test
+        @Timeout(10)
+        @DisplayName("Should fail instead of hanging when the binder throws")
+        void testBinderThrows() {
+            BulkLoader<Employee> loader = BulkLoader.<Employee>builder(pool, "employees",
+                            List.of("name", "email", "salary", "department", "active"),
+                            (ps, i, emp) -> {
+                                if (emp.name().equals("Employee 150")) {
+                                    throw new IllegalStateException("bad row");
+                                }
+                                ps.setString(i, emp.name());
+                                ps.setString(i + 1, emp.email());
+                                ps.setDouble(i + 2, emp.salary());
+                                ps.setString(i + 3, emp.department());
+                                ps.setBoolean(i + 4, emp.active());
+                            })
+                    .batchSize(10)
+                    .build();
+
+            // Far more chunks than the queue holds, so a dead writer would block the producer
+            assertThatThrownBy(() -> loader.load(employees(5_000)))
+                    .isInstanceOf(SQLException.class)
+                    .hasMessageContaining("150 rows were committed")
+                    .hasRootCauseMessage("bad row");
+            assertThatCode(() -> assertThat(count()).isEqualTo(150)).doesNotThrowAnyException();
+            assertThat(pool.getActiveCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should reject invalid configuration")
+        void testValidation() {
+            assertThatIllegalArgumentException().isThrownBy(() -> jdbc.bulkLoader().batchSize(0));
+            assertThatIllegalArgumentException().isThrownBy(() -> jdbc.bulkLoader().writers(0));
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> jdbc.bulkLoader().batchSize(10_000).multiRowValues(true).build());
+            assertThatIllegalArgumentException().isThrownBy(() ->
+                    BulkLoader.builder(pool, "employees; DROP TABLE x", List.of("name"), (ps, i, r) -> { }));
+            assertThatIllegalArgumentException().isThrownBy(() ->
+                    BulkLoader.builder(pool, "employees", List.of(), (ps, i, r) -> { }));
+        }
+    }
+}
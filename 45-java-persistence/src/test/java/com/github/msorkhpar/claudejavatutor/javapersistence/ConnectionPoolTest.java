@@ -0,0 +1,320 @@
+package com.github.msorkhpar.claudejavatutor.javapersistence;
+
+import com.github.msorkhpar.claudejavatutor.base.LoadTest;
+import com.github.msorkhpar.claudejavatutor.base.MetricsRegistry;
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.awaitility.Awaitility.await;
+
+@DisplayName("Connection Pool Tests")
+class ConnectionPoolTest {
+
+    private static final String URL = "jdbc:h2:mem:pooltest;DB_CLOSE_DELAY=-1";
+    private static final String USER = "sa";
+    private static final String PASSWORD = "";
+
+    private ConnectionPool pool;
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    private ConnectionPool.Builder builder() {
+        return ConnectionPool.builder(URL, USER, PASSWORD);
+    }
+
+    @Nested
+    @DisplayName("Borrow and Return")
+    class BorrowTests {
+
+        @Test
+        @DisplayName("Should reuse the same physical connection across borrows")
+        void testReuse() throws SQLException {
+            pool = builder().maxSize(4).build();
+
+            Connection physical;
+            try (Connection conn = pool.getConnection()) {
+                physical = conn.unwrap(Connection.class);
+            }
+            try (Connection conn = pool.getConnection()) {
+                assertThat(conn.unwrap(Connection.class)).isSameAs(physical);
+            }
+
+            assertThat(pool.getTotalCount()).isEqualTo(1);
+            assertThat(pool.getIdleCount()).isEqualTo(1);
+            assertThat(pool.getActiveCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("Closed handle should reject further use but leave the physical connection open")
+        void testClosedHandle() throws SQLException {
+            pool = builder().build();
+            Connection conn = pool.getConnection();
+            Connection physical = conn.unwrap(Connection.class);
+
+            conn.close();
+            conn.close(); // second close is a no-op
+
+            assertThat(conn.isClosed()).isTrue();
+            assertThat(physical.isClosed()).isFalse();
+            assertThatThrownBy(conn::createStatement)
+                    .isInstanceOf(SQLException.class)
+                    .hasMessageContaining("returned to the pool");
+            assertThat(pool.getIdleCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Racing closes of one handle should return it to the pool once")
+        void testConcurrentClose() throws SQLException {
+            pool = builder().maxSize(1).build();
+
+            for (int round = 0; round < 200; round++) {
+                Connection conn = pool.getConnection();
+                CompletableFuture<?>[] closes = new CompletableFuture<?>[4];
+                for (int i = 0; i < closes.length; i++) {
+                    closes[i] = CompletableFuture.runAsync(() -> {
+                        try {
+                            conn.close();
+                        } catch (SQLException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    });
+                }
+                CompletableFuture.allOf(closes).join();
+
+                assertThat(pool.getIdleCount()).isEqualTo(1);
+                assertThat(pool.getActiveCount()).isZero();
+            }
+            assertThat(pool.getTotalCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should roll back and reset transaction settings on return")
+        void testResetOnReturn() throws SQLException {
+            pool = builder().maxSize(1).build();
+            try (Connection conn = pool.getConnection(); Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE TABLE IF NOT EXISTS pool_reset (id INT)");
+                stmt.execute("DELETE FROM pool_reset");
+            }
+
+            try (Connection conn = pool.getConnection(); Statement stmt = conn.createStatement()) {
+                conn.setAutoCommit(false);
+                conn.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+                stmt.execute("INSERT INTO pool_reset VALUES (1)");
+                // returned without commit
+            }
+
+            try (Connection conn = pool.getConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM pool_reset")) {
+                assertThat(conn.getAutoCommit()).isTrue();
+                assertThat(conn.getTransactionIsolation()).isEqualTo(Connection.TRANSACTION_READ_COMMITTED);
+                rs.next();
+                assertThat(rs.getInt(1)).isZero();
+                stmt.execute("DROP TABLE pool_reset");
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Bounds and Fairness")
+    class BoundsTests {
+
+        @Test
+        @DisplayName("Should time out when every connection is borrowed")
+        void testBorrowTimeout() throws SQLException {
+            pool = builder().maxSize(2).borrowTimeout(Duration.ofMillis(100)).build();
+            try (Connection a = pool.getConnection(); Connection b = pool.getConnection()) {
+                assertThatThrownBy(pool::getConnection)
+                        .isInstanceOf(SQLTransientConnectionException.class)
+                        .hasMessageContaining("Timed out");
+            }
+            assertThat(pool.getMetrics().exportPrometheus())
+                    .contains("connection_pool_timeouts_total{pool=\"default\"} 1\n");
+        }
+
+        @Test
+        @DisplayName("A waiting borrower should get the connection as soon as it is returned")
+        void testWaiterServed() throws Exception {
+            pool = builder().maxSize(1).build();
+            Connection held = pool.getConnection();
+
+            CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> {
+                try (Connection conn = pool.getConnection()) {
+                    return conn.isValid(1);
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            await().atMost(Duration.ofSeconds(2)).until(() -> pool.getMetrics().snapshot().stream()
+                    .anyMatch(m -> m.name().equals("connection_pool_pending_threads") && m.value() == 1));
+            held.close();
+
+            assertThat(waiter.get(2, TimeUnit.SECONDS)).isTrue();
+            assertThat(pool.getTotalCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should never open more than maxSize connections under contention")
+        void testBoundedUnderLoad() throws InterruptedException {
+            pool = builder().maxSize(4).build();
+            AtomicInteger maxActive = new AtomicInteger();
+
+            LoadTest.LoadTestResult result = LoadTest.run(() -> {
+                try (Connection conn = pool.getConnection(); Statement stmt = conn.createStatement()) {
+                    maxActive.accumulateAndGet(pool.getActiveCount(), Math::max);
+                    stmt.execute("SELECT 1");
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            }, 16, 2_000L);
+
+            assertThat(result.errors()).isZero();
+            assertThat(maxActive.get()).isLessThanOrEqualTo(4);
+            assertThat(pool.getTotalCount()).isLessThanOrEqualTo(4);
+            assertThat(pool.getActiveCount()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Validation, Eviction and Leaks")
+    class MaintenanceTests {
+
+        @Test
+        @DisplayName("Should replace a connection that broke while idle")
+        void testValidationOnBorrow() throws SQLException {
+            pool = builder().validationInterval(Duration.ZERO).build();
+            Connection physical;
+            try (Connection conn = pool.getConnection()) {
+                physical = conn.unwrap(Connection.class);
+            }
+            physical.close();
+
+            try (Connection conn = pool.getConnection()) {
+                assertThat(conn.unwrap(Connection.class)).isNotSameAs(physical);
+                assertThat(conn.isValid(1)).isTrue();
+            }
+            assertThat(pool.getTotalCount()).isEqualTo(1);
+            assertThat(pool.getMetrics().exportPrometheus())
+                    .contains("connection_pool_validation_failures_total{pool=\"default\"} 1\n");
+        }
+
+        @Test
+        @DisplayName("Should evict idle connections down to minIdle")
+        void testIdleEviction() throws SQLException {
+            pool = builder().maxSize(4).minIdle(1)
+                    .idleTimeout(Duration.ofMillis(50))
+                    .housekeepingInterval(Duration.ofMillis(20))
+                    .build();
+            try (Connection a = pool.getConnection(); Connection b = pool.getConnection();
+                 Connection c = pool.getConnection()) {
+                assertThat(pool.getTotalCount()).isEqualTo(3);
+            }
+
+            await().atMost(Duration.ofSeconds(2)).until(() -> pool.getTotalCount() == 1);
+            assertThat(pool.getIdleCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should pre-open minIdle connections")
+        void testMinIdleFill() {
+            pool = builder().maxSize(4).minIdle(2).housekeepingInterval(Duration.ofMillis(20)).build();
+
+            await().atMost(Duration.ofSeconds(2)).until(() -> pool.getIdleCount() == 2);
+            assertThat(pool.getTotalCount()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should report a connection held past the leak threshold once")
+        void testLeakDetection() throws SQLException {
+            pool = builder().leakDetectionThreshold(Duration.ofMillis(50))
+                    .housekeepingInterval(Duration.ofMillis(20))
+                    .build();
+            try (Connection leaked = pool.getConnection()) {
+                await().atMost(Duration.ofSeconds(2)).until(() -> pool.getLeakCount() == 1);
+                pool.housekeep();
+                assertThat(pool.getLeakCount()).isEqualTo(1);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Lifecycle and Configuration")
+    class LifecycleTests {
+
+        @Test
+        @DisplayName("Closing the pool should close idle and later-returned connections")
+        void testClose() throws SQLException {
+            pool = builder().build();
+            Connection idle = pool.getConnection();
+            Connection held = pool.getConnection();
+            Connection idlePhysical = idle.unwrap(Connection.class);
+            Connection heldPhysical = held.unwrap(Connection.class);
+            idle.close();
+
+            pool.close();
+            assertThat(idlePhysical.isClosed()).isTrue();
+            assertThat(heldPhysical.isClosed()).isFalse();
+
+            held.close();
+            assertThat(heldPhysical.isClosed()).isTrue();
+            assertThat(pool.getTotalCount()).isZero();
+            assertThatThrownBy(pool::getConnection).isInstanceOf(SQLException.class);
+        }
+
+        @Test
+        @DisplayName("Should export wait time and utilisation to a shared registry")
+        void testMetrics() throws SQLException {
+            MetricsRegistry metrics = new MetricsRegistry();
+            pool = builder().name("orders").maxSize(4).metrics(metrics).build();
+            try (Connection a = pool.getConnection(); Connection b = pool.getConnection()) {
+                assertThat(metrics.exportPrometheus())
+                        .contains("connection_pool_active{pool=\"orders\"} 2\n")
+                        .contains("connection_pool_utilisation{pool=\"orders\"} 0.5\n")
+                        .contains("connection_pool_wait_seconds_count{pool=\"orders\"} 2\n");
+            }
+        }
+
+        @Test
+        @DisplayName("Should reject invalid configuration")
+        void testValidation() {
+            assertThatIllegalArgumentException().isThrownBy(() -> builder().maxSize(0));
+            assertThatIllegalArgumentException().isThrownBy(() -> builder().maxSize(2).minIdle(3).build());
+            assertThatIllegalArgumentException().isThrownBy(() -> builder().borrowTimeout(Duration.ZERO));
+            assertThatThrownBy(() -> ConnectionPool.builder((javax.sql.DataSource) null))
+                    .isInstanceOf(NullPointerException.class);
+        }
+
+        @Test
+        @DisplayName("Repositories should run on a pooled DataSource")
+        void testRepositoriesOnPool() throws SQLException {
+            pool = builder().maxSize(2).build();
+            JdbcOperations jdbc = new JdbcOperations(pool);
+            jdbc.dropEmployeeTable();
+            jdbc.createEmployeeTable();
+            try {
+                int id = jdbc.insertWithPreparedStatement("Alice", "alice@test.com", 1000, "Eng");
+                for (int i = 0; i < 50; i++) {
+                    assertThat(jdbc.findById(id)).isPresent();
+                }
+                assertThat(pool.getTotalCount()).isEqualTo(1);
+            } finally {
+                jdbc.dropEmployeeTable();
+            }
+        }
+    }
+}
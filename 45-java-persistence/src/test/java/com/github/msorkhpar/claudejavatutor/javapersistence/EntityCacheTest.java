@@ -0,0 +1,114 @@
+package com.github.msorkhpar.claudejavatutor.javapersistence;
+
+import com.github.msorkhpar.claudejavatutor.base.MetricsRegistry;
+import com.github.msorkhpar.claudejavatutor.javapersistence.OrmPatterns.Product;
+import org.junit.jupiter.api.*;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Entity Cache Tests")
+class EntityCacheTest {
+
+    private MetricsRegistry metrics;
+    private EntityCache<Integer, Product> cache;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new MetricsRegistry();
+        cache = new EntityCache<>("product", 2, Product::copy, metrics);
+    }
+
+    private void put(int id) {
+        cache.putFromLoad(id, new Product(id, "P" + id, id, 1), cache.loadStamp());
+    }
+
+    @Nested
+    @DisplayName("Lookup and Eviction")
+    class LookupTests {
+
+        @Test
+        @DisplayName("Should hand out copies that callers cannot corrupt")
+        void testCopies() {
+            Product original = new Product(1, "Apple", 1.0, 1);
+            cache.putFromLoad(1, original, cache.loadStamp());
+            original.setName("changed after put");
+
+            Product first = cache.get(1).orElseThrow();
+            first.setName("changed by caller");
+
+            assertThat(cache.get(1)).get().extracting(Product::getName).isEqualTo("Apple");
+        }
+
+        @Test
+        @DisplayName("Should evict the least recently used entry")
+        void testLruEviction() {
+            put(1);
+            put(2);
+            cache.get(1);
+            put(3);
+
+            assertThat(cache.get(2)).isEmpty();
+            assertThat(cache.get(1)).isPresent();
+            assertThat(cache.get(3)).isPresent();
+            assertThat(cache.size()).isEqualTo(2);
+            assertThat(metrics.exportPrometheus())
+                    .contains("entity_cache_evictions_total{region=\"product\"} 1\n");
+        }
+
+        @Test
+        @DisplayName("Should track the hit ratio")
+        void testHitRatio() {
+            assertThat(cache.getHitRatio()).isZero();
+            put(1);
+            cache.get(1);
+            cache.get(1);
+            cache.get(1);
+            cache.get(2);
+
+            assertThat(cache.getHits()).isEqualTo(3);
+            assertThat(cache.getMisses()).isEqualTo(1);
+            assertThat(cache.getHitRatio()).isEqualTo(0.75);
+            assertThat(metrics.exportPrometheus())
+                    .contains("entity_cache_hit_ratio{region=\"product\"} 0.75\n");
+        }
+    }
+
+    @Nested
+    @DisplayName("Invalidation")
+    class InvalidationTests {
+
+        @Test
+        @DisplayName("Should drop invalidated entries")
+        void testInvalidate() {
+            put(1);
+            put(2);
+            cache.invalidate(1);
+            cache.invalidateIf(p -> p.getId() == 2);
+
+            assertThat(cache.size()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should refuse a load that raced with an invalidation")
+        void testStaleLoadRejected() {
+            long stamp = cache.loadStamp();
+            Product readBeforeUpdate = new Product(1, "old", 1.0, 1);
+            cache.invalidate(1); // a writer committed meanwhile
+
+            assertThat(cache.putFromLoad(1, readBeforeUpdate, stamp)).isFalse();
+            assertThat(cache.get(1)).isEqualTo(Optional.empty());
+            assertThat(cache.putFromLoad(1, readBeforeUpdate, cache.loadStamp())).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should reject invalid configuration")
+        void testValidation() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> new EntityCache<>("x", 0, Product::copy, metrics));
+            assertThatNullPointerException()
+                    .isThrownBy(() -> new EntityCache<Integer, Product>("x", 1, null, metrics));
+        }
+    }
+}
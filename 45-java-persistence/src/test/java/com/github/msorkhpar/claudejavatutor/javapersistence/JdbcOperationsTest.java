@@ -6,6 +6,7 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -164,6 +165,42 @@ class JdbcOperationsTest {
             List<JdbcOperations.Employee> all = jdbc.findAll();
             assertThat(all).isEmpty();
         }
+
+        @Test
+        @DisplayName("Should stream all employees and employees by department")
+        void testStreamAll() throws SQLException {
+            jdbc.insertWithPreparedStatement("Alice", "alice@test.com", 70000.0, "Engineering");
+            jdbc.insertWithPreparedStatement("Bob", "bob@test.com", 80000.0, "Engineering");
+            jdbc.insertWithPreparedStatement("Charlie", "charlie@test.com", 60000.0, "Marketing");
+
+            try (Stream<JdbcOperations.Employee> all = jdbc.streamAll(2)) {
+                assertThat(all).containsExactlyInAnyOrderElementsOf(jdbc.findAll());
+            }
+            try (Stream<JdbcOperations.Employee> engineers = jdbc.streamByDepartment("Engineering")) {
+                assertThat(engineers.map(JdbcOperations.Employee::name))
+                        .containsExactlyInAnyOrder("Alice", "Bob");
+            }
+        }
+
+        @Test
+        @DisplayName("Should page through employees and a department by id")
+        void testKeysetPages() throws SQLException {
+            for (int i = 0; i < 5; i++) {
+                jdbc.insertWithPreparedStatement("E" + i, "e" + i + "@test.com", 1000.0, i % 2 == 0 ? "Eng" : "Ops");
+            }
+
+            Page<JdbcOperations.Employee> first = jdbc.findPage(2, null);
+            Page<JdbcOperations.Employee> second = jdbc.findPage(2, first.nextPageToken());
+            Page<JdbcOperations.Employee> third = jdbc.findPage(2, second.nextPageToken());
+            assertThat(Stream.of(first, second, third).flatMap(page -> page.items().stream()))
+                    .containsExactlyElementsOf(jdbc.findAll());
+            assertThat(third.hasNext()).isFalse();
+
+            Page<JdbcOperations.Employee> eng = jdbc.findPageByDepartment("Eng", 2, null);
+            Page<JdbcOperations.Employee> engRest = jdbc.findPageByDepartment("Eng", 2, eng.nextPageToken());
+            assertThat(Stream.concat(eng.items().stream(), engRest.items().stream()).map(JdbcOperations.Employee::name))
+                    .containsExactly("E0", "E2", "E4");
+        }
     }
 
     @Nested
@@ -0,0 +1,213 @@
+package com.github.msorkhpar.claudejavatutor.javapersistence;
+
+import com.github.msorkhpar.claudejavatutor.base.MetricsRegistry;
+import org.junit.jupiter.api.*;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleUnaryOperator;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.awaitility.Awaitility.await;
+
+@DisplayName("Optimistic Retry Executor Tests")
+class OptimisticRetryExecutorTest {
+
+    private static final String URL = "jdbc:h2:mem:optimisticretry;DB_CLOSE_DELAY=-1";
+
+    private TransactionControl txControl;
+    private MetricsRegistry metrics;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        txControl = new TransactionControl(URL, "sa", "");
+        txControl.dropAccountsTable();
+        txControl.createAccountsTable();
+        metrics = new MetricsRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        txControl.dropAccountsTable();
+    }
+
+    /**
+     * Adds {@code amount}, but during the first {@code clashes} calls first changes the account
+     * behind the executor's back so its optimistic update fails.
+     */
+    private DoubleUnaryOperator clashing(int id, int clashes, double amount) {
+        AtomicInteger calls = new AtomicInteger();
+        return balance -> {
+            if (calls.incrementAndGet() <= clashes) {
+                try {
+                    TransactionControl.Account current = txControl.findAccount(id).orElseThrow();
+                    txControl.updateBalanceOptimistic(current, current.balance());
+                } catch (SQLException | TransactionControl.OptimisticLockException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return balance + amount;
+        };
+    }
+
+    @Nested
+    @DisplayName("Retries")
+    class RetryTests {
+
+        @Test
+        @DisplayName("Uncontended update should succeed on the first attempt")
+        void testUncontended() throws SQLException {
+            int id = txControl.createAccount("Alice", 100.00);
+            OptimisticRetryExecutor retry = txControl.optimisticRetry().metrics(metrics).build();
+
+            TransactionControl.Account updated = retry.updateBalance(id, balance -> balance + 50).orElseThrow();
+
+            assertThat(updated.balance()).isEqualTo(150.00);
+            assertThat(updated.version()).isEqualTo(1);
+            assertThat(retry.getConflictRate(id)).isZero();
+            assertThat(metrics.exportPrometheus()).contains("optimistic_retry_attempts_total 1\n");
+        }
+
+        @Test
+        @DisplayName("Should return empty for a missing account")
+        void testMissingAccount() throws SQLException {
+            OptimisticRetryExecutor retry = txControl.optimisticRetry().build();
+            assertThat(retry.updateBalance(9999, balance -> balance + 1)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Version clash should be retried against the fresh balance")
+        void testRetryAfterClash() throws SQLException {
+            int id = txControl.createAccount("Alice", 100.00);
+            OptimisticRetryExecutor retry = txControl.optimisticRetry()
+                    .conflictHalfLife(Duration.ofDays(1)).metrics(metrics).build();
+
+            TransactionControl.Account updated = retry.updateBalance(id, clashing(id, 1, 25.00)).orElseThrow();
+
+            assertThat(updated.balance()).isEqualTo(125.00);
+            assertThat(txControl.findAccount(id).orElseThrow().version()).isEqualTo(2);
+            assertThat(retry.getConflictRate(id)).isCloseTo(0.09, within(1e-6));
+            assertThat(metrics.exportPrometheus())
+                    .contains("optimistic_retry_attempts_total 2\n")
+                    .contains("optimistic_retry_conflicts_total 1\n");
+        }
+
+        @Test
+        @DisplayName("Should fall back to a pessimistic lock after maxAttempts clashes")
+        void testExhaustedFallback() throws SQLException {
+            int id = txControl.createAccount("Alice", 100.00);
+            OptimisticRetryExecutor retry = txControl.optimisticRetry().maxAttempts(3)
+                    .baseBackoff(Duration.ZERO).maxBackoff(Duration.ZERO)
+                    .pessimisticThreshold(2.0).metrics(metrics).build();
+
+            TransactionControl.Account updated = retry.updateBalance(id, clashing(id, 3, 10.00)).orElseThrow();
+
+            assertThat(updated.balance()).isEqualTo(110.00);
+            assertThat(txControl.findAccount(id).orElseThrow()).isEqualTo(updated);
+            assertThat(metrics.exportPrometheus())
+                    .contains("optimistic_retry_conflicts_total 3\n")
+                    .contains("optimistic_retry_fallbacks_total{reason=\"exhausted\"} 1\n");
+        }
+
+        @Test
+        @DisplayName("Should reject an invalid configuration")
+        void testValidation() {
+            assertThatThrownBy(() -> txControl.optimisticRetry().maxAttempts(0))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> txControl.optimisticRetry().baseBackoff(Duration.ofMillis(10))
+                    .maxBackoff(Duration.ofMillis(1)).build())
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Contention Tracking")
+    class ContentionTests {
+
+        @Test
+        @DisplayName("Hot account should go pessimistic until its conflict rate decays")
+        void testContentionFallbackAndCoolDown() throws SQLException {
+            int hot = txControl.createAccount("Hot", 100.00);
+            int cold = txControl.createAccount("Cold", 100.00);
+            OptimisticRetryExecutor retry = txControl.optimisticRetry().maxAttempts(1)
+                    .pessimisticThreshold(0.05).conflictHalfLife(Duration.ofMillis(100))
+                    .metrics(metrics).build();
+
+            retry.updateBalance(hot, clashing(hot, 1, 1.00));
+            retry.updateBalance(cold, balance -> balance + 1);
+            assertThat(retry.getConflictRates()).containsOnlyKeys(hot);
+            assertThat(retry.getConflictRate(hot)).isBetween(0.05, 0.1);
+            assertThat(retry.getConflictRate(cold)).isZero();
+            assertThat(metrics.exportPrometheus()).contains("optimistic_retry_hot_accounts 1\n");
+
+            retry.updateBalance(hot, balance -> balance + 1);
+            assertThat(metrics.exportPrometheus())
+                    .contains("optimistic_retry_fallbacks_total{reason=\"exhausted\"} 1\n")
+                    .contains("optimistic_retry_fallbacks_total{reason=\"contention\"} 1\n")
+                    .contains("optimistic_retry_attempts_total 2\n");
+
+            await().atMost(Duration.ofSeconds(2)).until(() -> retry.getConflictRate(hot) < 0.05);
+            retry.updateBalance(hot, balance -> balance + 1);
+            assertThat(metrics.exportPrometheus())
+                    .contains("optimistic_retry_attempts_total 3\n")
+                    .contains("optimistic_retry_hot_accounts 0\n");
+            assertThat(txControl.findAccount(hot).orElseThrow().balance()).isEqualTo(103.00);
+        }
+
+        @Test
+        @DisplayName("Accounts should be forgotten once their conflict rate decays")
+        void testForgetsCooledAccounts() throws SQLException {
+            int scraped = txControl.createAccount("Scraped", 100.00);
+            int updated = txControl.createAccount("Updated", 100.00);
+            OptimisticRetryExecutor retry = txControl.optimisticRetry().maxAttempts(2)
+                    .conflictHalfLife(Duration.ofMillis(10)).metrics(metrics).build();
+
+            retry.updateBalance(scraped, clashing(scraped, 1, 1.00));
+            retry.updateBalance(updated, clashing(updated, 1, 1.00));
+            assertThat(retry.getConflictRates()).containsOnlyKeys(scraped, updated);
+            await().atMost(Duration.ofSeconds(2))
+                    .until(() -> retry.getConflictRate(updated) < OptimisticRetryExecutor.RATE_EPSILON);
+
+            // A clean update drops its own account; a scrape drops every cooled one
+            retry.updateBalance(updated, balance -> balance + 1);
+            assertThat(retry.getConflictRates()).containsOnlyKeys(scraped);
+            assertThat(metrics.exportPrometheus()).contains("optimistic_retry_hot_accounts 0\n");
+            assertThat(retry.getConflictRates()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Concurrent increments on hot accounts should all be applied")
+        void testConcurrentIncrements() throws Exception {
+            int first = txControl.createAccount("First", 0.00);
+            int second = txControl.createAccount("Second", 0.00);
+            OptimisticRetryExecutor retry = txControl.optimisticRetry().metrics(metrics).build();
+            int threads = 16;
+            int perThread = 50;
+
+            try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    int id = t % 2 == 0 ? first : second;
+                    futures.add(executor.submit(() -> {
+                        for (int i = 0; i < perThread; i++) {
+                            retry.updateBalance(id, balance -> balance + 1);
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+
+            assertThat(txControl.findAccount(first).orElseThrow().balance()).isEqualTo(threads / 2.0 * perThread);
+            assertThat(txControl.findAccount(second).orElseThrow().balance()).isEqualTo(threads / 2.0 * perThread);
+        }
+    }
+}
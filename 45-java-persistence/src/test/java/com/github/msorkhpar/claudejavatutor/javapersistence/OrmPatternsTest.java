@@ -1,10 +1,17 @@
 package com.github.msorkhpar.claudejavatutor.javapersistence;
 
+import com.github.msorkhpar.claudejavatutor.base.MetricsRegistry;
 import org.junit.jupiter.api.*;
 
 import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -99,6 +106,18 @@ class OrmPatternsTest {
             assertThat(all).isEmpty();
         }
 
+        @Test
+        @DisplayName("Should stream all products")
+        void testStreamAll() throws SQLException {
+            int catId = repo.saveCategory("Food");
+            repo.save(new OrmPatterns.Product(0, "Apple", 1.50, catId));
+            repo.save(new OrmPatterns.Product(0, "Banana", 0.75, catId));
+
+            try (Stream<OrmPatterns.Product> all = repo.streamAll(1)) {
+                assertThat(all.map(OrmPatterns.Product::getName)).containsExactlyInAnyOrder("Apple", "Banana");
+            }
+        }
+
         @Test
         @DisplayName("Should delete product by ID")
         void testDeleteById() throws SQLException {
@@ -197,6 +216,97 @@ class OrmPatternsTest {
         }
     }
 
+    @Nested
+    @DisplayName("Keyset Pagination")
+    class PaginationTests {
+
+        private List<OrmPatterns.Product> saveProducts(double... prices) throws SQLException {
+            int catId = repo.saveCategory("Paged");
+            List<OrmPatterns.Product> saved = new ArrayList<>();
+            for (int i = 0; i < prices.length; i++) {
+                saved.add(repo.save(new OrmPatterns.Product(0, "P" + i, prices[i], catId)));
+            }
+            return saved;
+        }
+
+        @Test
+        @DisplayName("Price pages should cover every product once in (price, id) order, ties included")
+        void testPagesByPrice() throws SQLException {
+            saveProducts(5.00, 1.50, 5.00, 10.00, 5.00, 1.50, 7.25);
+            List<Integer> expected = repo.findAll().stream()
+                    .sorted(Comparator.comparingDouble(OrmPatterns.Product::getPrice)
+                            .thenComparingInt(OrmPatterns.Product::getId))
+                    .map(OrmPatterns.Product::getId).toList();
+
+            List<Integer> seen = new ArrayList<>();
+            String token = null;
+            int pages = 0;
+            do {
+                Page<OrmPatterns.Product> page = repo.findPageOrderByPrice(2, token);
+                assertThat(page.items()).hasSizeLessThanOrEqualTo(2);
+                page.items().forEach(product -> seen.add(product.getId()));
+                token = page.nextPageToken();
+                pages++;
+            } while (token != null);
+
+            assertThat(seen).containsExactlyElementsOf(expected);
+            assertThat(pages).isEqualTo(4);
+        }
+
+        @Test
+        @DisplayName("Last full page should not hand out a token for an empty page")
+        void testExactMultipleOfPageSize() throws SQLException {
+            saveProducts(1.00, 2.00, 3.00, 4.00);
+
+            Page<OrmPatterns.Product> first = repo.findPageOrderById(2, null);
+            Page<OrmPatterns.Product> second = repo.findPageOrderById(2, first.nextPageToken());
+
+            assertThat(first.hasNext()).isTrue();
+            assertThat(second.items()).hasSize(2);
+            assertThat(second.hasNext()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Deleting a row already served should not shift the next page")
+        void testStableUnderDeletes() throws SQLException {
+            List<OrmPatterns.Product> saved = saveProducts(1.00, 2.00, 3.00, 4.00, 5.00);
+
+            Page<OrmPatterns.Product> first = repo.findPageOrderById(2, null);
+            repo.deleteById(saved.get(0).getId());
+            Page<OrmPatterns.Product> second = repo.findPageOrderById(2, first.nextPageToken());
+
+            assertThat(second.items()).extracting(OrmPatterns.Product::getId)
+                    .containsExactly(saved.get(2).getId(), saved.get(3).getId());
+        }
+
+        @Test
+        @DisplayName("Price range pages should stay within the range")
+        void testPriceRangePages() throws SQLException {
+            saveProducts(5.00, 15.00, 25.00, 20.00, 20.00, 35.00);
+
+            Page<OrmPatterns.Product> first = repo.findByPriceRange(10.00, 30.00, 3, null);
+            Page<OrmPatterns.Product> second = repo.findByPriceRange(10.00, 30.00, 3, first.nextPageToken());
+
+            assertThat(first.items()).extracting(OrmPatterns.Product::getPrice).containsExactly(15.00, 20.00, 20.00);
+            assertThat(second.items()).extracting(OrmPatterns.Product::getPrice).containsExactly(25.00);
+            assertThat(second.hasNext()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should reject foreign or malformed tokens and invalid page sizes")
+        void testInvalidTokens() throws SQLException {
+            saveProducts(1.00, 2.00, 3.00);
+            String idToken = repo.findPageOrderById(1, null).nextPageToken();
+
+            assertThatThrownBy(() -> repo.findPageOrderByPrice(1, idToken))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> repo.findPageOrderById(1, "not a token!"))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> repo.findPageOrderById(0, null))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
     @Nested
     @DisplayName("Relationship Loading (Eager)")
     class RelationshipTests {
@@ -236,6 +346,180 @@ class OrmPatternsTest {
         }
     }
 
+    @Nested
+    @DisplayName("Relationship Loading (Batched)")
+    class BatchedRelationshipTests {
+
+        @Test
+        @DisplayName("Should load many categories with their products and skip unknown ids")
+        void testFindCategoriesWithProducts() throws SQLException {
+            int garden = repo.saveCategory("Garden");
+            int empty = repo.saveCategory("Empty");
+            repo.save(new OrmPatterns.Product(0, "Shovel", 19.99, garden));
+            repo.save(new OrmPatterns.Product(0, "Seeds", 4.99, garden));
+
+            Map<Integer, OrmPatterns.Category> result =
+                    repo.findCategoriesWithProducts(List.of(garden, empty, garden, 9999));
+
+            assertThat(result).containsOnlyKeys(garden, empty);
+            assertThat(result.get(garden).getProducts()).extracting(OrmPatterns.Product::getName)
+                    .containsExactlyInAnyOrder("Shovel", "Seeds");
+            assertThat(result.get(empty).getProducts()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Category loader should resolve queued ids in one batch")
+        void testCategoryLoader() throws SQLException {
+            List<Integer> ids = new ArrayList<>();
+            for (int i = 0; i < 1_500; i++) {
+                ids.add(repo.saveCategory("Category " + i));
+            }
+            repo.save(new OrmPatterns.Product(0, "Widget", 1.00, ids.get(1_499)));
+
+            BatchLoader<Integer, OrmPatterns.Category> loader = repo.categoryLoader();
+            List<CompletableFuture<Optional<OrmPatterns.Category>>> futures =
+                    ids.stream().map(loader::load).toList();
+            loader.dispatch();
+
+            assertThat(loader.getBatchCount()).isEqualTo(2);
+            assertThat(futures).allSatisfy(f -> assertThat(f.join()).isPresent());
+            assertThat(futures.get(1_499).join().orElseThrow().getProducts()).hasSize(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Second-Level Cache and Identity Map")
+    class CachingTests {
+
+        private EntityCache<Integer, OrmPatterns.Product> productCache;
+        private EntityCache<Integer, OrmPatterns.Category> categoryCache;
+        private OrmPatterns.ProductRepository cached;
+        private int categoryId;
+
+        @BeforeEach
+        void setUpCache() throws SQLException {
+            MetricsRegistry metrics = new MetricsRegistry();
+            productCache = OrmPatterns.ProductRepository.productCache(100, metrics);
+            categoryCache = OrmPatterns.ProductRepository.categoryCache(100, metrics);
+            cached = new OrmPatterns.ProductRepository(new DriverManagerDataSource(URL, USER, PASSWORD),
+                    productCache, categoryCache);
+            categoryId = repo.saveCategory("Garden");
+        }
+
+        @Test
+        @DisplayName("Repeated lookups should be served from the second-level cache")
+        void testReadThrough() throws SQLException {
+            int id = cached.save(new OrmPatterns.Product(0, "Shovel", 19.99, categoryId)).getId();
+
+            for (int i = 0; i < 20; i++) {
+                assertThat(cached.findById(id)).isPresent();
+            }
+            assertThat(productCache.getMisses()).isEqualTo(1);
+            assertThat(productCache.getHitRatio()).isEqualTo(0.95);
+        }
+
+        @Test
+        @DisplayName("Save and delete should invalidate products and their categories")
+        void testInvalidationOnWrite() throws SQLException {
+            int other = repo.saveCategory("Kitchen");
+            OrmPatterns.Product shovel = cached.save(new OrmPatterns.Product(0, "Shovel", 19.99, categoryId));
+            assertThat(cached.findCategoryWithProducts(categoryId).orElseThrow().getProducts()).hasSize(1);
+            cached.findById(shovel.getId());
+
+            shovel.setPrice(9.99);
+            shovel.setCategoryId(other);
+            cached.save(shovel);
+
+            assertThat(cached.findById(shovel.getId()).orElseThrow().getPrice()).isEqualTo(9.99);
+            assertThat(cached.findCategoryWithProducts(categoryId).orElseThrow().getProducts()).isEmpty();
+            assertThat(cached.findCategoryWithProducts(other).orElseThrow().getProducts()).hasSize(1);
+
+            cached.deleteById(shovel.getId());
+            assertThat(cached.findById(shovel.getId())).isEmpty();
+            assertThat(cached.findCategoryWithProducts(other).orElseThrow().getProducts()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Dropping the tables should clear the entity and query caches")
+        void testDropTablesClearsCaches() throws SQLException {
+            QueryCache queryCache = OrmPatterns.ProductRepository.queryCache(100, Duration.ofMinutes(1),
+                    new MetricsRegistry());
+            OrmPatterns.ProductRepository full = new OrmPatterns.ProductRepository(
+                    new DriverManagerDataSource(URL, USER, PASSWORD), productCache, categoryCache, queryCache);
+            int id = full.save(new OrmPatterns.Product(0, "Shovel", 19.99, categoryId)).getId();
+            full.findById(id);
+            full.findCategoryWithProducts(categoryId);
+            assertThat(full.count()).isEqualTo(1);
+
+            full.dropTables();
+
+            assertThat(productCache.size()).isZero();
+            assertThat(categoryCache.size()).isZero();
+            assertThat(queryCache.size()).isZero();
+            full.createTables();
+            assertThat(full.findById(id)).isEmpty();
+            assertThat(full.count()).isZero();
+        }
+
+        @Test
+        @DisplayName("A session should return one instance per id and answer repeats without queries")
+        void testIdentityMap() throws SQLException {
+            int id = cached.save(new OrmPatterns.Product(0, "Shovel", 19.99, categoryId)).getId();
+
+            try (OrmPatterns.ProductRepository.Session session = cached.openSession()) {
+                OrmPatterns.Product first = session.findById(id).orElseThrow();
+                assertThat(session.findById(id).orElseThrow()).isSameAs(first);
+                assertThat(session.findAllWithCategory()).singleElement().isSameAs(first);
+                assertThat(session.findCategoryWithProducts(categoryId).orElseThrow().getProducts())
+                        .singleElement().isSameAs(first);
+                assertThat(session.getIdentityHits()).isEqualTo(1);
+            }
+        }
+
+        @Test
+        @DisplayName("A session should read its own writes before others see them")
+        void testReadYourWrites() throws SQLException {
+            int id = cached.save(new OrmPatterns.Product(0, "Shovel", 19.99, categoryId)).getId();
+            cached.findById(id); // cached at the old price
+
+            try (OrmPatterns.ProductRepository.Session session = cached.openSession()) {
+                OrmPatterns.Product shovel = session.findById(id).orElseThrow();
+                shovel.setPrice(5.00);
+                session.save(shovel);
+                OrmPatterns.Product rake = session.save(new OrmPatterns.Product(0, "Rake", 12.00, categoryId));
+
+                assertThat(session.findById(rake.getId())).containsSame(rake);
+                assertThat(session.findCategoryWithProducts(categoryId).orElseThrow().getProducts())
+                        .extracting(OrmPatterns.Product::getName).containsExactlyInAnyOrder("Shovel", "Rake");
+                assertThat(productCache.size()).isZero();
+
+                session.commit();
+            }
+            assertThat(cached.findById(id).orElseThrow().getPrice()).isEqualTo(5.00);
+            assertThat(cached.count()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Closing or rolling back a session should discard its writes")
+        void testRollback() throws SQLException {
+            int id = cached.save(new OrmPatterns.Product(0, "Shovel", 19.99, categoryId)).getId();
+
+            try (OrmPatterns.ProductRepository.Session session = cached.openSession()) {
+                session.deleteById(id);
+                assertThat(session.findById(id)).isEmpty();
+                session.rollback();
+                assertThat(session.findById(id)).isPresent();
+
+                session.save(new OrmPatterns.Product(0, "Rake", 12.00, categoryId));
+            }
+            assertThat(cached.findAll()).extracting(OrmPatterns.Product::getName).containsExactly("Shovel");
+
+            OrmPatterns.ProductRepository.Session closed = cached.openSession();
+            closed.close();
+            assertThatThrownBy(() -> closed.findById(id)).isInstanceOf(SQLException.class);
+        }
+    }
+
     @Nested
     @DisplayName("Entity Class Tests")
     class EntityTests {
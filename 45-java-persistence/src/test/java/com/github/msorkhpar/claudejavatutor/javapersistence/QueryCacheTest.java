@@ -0,0 +1,223 @@
+package com.github.msorkhpar.claudejavatutor.javapersistence;
+
+import com.github.msorkhpar.claudejavatutor.base.MetricsRegistry;
+import com.github.msorkhpar.claudejavatutor.javapersistence.JdbcOperations.Employee;
+import com.github.msorkhpar.claudejavatutor.javapersistence.OrmPatterns.Product;
+import com.github.msorkhpar.claudejavatutor.javapersistence.OrmPatterns.ProductRepository;
+import org.junit.jupiter.api.*;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.awaitility.Awaitility.await;
+
+@DisplayName("Query Cache Tests")
+class QueryCacheTest {
+
+    private MetricsRegistry metrics;
+    private QueryCache cache;
+    private AtomicInteger runs;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new MetricsRegistry();
+        cache = new QueryCache("test", 2, Duration.ofMinutes(1), metrics);
+        runs = new AtomicInteger();
+    }
+
+    private int get(String sql, Set<String> tables, Object... params) throws SQLException {
+        return cache.get(sql, tables, runs::incrementAndGet, params);
+    }
+
+    @Nested
+    @DisplayName("Lookup, Expiry and Eviction")
+    class LookupTests {
+
+        @Test
+        @DisplayName("Should key entries by SQL and parameters")
+        void testKeyedBySqlAndParams() throws SQLException {
+            int first = get("SELECT 1", Set.of("t"), "a");
+
+            assertThat(get("SELECT 1", Set.of("t"), "a")).isEqualTo(first);
+            assertThat(get("SELECT 1", Set.of("t"), "b")).isNotEqualTo(first);
+            assertThat(runs).hasValue(2);
+            assertThat(cache.getHits()).isEqualTo(1);
+            assertThat(cache.getMisses()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should reload entries older than the TTL")
+        void testTtl() throws SQLException {
+            QueryCache shortLived = new QueryCache("short", 10, Duration.ofMillis(50), metrics);
+            shortLived.get("SELECT 1", Set.of("t"), runs::incrementAndGet);
+
+            await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+                shortLived.get("SELECT 1", Set.of("t"), runs::incrementAndGet);
+                assertThat(runs.get()).isGreaterThan(1);
+            });
+            assertThat(metrics.exportPrometheus())
+                    .contains("query_cache_evictions_total{region=\"short\",reason=\"ttl\"} 1\n");
+        }
+
+        @Test
+        @DisplayName("Should evict the least recently used entry beyond maxSize")
+        void testLruEviction() throws SQLException {
+            get("q1", Set.of("t"));
+            get("q2", Set.of("t"));
+            get("q1", Set.of("t"));
+            get("q3", Set.of("t"));
+
+            assertThat(cache.size()).isEqualTo(2);
+            get("q1", Set.of("t"));
+            assertThat(runs).hasValue(3);
+            get("q2", Set.of("t"));
+            assertThat(runs).hasValue(4);
+            assertThat(metrics.exportPrometheus())
+                    .contains("query_cache_evictions_total{region=\"test\",reason=\"size\"} 2\n");
+        }
+    }
+
+    @Nested
+    @DisplayName("Invalidation")
+    class InvalidationTests {
+
+        @Test
+        @DisplayName("Should drop only entries tagged with an invalidated table")
+        void testPreciseInvalidation() throws SQLException {
+            get("employees only", Set.of("employees"));
+            get("products only", Set.of("PRODUCTS"));
+
+            cache.invalidate("products");
+
+            assertThat(cache.size()).isEqualTo(1);
+            get("employees only", Set.of("employees"));
+            assertThat(runs).hasValue(2);
+            assertThat(metrics.exportPrometheus())
+                    .contains("query_cache_invalidated_entries_total{region=\"test\"} 1\n");
+        }
+
+        @Test
+        @DisplayName("Should drop an entry when any of its tables is invalidated")
+        void testMultiTableEntry() throws SQLException {
+            get("join", Set.of("products", "categories"));
+
+            cache.invalidate("categories");
+
+            assertThat(cache.size()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should not cache a result loaded while its table was invalidated")
+        void testInvalidationDuringLoad() throws SQLException {
+            int value = cache.get("SELECT 1", Set.of("t"), () -> {
+                cache.invalidate("t");
+                return 42;
+            });
+
+            assertThat(value).isEqualTo(42);
+            assertThat(cache.size()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Repository Integration")
+    class IntegrationTests {
+
+        private static final String URL = "jdbc:h2:mem:querycache;DB_CLOSE_DELAY=-1";
+
+        @Test
+        @DisplayName("Employee writes should invalidate cached averages")
+        void testJdbcOperations() throws SQLException {
+            QueryCache queryCache = new QueryCache("employee", 100, Duration.ofMinutes(1), metrics);
+            JdbcOperations jdbc = new JdbcOperations(new DriverManagerDataSource(URL, "sa", ""), queryCache);
+            jdbc.dropEmployeeTable();
+            jdbc.createEmployeeTable();
+            try {
+                int alice = jdbc.insertWithPreparedStatement("Alice", "alice@example.com", 60000, "Engineering");
+                assertThat(jdbc.getAverageSalaryByDepartment("Engineering")).contains(60000.0);
+                assertThat(jdbc.getAverageSalaryByDepartment("Engineering")).contains(60000.0);
+                assertThat(queryCache.getHits()).isEqualTo(1);
+
+                jdbc.updateSalary(alice, 80000);
+                assertThat(jdbc.getAverageSalaryByDepartment("Engineering")).contains(80000.0);
+
+                jdbc.batchInsert(List.of(new Employee(0, "Bob", "bob@example.com", 40000, "Engineering", true)));
+                assertThat(jdbc.getAverageSalaryByDepartment("Engineering")).contains(60000.0);
+
+                jdbc.deleteById(alice);
+                assertThat(jdbc.getAverageSalaryByDepartment("Engineering")).contains(40000.0);
+
+                int bob = jdbc.findByDepartment("Engineering").getFirst().id();
+                try (SalaryWriteBehind salaries = jdbc.salaryWriteBehind().build()) {
+                    salaries.updateSalary(bob, 45000).join();
+                }
+                assertThat(jdbc.getAverageSalaryByDepartment("Engineering")).contains(45000.0);
+                assertThat(jdbc.getAverageSalaryByDepartment("Sales")).isEmpty();
+            } finally {
+                jdbc.dropEmployeeTable();
+            }
+        }
+
+        @Test
+        @DisplayName("Bulk loads should invalidate cached averages")
+        void testBulkLoader() throws SQLException {
+            QueryCache queryCache = new QueryCache("employee", 100, Duration.ofMinutes(1), metrics);
+            JdbcOperations jdbc = new JdbcOperations(new DriverManagerDataSource(URL, "sa", ""), queryCache);
+            jdbc.dropEmployeeTable();
+            jdbc.createEmployeeTable();
+            try {
+                jdbc.insertWithPreparedStatement("Alice", "alice@example.com", 60000, "Engineering");
+                assertThat(jdbc.getAverageSalaryByDepartment("Engineering")).contains(60000.0);
+
+                jdbc.bulkLoader().batchSize(2).build().load(List.of(
+                        new Employee(0, "Bob", "bob@example.com", 40000, "Engineering", true),
+                        new Employee(0, "Carol", "carol@example.com", 50000, "Engineering", true),
+                        new Employee(0, "Dave", "dave@example.com", 50000, "Engineering", true)).iterator());
+
+                assertThat(jdbc.getAverageSalaryByDepartment("Engineering")).contains(50000.0);
+                assertThat(queryCache.getHits()).isZero();
+            } finally {
+                jdbc.dropEmployeeTable();
+            }
+        }
+
+        @Test
+        @DisplayName("Product writes should invalidate count and name queries")
+        void testProductRepository() throws SQLException {
+            QueryCache queryCache = ProductRepository.queryCache(100, Duration.ofMinutes(1), metrics);
+            ProductRepository repository = new ProductRepository(new DriverManagerDataSource(URL, "sa", ""),
+                    queryCache);
+            repository.dropTables();
+            repository.createTables();
+            try {
+                int fruit = repository.saveCategory("Fruit");
+                Product apple = repository.save(new Product(0, "Apple", 1.0, fruit));
+                assertThat(repository.count()).isEqualTo(1);
+                assertThat(repository.findProductNamesByCategoryName("Fruit")).containsExactly("Apple");
+                assertThat(repository.count()).isEqualTo(1);
+                assertThat(queryCache.getHits()).isEqualTo(1);
+
+                repository.save(new Product(0, "Pear", 2.0, fruit));
+                assertThat(repository.count()).isEqualTo(2);
+                assertThat(repository.findProductNamesByCategoryName("Fruit"))
+                        .containsExactlyInAnyOrder("Apple", "Pear");
+
+                repository.deleteById(apple.getId());
+                assertThat(repository.count()).isEqualTo(1);
+
+                try (ProductRepository.Session session = repository.openSession()) {
+                    session.save(new Product(0, "Plum", 3.0, fruit));
+                    assertThat(repository.count()).isEqualTo(1);
+                    session.commit();
+                }
+                assertThat(repository.count()).isEqualTo(2);
+            } finally {
+                repository.dropTables();
+            }
+        }
+    }
+}
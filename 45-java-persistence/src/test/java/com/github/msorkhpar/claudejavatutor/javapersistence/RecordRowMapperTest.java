@@ -0,0 +1,161 @@
+package com.github.msorkhpar.claudejavatutor.javapersistence;
+
+import com.github.msorkhpar.claudejavatutor.javapersistence.JdbcOperations.Employee;
+import org.junit.jupiter.api.*;
+
+import java.lang.invoke.MethodHandles;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Record Row Mapper Tests")
+class RecordRowMapperTest {
+
+    private static final String URL = "jdbc:h2:mem:recordmapper;DB_CLOSE_DELAY=-1";
+
+    public record Invoice(long invoiceId, String customerName, BigDecimal amount, Integer discountPercent,
+                          LocalDate issuedOn, boolean paid) {
+    }
+
+    private JdbcOperations jdbc;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        jdbc = new JdbcOperations(URL, "sa", "");
+        jdbc.dropEmployeeTable();
+        jdbc.createEmployeeTable();
+        try (Connection conn = jdbc.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS invoices");
+            stmt.execute("""
+                    CREATE TABLE invoices (
+                        invoice_id BIGINT PRIMARY KEY,
+                        customer_name VARCHAR(100),
+                        amount DECIMAL(10,2),
+                        discount_percent INT,
+                        issued_on DATE,
+                        paid BOOLEAN
+                    )
+                    """);
+            stmt.execute("INSERT INTO invoices VALUES (1, 'Acme', 120.50, NULL, DATE '2024-03-01', TRUE)");
+            stmt.execute("INSERT INTO invoices VALUES (2, 'Globex', 80.00, 10, DATE '2024-03-02', FALSE)");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        jdbc.dropEmployeeTable();
+        try (Connection conn = jdbc.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS invoices");
+        }
+    }
+
+    private <R extends Record> List<R> query(String sql, RowMapper<R> mapper) throws SQLException {
+        List<R> rows = new ArrayList<>();
+        try (Connection conn = jdbc.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            RowMapper<R> bound = mapper.forResultSet(rs);
+            while (rs.next()) {
+                rows.add(bound.mapRow(rs));
+            }
+        }
+        return rows;
+    }
+
+    @Nested
+    @DisplayName("Mapping")
+    class MappingTests {
+
+        @Test
+        @DisplayName("Should map snake_case columns, nulls and object types by component")
+        void testMapsComponents() throws SQLException {
+            List<Invoice> invoices = query("SELECT * FROM invoices ORDER BY invoice_id",
+                    RowMapper.forRecord(Invoice.class));
+
+            assertThat(invoices).containsExactly(
+                    new Invoice(1, "Acme", new BigDecimal("120.50"), null, LocalDate.of(2024, 3, 1), true),
+                    new Invoice(2, "Globex", new BigDecimal("80.00"), 10, LocalDate.of(2024, 3, 2), false));
+        }
+
+        @Test
+        @DisplayName("Should resolve columns by label regardless of their order in the query")
+        void testColumnOrder() throws SQLException {
+            List<Invoice> invoices = query(
+                    "SELECT paid, issued_on, discount_percent, amount, customer_name, invoice_id, 'x' AS extra "
+                            + "FROM invoices WHERE invoice_id = 2",
+                    RowMapper.forRecord(Invoice.class));
+
+            assertThat(invoices).singleElement().extracting(Invoice::customerName).isEqualTo("Globex");
+        }
+
+        @Test
+        @DisplayName("mapRow should work without forResultSet for single rows")
+        void testUnboundMapRow() throws SQLException {
+            try (Connection conn = jdbc.getConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT * FROM invoices WHERE invoice_id = 1")) {
+                assertThat(rs.next()).isTrue();
+                assertThat(RowMapper.forRecord(Invoice.class).mapRow(rs).invoiceId()).isEqualTo(1);
+            }
+        }
+
+        @Test
+        @DisplayName("JdbcOperations should map employees through the compiled mapper")
+        void testEmployees() throws SQLException {
+            int id = jdbc.insertWithPreparedStatement("Alice", "alice@example.com", 75000, "Engineering");
+
+            assertThat(jdbc.findById(id)).contains(
+                    new Employee(id, "Alice", "alice@example.com", 75000, "Engineering", true));
+            assertThat(jdbc.findAll()).hasSize(1);
+            try (Stream<Employee> employees = jdbc.streamAll()) {
+                assertThat(employees.map(Employee::name)).containsExactly("Alice");
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Validation")
+    class ValidationTests {
+
+        record Missing(long invoiceId, String note) {
+        }
+
+        @Test
+        @DisplayName("Should share one mapper per record type")
+        void testCached() {
+            assertThat(RowMapper.forRecord(Invoice.class)).isSameAs(RecordRowMapper.of(Invoice.class));
+        }
+
+        @Test
+        @DisplayName("Should fail with SQLException when a component has no column")
+        void testMissingColumn() throws SQLException {
+            try (Connection conn = jdbc.getConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT * FROM invoices")) {
+                RecordRowMapper<Missing> mapper = RecordRowMapper.of(Missing.class, MethodHandles.lookup());
+                assertThatThrownBy(() -> mapper.forResultSet(rs))
+                        .isInstanceOf(SQLException.class)
+                        .hasMessageContaining("note");
+            }
+        }
+
+        @Test
+        @DisplayName("Should reject char components")
+        void testUnsupportedComponent() {
+            record Initial(char letter) {
+            }
+            assertThatThrownBy(() -> RecordRowMapper.of(Initial.class, MethodHandles.lookup()))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.github.msorkhpar.claudejavatutor.javapersistence;
+
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Result Set Spliterator Tests")
+class ResultSetSpliteratorTest {
+
+    private static final String URL = "jdbc:h2:mem:rsstream;DB_CLOSE_DELAY=-1";
+    private static final int ROWS = 10_000;
+
+    private static ConnectionPool pool;
+
+    @BeforeAll
+    static void createTable() throws SQLException {
+        pool = ConnectionPool.builder(URL, "sa", "").maxSize(2).build();
+        try (Connection conn = pool.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE numbers AS SELECT X AS n FROM SYSTEM_RANGE(1, " + ROWS + ")");
+        }
+    }
+
+    @AfterAll
+    static void dropTable() throws SQLException {
+        try (Connection conn = pool.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE numbers");
+        }
+        pool.close();
+    }
+
+    private static Stream<Integer> numbers(RowMapper<Integer> mapper) throws SQLException {
+        return ResultSetSpliterator.stream(pool, "SELECT n FROM numbers ORDER BY n", 100, mapper);
+    }
+
+    @Nested
+    @DisplayName("Laziness")
+    class LazinessTests {
+
+        @Test
+        @DisplayName("Should read every row in order")
+        void testReadsAllRows() throws SQLException {
+            try (Stream<Integer> stream = numbers(rs -> rs.getInt(1))) {
+                List<Integer> all = stream.toList();
+                assertThat(all).hasSize(ROWS);
+                assertThat(all).isSorted();
+            }
+        }
+
+        @Test
+        @DisplayName("Should map only the rows the pipeline pulls")
+        void testMapsOnDemand() throws SQLException {
+            AtomicInteger mapped = new AtomicInteger();
+            try (Stream<Integer> stream = numbers(rs -> {
+                mapped.incrementAndGet();
+                return rs.getInt(1);
+            })) {
+                assertThat(stream.limit(5).toList()).containsExactly(1, 2, 3, 4, 5);
+            }
+            assertThat(mapped.get()).isEqualTo(5);
+        }
+
+        @Test
+        @DisplayName("Should bind query parameters in order")
+        void testParameters() throws SQLException {
+            try (Stream<Integer> stream = ResultSetSpliterator.stream(pool,
+                    "SELECT n FROM numbers WHERE n BETWEEN ? AND ? ORDER BY n", 10, rs -> rs.getInt(1), 3, 6)) {
+                assertThat(stream).containsExactly(3, 4, 5, 6);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Resource Release")
+    class ReleaseTests {
+
+        @Test
+        @DisplayName("Should hold the connection until the stream is closed")
+        void testCloseReleasesConnection() throws SQLException {
+            Stream<Integer> stream = numbers(rs -> rs.getInt(1));
+            Optional<Integer> first = stream.findFirst();
+            assertThat(first).contains(1);
+            assertThat(pool.getActiveCount()).isEqualTo(1);
+
+            stream.close();
+            assertThat(pool.getActiveCount()).isZero();
+            stream.close(); // idempotent
+        }
+
+        @Test
+        @DisplayName("Should release the connection once the last row is read")
+        void testExhaustionReleasesConnection() throws SQLException {
+            Stream<Integer> stream = numbers(rs -> rs.getInt(1));
+            assertThat(stream.count()).isEqualTo(ROWS);
+            assertThat(pool.getActiveCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should restore auto-commit on the returned connection")
+        void testAutoCommitRestored() throws SQLException {
+            try (Stream<Integer> stream = numbers(rs -> rs.getInt(1))) {
+                stream.limit(1).forEach(n -> { });
+            }
+            try (Connection conn = pool.getConnection()) {
+                assertThat(conn.getAutoCommit()).isTrue();
+            }
+        }
+
+        @Test
+        @DisplayName("Should wrap mapping failures and release the connection")
+        void testMappingFailure() throws SQLException {
+            try (Stream<Integer> stream = numbers(rs -> rs.getInt("missing"))) {
+                assertThatThrownBy(stream::toList)
+                        .isInstanceOf(UncheckedSQLException.class)
+                        .hasCauseInstanceOf(SQLException.class);
+                assertThat(pool.getActiveCount()).isZero();
+            }
+        }
+
+        @Test
+        @DisplayName("Should release the connection when the query fails")
+        void testQueryFailure() {
+            assertThatThrownBy(() -> ResultSetSpliterator.stream(pool, "SELECT * FROM missing", 10, rs -> 1))
+                    .isInstanceOf(SQLException.class);
+            assertThat(pool.getActiveCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should reject a non-positive fetch size")
+        void testFetchSizeValidation() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> ResultSetSpliterator.stream(pool, "SELECT 1", 0, rs -> 1));
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package com.github.msorkhpar.claudejavatutor.javapersistence;
+
+import com.github.msorkhpar.claudejavatutor.base.MetricsRegistry;
+import com.github.msorkhpar.claudejavatutor.javapersistence.OrmPatterns.Product;
+import com.github.msorkhpar.claudejavatutor.javapersistence.OrmPatterns.ProductRepository;
+import com.github.msorkhpar.claudejavatutor.javapersistence.RoutingDataSource.Selection;
+import org.junit.jupiter.api.*;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Routing DataSource Tests")
+class RoutingDataSourceTest {
+
+    private static final String PRIMARY_URL = "jdbc:h2:mem:routing_primary";
+    private static final String REPLICA_1_URL = "jdbc:h2:mem:routing_replica_1";
+    private static final String REPLICA_2_URL = "jdbc:h2:mem:routing_replica_2";
+
+    private DriverManagerDataSource primary;
+    private DriverManagerDataSource replica1;
+    private DriverManagerDataSource replica2;
+    private MetricsRegistry metrics;
+
+    @BeforeEach
+    void setUp() {
+        primary = new DriverManagerDataSource(PRIMARY_URL + ";DB_CLOSE_DELAY=-1", "sa", "");
+        replica1 = new DriverManagerDataSource(REPLICA_1_URL + ";DB_CLOSE_DELAY=-1", "sa", "");
+        replica2 = new DriverManagerDataSource(REPLICA_2_URL + ";DB_CLOSE_DELAY=-1", "sa", "");
+        metrics = new MetricsRegistry();
+    }
+
+    private RoutingDataSource.Builder routing() {
+        return RoutingDataSource.builder("primary", primary).metrics(metrics);
+    }
+
+    /**
+     * The URL of the database {@code conn} is connected to, without settings.
+     */
+    private static String urlOf(Connection conn) throws SQLException {
+        return conn.getMetaData().getURL().split(";")[0];
+    }
+
+    /**
+     * A {@code type} proxy over {@code target} whose statements, down to any depth, sleep for
+     * {@code millis} before each {@code execute*} call: a replica with a slow network.
+     */
+    private static Object delaying(Class<?> type, Object target, long millis) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getName().startsWith("execute")) {
+                Thread.sleep(millis);
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            Class<?> returned = method.getReturnType();
+            return returned == Connection.class || Statement.class.isAssignableFrom(returned)
+                    ? delaying(returned, result, millis)
+                    : result;
+        });
+    }
+
+    private List<String> readUrls(RoutingDataSource routing, int reads) throws SQLException {
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < reads; i++) {
+            try (Connection conn = routing.getReadConnection()) {
+                urls.add(urlOf(conn));
+            }
+        }
+        return urls;
+    }
+
+    @Nested
+    @DisplayName("Selection")
+    class SelectionTests {
+
+        @Test
+        @DisplayName("Should send getConnection to the primary")
+        void testWritesGoToPrimary() throws SQLException {
+            RoutingDataSource routing = routing().replica("replica-1", replica1).build();
+
+            try (Connection conn = routing.getConnection()) {
+                assertThat(urlOf(conn)).isEqualTo(PRIMARY_URL);
+            }
+        }
+
+        @Test
+        @DisplayName("Should cycle through replicas round robin")
+        void testRoundRobin() throws SQLException {
+            RoutingDataSource routing = routing()
+                    .replica("replica-1", replica1)
+                    .replica("replica-2", replica2)
+                    .build();
+
+            assertThat(readUrls(routing, 4))
+                    .containsExactly(REPLICA_1_URL, REPLICA_2_URL, REPLICA_1_URL, REPLICA_2_URL);
+            assertThat(routing.getConnectionCount("replica-1")).isEqualTo(2);
+            assertThat(routing.getConnectionCount("primary")).isZero();
+        }
+
+        @Test
+        @DisplayName("Should prefer the replica with the lowest latency")
+        void testLeastLatency() throws Exception {
+            RoutingDataSource routing = routing()
+                    .replica("replica-1", (DataSource) delaying(DataSource.class, replica1, 50))
+                    .replica("replica-2", replica2)
+                    .selection(Selection.LEAST_LATENCY)
+                    .build();
+            try (Connection slow = routing.getReadConnection(); Statement stmt = slow.createStatement()) {
+                assertThat(urlOf(slow)).isEqualTo(REPLICA_1_URL);
+                stmt.execute("SELECT 1");
+            }
+
+            List<String> urls = readUrls(routing, RoutingDataSource.PROBE_INTERVAL - 1);
+
+            assertThat(urls).containsOnly(REPLICA_2_URL);
+            assertThat(routing.getAverageLatencyMillis("replica-1")).isGreaterThanOrEqualTo(50.0);
+            assertThat(routing.getAverageLatencyMillis("replica-2"))
+                    .isLessThan(routing.getAverageLatencyMillis("replica-1"));
+            try (Connection probe = routing.getReadConnection()) {
+                assertThat(urlOf(probe)).isEqualTo(REPLICA_1_URL);
+            }
+        }
+
+        @Test
+        @DisplayName("Time the caller holds a connection should not count as latency")
+        void testHoldTimeIsNotLatency() throws Exception {
+            RoutingDataSource routing = routing()
+                    .replica("replica-1", replica1)
+                    .selection(Selection.LEAST_LATENCY)
+                    .build();
+
+            try (Connection conn = routing.getReadConnection(); Statement stmt = conn.createStatement()) {
+                stmt.execute("SELECT 1");
+                assertThat(stmt.getConnection()).isSameAs(conn);
+                Thread.sleep(50); // caller work, e.g. consuming a stream
+            }
+
+            assertThat(routing.getAverageLatencyMillis("replica-1")).isPositive().isLessThan(50.0);
+            assertThat(metrics.exportPrometheus())
+                    .contains("routing_datasource_statement_seconds_count{target=\"replica-1\"} 1\n")
+                    .contains("routing_datasource_connection_seconds_count{target=\"replica-1\"} 1\n");
+        }
+
+        @Test
+        @DisplayName("Should read from the primary without replicas")
+        void testNoReplicas() throws SQLException {
+            RoutingDataSource routing = routing().build();
+
+            assertThat(readUrls(routing, 2)).containsOnly(PRIMARY_URL);
+        }
+    }
+
+    @Nested
+    @DisplayName("Failover and Metrics")
+    class FailoverTests {
+
+        @Test
+        @DisplayName("Should fall back to another replica and then the primary")
+        void testFailover() throws SQLException {
+            DriverManagerDataSource broken = new DriverManagerDataSource("jdbc:unknown:replica", "sa", "");
+            RoutingDataSource routing = routing()
+                    .replica("broken", broken)
+                    .replica("replica-1", replica1)
+                    .build();
+
+            assertThat(readUrls(routing, 2)).containsOnly(REPLICA_1_URL);
+
+            RoutingDataSource onlyBroken = RoutingDataSource.builder("primary", primary)
+                    .replica("broken", broken)
+                    .build();
+            assertThat(readUrls(onlyBroken, 1)).containsExactly(PRIMARY_URL);
+            assertThat(metrics.exportPrometheus())
+                    .contains("routing_datasource_failures_total{target=\"broken\"} 1\n");
+        }
+
+        @Test
+        @DisplayName("Least latency should avoid a failing replica until a probe")
+        void testLeastLatencyAvoidsBrokenReplica() throws SQLException {
+            DriverManagerDataSource broken = new DriverManagerDataSource("jdbc:unknown:replica", "sa", "");
+            RoutingDataSource routing = routing()
+                    .replica("broken", broken)
+                    .replica("replica-1", replica1)
+                    .selection(Selection.LEAST_LATENCY)
+                    .build();
+
+            assertThat(readUrls(routing, RoutingDataSource.PROBE_INTERVAL)).containsOnly(REPLICA_1_URL);
+
+            // Only the first pick, a round-robin probe, tried the broken replica
+            assertThat(metrics.exportPrometheus())
+                    .contains("routing_datasource_failures_total{target=\"broken\"} 1\n");
+            assertThat(routing.getAverageLatencyMillis("broken")).isInfinite();
+            readUrls(routing, 1);
+            assertThat(metrics.exportPrometheus())
+                    .contains("routing_datasource_failures_total{target=\"broken\"} 2\n");
+        }
+
+        @Test
+        @DisplayName("Should export connection time per target")
+        void testMetrics() throws SQLException {
+            RoutingDataSource routing = routing().replica("replica-1", replica1).build();
+            readUrls(routing, 3);
+            routing.getConnection().close();
+
+            assertThat(metrics.exportPrometheus())
+                    .contains("routing_datasource_connection_seconds_count{target=\"replica-1\"} 3\n")
+                    .contains("routing_datasource_connection_seconds_count{target=\"primary\"} 1\n");
+        }
+
+        @Test
+        @DisplayName("Should reject duplicate target names")
+        void testDuplicateNames() {
+            assertThatThrownBy(() -> routing().replica("primary", replica1))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> routing().replica("r", replica1).replica("r", replica2))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Repository Integration")
+    class IntegrationTests {
+
+        @Test
+        @DisplayName("JdbcOperations should read from the replica and write to the primary")
+        void testJdbcOperations() throws SQLException {
+            JdbcOperations onPrimary = new JdbcOperations(primary);
+            JdbcOperations onReplica = new JdbcOperations(replica1);
+            JdbcOperations routed = new JdbcOperations(routing().replica("replica-1", replica1).build());
+            for (JdbcOperations jdbc : List.of(onPrimary, onReplica)) {
+                jdbc.dropEmployeeTable();
+                jdbc.createEmployeeTable();
+            }
+            try {
+                onReplica.insertWithPreparedStatement("Replica", "replica@example.com", 50000, "Engineering");
+
+                routed.insertWithPreparedStatement("Primary", "primary@example.com", 70000, "Engineering");
+
+                assertThat(onPrimary.findAll()).extracting(JdbcOperations.Employee::name).containsExactly("Primary");
+                assertThat(routed.findAll()).extracting(JdbcOperations.Employee::name).containsExactly("Replica");
+                assertThat(routed.getAverageSalaryByDepartment("Engineering")).contains(50000.0);
+                try (var stream = routed.streamAll()) {
+                    assertThat(stream.map(JdbcOperations.Employee::name)).containsExactly("Replica");
+                }
+            } finally {
+                onPrimary.dropEmployeeTable();
+                onReplica.dropEmployeeTable();
+            }
+        }
+
+        @Test
+        @DisplayName("ProductRepository should read from the replica and write to the primary")
+        void testProductRepository() throws SQLException {
+            ProductRepository onPrimary = new ProductRepository(primary);
+            ProductRepository onReplica = new ProductRepository(replica1);
+            ProductRepository routed = new ProductRepository(routing().replica("replica-1", replica1).build());
+            for (ProductRepository repository : List.of(onPrimary, onReplica)) {
+                repository.dropTables();
+                repository.createTables();
+            }
+            try {
+                int fruit = onReplica.saveCategory("Fruit");
+                onReplica.save(new Product(0, "Apple", 1.0, fruit));
+
+                routed.saveCategory("Fruit");
+                routed.save(new Product(0, "Pear", 2.0, fruit));
+                try (ProductRepository.Session session = routed.openSession()) {
+                    session.save(new Product(0, "Plum", 3.0, fruit));
+                    session.commit();
+                }
+
+                assertThat(onPrimary.count()).isEqualTo(2);
+                assertThat(routed.count()).isEqualTo(1);
+                assertThat(routed.findByPriceRange(0, 10)).extracting(Product::getName).containsExactly("Apple");
+            } finally {
+                onPrimary.dropTables();
+                onReplica.dropTables();
+            }
+        }
+
+        @Test
+        @DisplayName("Cache misses should load from the primary, not a lagging replica")
+        void testCacheLoadsUsePrimary() throws SQLException {
+            ProductRepository onPrimary = new ProductRepository(primary);
+            // Never receives the primary's writes: a replica lagging forever
+            ProductRepository onReplica = new ProductRepository(replica1);
+            ProductRepository routed = new ProductRepository(routing().replica("replica-1", replica1).build(),
+                    ProductRepository.productCache(100, metrics), ProductRepository.categoryCache(100, metrics),
+                    ProductRepository.queryCache(100, Duration.ofMinutes(1), metrics));
+            for (ProductRepository repository : List.of(onPrimary, onReplica)) {
+                repository.dropTables();
+                repository.createTables();
+            }
+            try {
+                onReplica.save(new Product(0, "Apple", 1.0, onReplica.saveCategory("Fruit")));
+                int appleId = onPrimary.save(new Product(0, "Apple", 1.0, onPrimary.saveCategory("Fruit"))).getId();
+                Product apple = routed.findById(appleId).orElseThrow();
+                assertThat(routed.count()).isEqualTo(1);
+
+                apple.setPrice(2.0);
+                routed.save(apple);
+                routed.save(new Product(0, "Pear", 3.0, apple.getCategoryId()));
+
+                assertThat(routed.findById(appleId)).get().extracting(Product::getPrice).isEqualTo(2.0);
+                assertThat(routed.findCategoryWithProducts(apple.getCategoryId())).get()
+                        .extracting(category -> category.getProducts().size()).isEqualTo(2);
+                assertThat(routed.count()).isEqualTo(2);
+                assertThat(routed.findProductNamesByCategoryName("Fruit")).containsExactlyInAnyOrder("Apple", "Pear");
+                // Uncached reads still go to the replica
+                assertThat(routed.findByPriceRange(0, 10)).extracting(Product::getPrice).containsExactly(1.0);
+            } finally {
+                onPrimary.dropTables();
+                onReplica.dropTables();
+            }
+        }
+
+        @Test
+        @DisplayName("A cached average should be reloaded from the primary after a write")
+        void testCachedAverageUsesPrimary() throws SQLException {
+            JdbcOperations onPrimary = new JdbcOperations(primary);
+            JdbcOperations onReplica = new JdbcOperations(replica1);
+            JdbcOperations routed = new JdbcOperations(routing().replica("replica-1", replica1).build(),
+                    new QueryCache("employee", 100, Duration.ofMinutes(1), metrics));
+            for (JdbcOperations jdbc : List.of(onPrimary, onReplica)) {
+                jdbc.dropEmployeeTable();
+                jdbc.createEmployeeTable();
+            }
+            try {
+                onReplica.insertWithPreparedStatement("Alice", "alice@example.com", 50000, "Engineering");
+                int alice = onPrimary.insertWithPreparedStatement("Alice", "alice@example.com", 50000, "Engineering");
+                assertThat(routed.getAverageSalaryByDepartment("Engineering")).contains(50000.0);
+
+                routed.updateSalary(alice, 70000);
+
+                assertThat(routed.getAverageSalaryByDepartment("Engineering")).contains(70000.0);
+            } finally {
+                onPrimary.dropEmployeeTable();
+                onReplica.dropEmployeeTable();
+            }
+        }
+
+        @Test
+        @DisplayName("TransactionControl should run its transactions on the primary")
+        void testTransactionsOnPrimary() throws SQLException {
+            RoutingDataSource routing = routing().replica("replica-1", replica1).build();
+            TransactionControl onPrimary = new TransactionControl(primary);
+            TransactionControl routed = new TransactionControl(routing);
+            onPrimary.dropAccountsTable();
+            onPrimary.createAccountsTable();
+            try {
+                int alice = routed.createAccount("Alice", 100);
+                int bob = routed.createAccount("Bob", 0);
+
+                assertThat(routed.transfer(alice, bob, 40)).isTrue();
+
+                assertThat(onPrimary.findAccount(bob)).get()
+                        .extracting(TransactionControl.Account::balance).isEqualTo(40.0);
+                assertThat(routing.getConnectionCount("replica-1")).isZero();
+            } finally {
+                onPrimary.dropAccountsTable();
+            }
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.github.msorkhpar.claudejavatutor.javapersistence;
+
+import com.github.msorkhpar.claudejavatutor.base.MetricsRegistry;
+import com.github.msorkhpar.claudejavatutor.javapersistence.JdbcOperations.Employee;
+import org.junit.jupiter.api.*;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Salary Write-Behind Tests")
+class SalaryWriteBehindTest {
+
+    private static final String URL = "jdbc:h2:mem:writebehind;DB_CLOSE_DELAY=-1";
+
+    private JdbcOperations jdbc;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        jdbc = new JdbcOperations(URL, "sa", "");
+        jdbc.dropEmployeeTable();
+        jdbc.createEmployeeTable();
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        jdbc.dropEmployeeTable();
+    }
+
+    private int insert(String name, double salary) throws SQLException {
+        return jdbc.insertWithPreparedStatement(name, name.toLowerCase() + "@example.com", salary, "Engineering");
+    }
+
+    private double committedSalary(int id) throws SQLException {
+        return jdbc.findById(id).orElseThrow().salary();
+    }
+
+    @Nested
+    @DisplayName("Coalescing and Flushing")
+    class FlushTests {
+
+        @Test
+        @DisplayName("Should keep only the latest salary per id and write it once")
+        void testCoalescesUpdates() throws SQLException {
+            int alice = insert("Alice", 50000);
+            MetricsRegistry metrics = new MetricsRegistry();
+
+            List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+            try (SalaryWriteBehind salaries = jdbc.salaryWriteBehind()
+                    .flushInterval(Duration.ofHours(1)).metrics(metrics).build()) {
+                for (int salary = 50001; salary <= 50100; salary++) {
+                    futures.add(salaries.updateSalary(alice, salary));
+                }
+                assertThat(salaries.pendingCount()).isEqualTo(1);
+                assertThat(committedSalary(alice)).isEqualTo(50000);
+            }
+
+            assertThat(committedSalary(alice)).isEqualTo(50100);
+            assertThat(futures).allSatisfy(future -> assertThat(future.join()).isTrue());
+            assertThat(metrics.counter("salary_write_behind_updates_total", "").sum()).isEqualTo(100);
+            assertThat(metrics.counter("salary_write_behind_coalesced_total", "").sum()).isEqualTo(99);
+            assertThat(metrics.counter("salary_write_behind_rows_written_total", "").sum()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should flush once maxPending distinct ids are buffered")
+        void testSizeTrigger() throws SQLException {
+            int alice = insert("Alice", 50000);
+            int bob = insert("Bob", 60000);
+            MetricsRegistry metrics = new MetricsRegistry();
+
+            try (SalaryWriteBehind salaries = jdbc.salaryWriteBehind()
+                    .maxPending(2).flushInterval(Duration.ofHours(1)).metrics(metrics).build()) {
+                CompletableFuture<Boolean> first = salaries.updateSalary(alice, 51000);
+                CompletableFuture<Boolean> second = salaries.updateSalary(bob, 61000);
+
+                assertThat(first.join()).isTrue();
+                assertThat(second.join()).isTrue();
+                assertThat(committedSalary(alice)).isEqualTo(51000);
+                assertThat(committedSalary(bob)).isEqualTo(61000);
+            }
+            assertThat(metrics.counter("salary_write_behind_flushes_total", "", "trigger", "size").sum())
+                    .isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should block new ids while a full buffer waits for a running flush")
+        void testBackpressure() throws Exception {
+            int alice = insert("Alice", 50000);
+            int bob = insert("Bob", 60000);
+            int carol = insert("Carol", 70000);
+            MetricsRegistry metrics = new MetricsRegistry();
+            CountDownLatch taken = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+
+            try (SalaryWriteBehind salaries = jdbc.salaryWriteBehind()
+                    .maxPending(1).flushInterval(Duration.ofHours(1)).metrics(metrics).build()) {
+                // Runs on the flusher once Alice is committed and holds it there
+                CompletableFuture<Void> stalled = salaries.updateSalary(alice, 51000).thenRun(() -> {
+                    taken.countDown();
+                    assertThatCode(release::await).doesNotThrowAnyException();
+                });
+                taken.await();
+                CompletableFuture<Boolean> second = salaries.updateSalary(bob, 61000);
+                CompletableFuture<Boolean> third = CompletableFuture
+                        .supplyAsync(() -> salaries.updateSalary(carol, 71000))
+                        .thenCompose(written -> written);
+
+                Thread.sleep(100);
+                assertThat(third).isNotDone();
+                assertThat(salaries.pendingCount()).isEqualTo(1);
+                assertThat(salaries.updateSalary(bob, 62000)).isNotDone(); // coalesced, not blocked
+
+                release.countDown();
+                stalled.join();
+                assertThat(second.join()).isTrue();
+                assertThat(third.join()).isTrue();
+            }
+            assertThat(committedSalary(bob)).isEqualTo(62000);
+            assertThat(committedSalary(carol)).isEqualTo(71000);
+            assertThat(metrics.counter("salary_write_behind_blocked_total", "").sum()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should flush after flushInterval without reaching maxPending")
+        void testTimeTrigger() throws SQLException {
+            int alice = insert("Alice", 50000);
+
+            try (SalaryWriteBehind salaries = jdbc.salaryWriteBehind()
+                    .flushInterval(Duration.ofMillis(20)).build()) {
+                assertThat(salaries.updateSalary(alice, 52000).join()).isTrue();
+                assertThat(committedSalary(alice)).isEqualTo(52000);
+            }
+        }
+
+        @Test
+        @DisplayName("flush() should return once buffered writes are committed")
+        void testExplicitFlush() throws SQLException {
+            int alice = insert("Alice", 50000);
+
+            try (SalaryWriteBehind salaries = jdbc.salaryWriteBehind()
+                    .flushInterval(Duration.ofHours(1)).build()) {
+                CompletableFuture<Boolean> written = salaries.updateSalary(alice, 53000);
+                salaries.flush();
+
+                assertThat(written).isCompletedWithValue(true);
+                assertThat(salaries.pendingCount()).isZero();
+                assertThat(committedSalary(alice)).isEqualTo(53000);
+            }
+        }
+
+        @Test
+        @DisplayName("Should complete with false for a missing employee")
+        void testMissingEmployee() {
+            try (SalaryWriteBehind salaries = jdbc.salaryWriteBehind().build()) {
+                assertThat(salaries.updateSalary(9999, 1.0).join()).isFalse();
+            }
+        }
+
+        @Test
+        @DisplayName("Should fail every write in a batch that cannot be committed")
+        void testFailedFlush() throws SQLException {
+            int alice = insert("Alice", 50000);
+            MetricsRegistry metrics = new MetricsRegistry();
+
+            try (SalaryWriteBehind salaries = jdbc.salaryWriteBehind()
+                    .flushInterval(Duration.ofHours(1)).metrics(metrics).build()) {
+                CompletableFuture<Boolean> written = salaries.updateSalary(alice, 1e12);
+                salaries.flush();
+
+                assertThatThrownBy(written::join)
+                        .isInstanceOf(CompletionException.class)
+                        .hasCauseInstanceOf(SQLException.class);
+            }
+            assertThat(committedSalary(alice)).isEqualTo(50000);
+            assertThat(metrics.counter("salary_write_behind_failed_writes_total", "").sum()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should reject updates after close")
+        void testRejectAfterClose() {
+            SalaryWriteBehind salaries = jdbc.salaryWriteBehind().build();
+            salaries.close();
+            assertThatThrownBy(() -> salaries.updateSalary(1, 1.0)).isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Read Through")
+    class ReadTests {
+
+        @Test
+        @DisplayName("Reads should see buffered salaries before they are committed")
+        void testReadYourWrites() throws SQLException {
+            int alice = insert("Alice", 50000);
+            int bob = insert("Bob", 60000);
+
+            try (SalaryWriteBehind salaries = jdbc.salaryWriteBehind()
+                    .flushInterval(Duration.ofHours(1)).build()) {
+                salaries.updateSalary(alice, 55000);
+
+                assertThat(salaries.findById(alice)).map(Employee::salary).contains(55000.0);
+                assertThat(salaries.pendingSalary(alice)).hasValue(55000.0);
+                assertThat(salaries.pendingSalary(bob)).isEmpty();
+                assertThat(salaries.findByDepartment("Engineering"))
+                        .extracting(Employee::salary)
+                        .containsExactlyInAnyOrder(55000.0, 60000.0);
+                assertThat(committedSalary(alice)).isEqualTo(50000);
+            }
+        }
+
+        @Test
+        @DisplayName("Reads should fall back to the database once flushed")
+        void testReadAfterFlush() throws SQLException {
+            int alice = insert("Alice", 50000);
+
+            try (SalaryWriteBehind salaries = jdbc.salaryWriteBehind().build()) {
+                salaries.updateSalary(alice, 56000);
+                salaries.flush();
+
+                assertThat(salaries.pendingSalary(alice)).isEmpty();
+                assertThat(salaries.findById(alice)).map(Employee::salary).contains(56000.0);
+                assertThat(salaries.findById(9999)).isEmpty();
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.github.msorkhpar.claudejavatutor.javapersistence;
+
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Statement Cache Tests")
+class StatementCacheTest {
+
+    private static final String URL = "jdbc:h2:mem:stmtcache;DB_CLOSE_DELAY=-1";
+    private static final String SELECT_ONE = "SELECT 1";
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = ConnectionPool.builder(URL, "sa", "").maxSize(1).statementCacheSize(2).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    private static PreparedStatement physical(PreparedStatement statement) throws SQLException {
+        return statement.unwrap(PreparedStatement.class);
+    }
+
+    @Nested
+    @DisplayName("Reuse")
+    class ReuseTests {
+
+        @Test
+        @DisplayName("Repeated point lookups should reuse one prepared statement")
+        void testRepositoryLookupsHitCache() throws SQLException {
+            JdbcOperations jdbc = new JdbcOperations(pool);
+            jdbc.dropEmployeeTable();
+            jdbc.createEmployeeTable();
+            try {
+                int id = jdbc.insertWithPreparedStatement("Alice", "alice@test.com", 1000, "Eng");
+                long missesBefore = pool.getStatementCacheMisses();
+
+                for (int i = 0; i < 100; i++) {
+                    assertThat(jdbc.findById(id)).isPresent();
+                    assertThat(jdbc.updateSalary(id, 1000 + i)).isTrue();
+                }
+
+                assertThat(pool.getStatementCacheMisses() - missesBefore).isEqualTo(2);
+                assertThat(pool.getStatementCacheHits()).isGreaterThanOrEqualTo(198);
+                assertThat(jdbc.findById(id).orElseThrow().salary()).isEqualTo(1099);
+            } finally {
+                jdbc.dropEmployeeTable();
+            }
+        }
+
+        @Test
+        @DisplayName("Cached statement should start with cleared parameters")
+        void testParametersCleared() throws SQLException {
+            try (Connection conn = pool.getConnection()) {
+                try (PreparedStatement ps = conn.prepareStatement("SELECT CAST(? AS INT)")) {
+                    ps.setInt(1, 7);
+                    ps.executeQuery().close();
+                }
+                try (PreparedStatement ps = conn.prepareStatement("SELECT CAST(? AS INT)")) {
+                    assertThatThrownBy(ps::executeQuery).isInstanceOf(SQLException.class);
+                }
+            }
+            assertThat(pool.getStatementCacheHits()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Statement should report the logical connection and reject use after close")
+        void testHandleSemantics() throws SQLException {
+            try (Connection conn = pool.getConnection()) {
+                PreparedStatement ps = conn.prepareStatement(SELECT_ONE);
+                assertThat(ps.getConnection()).isSameAs(conn);
+                ps.close();
+                assertThat(ps.isClosed()).isTrue();
+                assertThat(physical(conn.prepareStatement(SELECT_ONE)).isClosed()).isFalse();
+                assertThatThrownBy(ps::executeQuery).isInstanceOf(SQLException.class);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Check-out and Eviction")
+    class EvictionTests {
+
+        @Test
+        @DisplayName("The same SQL open twice should get two distinct statements")
+        void testConcurrentUseOfSameSql() throws SQLException {
+            try (Connection conn = pool.getConnection()) {
+                PreparedStatement first = conn.prepareStatement(SELECT_ONE);
+                PreparedStatement second = conn.prepareStatement(SELECT_ONE);
+                try (ResultSet a = first.executeQuery(); ResultSet b = second.executeQuery()) {
+                    assertThat(a.next()).isTrue();
+                    assertThat(b.next()).isTrue();
+                }
+                PreparedStatement firstPhysical = physical(first);
+                PreparedStatement secondPhysical = physical(second);
+                assertThat(firstPhysical).isNotSameAs(secondPhysical);
+                first.close();
+                second.close();
+                // only one copy is kept; the one it replaced is closed
+                assertThat(firstPhysical.isClosed()).isTrue();
+                assertThat(secondPhysical.isClosed()).isFalse();
+            }
+        }
+
+        @Test
+        @DisplayName("Least recently used statement should be closed when the cache is full")
+        void testLruEviction() throws SQLException {
+            try (Connection conn = pool.getConnection()) {
+                PreparedStatement a = conn.prepareStatement("SELECT 1");
+                PreparedStatement aPhysical = physical(a);
+                a.close();
+                conn.prepareStatement("SELECT 2").close();
+                conn.prepareStatement("SELECT 3").close();
+
+                assertThat(aPhysical.isClosed()).isTrue();
+                assertThat(pool.getMetrics().exportPrometheus())
+                        .contains("connection_pool_statement_cache_evictions_total{pool=\"default\"} 1\n");
+            }
+        }
+
+        @Test
+        @DisplayName("Statements with changed limits should not be cached")
+        void testStatefulSetterBypassesCache() throws SQLException {
+            try (Connection conn = pool.getConnection()) {
+                PreparedStatement ps = conn.prepareStatement(SELECT_ONE);
+                PreparedStatement psPhysical = physical(ps);
+                ps.setMaxRows(1);
+                ps.close();
+
+                assertThat(psPhysical.isClosed()).isTrue();
+                try (PreparedStatement again = conn.prepareStatement(SELECT_ONE)) {
+                    assertThat(again.getMaxRows()).isZero();
+                }
+            }
+            assertThat(pool.getStatementCacheHits()).isZero();
+        }
+
+        @Test
+        @DisplayName("Statements left open are returned to the cache with the connection")
+        void testOpenStatementsReturnedOnRelease() throws SQLException {
+            PreparedStatement leaked;
+            try (Connection conn = pool.getConnection()) {
+                leaked = conn.prepareStatement(SELECT_ONE);
+            }
+            assertThat(leaked.isClosed()).isTrue();
+
+            try (Connection conn = pool.getConnection()) {
+                conn.prepareStatement(SELECT_ONE).close();
+            }
+            assertThat(pool.getStatementCacheHits()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Disabled cache should hand out driver statements directly")
+        void testDisabled() throws SQLException {
+            try (ConnectionPool uncached = ConnectionPool.builder(URL, "sa", "").build();
+                 Connection conn = uncached.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(SELECT_ONE)) {
+                assertThat(ps.toString()).doesNotStartWith("Cached[");
+                assertThat(uncached.getStatementCacheMisses()).isZero();
+            }
+        }
+    }
+}
@@ -317,5 +317,18 @@ class TransactionControlTest {
             assertThat(txControl.findAccount(id1).get().balance()).isEqualTo(1200.00);
             assertThat(txControl.findAccount(id2).get().balance()).isEqualTo(300.00);
         }
+
+        @Test
+        @DisplayName("Should update balance under a FOR UPDATE lock and bump the version")
+        void testUpdateBalanceWithPessimisticLock() throws SQLException {
+            int id = txControl.createAccount("Alice", 1000.00);
+
+            Optional<TransactionControl.Account> updated =
+                    txControl.updateBalanceWithPessimisticLock(id, balance -> balance * 2);
+
+            assertThat(updated).contains(new TransactionControl.Account(id, "Alice", 2000.00, 1));
+            assertThat(txControl.findAccount(id)).isEqualTo(updated);
+            assertThat(txControl.updateBalanceWithPessimisticLock(9999, balance -> balance)).isEmpty();
+        }
     }
 }
@@ -0,0 +1,215 @@
+package com.github.msorkhpar.claudejavatutor.javapersistence;
+
+import com.github.msorkhpar.claudejavatutor.base.MetricsRegistry;
+import org.junit.jupiter.api.*;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Transfer Engine Tests")
+class TransferEngineTest {
+
+    private static final String URL = "jdbc:h2:mem:transferengine;DB_CLOSE_DELAY=-1";
+
+    private TransactionControl txControl;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        txControl = new TransactionControl(URL, "sa", "");
+        txControl.dropAccountsTable();
+        txControl.createAccountsTable();
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        txControl.dropAccountsTable();
+    }
+
+    private double balance(int id) throws SQLException {
+        return txControl.findAccount(id).orElseThrow().balance();
+    }
+
+    @Nested
+    @DisplayName("Transfer Outcomes")
+    class OutcomeTests {
+
+        @Test
+        @DisplayName("Should move money and complete with true")
+        void testSuccessfulTransfer() throws SQLException {
+            int alice = txControl.createAccount("Alice", 1000.00);
+            int bob = txControl.createAccount("Bob", 500.00);
+
+            try (TransferEngine engine = txControl.transferEngine().build()) {
+                assertThat(engine.submit(alice, bob, 300.00).join()).isTrue();
+            }
+
+            assertThat(balance(alice)).isEqualTo(700.00);
+            assertThat(balance(bob)).isEqualTo(800.00);
+            assertThat(txControl.findAccount(alice).orElseThrow().version()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should complete with false on insufficient funds or a missing account")
+        void testRejectedTransfers() throws SQLException {
+            int alice = txControl.createAccount("Alice", 100.00);
+            int bob = txControl.createAccount("Bob", 0.00);
+
+            try (TransferEngine engine = txControl.transferEngine().build()) {
+                assertThat(engine.submit(alice, bob, 100.01).join()).isFalse();
+                assertThat(engine.submit(alice, 9999, 10.00).join()).isFalse();
+                assertThat(engine.submit(9999, bob, 10.00).join()).isFalse();
+            }
+
+            assertThat(balance(alice)).isEqualTo(100.00);
+            assertThat(balance(bob)).isZero();
+            assertThat(txControl.findAccount(alice).orElseThrow().version()).isZero();
+        }
+
+        @Test
+        @DisplayName("Transfers in one batch should see each other's effects in submission order")
+        void testSerialSemanticsWithinBatch() throws SQLException {
+            int alice = txControl.createAccount("Alice", 100.00);
+            int bob = txControl.createAccount("Bob", 0.00);
+            int carol = txControl.createAccount("Carol", 0.00);
+
+            List<CompletableFuture<Boolean>> results = new ArrayList<>();
+            try (TransferEngine engine = txControl.transferEngine().maxDelay(Duration.ofSeconds(1))
+                    .maxBatchSize(4).build()) {
+                results.add(engine.submit(alice, bob, 60.00));
+                results.add(engine.submit(alice, bob, 60.00));
+                results.add(engine.submit(bob, carol, 50.00));
+                results.add(engine.submit(carol, alice, 50.00));
+                assertThat(results.stream().map(CompletableFuture::join))
+                        .containsExactly(true, false, true, true);
+                assertThat(engine.getBatchCount()).isEqualTo(1);
+            }
+
+            assertThat(balance(alice)).isEqualTo(90.00);
+            assertThat(balance(bob)).isEqualTo(10.00);
+            assertThat(balance(carol)).isZero();
+        }
+
+        @Test
+        @DisplayName("Should reject negative amounts")
+        void testNegativeAmount() {
+            try (TransferEngine engine = txControl.transferEngine().build()) {
+                assertThatThrownBy(() -> engine.submit(1, 2, -1.00))
+                        .isInstanceOf(IllegalArgumentException.class);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Group Commit")
+    class GroupCommitTests {
+
+        @Test
+        @DisplayName("Concurrent transfers should conserve money and share commits")
+        void testConcurrentTransfersConserveMoney() throws Exception {
+            int accounts = 10;
+            List<Integer> ids = new ArrayList<>();
+            for (int i = 0; i < accounts; i++) {
+                ids.add(txControl.createAccount("owner" + i, 1000.00));
+            }
+            int threads = 8;
+            int perThread = 200;
+            List<CompletableFuture<Boolean>> results = new ArrayList<>();
+
+            try (TransferEngine engine = txControl.transferEngine().maxDelay(Duration.ofMillis(2)).build();
+                 ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+                List<CompletableFuture<List<CompletableFuture<Boolean>>>> submitters = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    submitters.add(CompletableFuture.supplyAsync(() -> {
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        List<CompletableFuture<Boolean>> mine = new ArrayList<>();
+                        for (int i = 0; i < perThread; i++) {
+                            int from = ids.get(random.nextInt(accounts));
+                            int to = ids.get(random.nextInt(accounts));
+                            mine.add(engine.submit(from, to, random.nextInt(1, 300)));
+                        }
+                        return mine;
+                    }, executor));
+                }
+                for (CompletableFuture<List<CompletableFuture<Boolean>>> submitter : submitters) {
+                    results.addAll(submitter.join());
+                }
+                CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+
+                assertThat(engine.getBatchCount()).isLessThan(threads * perThread);
+            }
+
+            double total = 0;
+            for (int id : ids) {
+                assertThat(balance(id)).isGreaterThanOrEqualTo(0.0);
+                total += balance(id);
+            }
+            assertThat(total).isEqualTo(accounts * 1000.00);
+            assertThat(results).hasSize(threads * perThread).allMatch(CompletableFuture::isDone);
+        }
+
+        @Test
+        @DisplayName("A failing transfer should fail alone and let the rest of its batch commit")
+        void testFailedBatchFallsBackToSingleTransfers() throws SQLException {
+            int alice = txControl.createAccount("Alice", 100.00);
+            int bob = txControl.createAccount("Bob", 100.00);
+            int whale = txControl.createAccount("Whale", 9_000_000_000_000.00);
+            int rich = txControl.createAccount("Rich", 5_000_000_000_000.00);
+            MetricsRegistry metrics = new MetricsRegistry();
+
+            CompletableFuture<Boolean> first;
+            CompletableFuture<Boolean> overflow;
+            CompletableFuture<Boolean> last;
+            try (TransferEngine engine = txControl.transferEngine().maxDelay(Duration.ofSeconds(1))
+                    .maxBatchSize(3).metrics(metrics).build()) {
+                first = engine.submit(alice, bob, 10.00);
+                // the credit exceeds DECIMAL(15,2), so the UPDATE fails
+                overflow = engine.submit(rich, whale, 5_000_000_000_000.00);
+                last = engine.submit(bob, alice, 5.00);
+
+                assertThat(first.join()).isTrue();
+                assertThat(last.join()).isTrue();
+                assertThatThrownBy(overflow::join).hasCauseInstanceOf(SQLException.class);
+            }
+
+            assertThat(balance(alice)).isEqualTo(95.00);
+            assertThat(balance(bob)).isEqualTo(105.00);
+            assertThat(balance(rich)).isEqualTo(5_000_000_000_000.00);
+            assertThat(metrics.exportPrometheus())
+                    .contains("transfer_engine_fallbacks_total 1\n")
+                    .contains("transfer_engine_transfers_total{outcome=\"applied\"} 2\n")
+                    .contains("transfer_engine_transfers_total{outcome=\"failed\"} 1\n");
+        }
+    }
+
+    @Nested
+    @DisplayName("Shutdown")
+    class ShutdownTests {
+
+        @Test
+        @DisplayName("Close should commit queued transfers and reject new ones")
+        void testCloseDrainsQueue() throws SQLException {
+            int alice = txControl.createAccount("Alice", 1000.00);
+            int bob = txControl.createAccount("Bob", 0.00);
+            List<CompletableFuture<Boolean>> results = new ArrayList<>();
+
+            TransferEngine engine = txControl.transferEngine().maxDelay(Duration.ofSeconds(5)).build();
+            for (int i = 0; i < 50; i++) {
+                results.add(engine.submit(alice, bob, 1.00));
+            }
+            engine.close();
+
+            assertThat(results).allMatch(future -> future.isDone() && future.join());
+            assertThat(balance(bob)).isEqualTo(50.00);
+            assertThatThrownBy(() -> engine.submit(alice, bob, 1.00))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.github.msorkhpar.claudejavatutor.benchmarks;
+
+import com.github.msorkhpar.claudejavatutor.base.MetricsRegistry;
+import com.github.msorkhpar.claudejavatutor.javapersistence.AsyncJdbcOperations;
+import com.github.msorkhpar.claudejavatutor.javapersistence.ConnectionPool;
+import com.github.msorkhpar.claudejavatutor.javapersistence.JdbcOperations;
+import com.github.msorkhpar.claudejavatutor.javapersistence.JdbcOperations.Employee;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A request fanning out {@value #FAN_OUT} {@code findById} calls against a pool of
+ * {@value #POOL_SIZE} connections with a simulated {@code roundTripMicros} per statement:
+ * through a fixed platform-thread executor the size of the pool, through unbounded virtual
+ * threads that all queue on the pool, and through {@link AsyncJdbcOperations}, whose semaphore
+ * admits only as many calls as there are connections.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AsyncJdbcBenchmark {
+
+    private static final String URL = "jdbc:h2:mem:jmh_async;DB_CLOSE_DELAY=-1";
+    private static final int POOL_SIZE = 8;
+    private static final int FAN_OUT = 256;
+    private static final int EMPLOYEES = 1_000;
+
+    @Param({"200"})
+    private long roundTripMicros;
+
+    private ConnectionPool pool;
+    private JdbcOperations jdbc;
+    private ExecutorService platformPool;
+    private ExecutorService virtualThreads;
+    private AsyncJdbcOperations async;
+    private int firstId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        pool = ConnectionPool.builder(URL, "sa", "").maxSize(POOL_SIZE).statementCacheSize(8).build();
+        JdbcOperations setup = new JdbcOperations(pool);
+        setup.dropEmployeeTable();
+        setup.createEmployeeTable();
+        List<Employee> employees = new ArrayList<>(EMPLOYEES);
+        for (int i = 0; i < EMPLOYEES; i++) {
+            employees.add(new Employee(0, "Employee " + i, "e" + i + "@example.com", 50_000, "Dept" + (i % 10), true));
+        }
+        setup.batchInsert(employees);
+        firstId = setup.findAll().getFirst().id();
+
+        jdbc = new JdbcOperations(new LatencyDataSource(pool, TimeUnit.MICROSECONDS.toNanos(roundTripMicros), 0));
+        platformPool = Executors.newFixedThreadPool(POOL_SIZE);
+        virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+        async = new AsyncJdbcOperations(jdbc, POOL_SIZE, new MetricsRegistry());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        async.close();
+        virtualThreads.close();
+        platformPool.close();
+        new JdbcOperations(pool).dropEmployeeTable();
+        pool.close();
+    }
+
+    private List<Optional<Employee>> fanOut(ExecutorService executor) {
+        List<CompletableFuture<Optional<Employee>>> futures = new ArrayList<>(FAN_OUT);
+        for (int i = 0; i < FAN_OUT; i++) {
+            int id = firstId + i % EMPLOYEES;
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return jdbc.findById(id);
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            }, executor));
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    @Benchmark
+    public List<Optional<Employee>> platformPool() {
+        return fanOut(platformPool);
+    }
+
+    @Benchmark
+    public List<Optional<Employee>> unboundedVirtualThreads() {
+        return fanOut(virtualThreads);
+    }
+
+    @Benchmark
+    public List<Optional<Employee>> asyncFacade() {
+        List<CompletableFuture<Optional<Employee>>> futures = new ArrayList<>(FAN_OUT);
+        for (int i = 0; i < FAN_OUT; i++) {
+            futures.add(async.findById(firstId + i % EMPLOYEES));
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.msorkhpar.claudejavatutor.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Runs every benchmark suite (or only the suites named on the command line) and writes
+ * one JMH JSON result file per suite, so runs can be diffed or fed to a comparison tool.
+ * <p>
+ * Usage: {@code java -jar benchmarks/target/benchmarks.jar [SuiteName ...]}.
+ * The output directory defaults to {@code target/jmh} and can be changed with
+ * {@code -Dbenchmarks.output=<dir>}.
+ */
+public class BenchmarkRunner {
+
+    static final List<Class<?>> SUITES = List.of(
+            ParallelStreamsBenchmark.class,
+            ForkJoinBenchmark.class,
+            ReflectionBenchmark.class,
+            DevirtualizationBenchmark.class,
+            BoundedCacheBenchmark.class,
+            JdbcBatchInsertBenchmark.class,
+            ConcurrentCounterBenchmark.class,
+            ConnectionPoolBenchmark.class,
+            BulkLoaderBenchmark.class,
+            CategoryLoadingBenchmark.class,
+            EntityCacheBenchmark.class,
+            TransferBenchmark.class,
+            OptimisticContentionBenchmark.class,
+            PaginationBenchmark.class,
+            AsyncJdbcBenchmark.class,
+            SalaryUpdateBenchmark.class,
+            RowMapperBenchmark.class,
+            QueryCacheBenchmark.class,
+            ReplicaRoutingBenchmark.class,
+            GraphTraversalBenchmark.class,
+            ParallelGraphBenchmark.class,
+            ShortestPathBenchmark.class,
+            OrderedIndexBenchmark.class
+    );
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        Path outputDir = Path.of(System.getProperty("benchmarks.output", "target/jmh"));
+        Files.createDirectories(outputDir);
+
+        Set<String> requested = Arrays.stream(args).collect(Collectors.toSet());
+        for (Class<?> suite : SUITES) {
+            if (!requested.isEmpty() && !requested.contains(suite.getSimpleName())) {
+                continue;
+            }
+            Path result = outputDir.resolve(suite.getSimpleName() + ".json");
+            Options options = new OptionsBuilder()
+                    .include("^" + suite.getName().replace(".", "\\.") + "\\.")
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(result.toString())
+                    .build();
+            new Runner(options).run();
+            System.out.println("Results written to " + result.toAbsolutePath());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.msorkhpar.claudejavatutor.benchmarks;
+
+import com.github.msorkhpar.claudejavatutor.compositioninheritance.CompositionBenefits.BoundedCache;
+import com.github.msorkhpar.claudejavatutor.compositioninheritance.CompositionBenefits.SimpleCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hit and eviction paths of {@link BoundedCache}. The access-order deque makes
+ * a hit linear in the cache size, so {@code maxSize} is the interesting parameter.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BoundedCacheBenchmark {
+
+    @Param({"16", "1024"})
+    private int maxSize;
+
+    private BoundedCache<Integer, Integer> cache;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        cache = new BoundedCache<>(new SimpleCache<>(), maxSize);
+        for (int i = 0; i < maxSize; i++) {
+            cache.put(i, i);
+        }
+        cursor = 0;
+    }
+
+    @Benchmark
+    public Integer getHit() {
+        cursor = (cursor + 1) % maxSize;
+        return cache.get(cursor);
+    }
+
+    @Benchmark
+    public int putWithEviction() {
+        int key = maxSize + cursor++;
+        cache.put(key, key);
+        return cache.size();
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.msorkhpar.claudejavatutor.benchmarks;
+
+import com.github.msorkhpar.claudejavatutor.javapersistence.BulkLoader;
+import com.github.msorkhpar.claudejavatutor.javapersistence.ConnectionPool;
+import com.github.msorkhpar.claudejavatutor.javapersistence.JdbcOperations;
+import com.github.msorkhpar.claudejavatutor.javapersistence.JdbcOperations.Employee;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Loading {@value #ROWS} employees with one {@link JdbcOperations#batchInsert(List)} call versus
+ * a {@link BulkLoader} with JDBC batches or multi-row {@code VALUES}, on one or four writer
+ * connections. Each invocation is one full load; rows per second is {@value #ROWS} divided by
+ * the reported time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkLoaderBenchmark {
+
+    private static final String URL = "jdbc:h2:mem:jmh_bulk;DB_CLOSE_DELAY=-1";
+    private static final int ROWS = 20_000;
+    private static final int BATCH_SIZE = 500;
+
+    @Param({"1", "4"})
+    private int writers;
+
+    private ConnectionPool pool;
+    private JdbcOperations jdbc;
+    private BulkLoader<Employee> batched;
+    private BulkLoader<Employee> multiRow;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        pool = ConnectionPool.builder(URL, "sa", "").maxSize(writers).build();
+        jdbc = new JdbcOperations(pool);
+        jdbc.dropEmployeeTable();
+        jdbc.createEmployeeTable();
+        batched = jdbc.bulkLoader().batchSize(BATCH_SIZE).writers(writers).build();
+        multiRow = jdbc.bulkLoader().batchSize(BATCH_SIZE).writers(writers).multiRowValues(true).build();
+    }
+
+    @Setup(Level.Invocation)
+    public void truncate() throws SQLException {
+        try (Connection conn = jdbc.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("TRUNCATE TABLE employees");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        jdbc.dropEmployeeTable();
+        pool.close();
+    }
+
+    private static Stream<Employee> employees() {
+        return IntStream.range(0, ROWS)
+                .mapToObj(i -> new Employee(0, "Employee " + i, null, 50_000 + i, "Engineering", true));
+    }
+
+    @Benchmark
+    public int[] batchInsertList() throws SQLException {
+        return jdbc.batchInsert(employees().toList());
+    }
+
+    @Benchmark
+    public BulkLoader.Result bulkLoaderBatched() throws SQLException {
+        return batched.load(employees());
+    }
+
+    @Benchmark
+    public BulkLoader.Result bulkLoaderMultiRowValues() throws SQLException {
+        return multiRow.load(employees());
+    }
+}
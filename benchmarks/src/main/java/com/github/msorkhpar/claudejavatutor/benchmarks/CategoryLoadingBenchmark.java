@@ -0,0 +1,196 @@
+package com.github.msorkhpar.claudejavatutor.benchmarks;
+
+import com.github.msorkhpar.claudejavatutor.javapersistence.BatchLoader;
+import com.github.msorkhpar.claudejavatutor.javapersistence.ConnectionPool;
+import com.github.msorkhpar.claudejavatutor.javapersistence.OrmPatterns.Category;
+import com.github.msorkhpar.claudejavatutor.javapersistence.OrmPatterns.ProductRepository;
+import org.openjdk.jmh.annotations.*;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+
+/**
+ * Loading {@value #CATEGORIES} categories with their products one by one through
+ * {@link ProductRepository#findCategoryWithProducts(int)} (1 + N) versus through the
+ * {@link BatchLoader} from {@link ProductRepository#categoryLoader()}. The {@code roundTrips}
+ * secondary metric counts prepared statements, summed over the measured iterations; each
+ * iteration is one full load.
+ * <p>
+ * In-memory H2 runs in the benchmark JVM, so a round trip costs no more than a method call and
+ * a point lookup is cheaper than one entry of a large {@code IN} list. {@code roundTripMicros}
+ * adds a simulated network delay per statement to show what the round-trip count costs against
+ * a server database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CategoryLoadingBenchmark {
+
+    private static final String URL = "jdbc:h2:mem:jmh_categories;DB_CLOSE_DELAY=-1";
+    private static final int CATEGORIES = 10_000;
+    private static final int PRODUCTS_PER_CATEGORY = 3;
+
+    private static final AtomicLong PREPARED = new AtomicLong();
+
+    @Param({"0", "100"})
+    private long roundTripMicros;
+
+    private ConnectionPool pool;
+    private ProductRepository repo;
+    private List<Integer> categoryIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        pool = ConnectionPool.builder(URL, "sa", "").maxSize(2).build();
+        ProductRepository setup = new ProductRepository(pool);
+        setup.dropTables();
+        setup.createTables();
+        categoryIds = new ArrayList<>(CATEGORIES);
+        try (Connection conn = pool.getConnection();
+             PreparedStatement products = conn.prepareStatement(
+                     "INSERT INTO products (name, price, category_id) VALUES (?, ?, ?)")) {
+            for (int i = 0; i < CATEGORIES; i++) {
+                int id = setup.saveCategory("Category " + i);
+                categoryIds.add(id);
+                for (int p = 0; p < PRODUCTS_PER_CATEGORY; p++) {
+                    products.setString(1, "Product " + i + "-" + p);
+                    products.setDouble(2, p + 0.99);
+                    products.setInt(3, id);
+                    products.addBatch();
+                }
+            }
+            products.executeBatch();
+        }
+        long roundTripNanos = TimeUnit.MICROSECONDS.toNanos(roundTripMicros);
+        repo = new ProductRepository(new CountingDataSource(pool, roundTripNanos));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        new ProductRepository(pool).dropTables();
+        pool.close();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RoundTrips {
+        private long start;
+        public long roundTrips;
+
+        @Setup(Level.Invocation)
+        public void before() {
+            start = PREPARED.get();
+        }
+
+        @TearDown(Level.Invocation)
+        public void after() {
+            roundTrips += PREPARED.get() - start;
+        }
+    }
+
+    @Benchmark
+    public List<Category> nPlusOne(RoundTrips counter) throws SQLException {
+        List<Category> categories = new ArrayList<>(CATEGORIES);
+        for (int id : categoryIds) {
+            repo.findCategoryWithProducts(id).ifPresent(categories::add);
+        }
+        return categories;
+    }
+
+    @Benchmark
+    public List<Category> batchLoader(RoundTrips counter) {
+        BatchLoader<Integer, Category> loader = repo.categoryLoader();
+        List<CompletableFuture<Optional<Category>>> futures = new ArrayList<>(CATEGORIES);
+        for (int id : categoryIds) {
+            futures.add(loader.load(id));
+        }
+        loader.dispatch();
+        List<Category> categories = new ArrayList<>(CATEGORIES);
+        for (CompletableFuture<Optional<Category>> future : futures) {
+            future.join().ifPresent(categories::add);
+        }
+        return categories;
+    }
+
+    /**
+     * Counts every statement prepared through its connections and delays each by
+     * {@code roundTripNanos}.
+     */
+    private record CountingDataSource(DataSource target, long roundTripNanos) implements DataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection conn = target.getConnection();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        if (method.getName().equals("prepareStatement")) {
+                            PREPARED.incrementAndGet();
+                            if (roundTripNanos > 0) {
+                                LockSupport.parkNanos(roundTripNanos);
+                            }
+                        }
+                        try {
+                            return method.invoke(conn, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            throw new SQLException("Not supported");
+        }
+
+        @Override
+        public PrintWriter getLogWriter() throws SQLException {
+            return target.getLogWriter();
+        }
+
+        @Override
+        public void setLogWriter(PrintWriter out) throws SQLException {
+            target.setLogWriter(out);
+        }
+
+        @Override
+        public void setLoginTimeout(int seconds) throws SQLException {
+            target.setLoginTimeout(seconds);
+        }
+
+        @Override
+        public int getLoginTimeout() throws SQLException {
+            return target.getLoginTimeout();
+        }
+
+        @Override
+        public Logger getParentLogger() {
+            return Logger.getGlobal();
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> iface) throws SQLException {
+            return target.unwrap(iface);
+        }
+
+        @Override
+        public boolean isWrapperFor(Class<?> iface) throws SQLException {
+            return target.isWrapperFor(iface);
+        }
+    }
+}
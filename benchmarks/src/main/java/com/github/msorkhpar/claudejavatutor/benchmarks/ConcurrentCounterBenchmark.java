@@ -0,0 +1,52 @@
+package com.github.msorkhpar.claudejavatutor.benchmarks;
+
+import com.github.msorkhpar.claudejavatutor.concurrencypitfalls.AtomicityViolation;
+import com.github.msorkhpar.claudejavatutor.concurrencypitfalls.DataRace;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contended increments on the counters from {@code 19-concurrency-pitfalls}.
+ * All threads share one counter instance; override the thread count with {@code -t}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(4)
+public class ConcurrentCounterBenchmark {
+
+    private final DataRace.UnsynchronizedCounter unsynchronized = new DataRace.UnsynchronizedCounter();
+    private final DataRace.SynchronizedCounter synchronizedCounter = new DataRace.SynchronizedCounter();
+    private final DataRace.AtomicCounter atomic = new DataRace.AtomicCounter();
+    private final AtomicityViolation.AtomicIncrement atomicIncrement = new AtomicityViolation.AtomicIncrement();
+    private final AtomicityViolation.HighContentionCounter longAdder = new AtomicityViolation.HighContentionCounter();
+
+    @Benchmark
+    public void unsynchronizedCounter() {
+        unsynchronized.increment();
+    }
+
+    @Benchmark
+    public void synchronizedCounter() {
+        synchronizedCounter.increment();
+    }
+
+    @Benchmark
+    public void atomicCounter() {
+        atomic.increment();
+    }
+
+    @Benchmark
+    public void atomicIncrement() {
+        atomicIncrement.increment();
+    }
+
+    @Benchmark
+    public void highContentionCounter() {
+        longAdder.increment();
+    }
+}
@@ -0,0 +1,80 @@
+package com.github.msorkhpar.claudejavatutor.benchmarks;
+
+import com.github.msorkhpar.claudejavatutor.javapersistence.ConnectionPool;
+import com.github.msorkhpar.claudejavatutor.javapersistence.JdbcOperations;
+import com.github.msorkhpar.claudejavatutor.javapersistence.JdbcOperations.Employee;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JdbcOperations#findById(int)} with a new {@code DriverManager} connection per call
+ * versus a {@link ConnectionPool}, with and without its prepared statement cache, on
+ * in-memory H2. Runs with four threads so the pool also sees some contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ConnectionPoolBenchmark {
+
+    private static final String URL = "jdbc:h2:mem:jmh_pool;DB_CLOSE_DELAY=-1";
+    private static final int ROWS = 1_000;
+
+    private ConnectionPool pool;
+    private ConnectionPool cachingPool;
+    private JdbcOperations driverManager;
+    private JdbcOperations pooled;
+    private JdbcOperations pooledCached;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        driverManager = new JdbcOperations(URL, "sa", "");
+        driverManager.dropEmployeeTable();
+        driverManager.createEmployeeTable();
+        for (int i = 0; i < ROWS; i++) {
+            driverManager.insertWithPreparedStatement("Employee " + i, null, 50_000 + i, "Engineering");
+        }
+        pool = ConnectionPool.builder(URL, "sa", "").maxSize(4).build();
+        pooled = new JdbcOperations(pool);
+        cachingPool = ConnectionPool.builder(URL, "sa", "").maxSize(4).statementCacheSize(32).build();
+        pooledCached = new JdbcOperations(cachingPool);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        pool.close();
+        cachingPool.close();
+        driverManager.dropEmployeeTable();
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        int nextId() {
+            next = next % ROWS + 1;
+            return next;
+        }
+    }
+
+    @Benchmark
+    public Optional<Employee> findByIdDriverManager(Cursor cursor) throws SQLException {
+        return driverManager.findById(cursor.nextId());
+    }
+
+    @Benchmark
+    public Optional<Employee> findByIdPooled(Cursor cursor) throws SQLException {
+        return pooled.findById(cursor.nextId());
+    }
+
+    @Benchmark
+    public Optional<Employee> findByIdPooledStatementCache(Cursor cursor) throws SQLException {
+        return pooledCached.findById(cursor.nextId());
+    }
+}
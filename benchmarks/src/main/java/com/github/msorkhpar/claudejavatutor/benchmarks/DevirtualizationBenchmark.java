@@ -0,0 +1,43 @@
+package com.github.msorkhpar.claudejavatutor.benchmarks;
+
+import com.github.msorkhpar.claudejavatutor.jvminternals.JitCompilation.DevirtualizationDemo;
+import com.github.msorkhpar.claudejavatutor.jvminternals.JitCompilation.DevirtualizationDemo.Shape;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Monomorphic vs megamorphic call sites in {@link DevirtualizationDemo#totalArea(List)}.
+ * Each variant runs in its own fork so the profile of one cannot pollute the other.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class DevirtualizationBenchmark {
+
+    @Param({"10000"})
+    private int count;
+
+    private List<Shape> monomorphic;
+    private List<Shape> megamorphic;
+
+    @Setup
+    public void setUp() {
+        monomorphic = DevirtualizationDemo.createMonomorphicShapes(count);
+        megamorphic = DevirtualizationDemo.createMegamorphicShapes(count);
+    }
+
+    @Benchmark
+    public int monomorphicTotalArea() {
+        return DevirtualizationDemo.totalArea(monomorphic);
+    }
+
+    @Benchmark
+    public int megamorphicTotalArea() {
+        return DevirtualizationDemo.totalArea(megamorphic);
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.msorkhpar.claudejavatutor.benchmarks;
+
+import com.github.msorkhpar.claudejavatutor.base.MetricsRegistry;
+import com.github.msorkhpar.claudejavatutor.javapersistence.ConnectionPool;
+import com.github.msorkhpar.claudejavatutor.javapersistence.OrmPatterns.Product;
+import com.github.msorkhpar.claudejavatutor.javapersistence.OrmPatterns.ProductRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A catalogue workload of 95% {@link ProductRepository#findById} and 5% {@link ProductRepository#save}
+ * over {@value #PRODUCTS} products, on a pooled repository with and without the second-level
+ * cache. The cache holds every product, so the cached variant misses only after an update.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class EntityCacheBenchmark {
+
+    private static final String URL = "jdbc:h2:mem:jmh_entity_cache;DB_CLOSE_DELAY=-1";
+    private static final int PRODUCTS = 1_000;
+    private static final int WRITE_PERCENT = 5;
+
+    private ConnectionPool pool;
+    private ProductRepository uncached;
+    private ProductRepository cached;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        pool = ConnectionPool.builder(URL, "sa", "").maxSize(4).statementCacheSize(16).build();
+        uncached = new ProductRepository(pool);
+        uncached.dropTables();
+        uncached.createTables();
+        int categoryId = uncached.saveCategory("Catalogue");
+        for (int i = 0; i < PRODUCTS; i++) {
+            uncached.save(new Product(0, "Product " + i, 10 + i, categoryId));
+        }
+        MetricsRegistry metrics = new MetricsRegistry();
+        cached = new ProductRepository(pool, ProductRepository.productCache(PRODUCTS, metrics),
+                ProductRepository.categoryCache(16, metrics));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        uncached.dropTables();
+        pool.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Workload {
+        final SplittableRandom random = new SplittableRandom(42);
+    }
+
+    private static Optional<Product> step(ProductRepository repo, Workload workload) throws SQLException {
+        int id = workload.random.nextInt(PRODUCTS) + 1;
+        Optional<Product> product = repo.findById(id);
+        if (product.isPresent() && workload.random.nextInt(100) < WRITE_PERCENT) {
+            Product p = product.get();
+            p.setPrice(p.getPrice() + 1);
+            repo.save(p);
+        }
+        return product;
+    }
+
+    @Benchmark
+    public Optional<Product> withoutCache(Workload workload) throws SQLException {
+        return step(uncached, workload);
+    }
+
+    @Benchmark
+    public Optional<Product> withSecondLevelCache(Workload workload) throws SQLException {
+        return step(cached, workload);
+    }
+}
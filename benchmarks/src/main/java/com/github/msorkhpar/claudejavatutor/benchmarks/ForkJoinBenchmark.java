@@ -0,0 +1,64 @@
+package com.github.msorkhpar.claudejavatutor.benchmarks;
+
+import com.github.msorkhpar.claudejavatutor.forkjoin.RecursiveTaskExamples.MergeSortTask;
+import com.github.msorkhpar.claudejavatutor.forkjoin.RecursiveTaskExamples.SumTask;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SumTask} and {@link MergeSortTask} against their sequential baselines.
+ * The threshold parameter shows the cost of splitting too finely.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ForkJoinBenchmark {
+
+    @Param({"1000000"})
+    private int size;
+
+    @Param({"100", "10000"})
+    private int threshold;
+
+    private int[] data;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        data = ThreadLocalRandom.current().ints(size, 0, 1_000_000).toArray();
+        pool = ForkJoinPool.commonPool();
+    }
+
+    @Benchmark
+    public long sumSequential() {
+        long sum = 0;
+        for (int value : data) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long sumTask() {
+        return pool.invoke(new SumTask(data, 0, data.length, threshold));
+    }
+
+    @Benchmark
+    public int[] sortSequential() {
+        int[] copy = Arrays.copyOf(data, data.length);
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public int[] mergeSortTask() {
+        return pool.invoke(new MergeSortTask(data));
+    }
+}
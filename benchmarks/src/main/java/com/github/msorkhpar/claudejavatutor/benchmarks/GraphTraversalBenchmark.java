@@ -0,0 +1,66 @@
+package com.github.msorkhpar.claudejavatutor.benchmarks;
+
+import com.github.msorkhpar.claudejavatutor.datastructures.CommonDataStructures.Graph;
+import com.github.msorkhpar.claudejavatutor.datastructures.CsrGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BFS and shortest path over a random directed graph of {@value #VERTICES} vertices and
+ * {@value #EDGES} edges: the adjacency-set {@link Graph} versus its {@link CsrGraph} snapshot.
+ * Run with {@code -prof gc} to compare the per-traversal allocation as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class GraphTraversalBenchmark {
+
+    private static final int VERTICES = 200_000;
+    private static final int EDGES = 2_000_000;
+
+    private Graph<Integer> graph;
+    private CsrGraph<Integer> csr;
+    private int source;
+    private int target;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        graph = new Graph<>(true);
+        for (int v = 0; v < VERTICES; v++) {
+            graph.addVertex(v);
+        }
+        for (int e = 0; e < EDGES; e++) {
+            graph.addEdge(random.nextInt(VERTICES), random.nextInt(VERTICES));
+        }
+        csr = graph.toCsr();
+        source = 0;
+        target = VERTICES - 1;
+    }
+
+    @Benchmark
+    public List<Integer> bfsAdjacencySets() {
+        return graph.bfs(source);
+    }
+
+    @Benchmark
+    public int[] bfsCsr() {
+        return csr.bfs(source);
+    }
+
+    @Benchmark
+    public List<Integer> shortestPathAdjacencySets() {
+        return graph.shortestPath(source, target);
+    }
+
+    @Benchmark
+    public int[] shortestPathCsr() {
+        return csr.shortestPath(source, target);
+    }
+}
@@ -0,0 +1,62 @@
+package com.github.msorkhpar.claudejavatutor.benchmarks;
+
+import com.github.msorkhpar.claudejavatutor.javapersistence.JdbcOperations;
+import com.github.msorkhpar.claudejavatutor.javapersistence.JdbcOperations.Employee;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JdbcOperations#batchInsert(List)} against an in-memory H2 database.
+ * Emails are left null so the UNIQUE constraint does not force a fresh data set per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JdbcBatchInsertBenchmark {
+
+    private static final String URL = "jdbc:h2:mem:jmh_batch;DB_CLOSE_DELAY=-1";
+
+    @Param({"100", "1000"})
+    private int batchSize;
+
+    private JdbcOperations jdbc;
+    private List<Employee> employees;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        jdbc = new JdbcOperations(URL, "sa", "");
+        jdbc.dropEmployeeTable();
+        jdbc.createEmployeeTable();
+        employees = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            employees.add(new Employee(0, "Employee " + i, null, 50_000 + i, "Engineering", true));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (Connection conn = jdbc.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("TRUNCATE TABLE employees");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        jdbc.dropEmployeeTable();
+    }
+
+    @Benchmark
+    public int[] batchInsert() throws SQLException {
+        return jdbc.batchInsert(employees);
+    }
+}
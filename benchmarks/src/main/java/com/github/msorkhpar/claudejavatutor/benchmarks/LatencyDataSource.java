@@ -0,0 +1,79 @@
+package com.github.msorkhpar.claudejavatutor.benchmarks;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+
+/**
+ * Adds simulated latency to an in-memory database: {@code statementNanos} for every prepared
+ * statement (a network round trip) and {@code commitNanos} for every {@code commit()} (an
+ * fsync). The delays park the calling thread, so they cost wall-clock time but no CPU.
+ */
+record LatencyDataSource(DataSource target, long statementNanos, long commitNanos) implements DataSource {
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection conn = target.getConnection();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    long delay = switch (method.getName()) {
+                        case "prepareStatement" -> statementNanos;
+                        case "commit" -> commitNanos;
+                        default -> 0;
+                    };
+                    if (delay > 0) {
+                        LockSupport.parkNanos(delay);
+                    }
+                    try {
+                        return method.invoke(conn, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLException("Not supported");
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return target.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        target.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        target.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return target.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() {
+        return Logger.getGlobal();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return target.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return target.isWrapperFor(iface);
+    }
+}
@@ -0,0 +1,101 @@
+package com.github.msorkhpar.claudejavatutor.benchmarks;
+
+import com.github.msorkhpar.claudejavatutor.javapersistence.ConnectionPool;
+import com.github.msorkhpar.claudejavatutor.javapersistence.OptimisticRetryExecutor;
+import com.github.msorkhpar.claudejavatutor.javapersistence.TransactionControl;
+import com.github.msorkhpar.claudejavatutor.javapersistence.TransactionControl.Account;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@value #THREADS} threads incrementing the balance of one of {@value #ACCOUNTS} hot accounts:
+ * optimistic updates retried immediately on a version clash (what callers of
+ * {@link TransactionControl#updateBalanceOptimistic} do today), the
+ * {@link OptimisticRetryExecutor} with its defaults and with backoff only, and
+ * {@link TransactionControl#updateBalanceWithPessimisticLock} throughout.
+ * <p>
+ * In-memory H2 detects a version clash within microseconds of the read, so a lost race wastes
+ * very little and immediate retries look cheap. {@code roundTripMicros} adds a simulated network
+ * delay per statement, which widens the window between read and write and makes every wasted
+ * attempt cost round trips, as against a server database. Compare the latency percentiles
+ * ({@code -bm sample}) as well as throughput: immediate retries starve unlucky threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(OptimisticContentionBenchmark.THREADS)
+@Fork(1)
+public class OptimisticContentionBenchmark {
+
+    static final int THREADS = 64;
+    private static final String URL = "jdbc:h2:mem:jmh_contention;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000";
+    private static final int ACCOUNTS = 10;
+
+    @Param({"0", "200"})
+    private long roundTripMicros;
+
+    private ConnectionPool pool;
+    private TransactionControl txControl;
+    private OptimisticRetryExecutor retry;
+    private OptimisticRetryExecutor backoffOnly;
+    private int firstId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        pool = ConnectionPool.builder(URL, "sa", "").maxSize(THREADS + 1).build();
+        TransactionControl setup = new TransactionControl(pool);
+        setup.dropAccountsTable();
+        setup.createAccountsTable();
+        firstId = setup.createAccount("owner0", 0.00);
+        for (int i = 1; i < ACCOUNTS; i++) {
+            setup.createAccount("owner" + i, 0.00);
+        }
+        txControl = new TransactionControl(new LatencyDataSource(pool, TimeUnit.MICROSECONDS.toNanos(roundTripMicros), 0));
+        retry = txControl.optimisticRetry().build();
+        backoffOnly = txControl.optimisticRetry().maxAttempts(1000).pessimisticThreshold(2).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        new TransactionControl(pool).dropAccountsTable();
+        pool.close();
+    }
+
+    private int hotAccount() {
+        return firstId + ThreadLocalRandom.current().nextInt(ACCOUNTS);
+    }
+
+    @Benchmark
+    public Account immediateRetry() throws SQLException {
+        int id = hotAccount();
+        while (true) {
+            Account current = txControl.findAccount(id).orElseThrow();
+            try {
+                return txControl.updateBalanceOptimistic(current, current.balance() + 1);
+            } catch (TransactionControl.OptimisticLockException e) {
+                // retry straight away
+            }
+        }
+    }
+
+    @Benchmark
+    public Optional<Account> retryExecutor() throws SQLException {
+        return retry.updateBalance(hotAccount(), balance -> balance + 1);
+    }
+
+    @Benchmark
+    public Optional<Account> backoffOnly() throws SQLException {
+        return backoffOnly.updateBalance(hotAccount(), balance -> balance + 1);
+    }
+
+    @Benchmark
+    public Optional<Account> pessimistic() throws SQLException {
+        return txControl.updateBalanceWithPessimisticLock(hotAccount(), balance -> balance + 1);
+    }
+}
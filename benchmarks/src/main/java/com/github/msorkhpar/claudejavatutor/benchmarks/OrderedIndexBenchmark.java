@@ -0,0 +1,137 @@
+package com.github.msorkhpar.claudejavatutor.benchmarks;
+
+import com.github.msorkhpar.claudejavatutor.datastructures.BPlusTreeMap;
+import com.github.msorkhpar.claudejavatutor.datastructures.LongBPlusTreeMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point lookups and range scans over an ordered index of {@code size} even {@code long} keys:
+ * {@link TreeMap} against {@link BPlusTreeMap} and {@link LongBPlusTreeMap}, both bulk-loaded
+ * with {@code fanout}. Each lookup invocation probes {@value #LOOKUPS} random keys, half of them
+ * absent; each scan invocation reads {@value #SCAN_LENGTH} consecutive entries from a random
+ * start. Run with {@code -prof perfnorm} to see the cache misses behind the difference.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx6g"})
+public class OrderedIndexBenchmark {
+
+    private static final int LOOKUPS = 1024;
+    private static final int SCAN_LENGTH = 1000;
+
+    @Param({"1000000", "10000000"})
+    private int size;
+
+    @Param({"64"})
+    private int fanout;
+
+    private TreeMap<Long, Long> treeMap;
+    private BPlusTreeMap<Long, Long> bPlusTree;
+    private LongBPlusTreeMap<Long> longBPlusTree;
+    private long[] probes;
+    private long[] scanStarts;
+    private int nextScan;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        long[] keys = new long[size];
+        List<Long> values = new ArrayList<>(size);
+        List<SimpleImmutableEntry<Long, Long>> entries = new ArrayList<>(size);
+        treeMap = new TreeMap<>();
+        for (int i = 0; i < size; i++) {
+            keys[i] = 2L * i;
+            Long key = keys[i];
+            values.add(key);
+            entries.add(new SimpleImmutableEntry<>(key, key));
+            treeMap.put(key, key);
+        }
+        bPlusTree = BPlusTreeMap.fromSorted(entries, null, fanout);
+        longBPlusTree = LongBPlusTreeMap.fromSorted(keys, values, fanout);
+
+        SplittableRandom random = new SplittableRandom(42);
+        probes = random.longs(LOOKUPS, 0, 2L * size).toArray();
+        scanStarts = random.longs(LOOKUPS, 0, 2L * (size - SCAN_LENGTH)).toArray();
+    }
+
+    @Benchmark
+    public long treeMapLookups() {
+        long sum = 0;
+        for (long probe : probes) {
+            Long value = treeMap.get(probe);
+            if (value != null) {
+                sum += value;
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long bPlusTreeLookups() {
+        long sum = 0;
+        for (long probe : probes) {
+            Long value = bPlusTree.get(probe);
+            if (value != null) {
+                sum += value;
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long longBPlusTreeLookups() {
+        long sum = 0;
+        for (long probe : probes) {
+            Long value = longBPlusTree.get(probe);
+            if (value != null) {
+                sum += value;
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long treeMapScan() {
+        long from = nextScanStart();
+        long sum = 0;
+        for (Long value : treeMap.subMap(from, from + 2L * SCAN_LENGTH).values()) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long bPlusTreeScan() {
+        long from = nextScanStart();
+        long sum = 0;
+        for (Long value : bPlusTree.subMap(from, from + 2L * SCAN_LENGTH).values()) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long longBPlusTreeScan() {
+        long to = nextScanStart() + 2L * SCAN_LENGTH;
+        long sum = 0;
+        for (var cursor = longBPlusTree.cursorAt(to - 2L * SCAN_LENGTH, true); cursor.next() && cursor.key() < to; ) {
+            sum += cursor.value();
+        }
+        return sum;
+    }
+
+    private long nextScanStart() {
+        long start = scanStarts[nextScan];
+        nextScan = (nextScan + 1) % scanStarts.length;
+        return start;
+    }
+}
@@ -0,0 +1,92 @@
+package com.github.msorkhpar.claudejavatutor.benchmarks;
+
+import com.github.msorkhpar.claudejavatutor.javapersistence.ConnectionPool;
+import com.github.msorkhpar.claudejavatutor.javapersistence.OrmPatterns.Product;
+import com.github.msorkhpar.claudejavatutor.javapersistence.OrmPatterns.ProductRepository;
+import com.github.msorkhpar.claudejavatutor.javapersistence.Page;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fetching page {@code page} of {@value #PAGE_SIZE} products ordered by {@code (price, id)} out
+ * of {@value #PRODUCTS}, with {@code LIMIT ? OFFSET ?} versus
+ * {@link ProductRepository#findPageOrderByPrice} and the token of the previous page. The offset
+ * query reads and discards every earlier row, so its cost grows with the page number; the keyset
+ * query seeks through the {@code (price, id)} index and stays flat.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PaginationBenchmark {
+
+    private static final String URL = "jdbc:h2:mem:jmh_pagination;DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=FALSE";
+    private static final int PRODUCTS = 250_000;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"1", "100", "10000"})
+    private int page;
+
+    private ConnectionPool pool;
+    private ProductRepository repo;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        pool = ConnectionPool.builder(URL, "sa", "").maxSize(2).statementCacheSize(8).build();
+        repo = new ProductRepository(pool);
+        repo.dropTables();
+        repo.createTables();
+        int categoryId = repo.saveCategory("Paged");
+        try (Connection conn = pool.getConnection();
+             PreparedStatement insert = conn.prepareStatement("""
+                     INSERT INTO products (name, price, category_id)
+                     SELECT 'Product ' || X, MOD(X * 7919, 100000) / 100.0, ? FROM SYSTEM_RANGE(1, ?)
+                     """)) {
+            insert.setInt(1, categoryId);
+            insert.setInt(2, PRODUCTS);
+            insert.executeUpdate();
+        }
+        // one page spanning everything before the target page yields its token
+        int skipped = (page - 1) * PAGE_SIZE;
+        token = skipped == 0 ? null : repo.findPageOrderByPrice(skipped, null).nextPageToken();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        repo.dropTables();
+        pool.close();
+    }
+
+    @Benchmark
+    public List<Product> offset() throws SQLException {
+        String sql = "SELECT id, name, price, category_id FROM products ORDER BY price, id LIMIT ? OFFSET ?";
+        List<Product> products = new ArrayList<>(PAGE_SIZE);
+        try (Connection conn = pool.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, PAGE_SIZE);
+            pstmt.setInt(2, (page - 1) * PAGE_SIZE);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    products.add(new Product(rs.getInt("id"), rs.getString("name"), rs.getDouble("price"),
+                            rs.getInt("category_id")));
+                }
+            }
+        }
+        return products;
+    }
+
+    @Benchmark
+    public Page<Product> keyset() throws SQLException {
+        return repo.findPageOrderByPrice(PAGE_SIZE, token);
+    }
+}
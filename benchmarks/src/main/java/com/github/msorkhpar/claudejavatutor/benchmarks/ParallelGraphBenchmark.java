@@ -0,0 +1,69 @@
+package com.github.msorkhpar.claudejavatutor.benchmarks;
+
+import com.github.msorkhpar.claudejavatutor.datastructures.CsrGraph;
+import com.github.msorkhpar.claudejavatutor.datastructures.ParallelGraphAlgorithms;
+import com.github.msorkhpar.claudejavatutor.datastructures.ParallelGraphAlgorithms.DegreeStats;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Strong scaling of {@link ParallelGraphAlgorithms} on an undirected R-MAT graph with
+ * {@code 2^scale} vertices and 16 edges per vertex, on a dedicated {@link ForkJoinPool} of
+ * {@code parallelism} workers; {@code sequentialBfs} is the single-threaded
+ * {@link CsrGraph#bfs(int)} baseline. Parallelism beyond the machine's cores only adds overhead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class ParallelGraphBenchmark {
+
+    @Param({"20"})
+    private int scale;
+
+    @Param({"1", "2", "4", "8"})
+    private int parallelism;
+
+    private CsrGraph<Integer> graph;
+    private ForkJoinPool pool;
+    private ParallelGraphAlgorithms algorithms;
+    private int source;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = CsrGraph.rmat(scale, 16, false, 42);
+        pool = new ForkJoinPool(parallelism);
+        algorithms = new ParallelGraphAlgorithms(pool);
+        // Vertex 0 is the R-MAT hub, so its BFS reaches the giant component
+        source = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public int[] sequentialBfs() {
+        return graph.bfs(source);
+    }
+
+    @Benchmark
+    public int[] directionOptimizingBfs() {
+        return algorithms.bfsLevels(graph, source);
+    }
+
+    @Benchmark
+    public int[] connectedComponents() {
+        return algorithms.connectedComponents(graph);
+    }
+
+    @Benchmark
+    public DegreeStats degreeStatistics() {
+        return algorithms.degreeStatistics(graph);
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.msorkhpar.claudejavatutor.benchmarks;
+
+import com.github.msorkhpar.claudejavatutor.streamsapi.ParallelStreams;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Sequential vs parallel stream pipelines from {@link ParallelStreams}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ParallelStreamsBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int size;
+
+    private final ParallelStreams streams = new ParallelStreams();
+    private List<Integer> data;
+
+    @Setup
+    public void setUp() {
+        data = IntStream.rangeClosed(1, size).boxed().collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public long sumOfSquaresSequential() {
+        return streams.sumOfSquaresSequential(data);
+    }
+
+    @Benchmark
+    public long sumOfSquaresParallel() {
+        return streams.sumOfSquaresParallel(data);
+    }
+
+    @Benchmark
+    public long parallelSum() {
+        return streams.parallelSum(data);
+    }
+
+    @Benchmark
+    public long countPrimesSequential() {
+        return streams.countPrimesSequential(size);
+    }
+
+    @Benchmark
+    public long countPrimesParallel() {
+        return streams.countPrimesParallel(size);
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.msorkhpar.claudejavatutor.benchmarks;
+
+import com.github.msorkhpar.claudejavatutor.base.MetricsRegistry;
+import com.github.msorkhpar.claudejavatutor.javapersistence.ConnectionPool;
+import com.github.msorkhpar.claudejavatutor.javapersistence.JdbcOperations;
+import com.github.msorkhpar.claudejavatutor.javapersistence.JdbcOperations.Employee;
+import com.github.msorkhpar.claudejavatutor.javapersistence.QueryCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A dashboard refreshing {@link JdbcOperations#getAverageSalaryByDepartment} over
+ * {@value #DEPARTMENTS} departments of a {@value #EMPLOYEES}-row table, with
+ * {@code writePercent} of the operations being {@code updateSalary} calls: uncached versus
+ * served from a {@link QueryCache} that every write invalidates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Threads(4)
+@Fork(1)
+public class QueryCacheBenchmark {
+
+    private static final String URL = "jdbc:h2:mem:jmh_querycache;DB_CLOSE_DELAY=-1";
+    private static final int EMPLOYEES = 50_000;
+    private static final int DEPARTMENTS = 10;
+
+    @Param({"0", "1", "10"})
+    private int writePercent;
+
+    private ConnectionPool pool;
+    private JdbcOperations uncached;
+    private JdbcOperations cached;
+    private int firstId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        pool = ConnectionPool.builder(URL, "sa", "").maxSize(8).statementCacheSize(8).build();
+        uncached = new JdbcOperations(pool);
+        uncached.dropEmployeeTable();
+        uncached.createEmployeeTable();
+        List<Employee> employees = new ArrayList<>(EMPLOYEES);
+        for (int i = 0; i < EMPLOYEES; i++) {
+            employees.add(new Employee(0, "Employee " + i, "e" + i + "@example.com", 50_000, "Dept" + (i % DEPARTMENTS), true));
+        }
+        uncached.batchInsert(employees);
+        firstId = uncached.findAll().getFirst().id();
+        cached = new JdbcOperations(pool, new QueryCache("employee", 1_000, Duration.ofMinutes(5), new MetricsRegistry()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        uncached.dropEmployeeTable();
+        pool.close();
+    }
+
+    private Optional<Double> refresh(JdbcOperations jdbc) throws SQLException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextInt(100) < writePercent) {
+            jdbc.updateSalary(firstId + random.nextInt(EMPLOYEES), 40_000 + random.nextInt(60_000));
+            return Optional.empty();
+        }
+        return jdbc.getAverageSalaryByDepartment("Dept" + random.nextInt(DEPARTMENTS));
+    }
+
+    @Benchmark
+    public Optional<Double> uncached() throws SQLException {
+        return refresh(uncached);
+    }
+
+    @Benchmark
+    public Optional<Double> queryCache() throws SQLException {
+        return refresh(cached);
+    }
+}
@@ -0,0 +1,92 @@
+package com.github.msorkhpar.claudejavatutor.benchmarks;
+
+import com.github.msorkhpar.claudejavatutor.reflection.ReflectionPerformance.BenchmarkTarget;
+import com.github.msorkhpar.claudejavatutor.reflection.ReflectionPerformance.MethodCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The access paths timed by hand in {@code ReflectionPerformance}: direct calls,
+ * uncached and cached {@link Method} lookups, {@link MethodHandle} and reflective construction.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ReflectionBenchmark {
+
+    private static final MethodHandle GETTER_HANDLE;
+
+    static {
+        try {
+            GETTER_HANDLE = MethodHandles.lookup().findVirtual(BenchmarkTarget.class, "getValue",
+                    MethodType.methodType(String.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private BenchmarkTarget target;
+    private Method getter;
+    private Method secretProcess;
+    private Constructor<BenchmarkTarget> constructor;
+    private MethodCache methodCache;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        target = new BenchmarkTarget("test");
+        getter = BenchmarkTarget.class.getMethod("getValue");
+        secretProcess = BenchmarkTarget.class.getDeclaredMethod("secretProcess", String.class);
+        secretProcess.setAccessible(true);
+        constructor = BenchmarkTarget.class.getConstructor(String.class);
+        methodCache = new MethodCache();
+    }
+
+    @Benchmark
+    public String directGetter() {
+        return target.getValue();
+    }
+
+    @Benchmark
+    public Object reflectionGetterUncached() throws ReflectiveOperationException {
+        return BenchmarkTarget.class.getMethod("getValue").invoke(target);
+    }
+
+    @Benchmark
+    public Object reflectionGetterCached() throws ReflectiveOperationException {
+        return getter.invoke(target);
+    }
+
+    @Benchmark
+    public String methodHandleGetter() throws Throwable {
+        return (String) GETTER_HANDLE.invokeExact(target);
+    }
+
+    @Benchmark
+    public Object methodCacheLookup() throws ReflectiveOperationException {
+        return methodCache.getMethod(BenchmarkTarget.class, "secretProcess", String.class).invoke(target, "data");
+    }
+
+    @Benchmark
+    public Object privateMethodAccessibleOnce() throws ReflectiveOperationException {
+        return secretProcess.invoke(target, "data");
+    }
+
+    @Benchmark
+    public BenchmarkTarget directConstruction() {
+        return new BenchmarkTarget("value");
+    }
+
+    @Benchmark
+    public BenchmarkTarget reflectionConstruction() throws ReflectiveOperationException {
+        return constructor.newInstance("value");
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.msorkhpar.claudejavatutor.benchmarks;
+
+import com.github.msorkhpar.claudejavatutor.javapersistence.ConnectionPool;
+import com.github.msorkhpar.claudejavatutor.javapersistence.JdbcOperations;
+import com.github.msorkhpar.claudejavatutor.javapersistence.JdbcOperations.Employee;
+import com.github.msorkhpar.claudejavatutor.javapersistence.RoutingDataSource;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JdbcOperations#findById} through a {@link RoutingDataSource} with two replicas, one
+ * {@value #FAST_MICROS} µs and one {@value #SLOW_MICROS} µs of simulated round trip away:
+ * {@code ROUND_ROBIN} splits reads evenly, {@code LEAST_LATENCY} sends nearly all of them to the
+ * fast replica. Each of the three in-memory databases holds the same {@value #EMPLOYEES} rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Threads(4)
+@Fork(1)
+public class ReplicaRoutingBenchmark {
+
+    private static final int EMPLOYEES = 10_000;
+    private static final int FAST_MICROS = 100;
+    private static final int SLOW_MICROS = 1_000;
+
+    @Param({"ROUND_ROBIN", "LEAST_LATENCY"})
+    private RoutingDataSource.Selection selection;
+
+    private final List<ConnectionPool> pools = new ArrayList<>();
+    private JdbcOperations jdbc;
+    private int firstId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        ConnectionPool primary = pool("primary");
+        RoutingDataSource routing = RoutingDataSource.builder("primary", primary)
+                .replica("fast", new LatencyDataSource(pool("fast"), FAST_MICROS * 1_000L, 0))
+                .replica("slow", new LatencyDataSource(pool("slow"), SLOW_MICROS * 1_000L, 0))
+                .selection(selection)
+                .build();
+        jdbc = new JdbcOperations(routing);
+        firstId = new JdbcOperations(primary).findAll().getFirst().id();
+    }
+
+    private ConnectionPool pool(String name) throws SQLException {
+        ConnectionPool pool = ConnectionPool.builder("jdbc:h2:mem:jmh_routing_" + name + ";DB_CLOSE_DELAY=-1", "sa", "")
+                .maxSize(8).statementCacheSize(8).build();
+        pools.add(pool);
+        JdbcOperations target = new JdbcOperations(pool);
+        target.dropEmployeeTable();
+        target.createEmployeeTable();
+        List<Employee> employees = new ArrayList<>(EMPLOYEES);
+        for (int i = 0; i < EMPLOYEES; i++) {
+            employees.add(new Employee(0, "Employee " + i, "e" + i + "@example.com", 50_000, "Dept" + (i % 10), true));
+        }
+        target.batchInsert(employees);
+        return pool;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        for (ConnectionPool pool : pools) {
+            new JdbcOperations(pool).dropEmployeeTable();
+            pool.close();
+        }
+        pools.clear();
+    }
+
+    @Benchmark
+    public Optional<Employee> findById() throws SQLException {
+        return jdbc.findById(firstId + ThreadLocalRandom.current().nextInt(EMPLOYEES));
+    }
+}
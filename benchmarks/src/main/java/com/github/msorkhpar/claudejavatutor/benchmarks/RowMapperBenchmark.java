@@ -0,0 +1,99 @@
+package com.github.msorkhpar.claudejavatutor.benchmarks;
+
+import com.github.msorkhpar.claudejavatutor.javapersistence.ConnectionPool;
+import com.github.msorkhpar.claudejavatutor.javapersistence.JdbcOperations;
+import com.github.msorkhpar.claudejavatutor.javapersistence.JdbcOperations.Employee;
+import com.github.msorkhpar.claudejavatutor.javapersistence.RecordRowMapper;
+import com.github.msorkhpar.claudejavatutor.javapersistence.RowMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Reads every row of a {@code rows}-row employees table and maps it to {@link Employee}: with
+ * {@code rs.getXxx("column")} per cell, with hand-written column indexes, and with the compiled
+ * {@link RecordRowMapper}. The rows are consumed as they are read so that collecting them does
+ * not dominate the comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class RowMapperBenchmark {
+
+    private static final String URL = "jdbc:h2:mem:jmh_rowmapper;DB_CLOSE_DELAY=-1";
+    private static final String SQL = "SELECT id, name, email, salary, department, active FROM employees";
+    private static final RecordRowMapper<Employee> EMPLOYEES = RowMapper.forRecord(Employee.class);
+
+    @Param({"1000000"})
+    private int rows;
+
+    private ConnectionPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        pool = ConnectionPool.builder(URL, "sa", "").maxSize(1).build();
+        JdbcOperations jdbc = new JdbcOperations(pool);
+        jdbc.dropEmployeeTable();
+        jdbc.createEmployeeTable();
+        jdbc.bulkLoader().build().load(IntStream.range(0, rows)
+                .mapToObj(i -> new Employee(0, "Employee " + i, "e" + i + "@example.com", 50_000 + i % 1000,
+                        "Dept" + (i % 10), i % 7 != 0)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        new JdbcOperations(pool).dropEmployeeTable();
+        pool.close();
+    }
+
+    private long scan(RowMapper<Employee> mapper) throws SQLException {
+        long checksum = 0;
+        try (Connection conn = pool.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(SQL)) {
+            pstmt.setFetchSize(1_000);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                RowMapper<Employee> bound = mapper.forResultSet(rs);
+                while (rs.next()) {
+                    Employee employee = bound.mapRow(rs);
+                    checksum += employee.id() + employee.name().length() + (long) employee.salary();
+                }
+            }
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    public long byColumnName() throws SQLException {
+        return scan(rs -> new Employee(
+                rs.getInt("id"),
+                rs.getString("name"),
+                rs.getString("email"),
+                rs.getDouble("salary"),
+                rs.getString("department"),
+                rs.getBoolean("active")));
+    }
+
+    @Benchmark
+    public long byColumnIndex() throws SQLException {
+        return scan(rs -> new Employee(
+                rs.getInt(1),
+                rs.getString(2),
+                rs.getString(3),
+                rs.getDouble(4),
+                rs.getString(5),
+                rs.getBoolean(6)));
+    }
+
+    @Benchmark
+    public long recordRowMapper() throws SQLException {
+        return scan(EMPLOYEES);
+    }
+}
@@ -0,0 +1,93 @@
+package com.github.msorkhpar.claudejavatutor.benchmarks;
+
+import com.github.msorkhpar.claudejavatutor.javapersistence.ConnectionPool;
+import com.github.msorkhpar.claudejavatutor.javapersistence.JdbcOperations;
+import com.github.msorkhpar.claudejavatutor.javapersistence.JdbcOperations.Employee;
+import com.github.msorkhpar.claudejavatutor.javapersistence.SalaryWriteBehind;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A payroll pass of {@value #UPDATES} salary updates spread over {@value #EMPLOYEES} employees,
+ * so each employee is updated about ten times: one {@link JdbcOperations#updateSalary} per
+ * update versus buffered in a {@link SalaryWriteBehind} and flushed at the end of the pass.
+ * {@code roundTripMicros} adds a simulated network round trip to every statement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SalaryUpdateBenchmark {
+
+    private static final String URL = "jdbc:h2:mem:jmh_salaries;DB_CLOSE_DELAY=-1";
+    private static final int EMPLOYEES = 1_000;
+    private static final int UPDATES = 10_000;
+
+    @Param({"0", "200"})
+    private long roundTripMicros;
+
+    private ConnectionPool pool;
+    private JdbcOperations jdbc;
+    private SalaryWriteBehind writeBehind;
+    private int[] ids;
+    private double[] salaries;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        pool = ConnectionPool.builder(URL, "sa", "").maxSize(4).statementCacheSize(8).build();
+        JdbcOperations setup = new JdbcOperations(pool);
+        setup.dropEmployeeTable();
+        setup.createEmployeeTable();
+        List<Employee> employees = new ArrayList<>(EMPLOYEES);
+        for (int i = 0; i < EMPLOYEES; i++) {
+            employees.add(new Employee(0, "Employee " + i, "e" + i + "@example.com", 50_000, "Dept" + (i % 10), true));
+        }
+        setup.batchInsert(employees);
+        int firstId = setup.findAll().getFirst().id();
+
+        SplittableRandom random = new SplittableRandom(42);
+        ids = new int[UPDATES];
+        salaries = new double[UPDATES];
+        for (int i = 0; i < UPDATES; i++) {
+            ids[i] = firstId + random.nextInt(EMPLOYEES);
+            salaries[i] = 40_000 + random.nextInt(60_000);
+        }
+
+        jdbc = new JdbcOperations(new LatencyDataSource(pool, TimeUnit.MICROSECONDS.toNanos(roundTripMicros), 0));
+        writeBehind = jdbc.salaryWriteBehind().build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        writeBehind.close();
+        new JdbcOperations(pool).dropEmployeeTable();
+        pool.close();
+    }
+
+    @Benchmark
+    public int perUpdate() throws SQLException {
+        int updated = 0;
+        for (int i = 0; i < UPDATES; i++) {
+            if (jdbc.updateSalary(ids[i], salaries[i])) {
+                updated++;
+            }
+        }
+        return updated;
+    }
+
+    @Benchmark
+    public int writeBehind() {
+        for (int i = 0; i < UPDATES; i++) {
+            writeBehind.updateSalary(ids[i], salaries[i]);
+        }
+        writeBehind.flush();
+        return writeBehind.pendingCount();
+    }
+}
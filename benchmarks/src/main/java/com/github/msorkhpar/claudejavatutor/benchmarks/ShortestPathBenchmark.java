@@ -0,0 +1,117 @@
+package com.github.msorkhpar.claudejavatutor.benchmarks;
+
+import com.github.msorkhpar.claudejavatutor.datastructures.CsrGraph;
+import com.github.msorkhpar.claudejavatutor.datastructures.ShortestPaths;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point-to-point shortest paths between two interior points of a {@code side x side} grid road
+ * network whose edges weigh a random factor in [1, 1.5). {@code priorityQueueDijkstra} is the textbook
+ * version over boxed adjacency lists and a {@link PriorityQueue} with lazy deletion; the others
+ * run {@link ShortestPaths} over a weighted {@link CsrGraph} with a d-ary heap of {@code arity},
+ * with and without the grid distance to the target as the A* heuristic.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class ShortestPathBenchmark {
+
+    @Param({"1000"})
+    private int side;
+
+    @Param({"2", "4"})
+    private int arity;
+
+    private CsrGraph<Integer> graph;
+    private Map<Integer, List<Edge>> adjacency;
+    private ShortestPaths paths;
+    private int source;
+    private int target;
+
+    private record Edge(int to, double weight) {
+    }
+
+    private record Entry(int vertex, double distance) {
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        int edges = 2 * side * (side - 1);
+        int[] sources = new int[edges];
+        int[] destinations = new int[edges];
+        double[] weights = new double[edges];
+        int e = 0;
+        for (int row = 0; row < side; row++) {
+            for (int col = 0; col < side; col++) {
+                int v = row * side + col;
+                if (col + 1 < side) {
+                    sources[e] = v;
+                    destinations[e] = v + 1;
+                    weights[e++] = 1 + random.nextDouble() / 2;
+                }
+                if (row + 1 < side) {
+                    sources[e] = v;
+                    destinations[e] = v + side;
+                    weights[e++] = 1 + random.nextDouble() / 2;
+                }
+            }
+        }
+        graph = CsrGraph.fromEdges(side * side, sources, destinations, weights, false);
+        adjacency = new HashMap<>();
+        for (int i = 0; i < edges; i++) {
+            adjacency.computeIfAbsent(sources[i], k -> new ArrayList<>()).add(new Edge(destinations[i], weights[i]));
+            adjacency.computeIfAbsent(destinations[i], k -> new ArrayList<>()).add(new Edge(sources[i], weights[i]));
+        }
+        paths = new ShortestPaths(arity);
+        // Across the middle: Dijkstra settles a disc around the source, A* a band towards the target
+        source = side / 2 * side + side / 4;
+        target = side / 2 * side + 3 * side / 4;
+    }
+
+    @Benchmark
+    public double priorityQueueDijkstra() {
+        Map<Integer, Double> distances = new HashMap<>();
+        PriorityQueue<Entry> queue = new PriorityQueue<>(Comparator.comparingDouble(Entry::distance));
+        distances.put(source, 0.0);
+        queue.add(new Entry(source, 0.0));
+        while (!queue.isEmpty()) {
+            Entry current = queue.poll();
+            if (current.distance() > distances.get(current.vertex())) {
+                continue;
+            }
+            if (current.vertex() == target) {
+                return current.distance();
+            }
+            for (Edge edge : adjacency.getOrDefault(current.vertex(), List.of())) {
+                double distance = current.distance() + edge.weight();
+                if (distance < distances.getOrDefault(edge.to(), Double.POSITIVE_INFINITY)) {
+                    distances.put(edge.to(), distance);
+                    queue.add(new Entry(edge.to(), distance));
+                }
+            }
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    @Benchmark
+    public Optional<ShortestPaths.Path> indexedHeapDijkstra() {
+        return paths.dijkstra(graph, source, target);
+    }
+
+    @Benchmark
+    public Optional<ShortestPaths.Path> aStar() {
+        int targetRow = target / side;
+        int targetCol = target % side;
+        // Roads only run along the grid and every edge weighs at least 1, so the Manhattan distance
+        // never overestimates and is much tighter than the straight line
+        return paths.aStar(graph, source, target,
+                v -> Math.abs(v / side - targetRow) + Math.abs(v % side - targetCol));
+    }
+}
@@ -0,0 +1,77 @@
+package com.github.msorkhpar.claudejavatutor.benchmarks;
+
+import com.github.msorkhpar.claudejavatutor.javapersistence.ConnectionPool;
+import com.github.msorkhpar.claudejavatutor.javapersistence.TransactionControl;
+import com.github.msorkhpar.claudejavatutor.javapersistence.TransferEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@value #THREADS} threads moving money between {@value #ACCOUNTS} accounts, each transfer in
+ * its own transaction through {@link TransactionControl#transferWithPessimisticLock} versus
+ * queued on a {@link TransferEngine} that commits a batch of them at a time.
+ * <p>
+ * In-memory H2 commits without touching a disk. {@code commitMicros} adds a simulated fsync to
+ * every {@code commit()}, which is what bounds per-transfer commits on a durable database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(TransferBenchmark.THREADS)
+@Fork(1)
+public class TransferBenchmark {
+
+    static final int THREADS = 16;
+    private static final String URL = "jdbc:h2:mem:jmh_transfers;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000";
+    private static final int ACCOUNTS = 100;
+
+    @Param({"0", "1000"})
+    private long commitMicros;
+
+    private ConnectionPool pool;
+    private TransactionControl txControl;
+    private TransferEngine engine;
+    private int firstId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        pool = ConnectionPool.builder(URL, "sa", "").maxSize(THREADS + 1).build();
+        TransactionControl setup = new TransactionControl(pool);
+        setup.dropAccountsTable();
+        setup.createAccountsTable();
+        firstId = setup.createAccount("owner0", 1_000_000_000.00);
+        for (int i = 1; i < ACCOUNTS; i++) {
+            setup.createAccount("owner" + i, 1_000_000_000.00);
+        }
+        txControl = new TransactionControl(new LatencyDataSource(pool, 0, TimeUnit.MICROSECONDS.toNanos(commitMicros)));
+        engine = txControl.transferEngine().build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        engine.close();
+        new TransactionControl(pool).dropAccountsTable();
+        pool.close();
+    }
+
+    @Benchmark
+    public boolean perTransferCommit() throws SQLException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = firstId + random.nextInt(ACCOUNTS);
+        int to = firstId + random.nextInt(ACCOUNTS);
+        return txControl.transferWithPessimisticLock(from, to, 1.00);
+    }
+
+    @Benchmark
+    public boolean groupCommit() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = firstId + random.nextInt(ACCOUNTS);
+        int to = firstId + random.nextInt(ACCOUNTS);
+        return engine.submit(from, to, 1.00).join();
+    }
+}